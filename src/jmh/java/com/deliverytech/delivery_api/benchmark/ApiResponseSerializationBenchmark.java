@@ -0,0 +1,117 @@
+package com.deliverytech.delivery_api.benchmark;
+
+import com.deliverytech.delivery_api.dto.ApiResponse;
+import com.deliverytech.delivery_api.dto.PagedResponse;
+import com.deliverytech.delivery_api.dto.PedidoResumoDTO;
+import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialização JSON dos envelopes da API (ApiResponse e ApiResponse<PagedResponse>)
+ * com um ObjectMapper montado como o do Spring MVC, com e sem o módulo Blackbird,
+ * por tipo de payload (detalhe de restaurante, página do cardápio, histórico de pedidos)
+ * e o custo extra do gzip aplicado pelo servidor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "50"})
+    public int tamanhoPagina;
+
+    @Param({"padrao", "blackbird"})
+    public String modulo;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<RestauranteResponseDTO> respostaSimples;
+    private ApiResponse<PagedResponse<ProdutoResponseDTO>> respostaPaginada;
+    private ApiResponse<PagedResponse<PedidoResumoDTO>> historicoPedidos;
+
+    @Setup
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(modulo)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+        ModelMapper modelMapper = new ModelMapper();
+
+        respostaSimples = ApiResponse.success(modelMapper.map(Fixtures.restaurante(), RestauranteResponseDTO.class));
+
+        List<Produto> produtos = Fixtures.produtos(tamanhoPagina);
+        List<ProdutoResponseDTO> dtos = produtos.stream()
+                .map(p -> modelMapper.map(p, ProdutoResponseDTO.class))
+                .toList();
+        respostaPaginada = ApiResponse.success(
+                new PagedResponse<>(new PageImpl<>(dtos, PageRequest.of(0, tamanhoPagina), 500)));
+
+        List<PedidoResumoDTO> pedidos = new ArrayList<>(tamanhoPagina);
+        for (int i = 0; i < tamanhoPagina; i++) {
+            PedidoResumoDTO pedido = new PedidoResumoDTO();
+            pedido.setId((long) i + 1);
+            pedido.setNumeroPedido("PED-" + Long.toHexString(0xA0000L + i).toUpperCase());
+            pedido.setDataPedido(LocalDateTime.of(2025, 10, 1, 12, 0).plusHours(i));
+            pedido.setStatus(i % 5 == 0 ? "CANCELADO" : "ENTREGUE");
+            pedido.setValorTotal(new BigDecimal("42.90").add(BigDecimal.valueOf(i)));
+            pedido.setNomeRestaurante(Fixtures.restaurante().getNome());
+            pedidos.add(pedido);
+        }
+        historicoPedidos = ApiResponse.success(
+                new PagedResponse<>(new PageImpl<>(pedidos, PageRequest.of(0, tamanhoPagina), 500)));
+    }
+
+    @Benchmark
+    public byte[] respostaSimples() throws Exception {
+        return objectMapper.writeValueAsBytes(respostaSimples);
+    }
+
+    @Benchmark
+    public byte[] respostaPaginada() throws Exception {
+        return objectMapper.writeValueAsBytes(respostaPaginada);
+    }
+
+    @Benchmark
+    public byte[] historicoPedidos() throws Exception {
+        return objectMapper.writeValueAsBytes(historicoPedidos);
+    }
+
+    // Serialização + gzip (o que server.compression faz acima de 1KB)
+    @Benchmark
+    public byte[] respostaPaginadaGzip() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(tamanhoPagina * 80);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            objectMapper.writeValue(gzip, respostaPaginada);
+        }
+        return saida.toByteArray();
+    }
+}
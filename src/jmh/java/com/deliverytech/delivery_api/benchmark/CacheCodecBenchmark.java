@@ -0,0 +1,113 @@
+package com.deliverytech.delivery_api.benchmark;
+
+import com.deliverytech.delivery_api.cache.BinaryCacheValueCodec;
+import com.deliverytech.delivery_api.cache.CacheEntry;
+import com.deliverytech.delivery_api.cache.JdkCacheValueCodec;
+import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codecs de valores de cache: uma página de cardápio (CacheEntry + Page<ProdutoResponseDTO>)
+ * em serialização Java, JSON (Jackson) e no formato binário. O tamanho de cada representação
+ * é impresso no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    /** Forma que um codec JSON gravaria (PageImpl não é desserializável pelo Jackson). */
+    public record PaginaJson(List<ProdutoResponseDTO> content, int page, int size, long total,
+                             long refreshAt, long computeMillis) {
+    }
+
+    @Param({"10", "50"})
+    public int tamanhoPagina;
+
+    private final JdkCacheValueCodec jdk = new JdkCacheValueCodec();
+    private final BinaryCacheValueCodec binary = new BinaryCacheValueCodec(1024);
+    private final ObjectMapper json = new ObjectMapper();
+
+    private CacheEntry entry;
+    private PaginaJson pagina;
+    private byte[] jdkBytes;
+    private byte[] binaryBytes;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        List<ProdutoResponseDTO> produtos = new ArrayList<>();
+        for (int i = 0; i < tamanhoPagina; i++) {
+            ProdutoResponseDTO p = new ProdutoResponseDTO();
+            p.setId(100L + i);
+            p.setNome("Pizza Especial " + i);
+            p.setDescricao("Molho de tomate fresco, mussarela de búfala, manjericão e azeite extra virgem");
+            p.setPreco(new BigDecimal("45.50").add(BigDecimal.valueOf(i)));
+            p.setCategoria("Pizzas Tradicionais");
+            p.setDisponivel(i % 7 != 0);
+            p.setRestauranteId(1L);
+            produtos.add(p);
+        }
+        Page<ProdutoResponseDTO> page = new PageImpl<>(produtos, PageRequest.of(0, tamanhoPagina), 240);
+        entry = new CacheEntry(page, System.currentTimeMillis(), 12);
+        pagina = new PaginaJson(produtos, 0, tamanhoPagina, 240, entry.refreshAt(), entry.computeMillis());
+
+        jdkBytes = jdk.encode(entry);
+        binaryBytes = binary.encode(entry);
+        jsonBytes = json.writeValueAsBytes(pagina);
+        System.out.printf("%n[bytes/entrada] pagina=%d jdk=%d json=%d binary=%d%n",
+                tamanhoPagina, jdkBytes.length, jsonBytes.length, binaryBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJdk() {
+        return jdk.encode(entry);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return json.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return binary.encode(entry);
+    }
+
+    @Benchmark
+    public Object decodeJdk() {
+        return jdk.decode(jdkBytes);
+    }
+
+    @Benchmark
+    public Object decodeJson() throws Exception {
+        return json.readValue(jsonBytes, PaginaJson.class);
+    }
+
+    @Benchmark
+    public Object decodeBinary() {
+        return binary.decode(binaryBytes);
+    }
+}
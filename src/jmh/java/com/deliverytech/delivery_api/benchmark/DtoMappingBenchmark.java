@@ -0,0 +1,66 @@
+package com.deliverytech.delivery_api.benchmark;
+
+import com.deliverytech.delivery_api.config.ModelMapperConfig;
+import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamento entidade -> DTO com o ModelMapper configurado pela aplicação,
+ * incluindo o Page.map usado nas listagens paginadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private Produto produto;
+    private Restaurante restaurante;
+    private Page<Produto> pagina;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        List<Produto> produtos = Fixtures.produtos(20);
+        produto = produtos.get(0);
+        restaurante = Fixtures.restaurante();
+        pagina = new PageImpl<>(produtos, PageRequest.of(0, 20), 100);
+    }
+
+    @Benchmark
+    public ProdutoResponseDTO produtoParaDto() {
+        return modelMapper.map(produto, ProdutoResponseDTO.class);
+    }
+
+    @Benchmark
+    public RestauranteResponseDTO restauranteParaDto() {
+        return modelMapper.map(restaurante, RestauranteResponseDTO.class);
+    }
+
+    @Benchmark
+    public Page<ProdutoResponseDTO> paginaDeProdutosParaDto() {
+        return pagina.map(p -> modelMapper.map(p, ProdutoResponseDTO.class));
+    }
+}
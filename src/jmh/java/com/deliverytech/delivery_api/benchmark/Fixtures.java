@@ -0,0 +1,42 @@
+package com.deliverytech.delivery_api.benchmark;
+
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dados fixos usados pelos benchmarks (sem banco).
+ */
+final class Fixtures {
+
+    static final long RESTAURANTE_ID = 1L;
+
+    private Fixtures() {
+    }
+
+    static Restaurante restaurante() {
+        Restaurante r = new Restaurante();
+        r.setId(RESTAURANTE_ID);
+        r.setNome("Pizzaria Bella Italia");
+        r.setCategoria("Italiana");
+        r.setEndereco("Av. Paulista, 1000, São Paulo/SP");
+        r.setTelefone("(11) 3333-4444");
+        r.setTaxaEntrega(new BigDecimal("5.99"));
+        r.setAvaliacao(new BigDecimal("4.7"));
+        r.setAtivo(true);
+        return r;
+    }
+
+    static List<Produto> produtos(int quantidade) {
+        List<Produto> produtos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            produtos.add(new Produto(100L + i, "Pizza Especial " + i,
+                    "Molho de tomate fresco, mussarela de búfala e manjericão",
+                    new BigDecimal("45.50").add(BigDecimal.valueOf(i)), "Pizzas Tradicionais", true, RESTAURANTE_ID));
+        }
+        return produtos;
+    }
+}
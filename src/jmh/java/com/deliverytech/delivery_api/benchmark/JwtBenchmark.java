@@ -0,0 +1,65 @@
+package com.deliverytech.delivery_api.benchmark;
+
+import com.deliverytech.delivery_api.entity.Usuario;
+import com.deliverytech.delivery_api.enums.Role;
+import com.deliverytech.delivery_api.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil: geração do token no login e o caminho executado pelo JwtAuthenticationFilter
+ * em toda requisição autenticada (extrair o subject e validar).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "mySecretKey123456789012345678901234567890");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+
+        usuario = new Usuario();
+        usuario.setId(42L);
+        usuario.setEmail("cliente@email.com");
+        usuario.setNome("Cliente Benchmark");
+        usuario.setRole(Role.CLIENTE);
+        usuario.setAtivo(true);
+        token = jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String extrairUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validarToken() {
+        return jwtUtil.validateToken(token, usuario);
+    }
+}
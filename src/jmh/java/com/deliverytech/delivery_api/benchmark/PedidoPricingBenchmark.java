@@ -0,0 +1,80 @@
+package com.deliverytech.delivery_api.benchmark;
+
+import com.deliverytech.delivery_api.dto.ItemPedidoDTO;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.services.PedidoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * PedidoService.calcularTotalPedido com o repositório de produtos em memória,
+ * isolando o custo do cálculo (validações + BigDecimal) do acesso ao banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PedidoPricingBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int quantidadeItens;
+
+    private PedidoService pedidoService;
+    private List<ItemPedidoDTO> itens;
+    private final BigDecimal taxaEntrega = new BigDecimal("5.99");
+
+    @Setup
+    public void setup() {
+        Map<Long, Produto> produtos = Fixtures.produtos(quantidadeItens).stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+
+        ProdutoRepository repository = (ProdutoRepository) Proxy.newProxyInstance(
+                ProdutoRepository.class.getClassLoader(), new Class<?>[] {ProdutoRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(produtos.get(args[0]));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "ProdutoRepository(em memória)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        pedidoService = new PedidoService();
+        ReflectionTestUtils.setField(pedidoService, "produtoRepository", repository);
+
+        itens = new ArrayList<>();
+        for (Long produtoId : produtos.keySet()) {
+            ItemPedidoDTO item = new ItemPedidoDTO();
+            item.setProdutoId(produtoId);
+            item.setQuantidade(2);
+            itens.add(item);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calcularTotalPedido() {
+        return pedidoService.calcularTotalPedido(itens, Fixtures.RESTAURANTE_ID, taxaEntrega);
+    }
+}
@@ -0,0 +1,85 @@
+package com.deliverytech.delivery_api.benchmark;
+
+import com.deliverytech.delivery_api.config.DespachoProperties;
+import com.deliverytech.delivery_api.config.RastreamentoProperties;
+import com.deliverytech.delivery_api.despacho.DespachoService;
+import com.deliverytech.delivery_api.dto.LotePosicoesDTO;
+import com.deliverytech.delivery_api.rastreamento.RastreamentoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingestão de posições dos entregadores (PUT /posicao e POST /posicoes) sem HTTP nem banco:
+ * buffer circular da trilha + índice do despacho. O score sai em pontos por segundo;
+ * a meta da funcionalidade é 50 mil pontos/s por instância.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class RastreamentoBenchmark {
+
+    private static final int PONTOS_POR_LOTE = 20;
+
+    private RastreamentoService rastreamento;
+    private final AtomicLong proximoEntregador = new AtomicLong(1);
+
+    /** Cada thread simula um entregador diferente, como o app de cada um enviando a própria trilha. */
+    @State(Scope.Thread)
+    public static class Entregador {
+
+        long id;
+        LotePosicoesDTO lote;
+
+        @Setup
+        public void setup(RastreamentoBenchmark benchmark) {
+            id = benchmark.proximoEntregador.getAndIncrement();
+            double[] latitudes = new double[PONTOS_POR_LOTE];
+            double[] longitudes = new double[PONTOS_POR_LOTE];
+            for (int i = 0; i < PONTOS_POR_LOTE; i++) {
+                latitudes[i] = -23.5613 + i * 0.0001;
+                longitudes[i] = -46.6565 + (id % 100) * 0.001;
+            }
+            lote = new LotePosicoesDTO(latitudes, longitudes, new long[PONTOS_POR_LOTE], true);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        // Só o índice de posições do despacho é usado: sem rodadas, repositórios nem agendador
+        DespachoService despacho = new DespachoService(new DespachoProperties(), null, null, null, null);
+        rastreamento = new RastreamentoService(new RastreamentoProperties(), despacho, null, null, null,
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PONTOS_POR_LOTE)
+    public void registrarLote(Entregador entregador) {
+        // Instantes atuais: pontos mais antigos que o último da trilha seriam descartados
+        Arrays.fill(entregador.lote.getInstantes(), System.currentTimeMillis());
+        rastreamento.registrarLote(entregador.id, entregador.lote);
+    }
+
+    @Benchmark
+    public void registrarPontoUnico(Entregador entregador) {
+        rastreamento.registrar(entregador.id, -23.5613, -46.6565, true);
+    }
+}
@@ -0,0 +1,103 @@
+package com.deliverytech.delivery_api.benchmark;
+
+import com.deliverytech.delivery_api.dto.RestauranteRequestDTO;
+import com.deliverytech.delivery_api.validation.CEPValidator;
+import com.deliverytech.delivery_api.validation.HorarioFuncionamentoValidator;
+import com.deliverytech.delivery_api.validation.TelefoneValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validadores do pacote validation: chamadas diretas ao isValid e a validação completa
+ * (Hibernate Validator) do RestauranteRequestDTO, que usa todos eles, válido e inválido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final CEPValidator cepValidator = new CEPValidator();
+    private final TelefoneValidator telefoneValidator = new TelefoneValidator();
+    private final HorarioFuncionamentoValidator horarioValidator = new HorarioFuncionamentoValidator();
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private RestauranteRequestDTO valido;
+    private RestauranteRequestDTO invalido;
+
+    @Setup
+    public void setup() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+
+        valido = new RestauranteRequestDTO();
+        valido.setNome("Pizzaria Bella Italia");
+        valido.setCategoria("Italiana");
+        valido.setEndereco("Av. Paulista, 1000, São Paulo/SP");
+        valido.setCep("01310-100");
+        valido.setTelefone("(11) 3333-4444");
+        valido.setTaxaEntrega(new BigDecimal("5.99"));
+        valido.setTempoEntregaEstimado(45);
+        valido.setHorarioFuncionamento("18:00-23:30");
+
+        invalido = new RestauranteRequestDTO();
+        invalido.setNome("P");
+        invalido.setCategoria("Mexicana");
+        invalido.setEndereco("Rua sem número");
+        invalido.setCep("0131");
+        invalido.setTelefone("123");
+        invalido.setTaxaEntrega(new BigDecimal("-1"));
+        invalido.setTempoEntregaEstimado(5);
+        invalido.setHorarioFuncionamento("25:00-26:00");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public boolean cep() {
+        return cepValidator.isValid("01310-100", null);
+    }
+
+    @Benchmark
+    public boolean telefone() {
+        return telefoneValidator.isValid("(11) 98888-7777", null);
+    }
+
+    @Benchmark
+    public boolean horarioFuncionamento() {
+        return horarioValidator.isValid("18:00-23:30", null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RestauranteRequestDTO>> restauranteValido() {
+        return validator.validate(valido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RestauranteRequestDTO>> restauranteInvalido() {
+        return validator.validate(invalido);
+    }
+}
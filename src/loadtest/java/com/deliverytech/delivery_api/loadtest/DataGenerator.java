@@ -0,0 +1,198 @@
+package com.deliverytech.delivery_api.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Gera um dataset sintético (restaurantes, cardápios, clientes, usuários e meses de pedidos)
+ * com inserts JDBC em lote. A popularidade dos restaurantes é enviesada (poucos concentram
+ * a maior parte dos pedidos), como em produção. Com a mesma seed o dataset é o mesmo.
+ */
+public class DataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+
+    private static final String[] CATEGORIAS_RESTAURANTE = {"Italiana", "Hamburgueria", "Japonesa", "Lanches", "Indiana", "Pizza"};
+    private static final String[] CATEGORIAS_PRODUTO = {"Pizza", "Massa", "Lanche", "Bebida", "Sobremesa", "Porção"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final LoadTestProperties props;
+    private final Random random;
+
+    public DataGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, LoadTestProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.props = props;
+        this.random = new Random(props.getSeed());
+    }
+
+    public Dataset gerar() {
+        long inicio = System.nanoTime();
+
+        List<Long> restauranteIds = gerarRestaurantes();
+        Map<Long, List<Long>> produtos = gerarProdutos(restauranteIds);
+        List<Long> clienteIds = gerarClientes();
+        List<Dataset.ClienteVirtual> clientesVirtuais = gerarUsuarios(clienteIds);
+        long pedidos = gerarPedidos(restauranteIds, clienteIds);
+
+        log.info("Dataset gerado em {} ms: {} restaurantes, {} produtos, {} clientes, {} pedidos",
+                (System.nanoTime() - inicio) / 1_000_000, restauranteIds.size(),
+                restauranteIds.size() * props.getProdutosPorRestaurante(), clienteIds.size(), pedidos);
+
+        return new Dataset(restauranteIds, produtos, clientesVirtuais, "admin@loadtest.local", props.getSenha());
+    }
+
+    private List<Long> gerarRestaurantes() {
+        List<Object[]> linhas = new ArrayList<>();
+        for (int i = 0; i < props.getRestaurantes(); i++) {
+            int soma = 30 + random.nextInt(21);
+            linhas.add(new Object[] {
+                    "Restaurante LT " + i,
+                    CATEGORIAS_RESTAURANTE[i % CATEGORIAS_RESTAURANTE.length],
+                    "Rua Carga, " + i + " - São Paulo/SP",
+                    "(11) 3" + String.format("%03d", i % 1000) + "-0000",
+                    decimal(0, 12),
+                    BigDecimal.valueOf(soma, 1),
+                    10,
+                    soma,
+                    true
+            });
+        }
+        // Média semeada como 10 notas: a agregação das avaliações novas parte de soma/total, não da média
+        inserir("INSERT INTO restaurantes (nome, categoria, endereco, telefone, taxa_entrega, avaliacao, "
+                + "total_avaliacoes, soma_avaliacoes, ativo) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", linhas);
+        return jdbcTemplate.queryForList("SELECT id FROM restaurantes ORDER BY id", Long.class);
+    }
+
+    private Map<Long, List<Long>> gerarProdutos(List<Long> restauranteIds) {
+        List<Object[]> linhas = new ArrayList<>();
+        for (Long restauranteId : restauranteIds) {
+            for (int i = 0; i < props.getProdutosPorRestaurante(); i++) {
+                linhas.add(new Object[] {
+                        "Produto " + restauranteId + "-" + i,
+                        "Descrição do produto " + i + " do restaurante " + restauranteId,
+                        decimal(8, 90),
+                        CATEGORIAS_PRODUTO[i % CATEGORIAS_PRODUTO.length],
+                        true,
+                        restauranteId
+                });
+            }
+        }
+        inserir("INSERT INTO produtos (nome, descricao, preco, categoria, disponivel, restaurante_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", linhas);
+
+        Map<Long, List<Long>> porRestaurante = new HashMap<>();
+        jdbcTemplate.query("SELECT id, restaurante_id FROM produtos ORDER BY id", rs -> {
+            porRestaurante.computeIfAbsent(rs.getLong(2), k -> new ArrayList<>()).add(rs.getLong(1));
+        });
+        return porRestaurante;
+    }
+
+    private List<Long> gerarClientes() {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> linhas = new ArrayList<>();
+        for (int i = 0; i < props.getClientes(); i++) {
+            linhas.add(new Object[] {
+                    "Cliente LT " + i, emailCliente(i), "(11) 9" + String.format("%04d", i % 10_000) + "-0000",
+                    "Rua Cliente, " + i + " - São Paulo/SP", agora, true
+            });
+        }
+        inserir("INSERT INTO clientes (nome, email, telefone, endereco, data_cadastro, ativo) VALUES (?, ?, ?, ?, ?, ?)", linhas);
+        return jdbcTemplate.queryForList("SELECT id FROM clientes ORDER BY id", Long.class);
+    }
+
+    /**
+     * Um usuário ADMIN e um usuário CLIENTE por usuário virtual do cenário, com o mesmo e-mail do
+     * cliente de mesma posição (os clientes são lidos na ordem de inserção).
+     * O hash BCrypt é calculado uma única vez (é caro de propósito).
+     */
+    private List<Dataset.ClienteVirtual> gerarUsuarios(List<Long> clienteIds) {
+        String hash = passwordEncoder.encode(props.getSenha());
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Dataset.ClienteVirtual> clientesVirtuais = new ArrayList<>();
+        List<Object[]> linhas = new ArrayList<>();
+        linhas.add(new Object[] {"Admin Carga", "admin@loadtest.local", hash, "ADMIN", true, agora});
+        int quantidade = Math.min(props.getUsuariosVirtuais(), clienteIds.size());
+        for (int i = 0; i < quantidade; i++) {
+            clientesVirtuais.add(new Dataset.ClienteVirtual(emailCliente(i), clienteIds.get(i)));
+            linhas.add(new Object[] {"Cliente LT " + i, emailCliente(i), hash, "CLIENTE", true, agora});
+        }
+        inserir("INSERT INTO usuarios (nome, email, senha, role, ativo, data_criacao) VALUES (?, ?, ?, ?, ?, ?)", linhas);
+        return clientesVirtuais;
+    }
+
+    private long gerarPedidos(List<Long> restauranteIds, List<Long> clienteIds) {
+        String sql = "INSERT INTO pedidos (numero_pedido, data_pedido, status, valor_total, observacoes, cliente_id, restaurante_id, itens) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDateTime fim = LocalDateTime.now();
+        long minutosNoPeriodo = java.time.Duration.between(fim.minusMonths(props.getMeses()), fim).toMinutes();
+        long total = (long) props.getPedidosPorDia() * minutosNoPeriodo / (24 * 60);
+
+        List<Object[]> lote = new ArrayList<>(props.getTamanhoLote());
+        for (long i = 0; i < total; i++) {
+            int itens = 1 + random.nextInt(4);
+            lote.add(new Object[] {
+                    UUID.randomUUID().toString().substring(0, 10).toUpperCase(),
+                    Timestamp.valueOf(fim.minusMinutes((long) (random.nextDouble() * minutosNoPeriodo))),
+                    statusHistorico(),
+                    decimal(15, 40 * itens),
+                    "",
+                    clienteIds.get(random.nextInt(clienteIds.size())),
+                    restauranteIds.get(indicePopular(restauranteIds.size())),
+                    itens + "x (ID: " + (1 + random.nextInt(1000)) + ")"
+            });
+            if (lote.size() == props.getTamanhoLote()) {
+                jdbcTemplate.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, lote);
+        }
+        return total;
+    }
+
+    /**
+     * Índice enviesado para o início da lista: cerca de 20% dos restaurantes recebem ~50% dos pedidos.
+     */
+    int indicePopular(int tamanho) {
+        double r = random.nextDouble();
+        return Math.min(tamanho - 1, (int) (tamanho * r * r));
+    }
+
+    private String statusHistorico() {
+        int r = random.nextInt(100);
+        if (r < 85) return "ENTREGUE";
+        if (r < 95) return "CANCELADO";
+        return "CONFIRMADO";
+    }
+
+    private BigDecimal decimal(int min, int max) {
+        return BigDecimal.valueOf(min + random.nextDouble() * (max - min)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private void inserir(String sql, List<Object[]> linhas) {
+        for (int i = 0; i < linhas.size(); i += props.getTamanhoLote()) {
+            jdbcTemplate.batchUpdate(sql, linhas.subList(i, Math.min(linhas.size(), i + props.getTamanhoLote())));
+        }
+    }
+
+    private static String emailCliente(int i) {
+        return "cliente" + i + "@loadtest.local";
+    }
+}
@@ -0,0 +1,18 @@
+package com.deliverytech.delivery_api.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ids e credenciais do dataset gerado, usados pelo cenário para montar as requisições.
+ * Cada usuário virtual é um cliente com login próprio: o token dele e o clienteId dos pedidos são do mesmo cliente.
+ */
+public record Dataset(List<Long> restauranteIds,
+                      Map<Long, List<Long>> produtosPorRestaurante,
+                      List<ClienteVirtual> clientesVirtuais,
+                      String emailAdmin,
+                      String senha) {
+
+    public record ClienteVirtual(String email, Long clienteId) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.deliverytech.delivery_api.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registra latências (em microssegundos) por endpoint e calcula throughput e percentis exatos.
+ * Durante o aquecimento as amostras são descartadas.
+ */
+public class LatencyRecorder {
+
+    public record Resumo(String endpoint, long requisicoes, long erros, double throughputPorSegundo,
+                         double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    private static final class Amostras {
+        private long[] valores = new long[1024];
+        private int tamanho;
+        private final LongAdder erros = new LongAdder();
+
+        synchronized void adicionar(long micros) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = micros;
+        }
+
+        synchronized long[] ordenadas() {
+            long[] copia = Arrays.copyOf(valores, tamanho);
+            Arrays.sort(copia);
+            return copia;
+        }
+    }
+
+    private final Map<String, Amostras> porEndpoint = new ConcurrentHashMap<>();
+    private volatile boolean gravando;
+    private volatile long inicioMedicao;
+    private volatile long fimMedicao;
+
+    public void iniciarMedicao() {
+        porEndpoint.clear();
+        inicioMedicao = System.nanoTime();
+        gravando = true;
+    }
+
+    public void encerrarMedicao() {
+        gravando = false;
+        fimMedicao = System.nanoTime();
+    }
+
+    public void registrar(String endpoint, long inicioNanos, boolean sucesso) {
+        if (!gravando) {
+            return;
+        }
+        Amostras amostras = porEndpoint.computeIfAbsent(endpoint, e -> new Amostras());
+        amostras.adicionar((System.nanoTime() - inicioNanos) / 1_000);
+        if (!sucesso) {
+            amostras.erros.increment();
+        }
+    }
+
+    public List<Resumo> resumos() {
+        double segundos = Math.max(1e-9, (fimMedicao - inicioMedicao) / 1e9);
+        List<Resumo> resumos = new ArrayList<>();
+        new TreeMap<>(porEndpoint).forEach((endpoint, amostras) -> {
+            long[] v = amostras.ordenadas();
+            if (v.length == 0) {
+                return;
+            }
+            resumos.add(new Resumo(endpoint, v.length, amostras.erros.sum(), v.length / segundos,
+                    percentil(v, 0.50), percentil(v, 0.90), percentil(v, 0.99), percentil(v, 0.999),
+                    v[v.length - 1] / 1000.0));
+        });
+        return resumos;
+    }
+
+    static double percentil(long[] ordenadas, double p) {
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(ordenadas.length - 1, indice))] / 1000.0;
+    }
+}
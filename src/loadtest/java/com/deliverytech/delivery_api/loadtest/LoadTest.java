@@ -0,0 +1,88 @@
+package com.deliverytech.delivery_api.loadtest;
+
+import com.deliverytech.delivery_api.ProjetoDeliveryApiApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Teste de carga ponta a ponta.
+ *
+ * Sobe a aplicação no perfil "loadtest" (H2 modo MySQL por padrão), gera o dataset sintético,
+ * executa o cenário e registra no log throughput e percentis de latência por endpoint, gravando o
+ * mesmo resumo em JSON (loadtest.saida).
+ * O código do ScenarioRunner diferente de SUCESSO termina o main com exceção, o que falha o "verify".
+ *
+ * Uso: ./mvnw -Ploadtest verify -Dloadtest.args="--loadtest.usuarios-virtuais=200 --loadtest.duracao=2m"
+ */
+public class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    public static void main(String[] args) throws Exception {
+        // O restart do devtools troca o classloader e distorce as medições
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        SpringApplication app = new SpringApplication(ProjetoDeliveryApiApplication.class);
+        app.setAdditionalProfiles("loadtest");
+        app.setRegisterShutdownHook(false);
+
+        int codigo;
+        try (ConfigurableApplicationContext context = app.run(args)) {
+            LoadTestProperties props = Binder.get(context.getEnvironment())
+                    .bindOrCreate("loadtest", LoadTestProperties.class);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            Dataset dataset = new DataGenerator(context.getBean(JdbcTemplate.class),
+                    context.getBean(PasswordEncoder.class), props).gerar();
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            codigo = new ScenarioRunner(baseUrl, dataset, props, recorder).executar();
+
+            List<LatencyRecorder.Resumo> resumos = recorder.resumos();
+            registrar(resumos);
+            gravar(props, resumos);
+        }
+        if (codigo != ScenarioRunner.SUCESSO) {
+            throw new IllegalStateException("Teste de carga falhou (código " + codigo + "), ver o log acima");
+        }
+    }
+
+    private static void registrar(List<LatencyRecorder.Resumo> resumos) {
+        StringBuilder tabela = new StringBuilder(String.format("%n%-45s %9s %7s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "req", "erros", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (LatencyRecorder.Resumo r : resumos) {
+            tabela.append(String.format("%n%-45s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    r.endpoint(), r.requisicoes(), r.erros(), r.throughputPorSegundo(),
+                    r.p50Ms(), r.p90Ms(), r.p99Ms(), r.p999Ms(), r.maxMs()));
+        }
+        log.info("Resultado por endpoint:{}", tabela);
+    }
+
+    private static void gravar(LoadTestProperties props, List<LatencyRecorder.Resumo> resumos) throws Exception {
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("parametros", props);
+        relatorio.put("endpoints", resumos);
+
+        File saida = new File(props.getSaida());
+        if (saida.getParentFile() != null) {
+            saida.getParentFile().mkdirs();
+        }
+        new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(saida, relatorio);
+        log.info("Relatório: {}", saida.getAbsolutePath());
+    }
+}
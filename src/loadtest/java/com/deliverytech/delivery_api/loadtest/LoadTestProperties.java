@@ -0,0 +1,32 @@
+package com.deliverytech.delivery_api.loadtest;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Parâmetros do teste de carga (prefixo "loadtest").
+ * Ligados a partir do Environment da aplicação iniciada pelo LoadTest.
+ */
+@Data
+public class LoadTestProperties {
+
+    // --- Dataset ---
+    private int restaurantes = 50;
+    private int produtosPorRestaurante = 20;
+    private int clientes = 1000;
+    private int meses = 6;
+    private int pedidosPorDia = 300;
+    private int tamanhoLote = 1000;
+    private long seed = 42;
+
+    // --- Cenário ---
+    private int usuariosVirtuais = 50;
+    private Duration aquecimento = Duration.ofSeconds(10);
+    private Duration duracao = Duration.ofSeconds(60);
+    // Fração das iterações que também consultam um relatório (endpoint pesado)
+    private double percentualRelatorios = 0.02;
+    private String senha = "loadtest123";
+
+    private String saida = "target/loadtest-report.json";
+}
@@ -0,0 +1,187 @@
+package com.deliverytech.delivery_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cenário de carga: cada usuário virtual (uma virtual thread) faz login como um cliente e repete o fluxo
+ * navegar restaurantes -> ver cardápio -> calcular carrinho -> fechar pedido -> levar o pedido de CONFIRMADO
+ * até ENTREGUE, consultando de vez em quando um relatório administrativo.
+ * executar() devolve o código de saída do teste de carga.
+ */
+public class ScenarioRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ScenarioRunner.class);
+
+    public static final int SUCESSO = 0;
+    // Nenhuma requisição medida (aquecimento maior que o cenário, aplicação fora do ar...)
+    public static final int SEM_MEDICOES = 1;
+    // Algum usuário virtual parou antes do fim (login recusado, conexão perdida): a carga medida foi menor
+    public static final int USUARIOS_INTERROMPIDOS = 2;
+
+    // Transições feitas pelo admin depois que o cliente fecha o pedido
+    private static final List<String> CADEIA_DE_STATUS = List.of("CONFIRMADO", "PREPARANDO", "SAIU_PARA_ENTREGA", "ENTREGUE");
+
+    private final String baseUrl;
+    private final Dataset dataset;
+    private final LoadTestProperties props;
+    private final LatencyRecorder recorder;
+    private final AtomicInteger interrompidos = new AtomicInteger();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public ScenarioRunner(String baseUrl, Dataset dataset, LoadTestProperties props, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.props = props;
+        this.recorder = recorder;
+    }
+
+    /** @return SUCESSO, SEM_MEDICOES ou USUARIOS_INTERROMPIDOS */
+    public int executar() throws Exception {
+        String tokenAdmin = login(dataset.emailAdmin());
+        long fimNanos = System.nanoTime() + props.getAquecimento().plus(props.getDuracao()).toNanos();
+
+        try (ExecutorService usuarios = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Dataset.ClienteVirtual cliente : dataset.clientesVirtuais()) {
+                usuarios.submit(() -> usuarioVirtual(cliente, tokenAdmin, fimNanos));
+            }
+
+            log.info("Aquecimento de {} com {} usuários virtuais", props.getAquecimento(), dataset.clientesVirtuais().size());
+            TimeUnit.MILLISECONDS.sleep(props.getAquecimento().toMillis());
+            recorder.iniciarMedicao();
+            log.info("Medindo por {}", props.getDuracao());
+            TimeUnit.MILLISECONDS.sleep(props.getDuracao().toMillis());
+            recorder.encerrarMedicao();
+        }
+
+        if (recorder.resumos().isEmpty()) {
+            log.error("Nenhuma requisição medida");
+            return SEM_MEDICOES;
+        }
+        if (interrompidos.get() > 0) {
+            log.error("{} de {} usuários virtuais pararam antes do fim", interrompidos.get(), dataset.clientesVirtuais().size());
+            return USUARIOS_INTERROMPIDOS;
+        }
+        return SUCESSO;
+    }
+
+    private Void usuarioVirtual(Dataset.ClienteVirtual cliente, String tokenAdmin, long fimNanos) {
+        try {
+            String token = login(cliente.email());
+            while (System.nanoTime() < fimNanos) {
+                iteracao(cliente.clienteId(), token, tokenAdmin);
+            }
+        } catch (Exception e) {
+            interrompidos.incrementAndGet();
+            log.warn("Usuário virtual {} interrompido: {}", cliente.email(), e.toString());
+        }
+        return null;
+    }
+
+    private void iteracao(Long clienteId, String token, String tokenAdmin) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> restaurantes = dataset.restauranteIds();
+
+        enviar("GET /api/restaurantes", get("/api/restaurantes?page=" + random.nextInt(5) + "&size=10", null));
+
+        double r = random.nextDouble();
+        Long restauranteId = restaurantes.get(Math.min(restaurantes.size() - 1, (int) (restaurantes.size() * r * r)));
+        enviar("GET /api/restaurantes/{id}/produtos",
+                get("/api/restaurantes/" + restauranteId + "/produtos?size=20", null));
+
+        List<Long> produtos = dataset.produtosPorRestaurante().get(restauranteId);
+        List<Map<String, Object>> itens = new ArrayList<>();
+        int quantidadeItens = 1 + random.nextInt(4);
+        for (int i = 0; i < quantidadeItens; i++) {
+            itens.add(Map.of("produtoId", produtos.get(random.nextInt(produtos.size())), "quantidade", 1 + random.nextInt(3)));
+        }
+        String pedido = objectMapper.writeValueAsString(Map.of(
+                "clienteId", clienteId, "restauranteId", restauranteId, "itens", itens, "observacoes", "teste de carga"));
+
+        enviar("POST /api/pedidos/calcular", post("/api/pedidos/calcular", pedido, token));
+
+        HttpResponse<String> criado = enviar("POST /api/pedidos", post("/api/pedidos", pedido, token));
+        if (criado.statusCode() == 201) {
+            long pedidoId = objectMapper.readTree(criado.body()).path("data").path("id").asLong();
+            for (String status : CADEIA_DE_STATUS) {
+                HttpResponse<String> alterado = enviar("PATCH /api/pedidos/{id}/status",
+                        HttpRequest.newBuilder(uri("/api/pedidos/" + pedidoId + "/status?status=" + status))
+                                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                                .header("Authorization", "Bearer " + tokenAdmin)
+                                .build());
+                if (alterado.statusCode() >= 400) {
+                    break;
+                }
+            }
+        }
+
+        if (random.nextDouble() < props.getPercentualRelatorios()) {
+            enviar("GET /api/relatorios/vendas-por-restaurante", get("/api/relatorios/vendas-por-restaurante", tokenAdmin));
+        }
+    }
+
+    private String login(String email) throws Exception {
+        String corpo = objectMapper.writeValueAsString(Map.of("email", email, "senha", dataset.senha()));
+        HttpResponse<String> resposta = enviar("POST /api/auth/login", post("/api/auth/login", corpo, null));
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("Login falhou para " + email + ": HTTP " + resposta.statusCode());
+        }
+        JsonNode json = objectMapper.readTree(resposta.body());
+        return json.path("data").path("token").asText();
+    }
+
+    private HttpResponse<String> enviar(String endpoint, HttpRequest request) throws Exception {
+        long inicio = System.nanoTime();
+        HttpResponse<String> resposta;
+        try {
+            resposta = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            recorder.registrar(endpoint, inicio, false);
+            throw e;
+        }
+        recorder.registrar(endpoint, inicio, resposta.statusCode() < 400);
+        return resposta;
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+}
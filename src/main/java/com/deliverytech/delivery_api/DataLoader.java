@@ -40,16 +40,16 @@ public class DataLoader implements CommandLineRunner {
             System.out.println(">>> [DataLoader] Populando banco de dados com dados de teste...");
 
             // 1. Inserir Clientes
-            Cliente c1 = new Cliente(null, "Ana Julia", "ana.j@email.com", "(11) 98888-1111", "Rua das Laranjeiras, 10", LocalDateTime.now(), true);
-            Cliente c2 = new Cliente(null, "Bruno Costa", "bruno.costa@email.com", "(21) 97777-2222", "Av. Copacabana, 20", LocalDateTime.now(), true);
-            Cliente c3 = new Cliente(null, "Carla Dias", "carla.d@email.com", "(31) 96666-3333", "Praça da Liberdade, 30", LocalDateTime.now(), true);
+            Cliente c1 = new Cliente(null, "Ana Julia", "ana.j@email.com", "(11) 98888-1111", "Rua das Laranjeiras, 10", LocalDateTime.now(), true, null, null, 0L, 0L);
+            Cliente c2 = new Cliente(null, "Bruno Costa", "bruno.costa@email.com", "(21) 97777-2222", "Av. Copacabana, 20", LocalDateTime.now(), true, null, null, 0L, 0L);
+            Cliente c3 = new Cliente(null, "Carla Dias", "carla.d@email.com", "(31) 96666-3333", "Praça da Liberdade, 30", LocalDateTime.now(), true, null, null, 0L, 0L);
 
             clienteRepository.saveAll(List.of(c1, c2, c3));
             System.out.println(">>> [DataLoader] 3 Clientes salvos.");
 
             // 2. Inserir Restaurantes
-            Restaurante r1 = new Restaurante(null, "Sabor da India", "Indiana", "Rua dos Timbiras, 100", "(11) 4444-5555", new BigDecimal("7.00"), new BigDecimal("4.8"), true);
-            Restaurante r2 = new Restaurante(null, "O Rei do Pastel", "Lanches", "Av. Afonso Pena, 200", "(11) 5555-6666", new BigDecimal("3.00"), new BigDecimal("4.5"), true);
+            Restaurante r1 = new Restaurante(null, "Sabor da India", "Indiana", "Rua dos Timbiras, 100", "(11) 4444-5555", new BigDecimal("7.00"), new BigDecimal("4.8"), true, null, null, 0L, 0L);
+            Restaurante r2 = new Restaurante(null, "O Rei do Pastel", "Lanches", "Av. Afonso Pena, 200", "(11) 5555-6666", new BigDecimal("3.00"), new BigDecimal("4.5"), true, null, null, 0L, 0L);
 
             restauranteRepository.saveAll(List.of(r1, r2));
             System.out.println(">>> [DataLoader] 2 Restaurantes salvos.");
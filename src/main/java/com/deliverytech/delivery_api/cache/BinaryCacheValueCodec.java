@@ -0,0 +1,418 @@
+package com.deliverytech.delivery_api.cache;
+
+import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato binário compacto para os valores de cache.
+ *
+ * Layout: [magic][versão do formato][flags][payload]. O payload é uma sequência de valores
+ * marcados por tag; inteiros usam varint, campos nulos de DTO ficam num bitmask, e os tipos
+ * conhecidos (CacheEntry, Page, List, ProdutoResponseDTO) são gravados campo a campo, sem nomes
+ * de classe. Cada DTO carrega a versão do seu schema: bytes de uma versão diferente (deploy
+ * novo ou antigo) são decodificados como null, ou seja, viram miss em vez de erro.
+ * Tipos desconhecidos caem na serialização Java. Payloads acima do limite são comprimidos
+ * com Deflate quando isso de fato reduz o tamanho.
+ */
+public class BinaryCacheValueCodec implements CacheValueCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryCacheValueCodec.class);
+
+    static final byte MAGIC = (byte) 0xDC;
+    static final byte FORMAT_VERSION = 1;
+    private static final int FLAG_DEFLATE = 1;
+
+    private static final byte T_NULL = 0;
+    private static final byte T_ENTRY = 1;
+    private static final byte T_PAGE = 2;
+    private static final byte T_LIST = 3;
+    private static final byte T_PRODUTO = 4;
+    private static final byte T_JAVA = 127;
+
+    // Incrementar sempre que os campos do ProdutoResponseDTO mudarem
+    static final byte PRODUTO_SCHEMA = 1;
+
+    private final int compressionThreshold;
+    private final SerializingConverter javaSerializer = new SerializingConverter();
+    private final DeserializingConverter javaDeserializer = new DeserializingConverter();
+
+    public BinaryCacheValueCodec(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        Output out = new Output(256);
+        out.write(MAGIC);
+        out.write(FORMAT_VERSION);
+        out.write(0); // flags
+        writeValue(out, value);
+
+        byte[] bytes = out.toByteArray();
+        int payloadLength = bytes.length - 3;
+        if (compressionThreshold > 0 && payloadLength >= compressionThreshold) {
+            byte[] comprimido = deflate(bytes, payloadLength);
+            if (comprimido != null) {
+                return comprimido;
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        if (bytes == null || bytes.length < 3 || bytes[0] != MAGIC || bytes[1] != FORMAT_VERSION) {
+            return null;
+        }
+        try {
+            Input in = (bytes[2] & FLAG_DEFLATE) != 0 ? inflate(bytes) : new Input(bytes, 3);
+            return readValue(in);
+        } catch (IncompatibleSchemaException e) {
+            return null;
+        } catch (RuntimeException | DataFormatException e) {
+            log.debug("Valor de cache ilegível, tratado como miss: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------- escrita
+
+    private void writeValue(Output out, Object value) {
+        if (value == null) {
+            out.write(T_NULL);
+        } else if (value instanceof CacheEntry entry) {
+            out.write(T_ENTRY);
+            out.writeVarLong(entry.refreshAt());
+            out.writeVarLong(Math.max(0, entry.computeMillis()));
+            writeValue(out, entry.value());
+        } else if (value instanceof Page<?> page) {
+            out.write(T_PAGE);
+            writePageable(out, page.getPageable());
+            out.writeVarLong(page.getTotalElements());
+            writeElements(out, page.getContent());
+        } else if (value instanceof List<?> list) {
+            out.write(T_LIST);
+            writeElements(out, list);
+        } else if (value instanceof ProdutoResponseDTO produto) {
+            out.write(T_PRODUTO);
+            out.write(PRODUTO_SCHEMA);
+            writeProduto(out, produto);
+        } else {
+            out.write(T_JAVA);
+            out.writeLengthPrefixed(javaSerializer.convert(value));
+        }
+    }
+
+    private void writeElements(Output out, List<?> elements) {
+        out.writeVarInt(elements.size());
+        for (Object element : elements) {
+            writeValue(out, element);
+        }
+    }
+
+    private void writePageable(Output out, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            out.write(0);
+            return;
+        }
+        out.write(1);
+        out.writeVarInt(pageable.getPageNumber());
+        out.writeVarInt(pageable.getPageSize());
+        List<Sort.Order> orders = pageable.getSort().toList();
+        out.writeVarInt(orders.size());
+        for (Sort.Order order : orders) {
+            out.writeString(order.getProperty());
+            out.write((order.isAscending() ? 0 : 1) | (order.isIgnoreCase() ? 2 : 0));
+        }
+    }
+
+    private void writeProduto(Output out, ProdutoResponseDTO p) {
+        // bits 0-6: campo presente | bit 7: valor de "disponivel"
+        int mask = (p.getId() != null ? 1 : 0)
+                | (p.getNome() != null ? 1 << 1 : 0)
+                | (p.getDescricao() != null ? 1 << 2 : 0)
+                | (p.getPreco() != null ? 1 << 3 : 0)
+                | (p.getCategoria() != null ? 1 << 4 : 0)
+                | (p.getDisponivel() != null ? 1 << 5 : 0)
+                | (p.getRestauranteId() != null ? 1 << 6 : 0)
+                | (Boolean.TRUE.equals(p.getDisponivel()) ? 1 << 7 : 0);
+        out.write(mask);
+        if (p.getId() != null) out.writeVarLong(p.getId());
+        if (p.getNome() != null) out.writeString(p.getNome());
+        if (p.getDescricao() != null) out.writeString(p.getDescricao());
+        if (p.getPreco() != null) out.writeDecimal(p.getPreco());
+        if (p.getCategoria() != null) out.writeString(p.getCategoria());
+        if (p.getRestauranteId() != null) out.writeVarLong(p.getRestauranteId());
+    }
+
+    // ---------------------------------------------------------------- leitura
+
+    private Object readValue(Input in) {
+        byte tag = in.read();
+        switch (tag) {
+            case T_NULL:
+                return null;
+            case T_ENTRY: {
+                long refreshAt = in.readVarLong();
+                long computeMillis = in.readVarLong();
+                return new CacheEntry(readValue(in), refreshAt, computeMillis);
+            }
+            case T_PAGE: {
+                Pageable pageable = readPageable(in);
+                long total = in.readVarLong();
+                List<Object> content = readElements(in);
+                return new PageImpl<>(content, pageable, total);
+            }
+            case T_LIST:
+                return readElements(in);
+            case T_PRODUTO: {
+                byte schema = in.read();
+                if (schema != PRODUTO_SCHEMA) {
+                    throw new IncompatibleSchemaException();
+                }
+                return readProduto(in);
+            }
+            case T_JAVA:
+                return javaDeserializer.convert(in.readBytes());
+            default:
+                throw new IncompatibleSchemaException();
+        }
+    }
+
+    private List<Object> readElements(Input in) {
+        int size = in.readVarInt();
+        List<Object> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(readValue(in));
+        }
+        return elements;
+    }
+
+    private Pageable readPageable(Input in) {
+        if (in.read() == 0) {
+            return Pageable.unpaged();
+        }
+        int number = in.readVarInt();
+        int size = in.readVarInt();
+        int orderCount = in.readVarInt();
+        if (orderCount == 0) {
+            return PageRequest.of(number, size);
+        }
+        List<Sort.Order> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            String property = in.readString();
+            int flags = in.read();
+            Sort.Order order = new Sort.Order((flags & 1) == 0 ? Sort.Direction.ASC : Sort.Direction.DESC, property);
+            orders.add((flags & 2) != 0 ? order.ignoreCase() : order);
+        }
+        return PageRequest.of(number, size, Sort.by(orders));
+    }
+
+    private ProdutoResponseDTO readProduto(Input in) {
+        int mask = in.read() & 0xFF;
+        ProdutoResponseDTO p = new ProdutoResponseDTO();
+        if ((mask & 1) != 0) p.setId(in.readVarLong());
+        if ((mask & 1 << 1) != 0) p.setNome(in.readString());
+        if ((mask & 1 << 2) != 0) p.setDescricao(in.readString());
+        if ((mask & 1 << 3) != 0) p.setPreco(in.readDecimal());
+        if ((mask & 1 << 4) != 0) p.setCategoria(in.readString());
+        if ((mask & 1 << 5) != 0) p.setDisponivel((mask & 1 << 7) != 0);
+        if ((mask & 1 << 6) != 0) p.setRestauranteId(in.readVarLong());
+        return p;
+    }
+
+    // ---------------------------------------------------------------- compressão
+
+    private byte[] deflate(byte[] bytes, int payloadLength) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(bytes, 3, payloadLength);
+            deflater.finish();
+            Output out = new Output(payloadLength / 2 + 16);
+            out.write(MAGIC);
+            out.write(FORMAT_VERSION);
+            out.write(FLAG_DEFLATE);
+            out.writeVarInt(payloadLength);
+            byte[] buffer = new byte[Math.min(8192, payloadLength + 64)];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+                if (out.size() >= bytes.length) {
+                    return null; // não compensa comprimir
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private Input inflate(byte[] bytes) throws DataFormatException {
+        Input header = new Input(bytes, 3);
+        int originalLength = header.readVarInt();
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, header.position(), bytes.length - header.position());
+            byte[] payload = new byte[originalLength];
+            int lidos = 0;
+            while (lidos < originalLength && !inflater.finished()) {
+                int n = inflater.inflate(payload, lidos, originalLength - lidos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("payload comprimido truncado");
+                }
+                lidos += n;
+            }
+            return new Input(payload, 0);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // ---------------------------------------------------------------- primitivas
+
+    private static final class IncompatibleSchemaException extends RuntimeException {
+        IncompatibleSchemaException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        Output(int size) {
+            super(size);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length);
+            write(utf8, 0, utf8.length);
+        }
+
+        void writeLengthPrefixed(byte[] value) {
+            writeVarInt(value.length);
+            write(value, 0, value.length);
+        }
+
+        void writeDecimal(BigDecimal value) {
+            writeVarLong(zigZag(value.scale()));
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() < 63) {
+                write(0);
+                writeVarLong(zigZag(unscaled.longValue()));
+            } else {
+                write(1);
+                writeLengthPrefixed(unscaled.toByteArray());
+            }
+        }
+
+        private static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buf;
+        private int pos;
+
+        Input(byte[] buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        byte read() {
+            if (pos >= buf.length) {
+                throw new IllegalStateException("fim inesperado do valor de cache");
+            }
+            return buf[pos++];
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = read();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalStateException("varint inválido");
+        }
+
+        int readVarInt() {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IllegalStateException("tamanho inválido");
+            }
+            return (int) value;
+        }
+
+        String readString() {
+            int length = readVarInt();
+            checkAvailable(length);
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        byte[] readBytes() {
+            int length = readVarInt();
+            checkAvailable(length);
+            byte[] value = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return value;
+        }
+
+        BigDecimal readDecimal() {
+            int scale = (int) unZigZag(readVarLong());
+            if (read() == 0) {
+                return BigDecimal.valueOf(unZigZag(readVarLong()), scale);
+            }
+            return new BigDecimal(new BigInteger(readBytes()), scale);
+        }
+
+        private void checkAvailable(int length) {
+            if (length > buf.length - pos) {
+                throw new IllegalStateException("valor de cache truncado");
+            }
+        }
+
+        private static long unZigZag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.deliverytech.delivery_api.cache;
+
+import java.io.Serializable;
+
+/**
+ * Valor armazenado no cache junto com os metadados de frescor.
+ *
+ * @param value         o valor retornado pelo método @Cacheable
+ * @param refreshAt     instante (epoch ms) a partir do qual o valor é considerado velho
+ * @param computeMillis quanto tempo custou calcular o valor (usado no refresh antecipado)
+ */
+public record CacheEntry(Object value, long refreshAt, long computeMillis) implements Serializable {
+}
@@ -0,0 +1,16 @@
+package com.deliverytech.delivery_api.cache;
+
+/**
+ * Codec dos valores gravados no cache (Redis).
+ * Implementações: BinaryCacheValueCodec (formato compacto, padrão) e JdkCacheValueCodec.
+ */
+public interface CacheValueCodec {
+
+    byte[] encode(Object value);
+
+    /**
+     * @return o valor decodificado, ou null quando os bytes são de outro formato/versão
+     * ou estão corrompidos (o cache trata como miss e recalcula o valor).
+     */
+    Object decode(byte[] bytes);
+}
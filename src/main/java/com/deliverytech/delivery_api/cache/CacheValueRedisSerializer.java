@@ -0,0 +1,25 @@
+package com.deliverytech.delivery_api.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Adapta um CacheValueCodec ao RedisCacheManager.
+ */
+public class CacheValueRedisSerializer implements RedisSerializer<Object> {
+
+    private final CacheValueCodec codec;
+
+    public CacheValueRedisSerializer(CacheValueCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        return codec.encode(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        return bytes == null ? null : codec.decode(bytes);
+    }
+}
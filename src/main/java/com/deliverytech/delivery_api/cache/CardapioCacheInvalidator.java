@@ -0,0 +1,78 @@
+package com.deliverytech.delivery_api.cache;
+
+import com.deliverytech.delivery_api.transacao.AposCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Invalida só o cardápio cacheado de um restaurante (e as páginas das categorias tocadas),
+ * em vez de limpar "produtos" e "produtosCategoria" inteiros, e os ETags dos produtos alterados em lote.
+ * Dentro de uma transação, a remoção roda depois do commit para ninguém recarregar o valor antigo.
+ */
+@Component
+public class CardapioCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public void invalidarRestaurante(Long restauranteId, Collection<String> categorias) {
+        Set<String> categoriasTocadas = Set.copyOf(categorias);
+        AposCommit.executar(() -> remover(restauranteId, categoriasTocadas));
+    }
+
+    /**
+     * Quando as categorias tocadas não são conhecidas sem consultar os produtos (lote por IDs):
+     * o cardápio do restaurante sai pelo prefixo e as páginas por categoria saem todas.
+     */
+    public void invalidarRestauranteETodasAsCategorias(Long restauranteId) {
+        AposCommit.executar(() -> {
+            removerPorPrefixo("produtos", restauranteId + ":");
+            Cache cache = cacheManager.getCache("produtosCategoria");
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+
+    /**
+     * Remove os ETags guardados dos produtos alterados em lote (o @CacheEvict só cobre um ID).
+     */
+    public void invalidarEtagsProdutos(Collection<Long> produtoIds) {
+        Cache cache = cacheManager.getCache(EtagCache.CACHE);
+        if (cache == null || produtoIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(produtoIds);
+        AposCommit.executar(() -> ids.forEach(id -> cache.evict("produto:" + id)));
+    }
+
+    /**
+     * Lote por categoria: os IDs afetados não são lidos, então saem os ETags de todos os produtos
+     * (cada um é recalculado no próximo GET); os de restaurantes e pedidos ficam.
+     */
+    public void invalidarEtagsTodosProdutos() {
+        AposCommit.executar(() -> removerPorPrefixo(EtagCache.CACHE, "produto:"));
+    }
+
+    private void remover(Long restauranteId, Set<String> categorias) {
+        // Chaves seguem o @Cacheable do ProdutoService: "<restauranteId>:<pageable>" e "<categoria>:<pageable>"
+        removerPorPrefixo("produtos", restauranteId + ":");
+        for (String categoria : categorias) {
+            removerPorPrefixo("produtosCategoria", categoria + ":");
+        }
+    }
+
+    private void removerPorPrefixo(String nome, String prefixo) {
+        Cache cache = cacheManager.getCache(nome);
+        if (cache instanceof RefreshAheadCache refreshAhead) {
+            refreshAhead.evictByPrefix(prefixo);
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+}
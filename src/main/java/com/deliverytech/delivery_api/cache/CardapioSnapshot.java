@@ -0,0 +1,19 @@
+package com.deliverytech.delivery_api.cache;
+
+/**
+ * Cardápio completo (produtos disponíveis) de um restaurante já serializado em JSON.
+ * Imutável: uma alteração no cardápio gera um novo snapshot com versão maior.
+ * O ETag combina a versão com o hash do conteúdo, então continua válido entre reinícios.
+ * jsonGzip é o mesmo JSON já comprimido, servido direto para clientes que aceitam gzip.
+ */
+public record CardapioSnapshot(Long restauranteId, long versao, String hash, long geradoEm, byte[] json, byte[] jsonGzip) {
+
+    public String etag() {
+        return "\"" + restauranteId + "-" + versao + "-" + hash + "\"";
+    }
+
+    // Representação diferente (gzip) precisa de ETag próprio
+    public String etagGzip() {
+        return "\"" + restauranteId + "-" + versao + "-" + hash + "-gz\"";
+    }
+}
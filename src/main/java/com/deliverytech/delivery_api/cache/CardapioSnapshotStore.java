@@ -0,0 +1,21 @@
+package com.deliverytech.delivery_api.cache;
+
+/**
+ * Onde os snapshots de cardápio ficam guardados (memória local ou Redis).
+ */
+public interface CardapioSnapshotStore {
+
+    /**
+     * Snapshot atual do restaurante, ou null se ainda não foi gerado.
+     */
+    CardapioSnapshot buscar(Long restauranteId);
+
+    void salvar(CardapioSnapshot snapshot);
+
+    void remover(Long restauranteId);
+
+    /**
+     * Próximo número de versão do cardápio do restaurante (monotônico).
+     */
+    long proximaVersao(Long restauranteId);
+}
@@ -0,0 +1,97 @@
+package com.deliverytech.delivery_api.cache;
+
+import com.deliverytech.delivery_api.dto.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional para recursos individuais (restaurante, produto, pedido).
+ *
+ * O ETag é o hash do JSON dos dados, calculado uma vez por versão do recurso e guardado no
+ * cache "etags" com a chave "tipo:id". Se o If-None-Match bate com o ETag guardado, a resposta
+ * é 304 sem chamar o service nem mapear DTOs. Os services removem a chave (@CacheEvict) quando
+ * o recurso muda; o timestamp do ApiResponse fica de fora do hash.
+ * Quando os dados são carregados, o ETag enviado é sempre o desses dados (e o guardado é corrigido se
+ * estiver diferente), nunca um ETag antigo acompanhando um corpo novo.
+ */
+@Component
+public class EtagCache {
+
+    public static final String CACHE = "etags";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public <T> ResponseEntity<ApiResponse<T>> responder(WebRequest request, String chave,
+                                                        CacheControl cacheControl, Supplier<T> carregar) {
+        Cache cache = cacheManager.getCache(CACHE);
+        String guardado = cache != null ? cache.get(chave, String.class) : null;
+        if (guardado != null && clienteTem(request, guardado)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(guardado).cacheControl(cacheControl).build();
+        }
+
+        T dados = carregar.get();
+        String etag = calcular(dados);
+        if (cache != null && !etag.equals(guardado)) {
+            cache.put(chave, etag);
+        }
+        // Se o ETag calculado bate com o do cliente, o Spring ainda responde 304
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(ApiResponse.success(dados));
+    }
+
+    /**
+     * Para representações que mudam com o tempo sem o recurso mudar (ex.: previsão de entrega do pedido):
+     * os dados são sempre carregados e o ETag sai do corpo real, sem passar pelo cache. O 304 ainda
+     * economiza a transferência, mas nunca confirma um corpo que já não seria o mesmo.
+     */
+    public <T> ResponseEntity<ApiResponse<T>> responderSemCache(CacheControl cacheControl, Supplier<T> carregar) {
+        T dados = carregar.get();
+        return ResponseEntity.ok().eTag(calcular(dados)).cacheControl(cacheControl).body(ApiResponse.success(dados));
+    }
+
+    // Comparação sem request.checkNotModified: ele grava o ETag guardado na resposta mesmo quando não bate,
+    // e esse cabeçalho ficaria no lugar do ETag dos dados carregados
+    private static boolean clienteTem(WebRequest request, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String calcular(Object dados) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(dados));
+            return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 12)) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Falha ao calcular ETag", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.deliverytech.delivery_api.cache;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+/**
+ * Serialização Java padrão (comportamento original do RedisCacheManager).
+ * Mantida como alternativa (cache.codec=jdk) e como base de comparação nos benchmarks.
+ */
+public class JdkCacheValueCodec implements CacheValueCodec {
+
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer = new DeserializingConverter();
+
+    @Override
+    public byte[] encode(Object value) {
+        return serializer.convert(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        try {
+            return deserializer.convert(bytes);
+        } catch (RuntimeException e) {
+            // Classe alterada entre deploys (serialVersionUID) ou bytes de outro formato
+            return null;
+        }
+    }
+}
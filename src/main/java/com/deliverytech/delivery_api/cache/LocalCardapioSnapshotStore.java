@@ -0,0 +1,40 @@
+package com.deliverytech.delivery_api.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshots em memória (uma instância só, ou spring.cache.type diferente de redis).
+ */
+@Component
+@ConditionalOnExpression("'${spring.cache.type:simple}' != 'redis'")
+public class LocalCardapioSnapshotStore implements CardapioSnapshotStore {
+
+    private final ConcurrentHashMap<Long, CardapioSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicLong> versoes = new ConcurrentHashMap<>();
+
+    @Override
+    public CardapioSnapshot buscar(Long restauranteId) {
+        return snapshots.get(restauranteId);
+    }
+
+    @Override
+    public void salvar(CardapioSnapshot snapshot) {
+        // Nunca troca por uma versão mais antiga (reconstruções concorrentes)
+        snapshots.merge(snapshot.restauranteId(), snapshot,
+                (atual, novo) -> novo.versao() >= atual.versao() ? novo : atual);
+    }
+
+    @Override
+    public void remover(Long restauranteId) {
+        snapshots.remove(restauranteId);
+    }
+
+    @Override
+    public long proximaVersao(Long restauranteId) {
+        return versoes.computeIfAbsent(restauranteId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,106 @@
+package com.deliverytech.delivery_api.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Snapshots no Redis, compartilhados entre as instâncias da API.
+ * Valor: formato, versão, data de geração e hash num cabeçalho curto, seguidos do JSON pronto
+ * e da sua versão em gzip. Formato desconhecido conta como ausente (o snapshot é refeito).
+ * Se o Redis falhar, buscar() devolve null e o cardápio é montado direto do banco (fail-open).
+ */
+@Component
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+public class RedisCardapioSnapshotStore implements CardapioSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCardapioSnapshotStore.class);
+
+    private static final String SNAPSHOT_PREFIX = "cardapio:snapshot:";
+    private static final String VERSAO_PREFIX = "cardapio:versao:";
+    private static final int FORMATO = 2;
+
+    private final RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+
+    public RedisCardapioSnapshotStore(RedisConnectionFactory connectionFactory) {
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @Override
+    public CardapioSnapshot buscar(Long restauranteId) {
+        try {
+            byte[] valor = redisTemplate.opsForValue().get(SNAPSHOT_PREFIX + restauranteId);
+            return valor != null ? decodificar(restauranteId, valor) : null;
+        } catch (Exception e) {
+            log.warn("Snapshot do cardápio {} indisponível no Redis: {}", restauranteId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void salvar(CardapioSnapshot snapshot) {
+        try {
+            redisTemplate.opsForValue().set(SNAPSHOT_PREFIX + snapshot.restauranteId(), codificar(snapshot));
+        } catch (Exception e) {
+            log.warn("Falha ao gravar snapshot do cardápio {} no Redis: {}", snapshot.restauranteId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void remover(Long restauranteId) {
+        try {
+            redisTemplate.delete(SNAPSHOT_PREFIX + restauranteId);
+        } catch (Exception e) {
+            log.warn("Falha ao remover snapshot do cardápio {} no Redis: {}", restauranteId, e.getMessage());
+        }
+    }
+
+    @Override
+    public long proximaVersao(Long restauranteId) {
+        try {
+            Long versao = redisTemplate.opsForValue().increment(VERSAO_PREFIX + restauranteId);
+            return versao != null ? versao : System.currentTimeMillis();
+        } catch (Exception e) {
+            // Sem Redis a versão só precisa ser crescente; o hash no ETag cobre o resto
+            return System.currentTimeMillis();
+        }
+    }
+
+    private static byte[] codificar(CardapioSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(snapshot.json().length + snapshot.jsonGzip().length + 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMATO);
+        out.writeLong(snapshot.versao());
+        out.writeLong(snapshot.geradoEm());
+        out.writeUTF(snapshot.hash());
+        out.writeInt(snapshot.json().length);
+        out.write(snapshot.json());
+        out.write(snapshot.jsonGzip());
+        return bytes.toByteArray();
+    }
+
+    private static CardapioSnapshot decodificar(Long restauranteId, byte[] valor) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(valor));
+        if (in.readUnsignedByte() != FORMATO) {
+            return null;
+        }
+        long versao = in.readLong();
+        long geradoEm = in.readLong();
+        String hash = in.readUTF();
+        byte[] json = in.readNBytes(in.readInt());
+        return new CardapioSnapshot(restauranteId, versao, hash, geradoEm, json, in.readAllBytes());
+    }
+}
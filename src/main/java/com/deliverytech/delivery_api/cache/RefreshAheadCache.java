@@ -0,0 +1,249 @@
+package com.deliverytech.delivery_api.cache;
+
+import com.deliverytech.delivery_api.config.CachePolicyProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorator de Cache com proteção contra stampede:
+ * - TTL com jitter: cada entrada fica fresca entre ttl * (1 - jitter) e ttl (só para baixo, para o refresh
+ *   sempre cair dentro da janela stale), então as chaves não expiram juntas;
+ * - refresh antecipado probabilístico (XFetch): quanto mais perto de expirar e mais cara a consulta,
+ *   maior a chance de uma leitura disparar o refresh antes da expiração;
+ * - stale-while-revalidate: depois de "ttl", o valor antigo continua sendo servido (até o TTL físico
+ *   do backend, ttl + staleTtl) enquanto um único refresh roda em background neste nó.
+ * O refresh em background só acontece no caminho get(key, loader), usado por @Cacheable(sync = true).
+ * A reserva de refresh de uma chave vence em staleTtl: se quem a pegou falhar sem gravar, outra leitura
+ * tenta de novo em vez de o valor velho ser servido para sempre.
+ */
+public class RefreshAheadCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final Cache delegate;
+    private final CachePolicyProperties.Policy policy;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+
+    // Chave -> instante em que o refresh foi reservado
+    private final ConcurrentHashMap<Object, Long> refreshing = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    public RefreshAheadCache(Cache delegate, CachePolicyProperties.Policy policy, Executor refreshExecutor) {
+        this(delegate, policy, refreshExecutor, System::currentTimeMillis);
+    }
+
+    RefreshAheadCache(Cache delegate, CachePolicyProperties.Policy policy, Executor refreshExecutor, LongSupplier clock) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheEntry entry = lookup(key);
+        if (entry == null) {
+            return null;
+        }
+        // Sem loader (sync = false): quem vencer a disputa recebe "miss" e recalcula; os demais usam o valor atual
+        if (precisaRefresh(entry) && reservarRefresh(key)) {
+            return null;
+        }
+        return new SimpleValueWrapper(entry.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        return wrapper != null ? (T) wrapper.get() : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEntry entry = lookup(key);
+        if (entry == null) {
+            return (T) carregar(key, valueLoader);
+        }
+        if (precisaRefresh(entry)) {
+            refreshEmBackground(key, valueLoader);
+        }
+        return (T) entry.value();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store(key, value, 0);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        refreshing.remove(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        refreshing.remove(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        refreshing.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        refreshing.clear();
+        return delegate.invalidate();
+    }
+
+    /**
+     * Remove só as entradas cujas chaves (String) começam com o prefixo, em vez do cache inteiro.
+     * Redis: SCAN + DEL pelo padrão "nome::prefixo*"; em memória: varre as chaves do mapa.
+     * Outros backends não têm como filtrar por chave e caem no clear().
+     */
+    public void evictByPrefix(String prefix) {
+        refreshing.keySet().removeIf(key -> key instanceof String texto && texto.startsWith(prefix));
+        if (delegate instanceof RedisCache redisCache) {
+            String pattern = redisCache.getCacheConfiguration().getKeyPrefixFor(getName()) + escaparGlob(prefix) + "*";
+            redisCache.getNativeCache().clean(getName(), pattern.getBytes(StandardCharsets.UTF_8));
+        } else if (delegate.getNativeCache() instanceof ConcurrentMap<?, ?> map) {
+            map.keySet().removeIf(key -> key instanceof String texto && texto.startsWith(prefix));
+        } else {
+            delegate.clear();
+        }
+    }
+
+    private static String escaparGlob(String texto) {
+        return texto.replaceAll("([*?\\[\\]\\\\])", "\\\\$1");
+    }
+
+    private CacheEntry lookup(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper != null && wrapper.get() instanceof CacheEntry entry) {
+            return entry;
+        }
+        // Valores em formato antigo (sem CacheEntry) são tratados como miss
+        return null;
+    }
+
+    private void store(Object key, Object value, long computeMillis) {
+        long ttl = policy.getTtl().toMillis();
+        double variacao = 1 - policy.getJitter() * ThreadLocalRandom.current().nextDouble();
+        long refreshAt = clock.getAsLong() + (long) (ttl * variacao);
+        delegate.put(key, new CacheEntry(value, refreshAt, computeMillis));
+        refreshing.remove(key);
+    }
+
+    /**
+     * XFetch: now - computeMillis * beta * ln(rand) >= refreshAt. Como ln(rand) é negativo,
+     * o termo "adianta" o relógio proporcionalmente ao custo da consulta.
+     */
+    boolean precisaRefresh(CacheEntry entry) {
+        long agora = clock.getAsLong();
+        if (agora >= entry.refreshAt()) {
+            return true;
+        }
+        if (policy.getBeta() <= 0 || entry.computeMillis() <= 0) {
+            return false;
+        }
+        double rand = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        double adiantamento = -entry.computeMillis() * policy.getBeta() * Math.log(rand);
+        return agora + adiantamento >= entry.refreshAt();
+    }
+
+    private Object carregar(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> nova = new CompletableFuture<>();
+        CompletableFuture<Object> existente = loading.putIfAbsent(key, nova);
+        if (existente != null) {
+            try {
+                return existente.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, valueLoader, e);
+            } catch (ExecutionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            long inicio = clock.getAsLong();
+            Object valor = valueLoader.call();
+            store(key, valor, clock.getAsLong() - inicio);
+            nova.complete(valor);
+            return valor;
+        } catch (Exception e) {
+            nova.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loading.remove(key, nova);
+        }
+    }
+
+    /**
+     * Reserva o refresh da chave para este chamador. Uma reserva mais velha que staleTtl é considerada
+     * abandonada (recálculo que falhou sem put) e pode ser tomada.
+     */
+    private boolean reservarRefresh(Object key) {
+        long agora = clock.getAsLong();
+        long prazo = policy.getStaleTtl().toMillis();
+        boolean[] reservado = {false};
+        refreshing.compute(key, (k, desde) -> {
+            if (desde != null && agora - desde < prazo) {
+                return desde;
+            }
+            reservado[0] = true;
+            return agora;
+        });
+        return reservado[0];
+    }
+
+    private void refreshEmBackground(Object key, Callable<?> valueLoader) {
+        if (!reservarRefresh(key)) {
+            return; // já existe um refresh desta chave em andamento neste nó
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    long inicio = clock.getAsLong();
+                    Object valor = valueLoader.call();
+                    store(key, valor, clock.getAsLong() - inicio);
+                } catch (Exception e) {
+                    log.warn("Falha no refresh em background do cache {} (chave {}): {}", getName(), key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor cheio: o valor antigo continua sendo servido e outra leitura tenta de novo
+            refreshing.remove(key);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.deliverytech.delivery_api.cache;
+
+import com.deliverytech.delivery_api.config.CachePolicyProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CacheManager que envolve cada cache do backend (Redis ou memória) em um RefreshAheadCache,
+ * com a política configurada para o nome do cache.
+ */
+public class RefreshAheadCacheManager implements CacheManager, DisposableBean {
+
+    private final CacheManager delegate;
+    private final CachePolicyProperties properties;
+    private final ConcurrentHashMap<String, Cache> caches = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    public RefreshAheadCacheManager(CacheManager delegate, CachePolicyProperties properties) {
+        this.delegate = delegate;
+        this.properties = properties;
+
+        AtomicInteger contador = new AtomicInteger();
+        // Poucas threads e fila curta: refresh é oportunista, se não couber o valor antigo segue valendo
+        this.refreshExecutor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100),
+                r -> {
+                    Thread t = new Thread(r, "cache-refresh-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache existente = caches.get(name);
+        if (existente != null) {
+            return existente;
+        }
+        Cache alvo = delegate.getCache(name);
+        if (alvo == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name,
+                n -> new RefreshAheadCache(alvo, properties.policyFor(n), refreshExecutor));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
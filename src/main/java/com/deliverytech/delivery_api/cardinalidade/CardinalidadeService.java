@@ -0,0 +1,155 @@
+package com.deliverytech.delivery_api.cardinalidade;
+
+import com.deliverytech.delivery_api.config.CardinalidadeProperties;
+import com.deliverytech.delivery_api.dto.reports.RelatorioClientesUnicosDTO;
+import com.deliverytech.delivery_api.entity.SketchCardinalidade;
+import com.deliverytech.delivery_api.events.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.repository.SketchCardinalidadeRepository;
+import com.deliverytech.delivery_api.sketch.SketchesDiarios;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Clientes distintos por restaurante/dia e por categoria/dia, sem COUNT(DISTINCT) sobre "pedidos".
+ * Cada pedido criado (depois do commit) entra num sketch HyperLogLog em memória; a cada
+ * cardinalidade.intervalo-descarga os sketches acumulados são fundidos nos da tabela sketches_cardinalidade.
+ * A fusão é um máximo por registrador, então descargas de várias instâncias se combinam sem perder nada.
+ * A consulta de um período funde no máximo um sketch por dia (mais o que esta instância ainda não descarregou).
+ * Buffer, descarga e validação do período ficam em SketchesDiarios, compartilhado com os percentis.
+ */
+@Service
+public class CardinalidadeService implements DisposableBean {
+
+    static final String RESTAURANTE = "RESTAURANTE";
+    static final String CATEGORIA = "CATEGORIA";
+
+    // Nível de confiança -> desvios padrão do intervalo devolvido
+    private static final Map<Double, Double> DESVIOS_POR_CONFIANCA = Map.of(
+            0.68, 1.0,
+            0.90, 1.645,
+            0.95, 1.96,
+            0.99, 2.576);
+
+    private static final Comparator<Chave> ORDEM_DE_GRAVACAO = Comparator.comparing(Chave::dimensao)
+            .thenComparing(Chave::chave)
+            .thenComparing(Chave::dia);
+
+    private final SketchCardinalidadeRepository repository;
+    private final Clock clock;
+    private final int precisao;
+    private final SketchesDiarios<Chave, HyperLogLog> sketches;
+
+    @Autowired
+    public CardinalidadeService(SketchCardinalidadeRepository repository, PlatformTransactionManager transactionManager,
+                                CardinalidadeProperties properties) {
+        this(repository, transactionManager, properties, Clock.systemDefaultZone());
+    }
+
+    CardinalidadeService(SketchCardinalidadeRepository repository, PlatformTransactionManager transactionManager,
+                         CardinalidadeProperties properties, Clock clock) {
+        this.repository = repository;
+        this.clock = clock;
+        this.precisao = HyperLogLog.precisaoPara(properties.getErroPadrao());
+        this.sketches = new SketchesDiarios<>("sketches de cardinalidade", ORDEM_DE_GRAVACAO,
+                CardinalidadeService::unir, HyperLogLog::copia, transactionManager, properties::getMaxDias, clock);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPedidoCriado(PedidoCriadoEvent evento) {
+        if (evento.clienteId() == null) {
+            return;
+        }
+        LocalDate hoje = LocalDate.now(clock);
+        if (evento.restauranteId() != null) {
+            registrar(new Chave(RESTAURANTE, evento.restauranteId().toString(), hoje), evento.clienteId());
+        }
+        if (evento.categoria() != null) {
+            registrar(new Chave(CATEGORIA, evento.categoria(), hoje), evento.clienteId());
+        }
+    }
+
+    private void registrar(Chave chave, long clienteId) {
+        sketches.registrar(chave, () -> new HyperLogLog(precisao), sketch -> sketch.adicionar(clienteId));
+    }
+
+    /**
+     * Funde os sketches acumulados nesta instância nos da tabela. Em caso de falha, eles voltam para a fila.
+     */
+    @Scheduled(fixedDelayString = "${cardinalidade.intervalo-descarga:PT30S}")
+    public int descarregar() {
+        return sketches.descarregar(this::fundirNoBanco);
+    }
+
+    private void fundirNoBanco(Chave chave, HyperLogLog sketch) {
+        Optional<SketchCardinalidade> existente = repository.findByDimensaoAndChaveAndDia(chave.dimensao(), chave.chave(), chave.dia());
+        if (existente.isPresent()) {
+            SketchCardinalidade linha = existente.get();
+            HyperLogLog unido = unir(HyperLogLog.desserializar(linha.getRegistros()), sketch.copia());
+            linha.setRegistros(unido.serializar());
+        } else {
+            repository.save(new SketchCardinalidade(chave.dimensao(), chave.chave(), chave.dia(), sketch.serializar()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        descarregar();
+    }
+
+    @Transactional(readOnly = true)
+    public RelatorioClientesUnicosDTO clientesUnicosPorRestaurante(Long restauranteId, LocalDate inicio, LocalDate fim,
+                                                                   double confianca) {
+        return clientesUnicos(RESTAURANTE, restauranteId.toString(), inicio, fim, confianca);
+    }
+
+    @Transactional(readOnly = true)
+    public RelatorioClientesUnicosDTO clientesUnicosPorCategoria(String categoria, LocalDate inicio, LocalDate fim,
+                                                                 double confianca) {
+        return clientesUnicos(CATEGORIA, categoria, inicio, fim, confianca);
+    }
+
+    private RelatorioClientesUnicosDTO clientesUnicos(String dimensao, String chave, LocalDate inicio, LocalDate fim,
+                                                      double confianca) {
+        SketchesDiarios.Periodo periodo = sketches.periodo(inicio, fim);
+        Double desvios = DESVIOS_POR_CONFIANCA.get(confianca);
+        if (desvios == null) {
+            throw new BusinessException("Confiança deve ser uma de " + new TreeSet<>(DESVIOS_POR_CONFIANCA.keySet()));
+        }
+
+        HyperLogLog total = new HyperLogLog(precisao);
+        for (SketchCardinalidade linha : repository.findByDimensaoAndChaveAndDiaBetween(dimensao, chave,
+                periodo.de(), periodo.ate())) {
+            total = unir(total, HyperLogLog.desserializar(linha.getRegistros()));
+        }
+        total = sketches.somarPendentes(total, periodo, dia -> new Chave(dimensao, chave, dia));
+
+        long estimativa = total.estimar();
+        double erroPadrao = HyperLogLog.erroPadrao(total.precisao());
+        long margem = Math.round(estimativa * erroPadrao * desvios);
+        return new RelatorioClientesUnicosDTO(dimensao, chave, periodo.de(), periodo.ate(), estimativa, erroPadrao, confianca,
+                Math.max(0, estimativa - margem), estimativa + margem);
+    }
+
+    /** União na menor das duas precisões (sketches gravados antes de uma mudança de erro-padrao). */
+    private static HyperLogLog unir(HyperLogLog a, HyperLogLog b) {
+        if (a.precisao() <= b.precisao()) {
+            a.fundir(b);
+            return a;
+        }
+        b.fundir(a);
+        return b;
+    }
+
+    private record Chave(String dimensao, String chave, LocalDate dia) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.deliverytech.delivery_api.cardinalidade;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Contagem aproximada de elementos distintos (HyperLogLog) em 2^precisao registradores de um byte.
+ * Erro padrão relativo ~ 1,04 / sqrt(2^precisao); hash de 64 bits, então não há correção para cardinalidades grandes.
+ * Dois sketches se combinam pelo máximo de cada registrador (união), o que torna a fusão entre dias e entre
+ * instâncias comutativa e idempotente. Sketches de precisões diferentes são reduzidos à menor antes da fusão.
+ * Não é thread-safe.
+ */
+final class HyperLogLog {
+
+    static final int PRECISAO_MINIMA = 4;
+    static final int PRECISAO_MAXIMA = 16;
+
+    private static final byte FORMATO_DENSO = 1;
+    private static final byte FORMATO_ESPARSO = 2;
+
+    private final int precisao;
+    private final byte[] registradores;
+
+    HyperLogLog(int precisao) {
+        this(precisao, new byte[1 << validar(precisao)]);
+    }
+
+    private HyperLogLog(int precisao, byte[] registradores) {
+        this.precisao = precisao;
+        this.registradores = registradores;
+    }
+
+    /** Menor precisão cujo erro padrão relativo não passa de erroPadrao. */
+    static int precisaoPara(double erroPadrao) {
+        if (erroPadrao <= 0 || erroPadrao >= 1) {
+            throw new IllegalArgumentException("Erro padrão deve estar entre 0 e 1: " + erroPadrao);
+        }
+        double registradores = Math.pow(1.04 / erroPadrao, 2);
+        int precisao = 64 - Long.numberOfLeadingZeros((long) Math.ceil(registradores) - 1);
+        return Math.max(PRECISAO_MINIMA, Math.min(PRECISAO_MAXIMA, precisao));
+    }
+
+    static double erroPadrao(int precisao) {
+        return 1.04 / Math.sqrt(1 << precisao);
+    }
+
+    int precisao() {
+        return precisao;
+    }
+
+    void adicionar(long elemento) {
+        long hash = misturar(elemento);
+        int indice = (int) (hash >>> (64 - precisao));
+        // 1 + zeros à esquerda do restante do hash; o bit sentinela limita o valor a 64 - precisao + 1
+        int posicao = Long.numberOfLeadingZeros((hash << precisao) | (1L << (precisao - 1))) + 1;
+        if (posicao > registradores[indice]) {
+            registradores[indice] = (byte) posicao;
+        }
+    }
+
+    /** Une outro sketch a este (o outro precisa ter precisão maior ou igual). */
+    void fundir(HyperLogLog outro) {
+        HyperLogLog fonte = outro.precisao == precisao ? outro : outro.reduzir(precisao);
+        for (int i = 0; i < registradores.length; i++) {
+            if (fonte.registradores[i] > registradores[i]) {
+                registradores[i] = fonte.registradores[i];
+            }
+        }
+    }
+
+    /**
+     * Mesmo sketch numa precisão menor: os bits do índice que sobram passam a ser o começo do restante do hash.
+     */
+    HyperLogLog reduzir(int novaPrecisao) {
+        if (novaPrecisao == precisao) {
+            return copia();
+        }
+        if (novaPrecisao > precisao) {
+            throw new IllegalArgumentException("Não é possível aumentar a precisão de " + precisao + " para " + novaPrecisao);
+        }
+        int diferenca = precisao - novaPrecisao;
+        byte[] reduzidos = new byte[1 << validar(novaPrecisao)];
+        for (int i = 0; i < registradores.length; i++) {
+            if (registradores[i] == 0) {
+                continue;
+            }
+            int sobra = i & ((1 << diferenca) - 1);
+            int posicao = sobra != 0
+                    ? Integer.numberOfLeadingZeros(sobra) - (32 - diferenca) + 1
+                    : registradores[i] + diferenca;
+            int indice = i >>> diferenca;
+            if (posicao > reduzidos[indice]) {
+                reduzidos[indice] = (byte) posicao;
+            }
+        }
+        return new HyperLogLog(novaPrecisao, reduzidos);
+    }
+
+    long estimar() {
+        int m = registradores.length;
+        double soma = 0;
+        int zeros = 0;
+        for (byte registrador : registradores) {
+            soma += Math.scalb(1.0, -registrador);
+            if (registrador == 0) {
+                zeros++;
+            }
+        }
+        double estimativa = alfa(m) * m * m / soma;
+        if (estimativa <= 2.5 * m && zeros > 0) {
+            // Poucos elementos: contagem linear pelos registradores vazios é mais precisa
+            estimativa = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimativa);
+    }
+
+    HyperLogLog copia() {
+        return new HyperLogLog(precisao, registradores.clone());
+    }
+
+    /**
+     * Formato compacto: denso (um byte por registrador) ou esparso (índice + valor só dos registradores
+     * preenchidos), o que for menor. Restaurante/dia com poucos clientes ocupa poucas dezenas de bytes.
+     */
+    byte[] serializar() {
+        int preenchidos = 0;
+        for (byte registrador : registradores) {
+            if (registrador != 0) {
+                preenchidos++;
+            }
+        }
+        if (preenchidos * 3 < registradores.length) {
+            ByteBuffer buffer = ByteBuffer.allocate(2 + 3 * preenchidos);
+            buffer.put(FORMATO_ESPARSO).put((byte) precisao);
+            for (int i = 0; i < registradores.length; i++) {
+                if (registradores[i] != 0) {
+                    buffer.putShort((short) i).put(registradores[i]);
+                }
+            }
+            return buffer.array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 + registradores.length);
+        buffer.put(FORMATO_DENSO).put((byte) precisao).put(registradores);
+        return buffer.array();
+    }
+
+    static HyperLogLog desserializar(byte[] dados) {
+        ByteBuffer buffer = ByteBuffer.wrap(dados);
+        byte formato = buffer.get();
+        int precisao = validar(buffer.get());
+        byte[] registradores = new byte[1 << precisao];
+        if (formato == FORMATO_DENSO) {
+            buffer.get(registradores);
+        } else if (formato == FORMATO_ESPARSO) {
+            while (buffer.remaining() >= 3) {
+                int indice = Short.toUnsignedInt(buffer.getShort());
+                registradores[indice] = buffer.get();
+            }
+        } else {
+            throw new IllegalArgumentException("Formato de sketch desconhecido: " + formato);
+        }
+        return new HyperLogLog(precisao, registradores);
+    }
+
+    private static int validar(int precisao) {
+        if (precisao < PRECISAO_MINIMA || precisao > PRECISAO_MAXIMA) {
+            throw new IllegalArgumentException("Precisão fora de [" + PRECISAO_MINIMA + ", " + PRECISAO_MAXIMA + "]: " + precisao);
+        }
+        return precisao;
+    }
+
+    private static double alfa(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    // splitmix64: ids sequenciais precisam de bits bem espalhados
+    private static long misturar(long valor) {
+        long z = valor + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
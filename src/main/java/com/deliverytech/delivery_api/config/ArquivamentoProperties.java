@@ -0,0 +1,42 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arquivamento de pedidos finalizados (prefixo "arquivamento").
+ * Ex.: arquivamento.retencao=90d
+ *      arquivamento.tamanho-lote=500
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "arquivamento")
+public class ArquivamentoProperties {
+
+    // Com sharding.enabled=true o job não é agendado (ver PedidoArquivamentoService)
+    private boolean enabled = true;
+
+    // Intervalo entre execuções e atraso após a subida (thread própria do job, fora do agendador do Spring)
+    private Duration intervalo = Duration.ofHours(1);
+    private Duration atrasoInicial = Duration.ofMinutes(10);
+
+    // Idade mínima (data do pedido) para sair da tabela ativa
+    private Duration retencao = Duration.ofDays(90);
+
+    // Apenas pedidos nestes status são arquivados
+    private List<String> status = new ArrayList<>(List.of("ENTREGUE", "CANCELADO"));
+
+    // Pedidos movidos por transação: lotes curtos seguram locks por pouco tempo
+    private int tamanhoLote = 500;
+
+    // Pausa entre lotes, para não disputar I/O e conexões com o tráfego normal
+    private Duration pausaEntreLotes = Duration.ofMillis(200);
+
+    // Teto de lotes por execução; o restante fica para a próxima
+    private int maxLotesPorExecucao = 200;
+}
@@ -0,0 +1,29 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Agregação das avaliações na média dos restaurantes (prefixo "avaliacoes").
+ * Ex.: avaliacoes.intervalo=30s
+ *      avaliacoes.tamanho-lote=1000
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "avaliacoes")
+public class AvaliacaoProperties {
+
+    private boolean enabled = true;
+
+    // Atraso máximo até uma avaliação aparecer na média (lido também pelo @Scheduled do job)
+    private Duration intervalo = Duration.ofSeconds(30);
+
+    // Avaliações agregadas por transação
+    private int tamanhoLote = 1000;
+
+    // Teto de lotes por execução; o restante fica para a próxima
+    private int maxLotesPorExecucao = 50;
+}
@@ -0,0 +1,31 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuração dos bulkheads (limites de concorrência por grupo de endpoints).
+ * Ex.: bulkhead.groups.relatorios.max-concurrent=4
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class Group {
+        // Execuções simultâneas (= threads dedicadas = conexões JDBC que o grupo pode ocupar)
+        private int maxConcurrent = 4;
+        // Requisições aguardando na fila além das que estão executando
+        private int queueCapacity = 20;
+        // Tempo máximo de espera na fila antes de rejeitar
+        private Duration maxWait = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,94 @@
+package com.deliverytech.delivery_api.config;
+
+import com.deliverytech.delivery_api.cache.BinaryCacheValueCodec;
+import com.deliverytech.delivery_api.cache.CacheValueCodec;
+import com.deliverytech.delivery_api.cache.CacheValueRedisSerializer;
+import com.deliverytech.delivery_api.cache.JdkCacheValueCodec;
+import com.deliverytech.delivery_api.cache.RefreshAheadCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Configuração de cache.
+ * - spring.cache.type=redis: caches no Redis; o TTL físico de cada chave é ttl + staleTtl acrescido
+ *   de jitter, para que as entradas de um mesmo cache não expirem todas no mesmo instante; os valores
+ *   são gravados pelo CacheValueCodec escolhido em cache.codec;
+ * - qualquer outro tipo (ex.: simple nos testes): caches em memória;
+ * Em ambos os casos os caches são envolvidos pelo RefreshAheadCacheManager (stale-while-revalidate).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Value("${spring.cache.type:simple}")
+    private String cacheType;
+
+    @Bean
+    public CacheManager cacheManager(CachePolicyProperties policies,
+                                     ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        if ("none".equalsIgnoreCase(cacheType)) {
+            return new NoOpCacheManager();
+        }
+
+        CacheManager backend;
+        if ("redis".equalsIgnoreCase(cacheType)) {
+            RedisSerializationContext.SerializationPair<Object> valores = RedisSerializationContext.SerializationPair
+                    .fromSerializer(new CacheValueRedisSerializer(codec(policies)));
+
+            Map<String, RedisCacheConfiguration> porCache = new HashMap<>();
+            policies.getPolicies().forEach((nome, policy) -> porCache.put(nome, redisConfig(policy, valores)));
+
+            // SCAN em vez de KEYS nas remoções por padrão (clear / evictByPrefix): não bloqueia o Redis
+            RedisCacheWriter writer = RedisCacheWriter.nonLockingRedisCacheWriter(
+                    redisConnectionFactory.getObject(), BatchStrategies.scan(1000));
+
+            backend = RedisCacheManager.builder(writer)
+                    .cacheDefaults(redisConfig(policies.getDefaults(), valores))
+                    .withInitialCacheConfigurations(porCache)
+                    .build();
+            ((RedisCacheManager) backend).afterPropertiesSet();
+        } else {
+            backend = new ConcurrentMapCacheManager();
+        }
+
+        return new RefreshAheadCacheManager(backend, policies);
+    }
+
+    private CacheValueCodec codec(CachePolicyProperties policies) {
+        if ("jdk".equalsIgnoreCase(policies.getCodec())) {
+            return new JdkCacheValueCodec();
+        }
+        return new BinaryCacheValueCodec(policies.getCompressionThreshold());
+    }
+
+    private RedisCacheConfiguration redisConfig(CachePolicyProperties.Policy policy,
+                                                RedisSerializationContext.SerializationPair<Object> valores) {
+        long hardTtl = policy.getTtl().plus(policy.getStaleTtl()).toMillis();
+        double jitter = policy.getJitter();
+
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(valores)
+                .entryTtl((key, value) -> {
+                    // Só para cima: o TTL físico nunca fica menor que o período fresco + stale
+                    double variacao = 1 + jitter * ThreadLocalRandom.current().nextDouble();
+                    return Duration.ofMillis((long) (hardTtl * variacao));
+                });
+    }
+}
@@ -0,0 +1,47 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Políticas de expiração por nome de cache (prefixo "cache.policies").
+ * Ex.: cache.policies.produtos.ttl=10m
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache")
+public class CachePolicyProperties {
+
+    // Codec dos valores no Redis: "binary" (compacto, versionado) ou "jdk" (serialização Java)
+    private String codec = "binary";
+
+    // Payloads binários a partir deste tamanho (bytes) são comprimidos; 0 desliga
+    private int compressionThreshold = 1024;
+
+    // Política usada pelos caches sem configuração própria
+    private Policy defaults = new Policy();
+
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    public Policy policyFor(String cacheName) {
+        return policies.getOrDefault(cacheName, defaults);
+    }
+
+    @Data
+    public static class Policy {
+        // Tempo em que o valor é considerado fresco
+        private Duration ttl = Duration.ofMinutes(10);
+        // Tempo extra em que o valor antigo ainda é servido enquanto um refresh roda em background
+        private Duration staleTtl = Duration.ofMinutes(5);
+        // Variação aleatória dos TTLs para as chaves não expirarem juntas (0.2 = período fresco até 20% menor,
+        // TTL físico até 20% maior)
+        private double jitter = 0.2;
+        // Agressividade do refresh antecipado probabilístico (0 desliga; 1 é o padrão do XFetch)
+        private double beta = 1.0;
+    }
+}
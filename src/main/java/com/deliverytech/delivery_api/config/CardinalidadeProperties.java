@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Contagem aproximada de clientes distintos nos relatórios (prefixo "cardinalidade").
+ * Ex.: cardinalidade.erro-padrao=0.02
+ *      cardinalidade.intervalo-descarga=30s
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cardinalidade")
+public class CardinalidadeProperties {
+
+    // Erro padrão relativo alvo dos sketches novos (0.02 = 2%: 4 KB por sketch denso)
+    private double erroPadrao = 0.02;
+
+    // De quanto em quanto tempo os HyperLogLog desta instância são fundidos em sketches_cardinalidade;
+    // o cliente de um pedido criado aqui só conta nas réplicas vizinhas depois disso (lido também pelo @Scheduled)
+    private Duration intervaloDescarga = Duration.ofSeconds(30);
+
+    // Maior período de clientes-unicos: cada dia é mais um HyperLogLog lido e fundido na consulta
+    private int maxDias = 366;
+}
@@ -0,0 +1,43 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Despacho de pedidos para entregadores (prefixo "despacho").
+ * Ex.: despacho.enabled=true
+ *      despacho.intervalo=3s
+ *      despacho.max-pedidos-por-viagem=3
+ * Posições, viagens e atribuições ficam em memória da instância, sem coordenação entre réplicas:
+ * só funciona com uma única instância atendendo a API. Com várias, cada uma carregaria os mesmos
+ * pedidos PREPARANDO e poderia entregá-los a dois entregadores diferentes.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "despacho")
+public class DespachoProperties {
+
+    // Desligado (padrão): nenhuma rodada automática (despachar() ainda pode ser chamado).
+    // Ligar apenas em implantação de instância única
+    private boolean enabled = false;
+
+    // Intervalo entre rodadas do despacho
+    private Duration intervalo = Duration.ofSeconds(3);
+
+    // Distância máxima entre o entregador e o restaurante para receber a viagem
+    private double raioBuscaKm = 5.0;
+
+    // Entregas do mesmo restaurante com destinos até essa distância entre si saem na mesma viagem
+    private double raioAgrupamentoKm = 1.5;
+
+    private int maxPedidosPorViagem = 3;
+
+    // Entregador sem reportar posição por mais que isso deixa de receber viagens
+    private Duration posicaoExpiraEm = Duration.ofMinutes(2);
+
+    // Lado da célula do índice espacial, em graus (~1,1 km de latitude)
+    private double tamanhoCelulaGraus = 0.01;
+}
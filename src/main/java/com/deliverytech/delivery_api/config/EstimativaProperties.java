@@ -0,0 +1,39 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Estimativa de entrega (prefixo "estimativa").
+ * Ex.: estimativa.preparo-padrao=25m
+ *      estimativa.velocidade-padrao-km-h=20
+ * Os padrões valem até o modelo acumular estimativa.min-amostras observações.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "estimativa")
+public class EstimativaProperties {
+
+    // Tempo do pedido até sair para entrega, enquanto não há histórico do restaurante
+    private Duration preparoPadrao = Duration.ofMinutes(25);
+
+    private double velocidadePadraoKmH = 20.0;
+
+    // Distância usada quando restaurante ou cliente não têm coordenadas
+    private double distanciaPadraoKm = 3.0;
+
+    // Linha reta -> percurso pelas ruas
+    private double fatorRota = 1.3;
+
+    // Observações mínimas para confiar na média de uma faixa (restaurante/hora)
+    private int minAmostras = 5;
+
+    // A média passa a pesar as últimas ~N observações (média móvel), acompanhando mudanças de ritmo
+    private int janelaAmostras = 200;
+
+    // Observações fora disso são descartadas (pedidos esquecidos, relógio errado)
+    private Duration preparoMaximo = Duration.ofHours(3);
+}
@@ -0,0 +1,20 @@
+package com.deliverytech.delivery_api.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Ajustes do ObjectMapper usado pelo Spring MVC (o Spring Boot registra os Module declarados como bean).
+ * - Blackbird: troca a reflexão dos getters/setters por acessores gerados com LambdaMetafactory,
+ *   reduzindo o custo de serializar os DTOs das listagens grandes (cardápio, histórico de pedidos).
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,31 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Ranking de popularidade "em alta" (prefixo "popularidade").
+ * Ex.: popularidade.meia-vida=1h
+ *      popularidade.top-restaurantes=500
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "popularidade")
+public class PopularidadeProperties {
+
+    // Um pedido de agora vale o dobro de um pedido de uma meia-vida atrás
+    private Duration meiaVida = Duration.ofHours(1);
+
+    // Dimensões do Count-Min Sketch: erro ~ 2/largura do total, com probabilidade 1 - 2^-profundidade
+    private int largura = 2048;
+    private int profundidade = 4;
+
+    // Quantos restaurantes entram no ranking ordenável (sort=popular)
+    private int topRestaurantes = 500;
+
+    // De quanto em quanto tempo as leituras passam a ver as contagens novas (lido também pelo @Scheduled)
+    private Duration intervaloRetrato = Duration.ofSeconds(10);
+}
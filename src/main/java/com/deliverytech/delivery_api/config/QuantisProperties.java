@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Percentis de valor do pedido e tempo de entrega nos relatórios (prefixo "quantis").
+ * Ex.: quantis.erro-relativo=0.01
+ *      quantis.intervalo-descarga=30s
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "quantis")
+public class QuantisProperties {
+
+    // Erro relativo máximo de cada percentil (0.01 = 1%: R$ 50,00 sai entre R$ 49,50 e R$ 50,50)
+    private double erroRelativo = 0.01;
+
+    // De quanto em quanto tempo os histogramas desta instância são somados em sketches_quantis; valores e tempos
+    // de entrega registrados aqui só pesam nos percentis das réplicas vizinhas depois disso (lido também pelo @Scheduled)
+    private Duration intervaloDescarga = Duration.ofSeconds(30);
+
+    // Maior período de percentis: cada dia é um histograma somado na consulta, por métrica e restaurante
+    private int maxDias = 366;
+}
@@ -0,0 +1,39 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Ingestão e rastreamento das posições dos entregadores (prefixo "rastreamento").
+ * Ex.: rastreamento.capacidade-por-entregador=256
+ *      rastreamento.amostragem=15s
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rastreamento")
+public class RastreamentoProperties {
+
+    // Pontos recentes mantidos em memória por entregador (buffer circular)
+    private int capacidadePorEntregador = 256;
+
+    // Máximo de pontos aceitos por requisição de lote
+    private int maxPontosPorLote = 500;
+
+    // Intervalo entre gravações em lote no banco
+    private Duration intervaloPersistencia = Duration.ofSeconds(30);
+
+    // Espaçamento mínimo entre pontos gravados no histórico (downsampling)
+    private Duration amostragem = Duration.ofSeconds(15);
+
+    // Trilha sem pontos novos por mais que isso sai da memória (depois de persistida)
+    private Duration expiraEm = Duration.ofMinutes(30);
+
+    // Pontos devolvidos no endpoint de rastreamento do pedido
+    private int pontosNaTrilha = 20;
+
+    // Tolerância para relógio adiantado do aparelho
+    private Duration toleranciaFuturo = Duration.ofMinutes(1);
+}
@@ -0,0 +1,42 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuração do rate limiting (token bucket) aplicado pelo RateLimitFilter.
+ * Propriedades com prefixo "rate-limit" no application.properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // "local" (em memória, por nó) ou "redis" (distribuído entre os nós)
+    private String mode = "local";
+
+    // Bucket dos usuários autenticados (chave = userId do JWT)
+    private long capacity = 120;
+    private double refillPerSecond = 20;
+
+    // Bucket das rotas anônimas (chave = IP)
+    private long anonymousCapacity = 60;
+    private double anonymousRefillPerSecond = 10;
+
+    // Custo padrão de uma requisição e custos por rota (a primeira regra que casar vence)
+    private int defaultCost = 1;
+    private Map<String, Integer> routeCosts = new LinkedHashMap<>();
+
+    // Usar o header X-Forwarded-For apenas quando atrás de um proxy confiável
+    private boolean trustForwardedFor = false;
+
+    // Buckets locais sem uso por este tempo são descartados
+    private Duration idleEviction = Duration.ofMinutes(10);
+}
@@ -0,0 +1,12 @@
+package com.deliverytech.delivery_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita os métodos @Scheduled (tarefas de manutenção em background).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,60 @@
+package com.deliverytech.delivery_api.config;
+
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.sharding.PedidoIdGenerator;
+import com.deliverytech.delivery_api.sharding.ShardedPedidoStore;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Com sharding.enabled=true os pedidos passam a ser gravados nos shards configurados.
+ * Os pools dos shards não são expostos como beans DataSource: o datasource principal
+ * (auto-configurado pelo Boot, usado pelo JPA) continua sendo o único visível no contexto.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public ShardedPedidoStore shardedPedidoStore(ShardingProperties properties,
+                                                 RestauranteRepository restauranteRepository,
+                                                 ClienteRepository clienteRepository,
+                                                 ProdutoRepository produtoRepository) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("sharding.enabled=true exige ao menos um sharding.shards[n].url");
+        }
+
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("pedidos-shard-" + i);
+            config.setJdbcUrl(shard.getUrl());
+            config.setUsername(shard.getUsername());
+            config.setPassword(shard.getPassword());
+            config.setMaximumPoolSize(shard.getMaxPoolSize());
+            dataSources.add(new HikariDataSource(config));
+        }
+
+        if (properties.isInicializarSchema()) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/shard-pedidos.sql"));
+            dataSources.forEach(populator::execute);
+        }
+
+        return new ShardedPedidoStore(dataSources, new PedidoIdGenerator(properties.getNoId()),
+                restauranteRepository, clienteRepository, produtoRepository);
+    }
+}
@@ -0,0 +1,40 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Particionamento dos pedidos por restaurante (prefixo "sharding").
+ * Ex.: sharding.enabled=true
+ *      sharding.shards[0].url=jdbc:mysql://pedidos-0/delivery
+ *      sharding.shards[1].url=jdbc:mysql://pedidos-1/delivery
+ * A ordem da lista define o número do shard; alterá-la (ou a quantidade) exige migrar os pedidos.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    // Desligado: pedidos ficam no datasource principal via JPA
+    private boolean enabled = false;
+
+    // Identifica a instância nos ids gerados (0-7); cada réplica da API precisa de um valor distinto
+    private int noId = 0;
+
+    // Executa db/shard-pedidos.sql em cada shard na subida (útil em dev/testes)
+    private boolean inicializarSchema = false;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maxPoolSize = 10;
+    }
+}
@@ -0,0 +1,41 @@
+package com.deliverytech.delivery_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Write-behind das transições de status de pedido (prefixo "write-behind").
+ * Ex.: write-behind.enabled=true
+ *      write-behind.intervalo=200ms
+ * Pressupõe que as transições de um mesmo pedido cheguem sempre à mesma instância
+ * (o estado validado fica em memória local).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "write-behind")
+public class WriteBehindProperties {
+
+    // Desligado: cada PATCH de status é uma transação síncrona (comportamento original)
+    private boolean enabled = false;
+
+    // Intervalo entre descargas dos status pendentes para o banco
+    private Duration intervalo = Duration.ofMillis(200);
+
+    // Ids por UPDATE ... WHERE id IN (...)
+    private int tamanhoLote = 500;
+
+    // Acima disso o agendador descarrega na hora, sem esperar o intervalo (backpressure)
+    private int maxPendentes = 50_000;
+
+    // Status conhecidos mantidos em memória para validar transições sem ler o banco
+    private int capacidadeEstados = 10_000;
+
+    // Journal local (append-only) reaplicado na subida
+    private String journal = "data/pedidos-status.journal";
+
+    // force() a cada registro: o ACK só sai depois do dado estar no disco
+    private boolean fsync = true;
+}
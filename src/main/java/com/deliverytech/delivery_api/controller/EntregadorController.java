@@ -0,0 +1,69 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.despacho.DespachoService;
+import com.deliverytech.delivery_api.dto.ApiResponse;
+import com.deliverytech.delivery_api.dto.LotePosicoesDTO;
+import com.deliverytech.delivery_api.dto.PosicaoEntregadorDTO;
+import com.deliverytech.delivery_api.dto.ViagemDTO;
+import com.deliverytech.delivery_api.rastreamento.RastreamentoService;
+import com.deliverytech.delivery_api.security.SecurityUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/entregadores")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ENTREGADOR')")
+@Tag(name = "Entregadores", description = "Posição, viagens atribuídas pelo despacho e confirmação de coleta/entrega")
+public class EntregadorController {
+
+    @Autowired
+    private DespachoService despachoService;
+
+    @Autowired
+    private RastreamentoService rastreamentoService;
+
+    @Autowired
+    private SecurityUtils securityUtils;
+
+    @PutMapping("/posicao")
+    @Operation(summary = "Reportar posição", description = "Chamado pelo app a cada poucos segundos. Autenticado só pelo token e gravado em memória: não consulta o banco.")
+    public ResponseEntity<Void> atualizarPosicao(@Valid @RequestBody PosicaoEntregadorDTO dto) {
+        rastreamentoService.registrar(securityUtils.getCurrentUserId(), dto.getLatitude(), dto.getLongitude(),
+                !Boolean.FALSE.equals(dto.getDisponivel()));
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/posicoes")
+    @Operation(summary = "Enviar lote de posições", description = "Pontos acumulados pelo app, em colunas (latitudes, longitudes, instantes). Pontos fora de ordem ou inválidos são descartados; o mais recente atualiza a posição no despacho. Não consulta o banco.")
+    public ResponseEntity<Void> registrarPosicoes(@Valid @RequestBody LotePosicoesDTO lote) {
+        rastreamentoService.registrarLote(securityUtils.getCurrentUserId(), lote);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/viagem")
+    @Operation(summary = "Viagem atual", description = "Pedidos atribuídos ao entregador logado; 204 quando não há viagem.")
+    public ResponseEntity<ApiResponse<ViagemDTO>> viagemAtual() {
+        return despachoService.buscarViagem(securityUtils.getCurrentUserId())
+                .map(v -> ResponseEntity.ok(ApiResponse.success(v)))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/viagem/coleta")
+    @Operation(summary = "Confirmar coleta", description = "Marca todos os pedidos da viagem como SAIU_PARA_ENTREGA.")
+    public ResponseEntity<ApiResponse<ViagemDTO>> confirmarColeta() {
+        return ResponseEntity.ok(ApiResponse.success(despachoService.confirmarColeta(securityUtils.getCurrentUserId())));
+    }
+
+    @PostMapping("/viagem/conclusao")
+    @Operation(summary = "Concluir viagem", description = "Marca os pedidos da viagem como ENTREGUE e libera o entregador para o próximo despacho.")
+    public ResponseEntity<Void> concluirViagem() {
+        despachoService.concluirViagem(securityUtils.getCurrentUserId());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.net.URI;
 import java.time.LocalDateTime;
 
+import com.deliverytech.delivery_api.cache.EtagCache;
 import com.deliverytech.delivery_api.dto.*;
 import com.deliverytech.delivery_api.entity.Restaurante;
 import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
@@ -20,11 +21,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.deliverytech.delivery_api.enums.StatusPedido;
+import com.deliverytech.delivery_api.rastreamento.RastreamentoService;
+import com.deliverytech.delivery_api.services.AvaliacaoService;
+import com.deliverytech.delivery_api.services.FilaCozinhaService;
 import com.deliverytech.delivery_api.services.PedidoService;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -34,15 +40,30 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 @Tag(name = "Pedidos", description = "Fluxo de checkout e acompanhamento de pedidos")
 public class PedidoController {
 
+    // Dados do cliente: só o navegador guarda, e sempre revalida (o status muda a qualquer momento)
+    private static final CacheControl CACHE_PEDIDO = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private PedidoService pedidoService;
 
+    @Autowired
+    private EtagCache etagCache;
+
     @Autowired
     private RestauranteRepository restauranteRepository;
 
     @Autowired
     private SecurityUtils securityUtils;
 
+    @Autowired
+    private FilaCozinhaService filaCozinhaService;
+
+    @Autowired
+    private RastreamentoService rastreamentoService;
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
     @PostMapping
     @PreAuthorize("hasRole('CLIENTE')")
     @Operation(summary = "Criar novo pedido", description = "Registra um pedido contendo múltiplos itens. Valida se produtos pertencem ao restaurante e calcula o total.")
@@ -90,11 +111,27 @@ public class PedidoController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Você não tem permissão para ver este pedido"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Pedido não encontrado")
     })
-    public ResponseEntity<ApiResponse<PedidoResponseDTO>> buscarPorId(
-            @PathVariable Long id) {
+    public ResponseEntity<ApiResponse<PedidoResponseDTO>> buscarPorId(@PathVariable Long id) {
 
-        PedidoResponseDTO pedido = pedidoService.buscarPedidoPorId(id);
-        return ResponseEntity.ok(ApiResponse.success(pedido));
+        // previsaoEntrega muda com o tempo: o ETag é sempre calculado do corpo atual, sem cache
+        return etagCache.responderSemCache(CACHE_PEDIDO, () -> pedidoService.buscarPedidoPorId(id));
+    }
+
+    @PostMapping("/{id}/avaliacao")
+    @PreAuthorize("hasRole('CLIENTE') and @pedidoService.canAccess(#id)")
+    @Operation(summary = "Avaliar pedido", description = "Nota de 1 a 5 para um pedido entregue, uma vez por pedido. " +
+            "A nota média do restaurante é atualizada em lote, alguns segundos depois.")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Avaliação registrada"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Pedido ainda não entregue ou nota inválida"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Pedido já avaliado")
+    })
+    public ResponseEntity<ApiResponse<AvaliacaoResponseDTO>> avaliar(
+            @PathVariable Long id,
+            @Valid @RequestBody AvaliacaoRequestDTO dto) {
+
+        AvaliacaoResponseDTO avaliacao = avaliacaoService.avaliar(id, dto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(avaliacao));
     }
 
     @PatchMapping("/{id}/status")
@@ -154,6 +191,23 @@ public class PedidoController {
         return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
     }
 
+    @GetMapping("/cozinha")
+    @PreAuthorize("hasRole('RESTAURANTE')")
+    @Operation(summary = "Fila da cozinha (Restaurante)", description = "Pedidos em aberto do restaurante logado na ordem de atendimento (PREPARANDO, CONFIRMADO, PENDENTE; mais antigos primeiro). Servida da memória, sem consulta ao banco; com várias instâncias, transições feitas em outra réplica aparecem na próxima ressincronização (cozinha.ressincronizacao).")
+    public ResponseEntity<ApiResponse<FilaCozinhaDTO>> filaCozinha() {
+        Long restauranteId = securityUtils.getCurrentRestauranteId();
+        return ResponseEntity.ok(ApiResponse.success(filaCozinhaService.buscarFila(restauranteId)));
+    }
+
+    @GetMapping("/{id}/rastreamento")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE', 'RESTAURANTE', 'ENTREGADOR')")
+    @Operation(summary = "Rastrear entrega", description = "Posição atual e trilha recente do entregador do pedido. Servido da memória, sem consulta ao banco; 404 enquanto o pedido não tem entregador, 403 para quem não é cliente, restaurante ou entregador do pedido.")
+    public ResponseEntity<ApiResponse<RastreamentoDTO>> rastrearPedido(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_PEDIDO)
+                .body(ApiResponse.success(rastreamentoService.rastrearPedido(id)));
+    }
+
     // Endpoints legados mantidos para compatibilidade, mas documentados
     @GetMapping("/cliente/{clienteId}")
     @Operation(summary = "Histórico por Cliente ID", description = "Busca administrativa de pedidos de um cliente específico.")
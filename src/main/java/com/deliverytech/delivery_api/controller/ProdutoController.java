@@ -1,9 +1,14 @@
 package com.deliverytech.delivery_api.controller;
 
+import com.deliverytech.delivery_api.cache.EtagCache;
 import com.deliverytech.delivery_api.dto.ApiResponse;
+import com.deliverytech.delivery_api.dto.DisponibilidadeLoteRequestDTO;
+import com.deliverytech.delivery_api.dto.DisponibilidadeLoteResponseDTO;
+import com.deliverytech.delivery_api.dto.ImportacaoProdutosResponseDTO;
 import com.deliverytech.delivery_api.dto.PagedResponse;
 import com.deliverytech.delivery_api.dto.ProdutoRequestDTO;
 import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.services.ProdutoImportacaoService;
 import com.deliverytech.delivery_api.services.ProdutoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,12 +19,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/produtos")
@@ -27,9 +38,19 @@ import java.net.URI;
 @Tag(name = "Produtos", description = "Gerenciamento do cardápio (itens, preços e disponibilidade)")
 public class ProdutoController {
 
+    // Preço e disponibilidade mudam com mais frequência que os dados do restaurante
+    private static final CacheControl CACHE_DETALHE = CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic();
+    private static final CacheControl CACHE_LISTAGEM = CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic();
+
     @Autowired
     private ProdutoService produtoService;
 
+    @Autowired
+    private ProdutoImportacaoService produtoImportacaoService;
+
+    @Autowired
+    private EtagCache etagCache;
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('RESTAURANTE')")
     @Operation(summary = "Cadastrar produto", description = "Adiciona um novo item ao cardápio. Requer role ADMIN ou RESTAURANTE.")
@@ -49,6 +70,28 @@ public class ProdutoController {
         return ResponseEntity.created(location).body(ApiResponse.success(produtoSalvo));
     }
 
+    @PostMapping(value = "/importacao", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANTE') and @restauranteService.isOwner(#restauranteId))")
+    @Operation(summary = "Importar cardápio em lote",
+            description = "Recebe um array JSON de produtos ou um CSV com cabeçalho (nome,descricao,preco,categoria) em streaming. " +
+                    "Linhas válidas são gravadas em lotes; linhas inválidas voltam como erros sem interromper a importação.")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Importação processada (ver importados/rejeitados)"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Arquivo ilegível ou cabeçalho CSV incompleto"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Sem permissão para alterar o cardápio deste restaurante"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
+    })
+    public ResponseEntity<ApiResponse<ImportacaoProdutosResponseDTO>> importar(
+            @Parameter(description = "ID do restaurante dono do cardápio", example = "1") @RequestParam Long restauranteId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream conteudo) {
+
+        ImportacaoProdutosResponseDTO resultado = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)
+                ? produtoImportacaoService.importarJson(restauranteId, conteudo)
+                : produtoImportacaoService.importarCsv(restauranteId, conteudo);
+        return ResponseEntity.ok(ApiResponse.success(resultado));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar por ID", description = "Retorna os detalhes de um produto específico.")
     @ApiResponses(value = {
@@ -56,10 +99,10 @@ public class ProdutoController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Produto não encontrado")
     })
     public ResponseEntity<ApiResponse<ProdutoResponseDTO>> buscarPorId(
-            @Parameter(description = "ID do produto", example = "101") @PathVariable Long id) {
+            @Parameter(description = "ID do produto", example = "101") @PathVariable Long id,
+            WebRequest request) {
 
-        ProdutoResponseDTO produto = produtoService.buscarProdutoPorId(id);
-        return ResponseEntity.ok(ApiResponse.success(produto));
+        return etagCache.responder(request, "produto:" + id, CACHE_DETALHE, () -> produtoService.buscarProdutoPorId(id));
     }
 
     @GetMapping("/categoria/{categoria}")
@@ -69,7 +112,7 @@ public class ProdutoController {
             @Parameter(description = "Paginação") @PageableDefault(size = 10, sort = "nome") Pageable pageable) {
 
         Page<ProdutoResponseDTO> page = produtoService.buscarProdutosPorCategoria(categoria, pageable);
-        return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
+        return ResponseEntity.ok().cacheControl(CACHE_LISTAGEM).body(ApiResponse.success(new PagedResponse<>(page)));
     }
 
     @GetMapping("/buscar")
@@ -79,11 +122,12 @@ public class ProdutoController {
             @Parameter(description = "Paginação") @PageableDefault(size = 10) Pageable pageable) {
 
         Page<ProdutoResponseDTO> page = produtoService.buscarProdutosPorNome(nome, pageable);
-        return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
+        return ResponseEntity.ok().cacheControl(CACHE_LISTAGEM).body(ApiResponse.success(new PagedResponse<>(page)));
     }
 
+    // A posse do produto é checada no serviço, na mesma leitura que faz a alteração (TenantContext)
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANTE') and @produtoService.isOwner(#id))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANTE') and @tenantContext.temRestaurante())")
     @Operation(summary = "Atualizar produto", description = "Atualiza dados de um produto. O restaurante só pode alterar seus próprios produtos.")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Produto atualizado"),
@@ -99,7 +143,7 @@ public class ProdutoController {
     }
 
     @PatchMapping("/{id}/disponibilidade")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANTE') and @produtoService.isOwner(#id))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANTE') and @tenantContext.temRestaurante())")
     @Operation(summary = "Alterar disponibilidade", description = "Ativa ou inativa um produto no cardápio rapidamente.")
     public ResponseEntity<ApiResponse<ProdutoResponseDTO>> alterarDisponibilidade(
             @PathVariable Long id,
@@ -109,8 +153,25 @@ public class ProdutoController {
         return ResponseEntity.ok(ApiResponse.success(produto));
     }
 
+    @PatchMapping("/disponibilidade")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANTE') and @restauranteService.isOwner(#dto.restauranteId))")
+    @Operation(summary = "Alterar disponibilidade em lote",
+            description = "Ativa ou inativa vários produtos de um restaurante (por IDs ou por categoria) em uma única operação.")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Disponibilidade alterada (ver atualizados/ignorados)"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Informe produtoIds ou categoria (apenas um)"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Sem permissão para alterar o cardápio deste restaurante"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
+    })
+    public ResponseEntity<ApiResponse<DisponibilidadeLoteResponseDTO>> alterarDisponibilidadeEmLote(
+            @Valid @RequestBody DisponibilidadeLoteRequestDTO dto) {
+
+        DisponibilidadeLoteResponseDTO resultado = produtoService.alterarDisponibilidadeEmLote(dto);
+        return ResponseEntity.ok(ApiResponse.success(resultado));
+    }
+
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @produtoService.isOwner(#id)")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANTE') and @tenantContext.temRestaurante())")
     @Operation(summary = "Remover produto", description = "Exclui permanentemente um produto do cardápio.")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "204", description = "Produto removido com sucesso (sem conteúdo)"),
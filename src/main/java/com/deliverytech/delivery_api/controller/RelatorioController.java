@@ -1,16 +1,19 @@
 package com.deliverytech.delivery_api.controller;
 
+import com.deliverytech.delivery_api.cardinalidade.CardinalidadeService;
 import com.deliverytech.delivery_api.dto.ApiResponse;
 import com.deliverytech.delivery_api.dto.PagedResponse;
 import com.deliverytech.delivery_api.dto.PedidoResumoDTO;
+import com.deliverytech.delivery_api.dto.reports.RelatorioClientesUnicosDTO;
+import com.deliverytech.delivery_api.dto.reports.RelatorioPercentisDTO;
 import com.deliverytech.delivery_api.dto.reports.RelatorioProdutoVendidoDTO;
 import com.deliverytech.delivery_api.dto.reports.RelatorioRankingClienteDTO;
 import com.deliverytech.delivery_api.dto.reports.RelatorioVendasRestauranteDTO;
-import com.deliverytech.delivery_api.entity.Pedido;
-import com.deliverytech.delivery_api.repository.ClienteRepository;
-import com.deliverytech.delivery_api.repository.PedidoRepository;
-import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.quantis.QuantisService;
+import com.deliverytech.delivery_api.resilience.Bulkhead;
+import com.deliverytech.delivery_api.resilience.BulkheadRegistry;
 import com.deliverytech.delivery_api.services.PedidoService; // 1. IMPORTAR PedidoService
+import com.deliverytech.delivery_api.services.RelatorioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,10 +26,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Os relatórios rodam no bulkhead "relatorios": executor e fatia de conexões próprios,
+ * liberando a thread do Tomcat enquanto a consulta roda. Um pico de relatórios
+ * é rejeitado (503) em vez de disputar threads e conexões com o checkout.
+ */
 @RestController
 @RequestMapping("/api/relatorios")
 @CrossOrigin(origins = "*")
@@ -34,51 +43,54 @@ import java.util.stream.Collectors;
 public class RelatorioController {
 
     @Autowired
-    private PedidoRepository pedidoRepository;
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private PedidoService pedidoService; // 2. INJETAR PedidoService
+
     @Autowired
-    private ClienteRepository clienteRepository;
+    private BulkheadRegistry bulkheadRegistry;
+
     @Autowired
-    private ProdutoRepository produtoRepository;
+    private CardinalidadeService cardinalidadeService;
 
     @Autowired
-    private PedidoService pedidoService; // 2. INJETAR PedidoService
+    private QuantisService quantisService;
+
+    private Bulkhead bulkhead() {
+        return bulkheadRegistry.get("relatorios");
+    }
 
     @GetMapping("/vendas-por-restaurante")
     @Operation(summary = "Relatório de total de vendas agrupado por restaurante")
-    public ResponseEntity<ApiResponse<List<RelatorioVendasRestauranteDTO>>> getVendasRestaurante() {
-
-        List<RelatorioVendasRestauranteDTO> relatorio = pedidoRepository.findTotalVendasPorRestaurante()
-                .stream()
-                .map(RelatorioVendasRestauranteDTO::new)
-                .collect(Collectors.toList());
+    public CompletableFuture<ResponseEntity<ApiResponse<List<RelatorioVendasRestauranteDTO>>>> getVendasRestaurante() {
 
-        return ResponseEntity.ok(ApiResponse.success(relatorio));
+        return bulkhead().submit(() -> {
+            List<RelatorioVendasRestauranteDTO> relatorio = relatorioService.vendasPorRestaurante();
+            return ResponseEntity.ok(ApiResponse.success(relatorio));
+        });
     }
 
     @GetMapping("/clientes-mais-ativos")
     @Operation(summary = "Ranking de clientes por número total de pedidos")
-    public ResponseEntity<ApiResponse<List<RelatorioRankingClienteDTO>>> getClientesMaisAtivos() {
+    public CompletableFuture<ResponseEntity<ApiResponse<List<RelatorioRankingClienteDTO>>>> getClientesMaisAtivos() {
 
-        List<RelatorioRankingClienteDTO> relatorio = clienteRepository.findRankingClientesPorPedidos()
-                .stream()
-                .map(RelatorioRankingClienteDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(ApiResponse.success(relatorio));
+        return bulkhead().submit(() -> {
+            List<RelatorioRankingClienteDTO> relatorio = relatorioService.clientesMaisAtivos();
+            return ResponseEntity.ok(ApiResponse.success(relatorio));
+        });
     }
 
     @GetMapping("/produtos-mais-vendidos")
     @Operation(summary = "Ranking dos produtos mais vendidos (Top N)")
-    public ResponseEntity<ApiResponse<List<RelatorioProdutoVendidoDTO>>> getProdutosMaisVendidos(
+    public CompletableFuture<ResponseEntity<ApiResponse<List<RelatorioProdutoVendidoDTO>>>> getProdutosMaisVendidos(
             @Parameter(description = "Quantidade de produtos no ranking", example = "10")
             @RequestParam(defaultValue = "10") int limite) {
 
-        List<RelatorioProdutoVendidoDTO> relatorio = produtoRepository.findProdutosMaisVendidos(limite)
-                .stream()
-                .map(RelatorioProdutoVendidoDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(ApiResponse.success(relatorio));
+        return bulkhead().submit(() -> {
+            List<RelatorioProdutoVendidoDTO> relatorio = relatorioService.produtosMaisVendidos(limite);
+            return ResponseEntity.ok(ApiResponse.success(relatorio));
+        });
     }
 
     /**
@@ -86,7 +98,7 @@ public class RelatorioController {
      */
     @GetMapping("/pedidos-por-periodo")
     @Operation(summary = "Listar todos os pedidos dentro de um período (paginado)")
-    public ResponseEntity<ApiResponse<PagedResponse<PedidoResumoDTO>>> getPedidosPorPeriodo(
+    public CompletableFuture<ResponseEntity<ApiResponse<PagedResponse<PedidoResumoDTO>>>> getPedidosPorPeriodo(
             @Parameter(description = "Data/Hora inicial (formato ISO: YYYY-MM-DDTHH:MM:SS)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
             @Parameter(description = "Data/Hora final (formato ISO: YYYY-MM-DDTHH:MM:SS)")
@@ -95,8 +107,10 @@ public class RelatorioController {
             @PageableDefault(size = 10, sort = "dataPedido") Pageable pageable) {
 
         // 3. USAR O SERVICE, passando null para o status (pois este endpoint não filtra por status)
-        Page<PedidoResumoDTO> page = pedidoService.listarPedidos(null, dataInicio, dataFim, pageable);
-        return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
+        return bulkhead().submit(() -> {
+            Page<PedidoResumoDTO> page = pedidoService.listarPedidos(null, dataInicio, dataFim, pageable);
+            return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
+        });
     }
 
     /**
@@ -104,14 +118,84 @@ public class RelatorioController {
      */
     @GetMapping("/pedidos-por-valor")
     @Operation(summary = "Relatório de pedidos acima de um determinado valor (paginado)")
-    public ResponseEntity<ApiResponse<PagedResponse<PedidoResumoDTO>>> getPedidosAcimaDe(
+    public CompletableFuture<ResponseEntity<ApiResponse<PagedResponse<PedidoResumoDTO>>>> getPedidosAcimaDe(
             @Parameter(description = "Valor mínimo do pedido", example = "100.00")
             @RequestParam BigDecimal valor,
             @Parameter(description = "Parâmetros de paginação")
             @PageableDefault(size = 10, sort = "valorTotal") Pageable pageable) {
 
         // 3. USAR O NOVO MÉTODO DO SERVICE
-        Page<PedidoResumoDTO> page = pedidoService.buscarPedidosAcimaDeValor(valor, pageable);
-        return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
+        return bulkhead().submit(() -> {
+            Page<PedidoResumoDTO> page = pedidoService.buscarPedidosAcimaDeValor(valor, pageable);
+            return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
+        });
+    }
+
+    /**
+     * Clientes distintos estimados a partir dos sketches diários (no máximo um por dia do período):
+     * não passa pelo bulkhead porque não varre "pedidos".
+     */
+    @GetMapping("/clientes-unicos/restaurantes/{restauranteId}")
+    @Operation(summary = "Clientes distintos de um restaurante no período (estimativa com intervalo de confiança)")
+    public ResponseEntity<ApiResponse<RelatorioClientesUnicosDTO>> getClientesUnicosRestaurante(
+            @Parameter(description = "ID do restaurante") @PathVariable Long restauranteId,
+            @Parameter(description = "Data inicial (padrão: 29 dias antes da final)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @Parameter(description = "Data final (padrão: hoje)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @Parameter(description = "Nível de confiança do intervalo (0.68, 0.90, 0.95 ou 0.99)", example = "0.95")
+            @RequestParam(defaultValue = "0.95") double confianca) {
+
+        return ResponseEntity.ok(ApiResponse.success(
+                cardinalidadeService.clientesUnicosPorRestaurante(restauranteId, inicio, fim, confianca)));
+    }
+
+    @GetMapping("/clientes-unicos/categorias/{categoria}")
+    @Operation(summary = "Clientes distintos de uma categoria no período (estimativa com intervalo de confiança)")
+    public ResponseEntity<ApiResponse<RelatorioClientesUnicosDTO>> getClientesUnicosCategoria(
+            @Parameter(description = "Categoria do restaurante", example = "Italiana") @PathVariable String categoria,
+            @Parameter(description = "Data inicial (padrão: 29 dias antes da final)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @Parameter(description = "Data final (padrão: hoje)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @Parameter(description = "Nível de confiança do intervalo (0.68, 0.90, 0.95 ou 0.99)", example = "0.95")
+            @RequestParam(defaultValue = "0.95") double confianca) {
+
+        return ResponseEntity.ok(ApiResponse.success(
+                cardinalidadeService.clientesUnicosPorCategoria(categoria, inicio, fim, confianca)));
+    }
+
+    /**
+     * Percentis somando os histogramas diários do restaurante (no máximo um por dia do período),
+     * sem ler os pedidos: também fica fora do bulkhead.
+     */
+    @GetMapping("/percentis/restaurantes/{restauranteId}/valor-pedido")
+    @Operation(summary = "Percentis do valor dos pedidos de um restaurante no período")
+    public ResponseEntity<ApiResponse<RelatorioPercentisDTO>> getPercentisValorPedido(
+            @Parameter(description = "ID do restaurante") @PathVariable Long restauranteId,
+            @Parameter(description = "Data inicial (padrão: 29 dias antes da final)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @Parameter(description = "Data final (padrão: hoje)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @Parameter(description = "Percentis (0-100)", example = "50,95,99")
+            @RequestParam(defaultValue = "50,95,99") List<Double> percentis) {
+
+        return ResponseEntity.ok(ApiResponse.success(
+                quantisService.percentis(QuantisService.Metrica.VALOR_PEDIDO, restauranteId, inicio, fim, percentis)));
+    }
+
+    @GetMapping("/percentis/restaurantes/{restauranteId}/tempo-entrega")
+    @Operation(summary = "Percentis do tempo entre a criação e a entrega dos pedidos de um restaurante (minutos)")
+    public ResponseEntity<ApiResponse<RelatorioPercentisDTO>> getPercentisTempoEntrega(
+            @Parameter(description = "ID do restaurante") @PathVariable Long restauranteId,
+            @Parameter(description = "Data inicial dos pedidos (padrão: 29 dias antes da final)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @Parameter(description = "Data final dos pedidos (padrão: hoje)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @Parameter(description = "Percentis (0-100)", example = "50,95,99")
+            @RequestParam(defaultValue = "50,95,99") List<Double> percentis) {
+
+        return ResponseEntity.ok(ApiResponse.success(
+                quantisService.percentis(QuantisService.Metrica.TEMPO_ENTREGA, restauranteId, inicio, fim, percentis)));
     }
-}
\ No newline at end of file
+}
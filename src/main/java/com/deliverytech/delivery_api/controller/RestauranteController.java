@@ -1,6 +1,9 @@
 package com.deliverytech.delivery_api.controller;
 
+import com.deliverytech.delivery_api.cache.CardapioSnapshot;
+import com.deliverytech.delivery_api.cache.EtagCache;
 import com.deliverytech.delivery_api.dto.*;
+import com.deliverytech.delivery_api.services.CardapioSnapshotService;
 import com.deliverytech.delivery_api.services.ProdutoService;
 import com.deliverytech.delivery_api.services.RestauranteService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,14 +12,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import com.deliverytech.delivery_api.dto.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.math.BigDecimal;
@@ -30,12 +37,22 @@ import java.util.concurrent.TimeUnit;
 @Tag(name = "Restaurantes", description = "Endpoints para gerenciamento de restaurantes e seus cardápios")
 public class RestauranteController {
 
+    // Cache-Control por endpoint: dados públicos e que mudam pouco; o ETag torna a revalidação barata
+    private static final CacheControl CACHE_DETALHE = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+    private static final CacheControl CACHE_LISTAGEM = CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic();
+
     @Autowired
     private RestauranteService restauranteService;
 
     @Autowired
     private ProdutoService produtoService; // Necessário para o endpoint 2.3
 
+    @Autowired
+    private CardapioSnapshotService cardapioSnapshotService;
+
+    @Autowired
+    private EtagCache etagCache;
+
     /**
      * 2.2: POST /api/restaurantes - Cadastrar restaurante
      * ATIVIDADE 3.1, 3.2, 3.3: Retorna 201 com Location e ApiResponse
@@ -71,25 +88,43 @@ public class RestauranteController {
             @RequestParam(required = false) String categoria,
             @Parameter(description = "Filtrar por status (true=ativos, false=inativos)")
             @RequestParam(required = false) Boolean ativo,
+            @Parameter(description = "Filtrar pelo horário de funcionamento (true=abertos agora, false=fechados agora)")
+            @RequestParam(required = false) Boolean abertoAgora,
             @Parameter(description = "Parâmetros de paginação (page, size, sort)")
             @PageableDefault(size = 10, sort = "nome") Pageable pageable) {
 
-        Page<RestauranteResponseDTO> page = restauranteService.buscarRestaurantes(categoria, ativo, pageable);
-        return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
+        Page<RestauranteResponseDTO> page = ordenarPorPopularidade(pageable)
+                ? restauranteService.buscarRestaurantesPopulares(categoria, ativo, abertoAgora,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                : restauranteService.buscarRestaurantes(categoria, ativo, abertoAgora, pageable);
+        return ResponseEntity.ok().cacheControl(CACHE_LISTAGEM).body(ApiResponse.success(new PagedResponse<>(page)));
+    }
+
+    @GetMapping("/melhor-avaliados")
+    @Operation(summary = "Restaurantes ativos ordenados pela avaliação (paginado)",
+            description = "Nota média decrescente e, no empate, mais avaliações primeiro. A nota é atualizada em lote " +
+                    "alguns segundos depois de cada avaliação.")
+    public ResponseEntity<ApiResponse<PagedResponse<RestauranteResponseDTO>>> buscarMelhorAvaliados(
+            @Parameter(description = "Parâmetros de paginação (page, size)")
+            @PageableDefault(size = 10) Pageable pageable) {
+
+        Page<RestauranteResponseDTO> page = restauranteService.buscarMelhorAvaliados(pageable);
+        return ResponseEntity.ok().cacheControl(CACHE_LISTAGEM).body(ApiResponse.success(new PagedResponse<>(page)));
     }
 
     /**
      * 2.2: GET /api/restaurantes/{id} - Buscar por ID
      * ATIVIDADE 3.2, 3.3: Adiciona ApiResponse e Cache
+     * ETag: If-None-Match igual ao ETag guardado responde 304 sem consultar o banco.
      */
     @GetMapping("/{id}")
     @Operation(summary = "Buscar um restaurante específico pelo ID")
     public ResponseEntity<ApiResponse<RestauranteResponseDTO>> buscarPorId(
-            @Parameter(description = "ID do restaurante", example = "1") @PathVariable Long id) {
+            @Parameter(description = "ID do restaurante", example = "1") @PathVariable Long id,
+            WebRequest request) {
 
-        RestauranteResponseDTO dto = restauranteService.buscarRestaurantePorId(id);
-        CacheControl cache = CacheControl.maxAge(5, TimeUnit.MINUTES);
-        return ResponseEntity.ok().cacheControl(cache).body(ApiResponse.success(dto));
+        return etagCache.responder(request, "restaurante:" + id, CACHE_DETALHE,
+                () -> restauranteService.buscarRestaurantePorId(id));
     }
 
     /**
@@ -104,7 +139,7 @@ public class RestauranteController {
             @PageableDefault(size = 10, sort = "nome") Pageable pageable) {
 
         Page<RestauranteResponseDTO> page = restauranteService.buscarRestaurantesPorCategoria(categoria, pageable);
-        return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
+        return ResponseEntity.ok().cacheControl(CACHE_LISTAGEM).body(ApiResponse.success(new PagedResponse<>(page)));
     }
 
     /**
@@ -169,6 +204,48 @@ public class RestauranteController {
      * 2.3: GET /api/restaurantes/{restauranteId}/produtos - Produtos do restaurante
      * ATIVIDADE 3.2, 3.4: Adiciona paginação e wrappers
      */
+    @GetMapping(value = "/{restauranteId}/produtos", params = {"!page", "!size", "!sort"})
+    @Operation(summary = "Cardápio completo de um restaurante",
+            description = "Sem parâmetros de paginação, devolve todos os produtos disponíveis numa única página, " +
+                    "a partir de um snapshot pré-serializado. Suporta If-None-Match (304 quando o cardápio não mudou).")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Cardápio completo"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Cardápio não mudou desde o ETag informado"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
+    })
+    public ResponseEntity<byte[]> buscarCardapio(
+            @Parameter(description = "ID do restaurante") @PathVariable Long restauranteId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        CardapioSnapshot snapshot = cardapioSnapshotService.obter(restauranteId);
+        // O ResponseEntity com ETag já responde 304 quando o If-None-Match bate
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        // Já comprimido no snapshot: com Content-Encoding definido o Tomcat não comprime de novo
+        if (aceitaGzip(acceptEncoding)) {
+            return resposta.eTag(snapshot.etagGzip())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.jsonGzip());
+        }
+        return resposta.eTag(snapshot.etag()).body(snapshot.json());
+    }
+
+    private static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String opcao : acceptEncoding.split(",")) {
+            String[] partes = opcao.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
     @GetMapping("/{restauranteId}/produtos")
     @Operation(summary = "Listar todos os produtos disponíveis de um restaurante (paginado)")
     public ResponseEntity<ApiResponse<PagedResponse<ProdutoResponseDTO>>> buscarProdutosPorRestaurante(
@@ -176,7 +253,15 @@ public class RestauranteController {
             @Parameter(description = "Parâmetros de paginação")
             @PageableDefault(size = 10, sort = "nome") Pageable pageable) {
 
-        Page<ProdutoResponseDTO> page = produtoService.buscarProdutosPorRestaurante(restauranteId, pageable);
-        return ResponseEntity.ok(ApiResponse.success(new PagedResponse<>(page)));
+        Page<ProdutoResponseDTO> page = ordenarPorPopularidade(pageable)
+                ? produtoService.buscarProdutosPopulares(restauranteId,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                : produtoService.buscarProdutosPorRestaurante(restauranteId, pageable);
+        return ResponseEntity.ok().cacheControl(CACHE_LISTAGEM).body(ApiResponse.success(new PagedResponse<>(page)));
+    }
+
+    /** sort=popular não é coluna: a ordem vem do ranking de popularidade em memória. */
+    private static boolean ordenarPorPopularidade(Pageable pageable) {
+        return pageable.getSort().getOrderFor("popular") != null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,401 @@
+package com.deliverytech.delivery_api.despacho;
+
+import com.deliverytech.delivery_api.config.DespachoProperties;
+import com.deliverytech.delivery_api.dto.ViagemDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.enums.StatusPedido;
+import com.deliverytech.delivery_api.events.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.exceptions.ConflictException;
+import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoStore;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.services.PedidoService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Despacho de pedidos prontos (PREPARANDO) para entregadores.
+ * As posições chegam pelo endpoint de alta frequência e vão direto para o índice espacial em memória;
+ * a cada despacho.intervalo uma rodada agrupa pedidos do mesmo restaurante com destinos próximos
+ * e entrega cada lote ao entregador livre mais próximo do restaurante (guloso, do pedido mais antigo ao mais novo).
+ * Viagens existem só em memória: numa reinicialização os pedidos ainda PREPARANDO voltam ao despacho
+ * e os que já saíram para entrega seguem com quem os coletou.
+ * Não há coordenação entre réplicas (nenhuma trava ou reserva do pedido no banco): com despacho.enabled=true
+ * a API deve rodar em uma única instância.
+ */
+@Service
+public class DespachoService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachoService.class);
+
+    private static final int TAMANHO_PAGINA_AQUECIMENTO = 1000;
+
+    private static final Comparator<PedidoPronto> ORDEM = Comparator
+            .comparing(PedidoPronto::dataPedido, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(PedidoPronto::pedidoId);
+
+    private final DespachoProperties properties;
+    private final PedidoStore pedidoStore;
+    private final RestauranteRepository restauranteRepository;
+    private final ClienteRepository clienteRepository;
+    private final PedidoService pedidoService;
+    private final Clock clock;
+    private final IndiceEntregadores indice;
+
+    // Protege prontos, viagens e entregadorDoPedido; posições têm sincronização própria no índice
+    private final Object lock = new Object();
+    private final Map<Long, PedidoPronto> prontos = new HashMap<>();
+    private final Map<Long, Viagem> viagens = new HashMap<>();
+    private final Map<Long, Long> entregadorDoPedido = new HashMap<>();
+    private long proximaViagem = 1;
+
+    private ScheduledExecutorService agendador;
+
+    @Autowired
+    public DespachoService(DespachoProperties properties, PedidoStore pedidoStore, RestauranteRepository restauranteRepository,
+                           ClienteRepository clienteRepository, PedidoService pedidoService) {
+        this(properties, pedidoStore, restauranteRepository, clienteRepository, pedidoService, Clock.systemDefaultZone());
+    }
+
+    DespachoService(DespachoProperties properties, PedidoStore pedidoStore, RestauranteRepository restauranteRepository,
+                    ClienteRepository clienteRepository, PedidoService pedidoService, Clock clock) {
+        this.properties = properties;
+        this.pedidoStore = pedidoStore;
+        this.restauranteRepository = restauranteRepository;
+        this.clienteRepository = clienteRepository;
+        this.pedidoService = pedidoService;
+        this.clock = clock;
+        this.indice = new IndiceEntregadores(properties.getTamanhoCelulaGraus());
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "despacho-entregadores");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalo = properties.getIntervalo().toMillis();
+        agendador.scheduleWithFixedDelay(this::despacharComSeguranca, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /** Caminho quente: só memória, nenhum acesso ao banco. */
+    public void registrarPosicao(Long entregadorId, double latitude, double longitude, boolean disponivel) {
+        indice.atualizar(entregadorId, latitude, longitude, disponivel, clock.millis());
+    }
+
+    /** Entrega em andamento do pedido (atribuído a um entregador), sem consultar o banco. */
+    public Optional<Entrega> buscarEntrega(Long pedidoId) {
+        synchronized (lock) {
+            Long entregadorId = entregadorDoPedido.get(pedidoId);
+            Viagem viagem = entregadorId != null ? viagens.get(entregadorId) : null;
+            if (viagem == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new Entrega(pedidoId, viagem.entregadorId, viagem.restauranteId,
+                    viagem.pedidos.get(pedidoId), viagem.coletada));
+        }
+    }
+
+    public Optional<ViagemDTO> buscarViagem(Long entregadorId) {
+        synchronized (lock) {
+            return Optional.ofNullable(viagens.get(entregadorId)).map(Viagem::toDTO);
+        }
+    }
+
+    /**
+     * Entregador confirma que pegou os pedidos no restaurante: todos passam a SAIU_PARA_ENTREGA.
+     * A viagem só fica coletada depois que todos os pedidos mudaram; se algum falhar, a coleta pode ser repetida.
+     */
+    public ViagemDTO confirmarColeta(Long entregadorId) {
+        Viagem viagem;
+        List<Long> pedidos;
+        synchronized (lock) {
+            viagem = viagemDo(entregadorId);
+            if (viagem.coletada) {
+                throw new BusinessException("A coleta desta viagem já foi confirmada.");
+            }
+            reservar(viagem);
+            pedidos = List.copyOf(viagem.pedidos.keySet());
+        }
+        atualizarPedidos(viagem, pedidos, StatusPedido.SAIU_PARA_ENTREGA);
+        synchronized (lock) {
+            viagem.emAndamento = false;
+            viagem.coletada = true;
+            return viagem.toDTO();
+        }
+    }
+
+    /** Entregador concluiu as entregas: pedidos ENTREGUE e entregador livre para a próxima viagem. */
+    public void concluirViagem(Long entregadorId) {
+        Viagem viagem;
+        List<Long> pedidos;
+        synchronized (lock) {
+            viagem = viagemDo(entregadorId);
+            if (!viagem.coletada) {
+                throw new BusinessException("Confirme a coleta antes de concluir a viagem.");
+            }
+            reservar(viagem);
+            pedidos = List.copyOf(viagem.pedidos.keySet());
+        }
+        atualizarPedidos(viagem, pedidos, StatusPedido.ENTREGUE);
+        synchronized (lock) {
+            viagem.emAndamento = false;
+            encerrar(viagem);
+        }
+    }
+
+    // Uma coleta ou conclusão por viagem de cada vez: a segunda chamada simultânea não repete as transições
+    private void reservar(Viagem viagem) {
+        if (viagem.emAndamento) {
+            throw new ConflictException("Coleta ou conclusão desta viagem já em andamento.");
+        }
+        viagem.emAndamento = true;
+    }
+
+    // Fora do lock: cada transição é uma transação do PedidoService. Na falha a viagem fica como estava
+    private void atualizarPedidos(Viagem viagem, List<Long> pedidos, StatusPedido status) {
+        try {
+            pedidos.forEach(id -> pedidoService.atualizarStatusPedido(id, status));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                viagem.emAndamento = false;
+            }
+            throw e;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        int carregados = 0;
+        Page<Pedido> pagina;
+        int numero = 0;
+        do {
+            pagina = pedidoStore.findByStatus(StatusPedido.PREPARANDO.name(),
+                    PageRequest.of(numero++, TAMANHO_PAGINA_AQUECIMENTO, Sort.by("id")));
+            for (Pedido pedido : pagina) {
+                if (pedido.getRestaurante() != null && adicionar(pedido.getId(), pedido.getRestaurante().getId(),
+                        pedido.getClienteId(), pedido.getDataPedido())) {
+                    carregados++;
+                }
+            }
+        } while (pagina.hasNext());
+        log.info("Despacho aquecido com {} pedidos prontos para coleta", carregados);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPedidoStatusAlterado(PedidoStatusAlteradoEvent evento) {
+        Long pedidoId = evento.pedidoId();
+        if (StatusPedido.PREPARANDO.name().equals(evento.status())) {
+            if (evento.temDetalhes()) {
+                adicionar(pedidoId, evento.restauranteId(), evento.clienteId(), evento.dataPedido());
+            } else {
+                pedidoStore.findById(pedidoId)
+                        .filter(p -> p.getRestaurante() != null)
+                        .ifPresent(p -> adicionar(p.getId(), p.getRestaurante().getId(), p.getClienteId(), p.getDataPedido()));
+            }
+            return;
+        }
+
+        synchronized (lock) {
+            prontos.remove(pedidoId);
+            if (StatusPedido.ENTREGUE.name().equals(evento.status()) || StatusPedido.CANCELADO.name().equals(evento.status())) {
+                Long entregadorId = entregadorDoPedido.remove(pedidoId);
+                Viagem viagem = entregadorId != null ? viagens.get(entregadorId) : null;
+                if (viagem != null) {
+                    viagem.pedidos.remove(pedidoId);
+                    if (viagem.pedidos.isEmpty()) {
+                        encerrar(viagem);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Uma rodada do despacho.
+     * @return quantidade de pedidos atribuídos
+     */
+    public int despachar() {
+        synchronized (lock) {
+            indice.expirar(clock.millis() - properties.getPosicaoExpiraEm().toMillis());
+            if (prontos.isEmpty() || indice.tamanho() == 0) {
+                return 0;
+            }
+
+            int atribuidos = 0;
+            for (List<PedidoPronto> lote : agrupar()) {
+                PedidoPronto primeiro = lote.get(0);
+                Optional<IndiceEntregadores.Posicao> entregador = indice.maisProximo(
+                        primeiro.latitudeColeta(), primeiro.longitudeColeta(), properties.getRaioBuscaKm(),
+                        id -> !viagens.containsKey(id));
+                if (entregador.isEmpty()) {
+                    continue;
+                }
+
+                long entregadorId = entregador.get().entregadorId();
+                Viagem viagem = new Viagem(proximaViagem++, entregadorId, primeiro.restauranteId(), LocalDateTime.now(clock));
+                for (PedidoPronto p : lote) {
+                    viagem.pedidos.put(p.pedidoId(), p.clienteId());
+                    prontos.remove(p.pedidoId());
+                    entregadorDoPedido.put(p.pedidoId(), entregadorId);
+                }
+                viagens.put(entregadorId, viagem);
+                atribuidos += lote.size();
+            }
+            if (atribuidos > 0) {
+                log.debug("Despacho: {} pedidos atribuídos, {} aguardando entregador", atribuidos, prontos.size());
+            }
+            return atribuidos;
+        }
+    }
+
+    /**
+     * Lotes por restaurante: o pedido mais antigo puxa os seguintes cujo destino esteja a até
+     * despacho.raio-agrupamento-km do dele, até despacho.max-pedidos-por-viagem.
+     * Lotes voltam ordenados pelo pedido mais antigo, que tem prioridade na escolha do entregador.
+     */
+    private List<List<PedidoPronto>> agrupar() {
+        Map<Long, List<PedidoPronto>> porRestaurante = new HashMap<>();
+        prontos.values().stream().sorted(ORDEM)
+                .forEach(p -> porRestaurante.computeIfAbsent(p.restauranteId(), id -> new ArrayList<>()).add(p));
+
+        int maxPorViagem = Math.max(1, properties.getMaxPedidosPorViagem());
+        List<List<PedidoPronto>> lotes = new ArrayList<>();
+        for (List<PedidoPronto> restantes : porRestaurante.values()) {
+            while (!restantes.isEmpty()) {
+                PedidoPronto semente = restantes.remove(0);
+                List<PedidoPronto> lote = new ArrayList<>(List.of(semente));
+                if (semente.temDestino()) {
+                    Iterator<PedidoPronto> it = restantes.iterator();
+                    while (it.hasNext() && lote.size() < maxPorViagem) {
+                        PedidoPronto p = it.next();
+                        if (p.temDestino() && Geo.distanciaKm(semente.latitudeEntrega(), semente.longitudeEntrega(),
+                                p.latitudeEntrega(), p.longitudeEntrega()) <= properties.getRaioAgrupamentoKm()) {
+                            lote.add(p);
+                            it.remove();
+                        }
+                    }
+                }
+                lotes.add(lote);
+            }
+        }
+        lotes.sort(Comparator.comparing(l -> l.get(0), ORDEM));
+        return lotes;
+    }
+
+    private boolean adicionar(Long pedidoId, Long restauranteId, Long clienteId, LocalDateTime dataPedido) {
+        // Uma leitura por pedido que fica pronto; as rodadas do despacho não consultam o banco
+        Restaurante restaurante = restauranteRepository.findById(restauranteId).orElse(null);
+        if (restaurante == null || restaurante.getLatitude() == null || restaurante.getLongitude() == null) {
+            log.debug("Despacho: pedido {} ignorado, restaurante {} sem coordenadas", pedidoId, restauranteId);
+            return false;
+        }
+        Cliente cliente = clienteId != null ? clienteRepository.findById(clienteId).orElse(null) : null;
+        PedidoPronto pronto = new PedidoPronto(pedidoId, restauranteId, clienteId, dataPedido,
+                restaurante.getLatitude(), restaurante.getLongitude(),
+                cliente != null ? cliente.getLatitude() : null, cliente != null ? cliente.getLongitude() : null);
+
+        synchronized (lock) {
+            if (entregadorDoPedido.containsKey(pedidoId)) {
+                return false;
+            }
+            prontos.put(pedidoId, pronto);
+            return true;
+        }
+    }
+
+    private Viagem viagemDo(Long entregadorId) {
+        Viagem viagem = viagens.get(entregadorId);
+        if (viagem == null) {
+            throw new EntityNotFoundException("Nenhuma viagem atribuída ao entregador.");
+        }
+        return viagem;
+    }
+
+    private void encerrar(Viagem viagem) {
+        viagens.remove(viagem.entregadorId, viagem);
+        viagem.pedidos.keySet().forEach(entregadorDoPedido::remove);
+    }
+
+    int quantidadeProntos() {
+        synchronized (lock) {
+            return prontos.size();
+        }
+    }
+
+    private void despacharComSeguranca() {
+        try {
+            despachar();
+        } catch (Exception e) {
+            log.warn("Despacho: falha na rodada, nova tentativa em {}: {}", properties.getIntervalo(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+
+    public record Entrega(Long pedidoId, long entregadorId, Long restauranteId, Long clienteId, boolean coletada) {
+    }
+
+    private record PedidoPronto(Long pedidoId, Long restauranteId, Long clienteId, LocalDateTime dataPedido,
+                                double latitudeColeta, double longitudeColeta,
+                                Double latitudeEntrega, Double longitudeEntrega) {
+
+        boolean temDestino() {
+            return latitudeEntrega != null && longitudeEntrega != null;
+        }
+    }
+
+    private static final class Viagem {
+
+        private final long id;
+        private final long entregadorId;
+        private final Long restauranteId;
+        private final LocalDateTime atribuidaEm;
+        // pedidoId -> clienteId, na ordem de entrada no despacho
+        private final Map<Long, Long> pedidos = new LinkedHashMap<>();
+        private boolean coletada;
+        // Coleta ou conclusão gravando os status dos pedidos
+        private boolean emAndamento;
+
+        Viagem(long id, long entregadorId, Long restauranteId, LocalDateTime atribuidaEm) {
+            this.id = id;
+            this.entregadorId = entregadorId;
+            this.restauranteId = restauranteId;
+            this.atribuidaEm = atribuidaEm;
+        }
+
+        ViagemDTO toDTO() {
+            return new ViagemDTO(id, restauranteId, List.copyOf(pedidos.keySet()), atribuidaEm, coletada);
+        }
+    }
+}
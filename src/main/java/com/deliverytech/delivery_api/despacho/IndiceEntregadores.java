@@ -0,0 +1,133 @@
+package com.deliverytech.delivery_api.despacho;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice espacial das posições dos entregadores: grade de células de tamanho fixo (em graus).
+ * Atualizar a posição é O(1) e só mexe nas células quando o entregador troca de célula;
+ * a busca do mais próximo percorre anéis de células a partir do ponto até achar candidato
+ * ou estourar o raio, sem varrer todos os entregadores.
+ */
+class IndiceEntregadores {
+
+    private static final double KM_POR_GRAU = 111.32;
+
+    record Posicao(long entregadorId, double latitude, double longitude, boolean disponivel, long atualizadaEm) {
+    }
+
+    private final double tamanhoCelula;
+    private final Map<Long, Posicao> posicoes = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> celulas = new ConcurrentHashMap<>();
+
+    IndiceEntregadores(double tamanhoCelula) {
+        this.tamanhoCelula = tamanhoCelula;
+    }
+
+    void atualizar(long entregadorId, double latitude, double longitude, boolean disponivel, long agora) {
+        Posicao nova = new Posicao(entregadorId, latitude, longitude, disponivel, agora);
+        // compute serializa as atualizações do mesmo entregador: a troca de célula não se perde
+        posicoes.compute(entregadorId, (id, anterior) -> {
+            long celulaNova = celula(latitude, longitude);
+            if (anterior == null || celula(anterior.latitude(), anterior.longitude()) != celulaNova) {
+                if (anterior != null) {
+                    removerDaCelula(anterior);
+                }
+                celulas.computeIfAbsent(celulaNova, c -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            return nova;
+        });
+    }
+
+    void remover(long entregadorId) {
+        posicoes.computeIfPresent(entregadorId, (id, anterior) -> {
+            removerDaCelula(anterior);
+            return null;
+        });
+    }
+
+    Posicao buscar(long entregadorId) {
+        return posicoes.get(entregadorId);
+    }
+
+    int tamanho() {
+        return posicoes.size();
+    }
+
+    /** Remove quem não reporta posição desde {@code limite}. */
+    int expirar(long limite) {
+        int removidos = 0;
+        for (Posicao p : posicoes.values()) {
+            if (p.atualizadaEm() < limite && posicoes.remove(p.entregadorId(), p)) {
+                removerDaCelula(p);
+                removidos++;
+            }
+        }
+        return removidos;
+    }
+
+    /**
+     * Entregador disponível mais próximo do ponto, até {@code raioKm}, entre os aceitos por {@code elegivel}.
+     */
+    Optional<Posicao> maisProximo(double latitude, double longitude, double raioKm, LongPredicate elegivel) {
+        // A célula é mais estreita em longitude: usa o lado menor para saber quantos anéis cobrem o raio
+        double ladoKm = tamanhoCelula * KM_POR_GRAU * Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        int maxAnel = (int) Math.ceil(raioKm / ladoKm);
+        long linha = indice(latitude);
+        long coluna = indice(longitude);
+
+        Posicao melhor = null;
+        double melhorDistancia = Double.MAX_VALUE;
+        for (int anel = 0; anel <= maxAnel; anel++) {
+            for (long i = linha - anel; i <= linha + anel; i++) {
+                for (long j = coluna - anel; j <= coluna + anel; j++) {
+                    if (Math.abs(i - linha) != anel && Math.abs(j - coluna) != anel) {
+                        continue; // interior já visitado nos anéis anteriores
+                    }
+                    Set<Long> ids = celulas.get(chave(i, j));
+                    if (ids == null) {
+                        continue;
+                    }
+                    for (Long id : ids) {
+                        Posicao p = posicoes.get(id);
+                        if (p == null || !p.disponivel() || !elegivel.test(id)) {
+                            continue;
+                        }
+                        double d = Geo.distanciaKm(latitude, longitude, p.latitude(), p.longitude());
+                        if (d <= raioKm && d < melhorDistancia) {
+                            melhor = p;
+                            melhorDistancia = d;
+                        }
+                    }
+                }
+            }
+            // Tudo que está fora deste anel fica a mais de anel * lado do ponto
+            if (melhor != null && melhorDistancia <= anel * ladoKm) {
+                break;
+            }
+        }
+        return Optional.ofNullable(melhor);
+    }
+
+    private void removerDaCelula(Posicao p) {
+        Set<Long> ids = celulas.get(celula(p.latitude(), p.longitude()));
+        if (ids != null) {
+            ids.remove(p.entregadorId());
+        }
+    }
+
+    private long celula(double latitude, double longitude) {
+        return chave(indice(latitude), indice(longitude));
+    }
+
+    private long indice(double grau) {
+        return (long) Math.floor(grau / tamanhoCelula);
+    }
+
+    private static long chave(long linha, long coluna) {
+        return (linha << 32) ^ (coluna & 0xffffffffL);
+    }
+}
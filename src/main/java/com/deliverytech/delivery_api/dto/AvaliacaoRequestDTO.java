@@ -0,0 +1,23 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+@Schema(description = "Avaliação de um pedido entregue")
+public class AvaliacaoRequestDTO {
+
+    @Schema(description = "Nota de 1 a 5", example = "5")
+    @NotNull(message = "A nota é obrigatória")
+    @Min(value = 1, message = "A nota deve ser de 1 a 5")
+    @Max(value = 5, message = "A nota deve ser de 1 a 5")
+    private Integer nota;
+
+    @Schema(description = "Comentário opcional", example = "Chegou quentinha!")
+    @Size(max = 500, message = "O comentário deve ter no máximo 500 caracteres")
+    private String comentario;
+}
@@ -0,0 +1,29 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Schema(description = "Avaliação registrada")
+public class AvaliacaoResponseDTO {
+
+    @Schema(description = "ID da avaliação", example = "1")
+    private Long id;
+
+    @Schema(description = "ID do pedido avaliado", example = "3")
+    private Long pedidoId;
+
+    @Schema(description = "ID do restaurante avaliado", example = "3")
+    private Long restauranteId;
+
+    @Schema(description = "Nota de 1 a 5", example = "5")
+    private Integer nota;
+
+    @Schema(description = "Comentário", example = "Chegou quentinha!")
+    private String comentario;
+
+    @Schema(description = "Data da avaliação")
+    private LocalDateTime dataAvaliacao;
+}
@@ -28,6 +28,12 @@ public class ClienteResponseDTO {
     @Schema(description = "Indica se o cliente está ativo na plataforma", example = "true") // ATIVIDADE 2.3
     private Boolean ativo;
 
+    @Schema(description = "Latitude do endereço de entrega", example = "-23.5614")
+    private Double latitude;
+
+    @Schema(description = "Longitude do endereço de entrega", example = "-46.6559")
+    private Double longitude;
+
     public ClienteResponseDTO(Cliente save) {
         this.id = save.getId();
         this.nome = save.getNome();
@@ -35,5 +41,7 @@ public class ClienteResponseDTO {
         this.telefone = save.getTelefone();
         this.endereco = save.getEndereco();
         this.ativo = save.getAtivo();
+        this.latitude = save.getLatitude();
+        this.longitude = save.getLongitude();
     }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.deliverytech.delivery_api.dto;
 
 import com.deliverytech.delivery_api.validation.ValidTelefone; // IMPORTAR
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -29,4 +31,14 @@ public class ClienteResquestDTO {
     @Schema(description = "Endereço principal de entrega", example = "Rua das Flores, 123, São Paulo/SP")
     @NotBlank(message = "O endereço é obrigatório")
     private String endereco;
-}
\ No newline at end of file
+
+    @Schema(description = "Latitude do endereço de entrega (opcional, usada no despacho)", example = "-23.5614")
+    @DecimalMin(value = "-90.0", message = "Latitude inválida")
+    @DecimalMax(value = "90.0", message = "Latitude inválida")
+    private Double latitude;
+
+    @Schema(description = "Longitude do endereço de entrega (opcional, usada no despacho)", example = "-46.6559")
+    @DecimalMin(value = "-180.0", message = "Longitude inválida")
+    @DecimalMax(value = "180.0", message = "Longitude inválida")
+    private Double longitude;
+}
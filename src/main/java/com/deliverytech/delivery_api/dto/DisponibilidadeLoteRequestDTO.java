@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Alteração de disponibilidade em lote: informe os IDs dos produtos OU uma categoria do restaurante")
+public class DisponibilidadeLoteRequestDTO {
+
+    @Schema(description = "ID do restaurante dono dos produtos", example = "1")
+    @NotNull(message = "O ID do restaurante é obrigatório")
+    private Long restauranteId;
+
+    @Schema(description = "IDs dos produtos a alterar", example = "[1, 2, 3]")
+    @Size(max = 1000, message = "No máximo 1000 produtos por requisição")
+    private List<Long> produtoIds;
+
+    @Schema(description = "Categoria inteira a alterar (alternativa aos IDs)", example = "Bebidas")
+    private String categoria;
+
+    @Schema(description = "Novo status de disponibilidade", example = "false")
+    @NotNull(message = "O status de disponibilidade é obrigatório")
+    private Boolean disponivel;
+}
@@ -0,0 +1,18 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "Resultado da alteração de disponibilidade em lote")
+public class DisponibilidadeLoteResponseDTO {
+
+    @Schema(description = "Quantidade de produtos alterados", example = "12")
+    private int atualizados;
+
+    @Schema(description = "IDs informados que não existem ou não pertencem ao restaurante", example = "[99]")
+    private List<Long> ignorados = new ArrayList<>();
+}
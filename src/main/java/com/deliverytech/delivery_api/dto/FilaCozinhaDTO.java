@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Fila de pedidos em aberto do restaurante, servida da memória")
+public class FilaCozinhaDTO {
+
+    @Schema(description = "ID do restaurante", example = "1")
+    private Long restauranteId;
+
+    @Schema(description = "Momento da última alteração da fila")
+    private LocalDateTime atualizadaEm;
+
+    @Schema(description = "Quantidade de pedidos em aberto", example = "7")
+    private int total;
+
+    @Schema(description = "Pedidos na ordem de atendimento: PREPARANDO, CONFIRMADO e PENDENTE, do mais antigo ao mais novo")
+    private List<ItemFilaCozinhaDTO> pedidos;
+}
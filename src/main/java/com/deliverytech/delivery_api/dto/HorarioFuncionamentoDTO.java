@@ -0,0 +1,32 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Intervalo de funcionamento: semanal (diaSemana) ou exceção para uma data (feriado)")
+public class HorarioFuncionamentoDTO {
+
+    @Schema(description = "Dia da semana, de 1 (segunda) a 7 (domingo); vazio quando for exceção por data", example = "5")
+    @Min(value = 1, message = "Dia da semana deve estar entre 1 (segunda) e 7 (domingo)")
+    @Max(value = 7, message = "Dia da semana deve estar entre 1 (segunda) e 7 (domingo)")
+    private Integer diaSemana;
+
+    @Schema(description = "Data da exceção (feriado); substitui os intervalos semanais desse dia", example = "2025-12-25")
+    private LocalDate data;
+
+    @Schema(description = "Abertura; vazia junto com o fechamento marca o dia como fechado", type = "string", example = "18:00")
+    private LocalTime abertura;
+
+    @Schema(description = "Fechamento; menor ou igual à abertura vira a meia-noite", type = "string", example = "02:00")
+    private LocalTime fechamento;
+}
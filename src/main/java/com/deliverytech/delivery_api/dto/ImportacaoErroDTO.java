@@ -0,0 +1,16 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Erro de uma linha rejeitada na importação de produtos")
+public record ImportacaoErroDTO(
+        @Schema(description = "Linha do CSV ou posição (1..n) do item no array JSON", example = "12")
+        long linha,
+
+        @Schema(description = "Campo com problema (quando aplicável)", example = "preco")
+        String campo,
+
+        @Schema(description = "Motivo da rejeição", example = "O preço deve ser maior que zero")
+        String mensagem
+) {
+}
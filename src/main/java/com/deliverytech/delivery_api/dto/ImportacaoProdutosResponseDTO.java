@@ -0,0 +1,27 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "Resultado da importação em lote de produtos")
+public class ImportacaoProdutosResponseDTO {
+
+    @Schema(description = "Linhas de dados lidas do arquivo", example = "5000")
+    private long totalLinhas;
+
+    @Schema(description = "Produtos gravados", example = "4987")
+    private long importados;
+
+    @Schema(description = "Linhas rejeitadas", example = "13")
+    private long rejeitados;
+
+    @Schema(description = "Tempo total da importação em milissegundos", example = "850")
+    private long duracaoMs;
+
+    @Schema(description = "Erros por linha (limitado; ver 'rejeitados' para o total)")
+    private List<ImportacaoErroDTO> erros = new ArrayList<>();
+}
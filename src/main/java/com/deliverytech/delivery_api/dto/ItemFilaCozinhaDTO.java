@@ -0,0 +1,36 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Pedido em aberto na fila da cozinha")
+public class ItemFilaCozinhaDTO {
+
+    @Schema(description = "Posição na fila (1 = próximo a ser trabalhado)", example = "1")
+    private int posicao;
+
+    @Schema(description = "ID do pedido", example = "501")
+    private Long pedidoId;
+
+    @Schema(description = "Código do pedido", example = "PED-A8C4E")
+    private String numeroPedido;
+
+    @Schema(description = "Status atual", example = "PREPARANDO")
+    private String status;
+
+    @Schema(description = "Data e hora do pedido")
+    private LocalDateTime dataPedido;
+
+    @Schema(description = "Itens do pedido", example = "2x (ID: 10), 1x (ID: 12)")
+    private String itens;
+
+    @Schema(description = "Observações do cliente", example = "Sem cebola")
+    private String observacoes;
+}
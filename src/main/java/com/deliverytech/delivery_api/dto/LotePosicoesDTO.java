@@ -0,0 +1,33 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lote de pontos em colunas (um array por campo): o JSON vira três arrays primitivos,
+ * sem um objeto por ponto.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lote de posições do entregador, em colunas: o i-ésimo ponto é (latitudes[i], longitudes[i], instantes[i])")
+public class LotePosicoesDTO {
+
+    @Schema(description = "Latitudes", example = "[-23.5613, -23.5615]")
+    @NotNull(message = "As latitudes são obrigatórias")
+    private double[] latitudes;
+
+    @Schema(description = "Longitudes", example = "[-46.6565, -46.6561]")
+    @NotNull(message = "As longitudes são obrigatórias")
+    private double[] longitudes;
+
+    @Schema(description = "Instante de cada ponto em epoch millis, em ordem crescente", example = "[1735732800000, 1735732803000]")
+    @NotNull(message = "Os instantes são obrigatórios")
+    private long[] instantes;
+
+    @Schema(description = "Se o entregador aceita novas viagens (padrão: true)", example = "true")
+    private Boolean disponivel;
+}
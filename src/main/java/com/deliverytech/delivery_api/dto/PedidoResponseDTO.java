@@ -37,4 +37,7 @@ public class PedidoResponseDTO {
 
     @Schema(description = "Lista de itens que compõem o pedido") // ATIVIDADE 2.3
     private List<ItemPedidoDTO> itens;
+
+    @Schema(description = "Previsão de entrega (null para pedidos entregues ou cancelados); muda só quando o status muda")
+    private LocalDateTime previsaoEntrega;
 }
\ No newline at end of file
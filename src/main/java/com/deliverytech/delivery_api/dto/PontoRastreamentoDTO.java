@@ -0,0 +1,24 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ponto da trilha do entregador")
+public class PontoRastreamentoDTO {
+
+    @Schema(description = "Latitude", example = "-23.5613")
+    private double latitude;
+
+    @Schema(description = "Longitude", example = "-46.6565")
+    private double longitude;
+
+    @Schema(description = "Momento em que o ponto foi registrado pelo aparelho")
+    private LocalDateTime registradoEm;
+}
@@ -0,0 +1,31 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Posição atual reportada pelo app do entregador")
+public class PosicaoEntregadorDTO {
+
+    @Schema(description = "Latitude", example = "-23.5613")
+    @NotNull(message = "A latitude é obrigatória")
+    @DecimalMin(value = "-90.0", message = "Latitude inválida")
+    @DecimalMax(value = "90.0", message = "Latitude inválida")
+    private Double latitude;
+
+    @Schema(description = "Longitude", example = "-46.6565")
+    @NotNull(message = "A longitude é obrigatória")
+    @DecimalMin(value = "-180.0", message = "Longitude inválida")
+    @DecimalMax(value = "180.0", message = "Longitude inválida")
+    private Double longitude;
+
+    @Schema(description = "Se o entregador aceita novas viagens (padrão: true)", example = "true")
+    private Boolean disponivel;
+}
@@ -0,0 +1,31 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Posição do entregador responsável pelo pedido, servida da memória")
+public class RastreamentoDTO {
+
+    @Schema(description = "ID do pedido", example = "1")
+    private Long pedidoId;
+
+    @Schema(description = "Se o entregador já coletou o pedido no restaurante", example = "true")
+    private boolean coletado;
+
+    @Schema(description = "Previsão de entrega")
+    private LocalDateTime previsaoEntrega;
+
+    @Schema(description = "Posição mais recente (null se o entregador ainda não reportou)")
+    private PontoRastreamentoDTO posicaoAtual;
+
+    @Schema(description = "Pontos recentes, do mais antigo ao mais novo")
+    private List<PontoRastreamentoDTO> trilha;
+}
@@ -5,9 +5,11 @@ import com.deliverytech.delivery_api.validation.ValidCEP; // Importar
 import com.deliverytech.delivery_api.validation.ValidHorarioFuncionamento; // Importar
 import com.deliverytech.delivery_api.validation.ValidTelefone;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 @Schema(description = "DTO para criar ou atualizar um restaurante")
@@ -55,8 +57,22 @@ public class RestauranteRequestDTO {
     /**
      * ATIVIDADE 1.2: Campo "Horário de Funcionamento" adicionado conforme solicitado.
      */
-    @Schema(description = "Horário de funcionamento", example = "18:00-23:30")
+    @Schema(description = "Horário de funcionamento, igual todos os dias (usado quando 'horarios' não é informado)",
+            example = "11:00-15:00,18:00-23:30")
     @NotBlank(message = "O horário de funcionamento é obrigatório")
     @ValidHorarioFuncionamento
     private String horarioFuncionamento;
-}
\ No newline at end of file
+
+    @Schema(description = "Grade semanal detalhada, com exceções por data; substitui 'horarioFuncionamento' quando informada")
+    private List<@Valid HorarioFuncionamentoDTO> horarios;
+
+    @Schema(description = "Latitude do ponto de coleta (opcional, usada no despacho)", example = "-23.5613")
+    @DecimalMin(value = "-90.0", message = "Latitude inválida")
+    @DecimalMax(value = "90.0", message = "Latitude inválida")
+    private Double latitude;
+
+    @Schema(description = "Longitude do ponto de coleta (opcional, usada no despacho)", example = "-46.6565")
+    @DecimalMin(value = "-180.0", message = "Longitude inválida")
+    @DecimalMax(value = "180.0", message = "Longitude inválida")
+    private Double longitude;
+}
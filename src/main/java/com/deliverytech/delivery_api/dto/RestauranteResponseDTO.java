@@ -3,6 +3,7 @@ package com.deliverytech.delivery_api.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 @Schema(description = "DTO de resposta com os dados de um restaurante") // ATIVIDADE 2.3
@@ -29,6 +30,21 @@ public class RestauranteResponseDTO {
     @Schema(description = "Nota média de avaliação (0.0 a 5.0)", example = "4.7") // ATIVIDADE 2.3
     private BigDecimal avaliacao;
 
+    @Schema(description = "Quantidade de avaliações que compõem a nota", example = "128")
+    private Long totalAvaliacoes;
+
     @Schema(description = "Indica se o restaurante está aberto/ativo na plataforma", example = "true") // ATIVIDADE 2.3
     private Boolean ativo;
-}
\ No newline at end of file
+
+    @Schema(description = "Latitude do ponto de coleta", example = "-23.5613")
+    private Double latitude;
+
+    @Schema(description = "Longitude do ponto de coleta", example = "-46.6565")
+    private Double longitude;
+
+    @Schema(description = "Se o restaurante está dentro do horário de funcionamento agora (preenchido nas listagens)", example = "true")
+    private Boolean abertoAgora;
+
+    @Schema(description = "Grade de horários (preenchida no detalhe e no cadastro/atualização)")
+    private List<HorarioFuncionamentoDTO> horarios;
+}
@@ -0,0 +1,31 @@
+package com.deliverytech.delivery_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Viagem atribuída ao entregador: um ou mais pedidos do mesmo restaurante")
+public class ViagemDTO {
+
+    @Schema(description = "ID da viagem", example = "12")
+    private Long id;
+
+    @Schema(description = "Restaurante de coleta", example = "1")
+    private Long restauranteId;
+
+    @Schema(description = "Pedidos da viagem, na ordem em que entraram no despacho")
+    private List<Long> pedidos;
+
+    @Schema(description = "Momento da atribuição")
+    private LocalDateTime atribuidaEm;
+
+    @Schema(description = "Se a coleta no restaurante já foi confirmada", example = "false")
+    private boolean coletada;
+}
@@ -0,0 +1,35 @@
+package com.deliverytech.delivery_api.dto.reports;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+
+@Schema(description = "DTO para o relatório de clientes distintos (estimativa HyperLogLog)")
+public record RelatorioClientesUnicosDTO(
+        @Schema(example = "RESTAURANTE")
+        String dimensao,
+
+        @Schema(description = "Id do restaurante ou nome da categoria", example = "1")
+        String chave,
+
+        @Schema(example = "2025-06-01")
+        LocalDate inicio,
+
+        @Schema(example = "2025-06-30")
+        LocalDate fim,
+
+        @Schema(description = "Quantidade estimada de clientes distintos no período", example = "1532")
+        long clientesUnicos,
+
+        @Schema(description = "Erro padrão relativo da estimativa", example = "0.01625")
+        double erroPadrao,
+
+        @Schema(example = "0.95")
+        double confianca,
+
+        @Schema(example = "1483")
+        long limiteInferior,
+
+        @Schema(example = "1581")
+        long limiteSuperior
+) {
+}
@@ -1,8 +0,0 @@
-package com.deliverytech.delivery_api.dto.reports;
-
-import java.math.BigDecimal;
-
-public interface RelatorioFaturamentoCategoria {
-    String getCategoria();
-    BigDecimal getFaturamentoTotal();
-}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.deliverytech.delivery_api.dto.reports;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Schema(description = "DTO para o relatório de percentis de uma métrica por restaurante (histograma logarítmico)")
+public record RelatorioPercentisDTO(
+        @Schema(example = "TEMPO_ENTREGA")
+        String metrica,
+
+        @Schema(example = "1")
+        Long restauranteId,
+
+        @Schema(example = "2025-06-01")
+        LocalDate inicio,
+
+        @Schema(example = "2025-06-30")
+        LocalDate fim,
+
+        @Schema(description = "Unidade dos valores (BRL ou minutos)", example = "minutos")
+        String unidade,
+
+        @Schema(description = "Pedidos considerados no período", example = "842")
+        long quantidade,
+
+        @Schema(example = "18.0")
+        Double minimo,
+
+        @Schema(example = "41.3")
+        Double media,
+
+        @Schema(example = "97.5")
+        Double maximo,
+
+        @Schema(description = "Percentis pedidos (chave pNN)", example = "{\"p50\": 38.2, \"p95\": 62.7, \"p99\": 81.0}")
+        Map<String, Double> percentis,
+
+        @Schema(description = "Erro relativo máximo de cada percentil", example = "0.01")
+        double erroRelativo
+) {
+}
@@ -0,0 +1,47 @@
+package com.deliverytech.delivery_api.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Avaliação de um pedido entregue (uma por pedido).
+ * Só é inserida: a média do restaurante é atualizada depois, em lote, pelo AvaliacaoAgregacaoJob.
+ * loteAgregacao fica nulo até a avaliação entrar na soma/contagem do restaurante.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "avaliacoes", indexes = {
+        @Index(name = "idx_avaliacoes_lote", columnList = "lote_agregacao"),
+        @Index(name = "idx_avaliacoes_restaurante_data", columnList = "restaurante_id, data_avaliacao")
+})
+public class Avaliacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "pedido_id", nullable = false, unique = true)
+    private Long pedidoId;
+
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+
+    @Column(name = "restaurante_id", nullable = false)
+    private Long restauranteId;
+
+    @Column(nullable = false)
+    private Integer nota;
+
+    @Column(length = 500)
+    private String comentario;
+
+    @Column(name = "data_avaliacao", nullable = false)
+    private LocalDateTime dataAvaliacao;
+
+    @Column(name = "lote_agregacao")
+    private Long loteAgregacao;
+}
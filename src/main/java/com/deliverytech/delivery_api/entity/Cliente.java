@@ -37,6 +37,11 @@ public class Cliente {
     @Column(nullable = true)
     private Boolean ativo;
 
+    // Ponto de entrega usado no despacho de entregadores (opcional)
+    private Double latitude;
+
+    private Double longitude;
+
     public void inativar() {
         this.ativo = false;
     }
@@ -0,0 +1,42 @@
+package com.deliverytech.delivery_api.entity;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Um intervalo de funcionamento de um restaurante.
+ * Semanal quando diaSemana (1 = segunda ... 7 = domingo) está preenchido; exceção para uma data específica
+ * (feriado, evento) quando dataExcecao está preenchida, substituindo os intervalos semanais daquele dia.
+ * Fechamento menor ou igual à abertura vira a meia-noite; abertura e fechamento nulos marcam o dia como fechado.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "horarios_funcionamento", indexes = {
+        @Index(name = "idx_horarios_restaurante", columnList = "restaurante_id")
+})
+public class HorarioFuncionamento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "restaurante_id", nullable = false)
+    private Long restauranteId;
+
+    @Column(name = "dia_semana")
+    private Integer diaSemana;
+
+    @Column(name = "data_excecao")
+    private LocalDate dataExcecao;
+
+    private LocalTime abertura;
+
+    private LocalTime fechamento;
+}
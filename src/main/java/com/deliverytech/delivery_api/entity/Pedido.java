@@ -12,7 +12,10 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+        // Seleção do arquivamento (status finalizado + data) e filtros administrativos
+        @Index(name = "idx_pedidos_status_data", columnList = "status, data_pedido")
+})
 public class Pedido {
     
     @Id
@@ -0,0 +1,54 @@
+package com.deliverytech.delivery_api.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pedido finalizado (ENTREGUE/CANCELADO) movido da tabela "pedidos" pelo arquivamento.
+ * Mantém o mesmo id e as mesmas colunas para que buscas por id e histórico do cliente
+ * possam cair aqui de forma transparente.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "pedidos_arquivo", indexes = {
+        @Index(name = "idx_pedidos_arquivo_cliente_data", columnList = "cliente_id, data_pedido")
+})
+public class PedidoArquivado {
+
+    @Id
+    private Long id;
+
+    @Column(name = "numero_pedido")
+    private String numeroPedido;
+
+    @Column(name = "data_pedido")
+    private LocalDateTime dataPedido;
+
+    private String status;
+
+    @Column(name = "valor_total")
+    private BigDecimal valorTotal;
+
+    private String observacoes;
+
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    @ManyToOne
+    @JoinColumn(name = "restaurante_id")
+    private Restaurante restaurante;
+
+    private String itens;
+
+    @Column(name = "arquivado_em")
+    private LocalDateTime arquivadoEm;
+
+    public Pedido toPedido() {
+        return new Pedido(id, numeroPedido, dataPedido, status, valorTotal, observacoes, clienteId, restaurante, itens);
+    }
+}
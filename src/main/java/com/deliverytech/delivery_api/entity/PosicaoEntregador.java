@@ -0,0 +1,37 @@
+package com.deliverytech.delivery_api.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Histórico amostrado das posições dos entregadores.
+ * Gravado em lote pelo RastreamentoService (no máximo um ponto por rastreamento.amostragem);
+ * os pontos recentes em alta resolução ficam só em memória.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "posicoes_entregadores", indexes = {
+        @Index(name = "idx_posicoes_entregador_data", columnList = "entregador_id, registrada_em")
+})
+public class PosicaoEntregador {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entregador_id", nullable = false)
+    private Long entregadorId;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(name = "registrada_em", nullable = false)
+    private LocalDateTime registradaEm;
+}
@@ -12,7 +12,10 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "restaurantes")
+@Table(name = "restaurantes", indexes = {
+        // Listagem por avaliação (melhor avaliados entre os ativos)
+        @Index(name = "idx_restaurantes_ativo_avaliacao", columnList = "ativo, avaliacao, total_avaliacoes")
+})
 public class Restaurante {
 
     @Id
@@ -30,10 +33,25 @@ public class Restaurante {
     @Column(name = "taxa_entrega")
     private BigDecimal taxaEntrega;
 
+    // Só o AvaliacaoService escreve (UPDATE em lote); salvar o restaurante carregado antes não pode sobrescrever
+    @Column(updatable = false)
     private BigDecimal avaliacao;
 
     private Boolean ativo;
 
+    // Ponto de coleta usado no despacho de entregadores (opcional)
+    private Double latitude;
+
+    private Double longitude;
+
+    // Contagem e soma das notas, mantidas pelo AvaliacaoService em lote; avaliacao = soma / total.
+    // Como a avaliacao, entram no INSERT (zeradas no cadastro) e nunca no UPDATE da entidade
+    @Column(name = "total_avaliacoes", updatable = false)
+    private Long totalAvaliacoes;
+
+    @Column(name = "soma_avaliacoes", updatable = false)
+    private Long somaAvaliacoes;
+
     public void inativar() {
         this.ativo = false;
     }
@@ -0,0 +1,46 @@
+package com.deliverytech.delivery_api.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sketch HyperLogLog dos clientes distintos de um restaurante ou de uma categoria num dia.
+ * Só é alterado pelo CardinalidadeService (fusão dos sketches acumulados em memória em cada instância).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "sketches_cardinalidade", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sketches_dimensao_chave_dia", columnNames = {"dimensao", "chave", "dia"})
+})
+public class SketchCardinalidade {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // RESTAURANTE ou CATEGORIA
+    @Column(nullable = false, length = 20)
+    private String dimensao;
+
+    // Id do restaurante ou nome da categoria
+    @Column(nullable = false, length = 100)
+    private String chave;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] registros;
+
+    public SketchCardinalidade(String dimensao, String chave, LocalDate dia, byte[] registros) {
+        this.dimensao = dimensao;
+        this.chave = chave;
+        this.dia = dia;
+        this.registros = registros;
+    }
+}
@@ -0,0 +1,46 @@
+package com.deliverytech.delivery_api.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Histograma logarítmico de uma métrica (valor do pedido, tempo até a entrega) de um restaurante num dia.
+ * Só é alterado pelo QuantisService (soma dos histogramas acumulados em memória em cada instância).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "sketches_quantis", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sketches_quantis_metrica_restaurante_dia", columnNames = {"metrica", "restaurante_id", "dia"})
+})
+public class SketchQuantis {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // VALOR_PEDIDO ou TEMPO_ENTREGA
+    @Column(nullable = false, length = 20)
+    private String metrica;
+
+    @Column(name = "restaurante_id", nullable = false)
+    private Long restauranteId;
+
+    // Dia do pedido (o tempo de entrega entra no dia em que o pedido foi feito)
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] registros;
+
+    public SketchQuantis(String metrica, Long restauranteId, LocalDate dia, byte[] registros) {
+        this.metrica = metrica;
+        this.restauranteId = restauranteId;
+        this.dia = dia;
+        this.registros = registros;
+    }
+}
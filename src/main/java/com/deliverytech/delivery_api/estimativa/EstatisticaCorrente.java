@@ -0,0 +1,30 @@
+package com.deliverytech.delivery_api.estimativa;
+
+/**
+ * Média incremental em O(1) por observação, sem guardar as amostras.
+ * Com a contagem limitada a {@code janela}, cada observação nova pesa pelo menos 1/janela:
+ * vira uma média móvel exponencial e acompanha mudanças de ritmo do restaurante.
+ */
+final class EstatisticaCorrente {
+
+    private final int janela;
+    private long amostras;
+    private double media;
+
+    EstatisticaCorrente(int janela) {
+        this.janela = Math.max(1, janela);
+    }
+
+    synchronized void registrar(double valor) {
+        amostras = Math.min(amostras + 1, janela);
+        media += (valor - media) / amostras;
+    }
+
+    synchronized long getAmostras() {
+        return amostras;
+    }
+
+    synchronized double getMedia() {
+        return media;
+    }
+}
@@ -0,0 +1,225 @@
+package com.deliverytech.delivery_api.estimativa;
+
+import com.deliverytech.delivery_api.config.EstimativaProperties;
+import com.deliverytech.delivery_api.despacho.Geo;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.enums.StatusPedido;
+import com.deliverytech.delivery_api.events.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Previsão de entrega = fim do preparo + deslocamento.
+ * O preparo (do pedido até SAIU_PARA_ENTREGA) é aprendido por restaurante e hora do dia, e o deslocamento
+ * (minutos por km, de SAIU_PARA_ENTREGA até ENTREGUE) é aprendido globalmente, ambos como médias incrementais
+ * alimentadas pelos PedidoStatusAlteradoEvent. Estimar é O(1) sobre esse estado em memória.
+ * O modelo recomeça dos padrões de "estimativa.*" a cada subida e é local à instância.
+ */
+@Service
+public class EstimativaEntregaService {
+
+    private static final int HORAS = 24;
+    private static final double DISTANCIA_MINIMA_AMOSTRA_KM = 0.3;
+
+    private final EstimativaProperties properties;
+    private final RestauranteRepository restauranteRepository;
+    private final ClienteRepository clienteRepository;
+    private final Clock clock;
+
+    private final Map<Long, PreparoRestaurante> preparo = new ConcurrentHashMap<>();
+    private final EstatisticaCorrente preparoGeral;
+    private final EstatisticaCorrente minutosPorKm;
+    // Pedidos em aberto: o necessário para estimar sem ir ao banco
+    private final Map<Long, EmAberto> emAberto = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EstimativaEntregaService(EstimativaProperties properties, RestauranteRepository restauranteRepository,
+                                    ClienteRepository clienteRepository) {
+        this(properties, restauranteRepository, clienteRepository, Clock.systemDefaultZone());
+    }
+
+    EstimativaEntregaService(EstimativaProperties properties, RestauranteRepository restauranteRepository,
+                             ClienteRepository clienteRepository, Clock clock) {
+        this.properties = properties;
+        this.restauranteRepository = restauranteRepository;
+        this.clienteRepository = clienteRepository;
+        this.clock = clock;
+        this.preparoGeral = new EstatisticaCorrente(properties.getJanelaAmostras());
+        this.minutosPorKm = new EstatisticaCorrente(properties.getJanelaAmostras());
+    }
+
+    /**
+     * Previsão para o pedido com restaurante e cliente já carregados (montagem da resposta); null se finalizado.
+     */
+    public LocalDateTime estimar(Pedido pedido, Restaurante restaurante, Cliente cliente) {
+        if (finalizado(pedido.getStatus()) || pedido.getId() == null) {
+            return null;
+        }
+        Restaurante doPedido = restaurante != null ? restaurante : pedido.getRestaurante();
+        EmAberto estado = emAberto.computeIfAbsent(pedido.getId(),
+                id -> new EmAberto(doPedido != null ? doPedido.getId() : null, pedido.getDataPedido(),
+                        distanciaKm(doPedido, cliente)));
+        return previsao(estado, pedido.getStatus());
+    }
+
+    /** Previsão de um pedido já conhecido por esta instância, só da memória. */
+    public Optional<LocalDateTime> previsao(Long pedidoId, String status) {
+        EmAberto estado = emAberto.get(pedidoId);
+        return estado == null || finalizado(status) ? Optional.empty() : Optional.of(previsao(estado, status));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPedidoStatusAlterado(PedidoStatusAlteradoEvent evento) {
+        Long pedidoId = evento.pedidoId();
+        if (finalizado(evento.status())) {
+            EmAberto estado = emAberto.remove(pedidoId);
+            if (estado != null && StatusPedido.ENTREGUE.name().equals(evento.status())) {
+                aprenderDeslocamento(estado);
+            }
+            return;
+        }
+
+        EmAberto estado = emAberto.get(pedidoId);
+        if (estado == null && evento.temDetalhes()) {
+            // Primeira vez que esta instância vê o pedido (em geral, na criação)
+            estado = emAberto.computeIfAbsent(pedidoId, id -> new EmAberto(evento.restauranteId(), evento.dataPedido(),
+                    distanciaKm(restauranteRepository.findById(evento.restauranteId()).orElse(null),
+                            evento.clienteId() != null ? clienteRepository.findById(evento.clienteId()).orElse(null) : null)));
+        }
+        if (estado != null && StatusPedido.SAIU_PARA_ENTREGA.name().equals(evento.status()) && estado.saiuEm == 0) {
+            estado.saiuEm = clock.millis();
+            aprenderPreparo(estado);
+        }
+    }
+
+    /** Descarta pedidos que esta instância viu mas cuja finalização foi processada em outra. */
+    @Scheduled(fixedDelayString = "PT10M")
+    public void descartarAntigos() {
+        LocalDateTime limite = LocalDateTime.now(clock).minusDays(1);
+        emAberto.values().removeIf(e -> e.dataPedido == null || e.dataPedido.isBefore(limite));
+    }
+
+    private LocalDateTime previsao(EmAberto estado, String status) {
+        long agora = clock.millis();
+        long deslocamento = Math.round(estado.distanciaKm * properties.getFatorRota() * minutosPorKmAtual() * 60_000);
+
+        long saida;
+        if (StatusPedido.SAIU_PARA_ENTREGA.name().equals(status)) {
+            saida = estado.saiuEm > 0 ? estado.saiuEm : agora;
+        } else {
+            long prontoEm = estado.dataPedido != null
+                    ? millis(estado.dataPedido) + Math.round(minutosPreparo(estado) * 60_000)
+                    : agora;
+            saida = Math.max(agora, prontoEm);
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(saida + deslocamento), ZoneId.systemDefault());
+    }
+
+    // Faixa restaurante/hora quando tem amostras suficientes; senão o restaurante todo; senão a plataforma; senão o padrão
+    private double minutosPreparo(EmAberto estado) {
+        int min = properties.getMinAmostras();
+        PreparoRestaurante doRestaurante = estado.restauranteId != null ? preparo.get(estado.restauranteId) : null;
+        if (doRestaurante != null) {
+            EstatisticaCorrente naHora = doRestaurante.porHora[estado.dataPedido != null ? estado.dataPedido.getHour() : 0];
+            if (naHora.getAmostras() >= min) {
+                return naHora.getMedia();
+            }
+            if (doRestaurante.total.getAmostras() >= min) {
+                return doRestaurante.total.getMedia();
+            }
+        }
+        return preparoGeral.getAmostras() >= min
+                ? preparoGeral.getMedia()
+                : properties.getPreparoPadrao().toMillis() / 60_000.0;
+    }
+
+    private double minutosPorKmAtual() {
+        return minutosPorKm.getAmostras() >= properties.getMinAmostras()
+                ? minutosPorKm.getMedia()
+                : 60.0 / properties.getVelocidadePadraoKmH();
+    }
+
+    private void aprenderPreparo(EmAberto estado) {
+        if (estado.dataPedido == null || estado.restauranteId == null) {
+            return;
+        }
+        double minutos = (estado.saiuEm - millis(estado.dataPedido)) / 60_000.0;
+        if (minutos <= 0 || minutos > properties.getPreparoMaximo().toMinutes()) {
+            return;
+        }
+        PreparoRestaurante doRestaurante = preparo.computeIfAbsent(estado.restauranteId,
+                id -> new PreparoRestaurante(properties.getJanelaAmostras()));
+        doRestaurante.porHora[estado.dataPedido.getHour()].registrar(minutos);
+        doRestaurante.total.registrar(minutos);
+        preparoGeral.registrar(minutos);
+    }
+
+    private void aprenderDeslocamento(EmAberto estado) {
+        if (estado.saiuEm == 0 || !estado.distanciaConhecida || estado.distanciaKm < DISTANCIA_MINIMA_AMOSTRA_KM) {
+            return;
+        }
+        double minutos = (clock.millis() - estado.saiuEm) / 60_000.0;
+        if (minutos > 0 && minutos <= properties.getPreparoMaximo().toMinutes()) {
+            minutosPorKm.registrar(minutos / (estado.distanciaKm * properties.getFatorRota()));
+        }
+    }
+
+    private double distanciaKm(Restaurante restaurante, Cliente cliente) {
+        if (restaurante == null || cliente == null || restaurante.getLatitude() == null || restaurante.getLongitude() == null
+                || cliente.getLatitude() == null || cliente.getLongitude() == null) {
+            return -1;
+        }
+        return Geo.distanciaKm(restaurante.getLatitude(), restaurante.getLongitude(), cliente.getLatitude(), cliente.getLongitude());
+    }
+
+    private static boolean finalizado(String status) {
+        return StatusPedido.ENTREGUE.name().equals(status) || StatusPedido.CANCELADO.name().equals(status);
+    }
+
+    private static long millis(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private final class EmAberto {
+
+        private final Long restauranteId;
+        private final LocalDateTime dataPedido;
+        private final double distanciaKm;
+        private final boolean distanciaConhecida;
+        private volatile long saiuEm;
+
+        EmAberto(Long restauranteId, LocalDateTime dataPedido, double distanciaKm) {
+            this.restauranteId = restauranteId;
+            this.dataPedido = dataPedido;
+            this.distanciaConhecida = distanciaKm >= 0;
+            this.distanciaKm = distanciaConhecida ? distanciaKm : properties.getDistanciaPadraoKm();
+        }
+    }
+
+    private static final class PreparoRestaurante {
+
+        private final EstatisticaCorrente[] porHora = new EstatisticaCorrente[HORAS];
+        private final EstatisticaCorrente total;
+
+        PreparoRestaurante(int janela) {
+            for (int h = 0; h < HORAS; h++) {
+                porHora[h] = new EstatisticaCorrente(janela);
+            }
+            total = new EstatisticaCorrente(janela);
+        }
+    }
+}
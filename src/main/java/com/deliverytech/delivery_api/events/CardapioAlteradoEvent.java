@@ -0,0 +1,7 @@
+package com.deliverytech.delivery_api.events;
+
+/**
+ * Publicado sempre que produtos de um restaurante são criados, alterados ou removidos.
+ */
+public record CardapioAlteradoEvent(Long restauranteId) {
+}
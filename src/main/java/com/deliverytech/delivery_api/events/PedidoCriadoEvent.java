@@ -0,0 +1,12 @@
+package com.deliverytech.delivery_api.events;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Publicado na criação de um pedido, com o cliente, a categoria do restaurante, o valor total
+ * e a quantidade pedida de cada produto.
+ */
+public record PedidoCriadoEvent(Long pedidoId, Long clienteId, Long restauranteId, String categoria,
+                                BigDecimal valorTotal, Map<Long, Integer> quantidadePorProduto) {
+}
@@ -0,0 +1,30 @@
+package com.deliverytech.delivery_api.events;
+
+import com.deliverytech.delivery_api.entity.Pedido;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado quando um pedido é criado ou muda de status.
+ * Os dados descritivos (cliente, número, data, itens, observações) não mudam depois da criação e podem vir nulos
+ * quando quem publica não tem o pedido carregado (ex.: cancelamento no modo write-behind).
+ */
+public record PedidoStatusAlteradoEvent(Long pedidoId, Long restauranteId, Long clienteId, String status,
+                                        String numeroPedido, LocalDateTime dataPedido,
+                                        String itens, String observacoes) {
+
+    public static PedidoStatusAlteradoEvent de(Pedido pedido) {
+        return new PedidoStatusAlteradoEvent(pedido.getId(),
+                pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null,
+                pedido.getClienteId(), pedido.getStatus(), pedido.getNumeroPedido(), pedido.getDataPedido(),
+                pedido.getItens(), pedido.getObservacoes());
+    }
+
+    public static PedidoStatusAlteradoEvent somenteStatus(Long pedidoId, String status) {
+        return new PedidoStatusAlteradoEvent(pedidoId, null, null, status, null, null, null, null);
+    }
+
+    public boolean temDetalhes() {
+        return restauranteId != null && numeroPedido != null;
+    }
+}
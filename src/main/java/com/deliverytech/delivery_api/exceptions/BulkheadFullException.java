@@ -0,0 +1,12 @@
+package com.deliverytech.delivery_api.exceptions;
+
+/**
+ * Exceção lançada quando um bulkhead está lotado (execuções e fila cheias)
+ * ou quando a requisição esperou na fila além do tempo máximo.
+ * Mapeada para o status HTTP 503 Service Unavailable.
+ */
+public class BulkheadFullException extends RuntimeException {
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -4,6 +4,7 @@ import com.deliverytech.delivery_api.dto.ApiError;
 import com.deliverytech.delivery_api.dto.ApiResponse;
 import com.deliverytech.delivery_api.dto.FieldValidationError;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException; // Importante
@@ -80,6 +81,42 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(error));
     }
 
+    /**
+     * Handler para Rate Limit excedido (429)
+     * Lançada pelo RateLimitFilter; informa no header Retry-After quando tentar novamente.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<Object>> handleTooManyRequests(
+            TooManyRequestsException ex, HttpServletRequest request) {
+
+        ApiError error = new ApiError(
+                HttpStatus.TOO_MANY_REQUESTS,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(error));
+    }
+
+    /**
+     * Handler para Bulkhead lotado (503)
+     * O grupo de endpoints atingiu o limite de concorrência e de fila.
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ApiResponse<Object>> handleBulkheadFull(
+            BulkheadFullException ex, HttpServletRequest request) {
+
+        ApiError error = new ApiError(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(error));
+    }
+
     /**
      * ATIVIDADE 3.1 e 3.2: Handler para Erros de Validação (400)
      */
@@ -0,0 +1,19 @@
+package com.deliverytech.delivery_api.exceptions;
+
+/**
+ * Exceção lançada quando o cliente excede o limite de requisições (rate limit).
+ * Mapeada para o status HTTP 429 Too Many Requests.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
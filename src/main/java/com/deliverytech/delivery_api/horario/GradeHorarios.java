@@ -0,0 +1,106 @@
+package com.deliverytech.delivery_api.horario;
+
+import com.deliverytech.delivery_api.entity.HorarioFuncionamento;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grade de funcionamento de um restaurante pré-calculada em bitmaps de minutos: um por dia da semana e um por
+ * data de exceção. Cada bitmap cobre 48 h, então um intervalo que vira a meia-noite continua no mesmo bitmap;
+ * "aberto às t" é o bit do dia de t ou o bit da véspera deslocado de 24 h. Consulta O(1).
+ * Bitmaps iguais são compartilhados entre restaurantes (a maioria repete poucos horários).
+ */
+final class GradeHorarios {
+
+    static final int MINUTOS_DIA = 24 * 60;
+    private static final int PALAVRAS = 2 * MINUTOS_DIA / Long.SIZE;
+    private static final long[] FECHADO = new long[PALAVRAS];
+    private static final Map<String, long[]> COMPARTILHADOS = new ConcurrentHashMap<>();
+
+    private final long[][] semana; // índice DayOfWeek.getValue() - 1
+    private final Map<LocalDate, long[]> excecoes;
+
+    private GradeHorarios(long[][] semana, Map<LocalDate, long[]> excecoes) {
+        this.semana = semana;
+        this.excecoes = excecoes;
+    }
+
+    static GradeHorarios de(Collection<HorarioFuncionamento> horarios) {
+        List<List<HorarioFuncionamento>> porDia = new ArrayList<>(7);
+        for (int d = 0; d < 7; d++) {
+            porDia.add(new ArrayList<>());
+        }
+        Map<LocalDate, List<HorarioFuncionamento>> porData = new HashMap<>();
+        for (HorarioFuncionamento h : horarios) {
+            if (h.getDataExcecao() != null) {
+                porData.computeIfAbsent(h.getDataExcecao(), d -> new ArrayList<>()).add(h);
+            } else if (h.getDiaSemana() != null) {
+                porDia.get(h.getDiaSemana() - 1).add(h);
+            }
+        }
+
+        long[][] semana = new long[7][];
+        for (int d = 0; d < 7; d++) {
+            semana[d] = bitmap(porDia.get(d));
+        }
+        Map<LocalDate, long[]> excecoes = new HashMap<>();
+        porData.forEach((data, doDia) -> excecoes.put(data, bitmap(doDia)));
+        return new GradeHorarios(semana, excecoes.isEmpty() ? Map.of() : excecoes);
+    }
+
+    boolean aberto(LocalDateTime quando) {
+        LocalDate dia = quando.toLocalDate();
+        int minuto = quando.getHour() * 60 + quando.getMinute();
+        return ligado(doDia(dia), minuto) || ligado(doDia(dia.minusDays(1)), MINUTOS_DIA + minuto);
+    }
+
+    private long[] doDia(LocalDate dia) {
+        long[] excecao = excecoes.get(dia);
+        return excecao != null ? excecao : semana[dia.getDayOfWeek().getValue() - 1];
+    }
+
+    private static boolean ligado(long[] bits, int indice) {
+        return (bits[indice >>> 6] & (1L << indice)) != 0;
+    }
+
+    private static long[] bitmap(List<HorarioFuncionamento> horarios) {
+        List<int[]> intervalos = new ArrayList<>();
+        for (HorarioFuncionamento h : horarios) {
+            if (h.getAbertura() == null || h.getFechamento() == null) {
+                continue; // dia marcado como fechado
+            }
+            int inicio = minutos(h.getAbertura());
+            int fim = minutos(h.getFechamento());
+            if (fim <= inicio) {
+                fim += MINUTOS_DIA; // vira a meia-noite (abertura == fechamento: 24 h)
+            }
+            intervalos.add(new int[]{inicio, fim});
+        }
+        if (intervalos.isEmpty()) {
+            return FECHADO;
+        }
+
+        intervalos.sort(Comparator.comparingInt((int[] i) -> i[0]).thenComparingInt(i -> i[1]));
+        StringBuilder chave = new StringBuilder();
+        for (int[] i : intervalos) {
+            chave.append(i[0]).append('-').append(i[1]).append(',');
+        }
+        return COMPARTILHADOS.computeIfAbsent(chave.toString(), k -> {
+            long[] bits = new long[PALAVRAS];
+            for (int[] i : intervalos) {
+                for (int m = i[0]; m < i[1]; m++) {
+                    bits[m >>> 6] |= 1L << m;
+                }
+            }
+            return bits;
+        });
+    }
+
+    private static int minutos(LocalTime horario) {
+        return horario.getHour() * 60 + horario.getMinute();
+    }
+}
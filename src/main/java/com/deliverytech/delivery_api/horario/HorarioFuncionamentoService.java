@@ -0,0 +1,166 @@
+package com.deliverytech.delivery_api.horario;
+
+import com.deliverytech.delivery_api.dto.HorarioFuncionamentoDTO;
+import com.deliverytech.delivery_api.entity.HorarioFuncionamento;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.repository.HorarioFuncionamentoRepository;
+import com.deliverytech.delivery_api.transacao.AposCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Horários de funcionamento dos restaurantes.
+ * A tabela horarios_funcionamento é a fonte; em memória fica uma GradeHorarios pré-calculada por restaurante,
+ * recarregada na subida e periodicamente (para acompanhar alterações feitas em outras instâncias).
+ * Restaurante sem nenhum horário cadastrado é considerado sempre aberto.
+ * O conjunto de fechados é calculado numa passada só sobre todas as grades e reaproveitado dentro do mesmo minuto.
+ */
+@Service
+public class HorarioFuncionamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(HorarioFuncionamentoService.class);
+
+    private final HorarioFuncionamentoRepository repository;
+    private final Clock clock;
+
+    private final Map<Long, GradeHorarios> grades = new ConcurrentHashMap<>();
+    private volatile Fechados fechados = Fechados.NENHUM;
+
+    @Autowired
+    public HorarioFuncionamentoService(HorarioFuncionamentoRepository repository) {
+        this(repository, Clock.systemDefaultZone());
+    }
+
+    HorarioFuncionamentoService(HorarioFuncionamentoRepository repository, Clock clock) {
+        this.repository = repository;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        Map<Long, List<HorarioFuncionamento>> porRestaurante = repository.findAll().stream()
+                .collect(Collectors.groupingBy(HorarioFuncionamento::getRestauranteId));
+        Map<Long, GradeHorarios> novas = new HashMap<>();
+        porRestaurante.forEach((restauranteId, horarios) -> novas.put(restauranteId, GradeHorarios.de(horarios)));
+
+        grades.keySet().retainAll(novas.keySet());
+        grades.putAll(novas);
+        fechados = Fechados.NENHUM;
+        log.debug("Grades de horário carregadas: {} restaurantes", novas.size());
+    }
+
+    @Scheduled(fixedDelayString = "${horarios.recarga:PT5M}", initialDelayString = "${horarios.recarga:PT5M}")
+    public void recarregar() {
+        carregar();
+    }
+
+    public boolean estaAberto(Long restauranteId) {
+        GradeHorarios grade = grades.get(restauranteId);
+        return grade == null || grade.aberto(LocalDateTime.now(clock));
+    }
+
+    public void verificarAberto(Long restauranteId) {
+        if (!estaAberto(restauranteId)) {
+            throw new BusinessException("Restaurante fechado no momento");
+        }
+    }
+
+    /** Restaurantes fechados agora (só os que têm grade cadastrada). */
+    public Set<Long> fechadosAgora() {
+        long minuto = clock.millis() / 60_000;
+        Fechados atual = fechados;
+        if (atual.minuto != minuto) {
+            LocalDateTime agora = LocalDateTime.now(clock);
+            Set<Long> ids = new HashSet<>();
+            grades.forEach((restauranteId, grade) -> {
+                if (!grade.aberto(agora)) {
+                    ids.add(restauranteId);
+                }
+            });
+            atual = new Fechados(minuto, Collections.unmodifiableSet(ids));
+            fechados = atual;
+        }
+        return atual.ids;
+    }
+
+    @Transactional(readOnly = true)
+    public List<HorarioFuncionamentoDTO> listar(Long restauranteId) {
+        return repository.findByRestauranteId(restauranteId).stream()
+                .sorted(Comparator.comparing(HorarioFuncionamento::getDataExcecao, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(HorarioFuncionamento::getDiaSemana, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(HorarioFuncionamento::getAbertura, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(h -> new HorarioFuncionamentoDTO(h.getDiaSemana(), h.getDataExcecao(), h.getAbertura(), h.getFechamento()))
+                .toList();
+    }
+
+    /**
+     * Substitui a grade do restaurante. Sem lista estruturada, usa o resumo "HH:MM-HH:MM[,HH:MM-HH:MM]"
+     * para todos os dias da semana. A grade em memória só muda depois do commit.
+     */
+    @Transactional
+    public List<HorarioFuncionamentoDTO> definir(Long restauranteId, List<HorarioFuncionamentoDTO> horarios, String resumo) {
+        List<HorarioFuncionamento> novos = horarios != null
+                ? horarios.stream().map(h -> paraEntidade(restauranteId, h)).toList()
+                : expandirResumo(restauranteId, resumo);
+
+        repository.deleteByRestauranteId(restauranteId);
+        repository.saveAll(novos);
+
+        GradeHorarios grade = novos.isEmpty() ? null : GradeHorarios.de(novos);
+        AposCommit.executar(() -> {
+            if (grade == null) {
+                grades.remove(restauranteId);
+            } else {
+                grades.put(restauranteId, grade);
+            }
+            fechados = Fechados.NENHUM;
+        });
+        return novos.stream()
+                .map(h -> new HorarioFuncionamentoDTO(h.getDiaSemana(), h.getDataExcecao(), h.getAbertura(), h.getFechamento()))
+                .toList();
+    }
+
+    private static HorarioFuncionamento paraEntidade(Long restauranteId, HorarioFuncionamentoDTO dto) {
+        if ((dto.getDiaSemana() == null) == (dto.getData() == null)) {
+            throw new BusinessException("Cada horário deve informar o dia da semana ou a data da exceção (apenas um)");
+        }
+        if ((dto.getAbertura() == null) != (dto.getFechamento() == null)) {
+            throw new BusinessException("Informe abertura e fechamento, ou nenhum dos dois para marcar o dia como fechado");
+        }
+        return new HorarioFuncionamento(null, restauranteId, dto.getDiaSemana(), dto.getData(),
+                dto.getAbertura(), dto.getFechamento());
+    }
+
+    private static List<HorarioFuncionamento> expandirResumo(Long restauranteId, String resumo) {
+        if (resumo == null || resumo.isBlank()) {
+            return List.of();
+        }
+        List<HorarioFuncionamento> horarios = new ArrayList<>();
+        for (String intervalo : resumo.split(",")) {
+            String[] partes = intervalo.trim().split("-");
+            LocalTime abertura = LocalTime.parse(partes[0].trim());
+            LocalTime fechamento = LocalTime.parse(partes[1].trim());
+            for (int dia = 1; dia <= 7; dia++) {
+                horarios.add(new HorarioFuncionamento(null, restauranteId, dia, null, abertura, fechamento));
+            }
+        }
+        return horarios;
+    }
+
+    private record Fechados(long minuto, Set<Long> ids) {
+        static final Fechados NENHUM = new Fechados(-1, Set.of());
+    }
+}
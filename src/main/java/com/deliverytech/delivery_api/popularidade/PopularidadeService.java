@@ -0,0 +1,74 @@
+package com.deliverytech.delivery_api.popularidade;
+
+import com.deliverytech.delivery_api.config.PopularidadeProperties;
+import com.deliverytech.delivery_api.events.PedidoCriadoEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Popularidade recente de restaurantes e produtos, alimentada pelos PedidoCriadoEvent (depois do commit).
+ * Tudo fica em memória e com tamanho fixo (RankingDecaido); as leituras usam um retrato publicado a cada
+ * popularidade.intervalo-retrato, sem lock e sem nenhuma consulta agregada sobre "pedidos".
+ * Cada instância conta os pedidos que ela mesma recebeu (amostra do tráfego) e recomeça do zero a cada subida.
+ */
+@Service
+public class PopularidadeService {
+
+    private final Clock clock;
+    private final RankingDecaido restaurantes;
+    private final RankingDecaido produtos;
+
+    private volatile RankingDecaido.Retrato retratoRestaurantes;
+    private volatile RankingDecaido.Retrato retratoProdutos;
+
+    @Autowired
+    public PopularidadeService(PopularidadeProperties properties) {
+        this(properties, Clock.systemDefaultZone());
+    }
+
+    PopularidadeService(PopularidadeProperties properties, Clock clock) {
+        this.clock = clock;
+        long meiaVida = properties.getMeiaVida().toMillis();
+        long agora = clock.millis();
+        this.restaurantes = new RankingDecaido(properties.getLargura(), properties.getProfundidade(), meiaVida,
+                properties.getTopRestaurantes(), agora);
+        // Produtos só precisam de pontuação (o cardápio é ordenado inteiro), não de ranking próprio
+        this.produtos = new RankingDecaido(properties.getLargura(), properties.getProfundidade(), meiaVida, 0, agora);
+        publicarRetrato();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPedidoCriado(PedidoCriadoEvent evento) {
+        long agora = clock.millis();
+        if (evento.restauranteId() != null) {
+            restaurantes.registrar(evento.restauranteId(), 1, agora);
+        }
+        if (evento.quantidadePorProduto() != null) {
+            for (Map.Entry<Long, Integer> item : evento.quantidadePorProduto().entrySet()) {
+                produtos.registrar(item.getKey(), item.getValue(), agora);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${popularidade.intervalo-retrato:PT10S}")
+    public void publicarRetrato() {
+        long agora = clock.millis();
+        retratoRestaurantes = restaurantes.retrato(agora);
+        retratoProdutos = produtos.retrato(agora);
+    }
+
+    /** Restaurantes mais pedidos recentemente, do mais para o menos popular (no máximo top-restaurantes). */
+    public List<Long> restaurantesEmAlta() {
+        return retratoRestaurantes.ranking();
+    }
+
+    public double pontuacaoProduto(Long produtoId) {
+        return retratoProdutos.pontuacao(produtoId);
+    }
+}
@@ -0,0 +1,150 @@
+package com.deliverytech.delivery_api.popularidade;
+
+import java.util.*;
+
+/**
+ * Contagens com decaimento exponencial num Count-Min Sketch, mais os K maiores.
+ * Decaimento "para frente": em vez de envelhecer todas as contagens, cada evento novo pesa 2^((t - base) / meiaVida),
+ * então a ordem relativa só muda com eventos novos; quando o peso fica grande demais, tudo é reescalado e a base avança.
+ * Atualização conservadora: só sobem as células abaixo da nova estimativa, o que reduz a superestimação do sketch.
+ * Memória fixa (profundidade x largura), independente de quantas chaves existirem.
+ */
+final class RankingDecaido {
+
+    private static final double EXPOENTE_MAXIMO = 60;
+
+    private final int largura;
+    private final long[] sementes;
+    private final double[][] contagens;
+    private final double meiaVidaMs;
+    private final int k;
+
+    private final Map<Long, Double> maiores = new HashMap<>();
+    // Limite inferior do menor valor entre os K maiores (os valores só crescem entre reescalas)
+    private double minimoMaiores;
+    private long base;
+
+    RankingDecaido(int largura, int profundidade, long meiaVidaMs, int k, long agora) {
+        this.largura = largura;
+        this.contagens = new double[profundidade][largura];
+        this.sementes = new long[profundidade];
+        SplittableRandom aleatorio = new SplittableRandom(0x5EED);
+        for (int i = 0; i < profundidade; i++) {
+            sementes[i] = aleatorio.nextLong();
+        }
+        this.meiaVidaMs = meiaVidaMs;
+        this.k = k;
+        this.base = agora;
+    }
+
+    synchronized void registrar(long chave, double quantidade, long agora) {
+        double expoente = (agora - base) / meiaVidaMs;
+        if (expoente > EXPOENTE_MAXIMO) {
+            reescalar(Math.pow(2, -expoente));
+            base = agora;
+            expoente = 0;
+        }
+        double estimativa = estimar(contagens, chave) + quantidade * Math.pow(2, expoente);
+        for (int linha = 0; linha < contagens.length; linha++) {
+            int coluna = coluna(linha, chave);
+            if (contagens[linha][coluna] < estimativa) {
+                contagens[linha][coluna] = estimativa;
+            }
+        }
+        if (k > 0) {
+            atualizarMaiores(chave, estimativa);
+        }
+    }
+
+    /** Cópia imutável para leitura sem lock, com os valores trazidos para "agora". */
+    synchronized Retrato retrato(long agora) {
+        double fator = Math.pow(2, -(agora - base) / meiaVidaMs);
+        double[][] copia = new double[contagens.length][];
+        for (int linha = 0; linha < contagens.length; linha++) {
+            copia[linha] = contagens[linha].clone();
+        }
+        List<Long> ranking = new ArrayList<>(maiores.keySet());
+        ranking.sort(Comparator.comparing((Long chave) -> maiores.get(chave)).reversed());
+        return new Retrato(copia, fator, List.copyOf(ranking));
+    }
+
+    private void atualizarMaiores(long chave, double estimativa) {
+        if (maiores.containsKey(chave)) {
+            maiores.put(chave, estimativa);
+            return;
+        }
+        if (maiores.size() < k) {
+            maiores.put(chave, estimativa);
+            if (maiores.size() == k) {
+                minimoMaiores = Collections.min(maiores.values());
+            }
+            return;
+        }
+        if (estimativa <= minimoMaiores) {
+            return;
+        }
+        Map.Entry<Long, Double> menor = null;
+        for (Map.Entry<Long, Double> e : maiores.entrySet()) {
+            if (menor == null || e.getValue() < menor.getValue()) {
+                menor = e;
+            }
+        }
+        if (estimativa > menor.getValue()) {
+            maiores.remove(menor.getKey());
+            maiores.put(chave, estimativa);
+            minimoMaiores = Collections.min(maiores.values());
+        } else {
+            minimoMaiores = menor.getValue();
+        }
+    }
+
+    private void reescalar(double fator) {
+        for (double[] linha : contagens) {
+            for (int i = 0; i < linha.length; i++) {
+                linha[i] *= fator;
+            }
+        }
+        maiores.replaceAll((chave, valor) -> valor * fator);
+        minimoMaiores *= fator;
+    }
+
+    private double estimar(double[][] tabela, long chave) {
+        double minimo = Double.MAX_VALUE;
+        for (int linha = 0; linha < tabela.length; linha++) {
+            minimo = Math.min(minimo, tabela[linha][coluna(linha, chave)]);
+        }
+        return minimo;
+    }
+
+    private int coluna(int linha, long chave) {
+        // splitmix64: espalha ids sequenciais pelas colunas
+        long z = chave + sementes[linha];
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (int) Long.remainderUnsigned(z, largura);
+    }
+
+    /** Estado congelado do ranking: pontuação em "pedidos equivalentes de agora". */
+    final class Retrato {
+
+        private final double[][] contagens;
+        private final double fator;
+        private final List<Long> ranking;
+
+        private Retrato(double[][] contagens, double fator, List<Long> ranking) {
+            this.contagens = contagens;
+            this.fator = fator;
+            this.ranking = ranking;
+        }
+
+        double pontuacao(long chave) {
+            return estimar(contagens, chave) * fator;
+        }
+
+        /** Os K maiores, do mais para o menos popular. */
+        List<Long> ranking() {
+            return ranking;
+        }
+    }
+}
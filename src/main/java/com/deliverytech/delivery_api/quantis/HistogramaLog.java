@@ -0,0 +1,221 @@
+package com.deliverytech.delivery_api.quantis;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Histograma com baldes em escala logarítmica para quantis com erro relativo garantido.
+ * O balde i guarda os valores em (gama^(i-1), gama^i], com gama = (1 + erro) / (1 - erro); o valor devolvido
+ * para um balde fica a no máximo "erro" (relativo) de qualquer valor que caiu nele.
+ * Fundir é somar as contagens balde a balde, então sketches de dias e instâncias diferentes se combinam
+ * sem perda além do erro do balde. Só aceita valores >= 0 (zero tem contador próprio). Não é thread-safe.
+ */
+final class HistogramaLog {
+
+    private static final byte FORMATO = 1;
+
+    private final double erroRelativo;
+    private final double gama;
+    private final double logGama;
+
+    private final TreeMap<Integer, Long> baldes = new TreeMap<>();
+    private long zeros;
+    private long quantidade;
+    private double soma;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+
+    HistogramaLog(double erroRelativo) {
+        if (erroRelativo <= 0 || erroRelativo >= 1) {
+            throw new IllegalArgumentException("Erro relativo deve estar entre 0 e 1: " + erroRelativo);
+        }
+        this.erroRelativo = erroRelativo;
+        this.gama = (1 + erroRelativo) / (1 - erroRelativo);
+        this.logGama = Math.log(gama);
+    }
+
+    double erroRelativo() {
+        return erroRelativo;
+    }
+
+    long quantidade() {
+        return quantidade;
+    }
+
+    void registrar(double valor) {
+        registrar(valor, 1);
+    }
+
+    private void registrar(double valor, long vezes) {
+        if (valor < 0 || Double.isNaN(valor) || Double.isInfinite(valor)) {
+            throw new IllegalArgumentException("Valor inválido para o histograma: " + valor);
+        }
+        if (valor == 0) {
+            zeros += vezes;
+        } else {
+            baldes.merge(indice(valor), vezes, Long::sum);
+        }
+        quantidade += vezes;
+        soma += valor * vezes;
+        minimo = Math.min(minimo, valor);
+        maximo = Math.max(maximo, valor);
+    }
+
+    /**
+     * Soma outro histograma a este. Com o mesmo erro relativo a fusão é exata; com erros diferentes
+     * (configuração alterada) cada balde do outro entra pelo seu valor representativo.
+     */
+    void fundir(HistogramaLog outro) {
+        if (outro.quantidade == 0) {
+            return;
+        }
+        double novoMinimo = Math.min(minimo, outro.minimo);
+        double novoMaximo = Math.max(maximo, outro.maximo);
+        double novaSoma = soma + outro.soma;
+        if (outro.erroRelativo == erroRelativo) {
+            outro.baldes.forEach((indice, contagem) -> baldes.merge(indice, contagem, Long::sum));
+            zeros += outro.zeros;
+            quantidade += outro.quantidade;
+        } else {
+            if (outro.zeros > 0) {
+                registrar(0, outro.zeros);
+            }
+            outro.baldes.forEach((indice, contagem) -> registrar(outro.valorDoBalde(indice), contagem));
+        }
+        // Soma e extremos vêm exatos do outro, não dos representativos dos baldes
+        soma = novaSoma;
+        minimo = novoMinimo;
+        maximo = novoMaximo;
+    }
+
+    /** Quantil q (0 a 1) pelo posto mais próximo; null se o histograma estiver vazio. */
+    Double quantil(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantil deve estar entre 0 e 1: " + q);
+        }
+        if (quantidade == 0) {
+            return null;
+        }
+        long posto = Math.max(1, (long) Math.ceil(q * quantidade));
+        if (posto <= zeros) {
+            return 0.0;
+        }
+        long acumulado = zeros;
+        for (Map.Entry<Integer, Long> balde : baldes.entrySet()) {
+            acumulado += balde.getValue();
+            if (acumulado >= posto) {
+                // O representativo pode passar dos extremos observados; min e max são exatos
+                return Math.max(minimo, Math.min(maximo, valorDoBalde(balde.getKey())));
+            }
+        }
+        return maximo;
+    }
+
+    Double minimo() {
+        return quantidade > 0 ? minimo : null;
+    }
+
+    Double maximo() {
+        return quantidade > 0 ? maximo : null;
+    }
+
+    Double media() {
+        return quantidade > 0 ? soma / quantidade : null;
+    }
+
+    HistogramaLog copia() {
+        HistogramaLog copia = new HistogramaLog(erroRelativo);
+        copia.fundir(this);
+        return copia;
+    }
+
+    /**
+     * Formato compacto: cabeçalho fixo e, para cada balde não vazio, a distância para o anterior e a contagem
+     * em inteiros de tamanho variável. Um restaurante/dia típico ocupa algumas centenas de bytes.
+     */
+    byte[] serializar() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 4 * baldes.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMATO);
+            out.writeDouble(erroRelativo);
+            out.writeDouble(soma);
+            out.writeDouble(minimo);
+            out.writeDouble(maximo);
+            escreverVarLong(out, zeros);
+            escreverVarLong(out, baldes.size());
+            int anterior = 0;
+            for (Map.Entry<Integer, Long> balde : baldes.entrySet()) {
+                // zigzag: o primeiro índice pode ser negativo (valores abaixo de 1)
+                int delta = balde.getKey() - anterior;
+                escreverVarLong(out, Integer.toUnsignedLong((delta << 1) ^ (delta >> 31)));
+                escreverVarLong(out, balde.getValue());
+                anterior = balde.getKey();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static HistogramaLog desserializar(byte[] dados) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(dados))) {
+            byte formato = in.readByte();
+            if (formato != FORMATO) {
+                throw new IllegalArgumentException("Formato de histograma desconhecido: " + formato);
+            }
+            HistogramaLog histograma = new HistogramaLog(in.readDouble());
+            histograma.soma = in.readDouble();
+            histograma.minimo = in.readDouble();
+            histograma.maximo = in.readDouble();
+            histograma.zeros = lerVarLong(in);
+            histograma.quantidade = histograma.zeros;
+            long totalBaldes = lerVarLong(in);
+            int indice = 0;
+            for (long i = 0; i < totalBaldes; i++) {
+                int zigzag = (int) lerVarLong(in);
+                indice += (zigzag >>> 1) ^ -(zigzag & 1);
+                long contagem = lerVarLong(in);
+                histograma.baldes.put(indice, contagem);
+                histograma.quantidade += contagem;
+            }
+            return histograma;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Histograma corrompido", e);
+        }
+    }
+
+    private int indice(double valor) {
+        return (int) Math.ceil(Math.log(valor) / logGama);
+    }
+
+    // Ponto do balde equidistante (em erro relativo) dos dois limites
+    private double valorDoBalde(int indice) {
+        return 2 * Math.pow(gama, indice) / (gama + 1);
+    }
+
+    private static void escreverVarLong(DataOutputStream out, long valor) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            out.writeByte((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        out.writeByte((int) valor);
+    }
+
+    private static long lerVarLong(DataInputStream in) throws IOException {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            int b = in.readUnsignedByte();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Inteiro variável longo demais");
+    }
+}
@@ -0,0 +1,169 @@
+package com.deliverytech.delivery_api.quantis;
+
+import com.deliverytech.delivery_api.config.QuantisProperties;
+import com.deliverytech.delivery_api.dto.reports.RelatorioPercentisDTO;
+import com.deliverytech.delivery_api.entity.SketchQuantis;
+import com.deliverytech.delivery_api.enums.StatusPedido;
+import com.deliverytech.delivery_api.events.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.events.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.repository.SketchQuantisRepository;
+import com.deliverytech.delivery_api.sketch.SketchesDiarios;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Distribuição (percentis) do valor do pedido e do tempo até a entrega por restaurante/dia,
+ * sem ler os pedidos na consulta.
+ * O valor entra na criação do pedido e o tempo na transição para ENTREGUE (ambos depois do commit), num
+ * HistogramaLog em memória; a cada quantis.intervalo-descarga os histogramas acumulados são somados aos da
+ * tabela sketches_quantis. Um período qualquer é a soma de no máximo um histograma por dia.
+ * Buffer, descarga e validação do período ficam em SketchesDiarios, compartilhado com os clientes únicos.
+ */
+@Service
+public class QuantisService implements DisposableBean {
+
+    public enum Metrica {
+        VALOR_PEDIDO("BRL", 2),
+        TEMPO_ENTREGA("minutos", 1);
+
+        private final String unidade;
+        private final int casasDecimais;
+
+        Metrica(String unidade, int casasDecimais) {
+            this.unidade = unidade;
+            this.casasDecimais = casasDecimais;
+        }
+    }
+
+    private static final Comparator<Chave> ORDEM_DE_GRAVACAO = Comparator.comparing(Chave::metrica)
+            .thenComparing(Chave::restauranteId)
+            .thenComparing(Chave::dia);
+
+    private final SketchQuantisRepository repository;
+    private final QuantisProperties properties;
+    private final Clock clock;
+    private final SketchesDiarios<Chave, HistogramaLog> histogramas;
+
+    @Autowired
+    public QuantisService(SketchQuantisRepository repository, PlatformTransactionManager transactionManager,
+                          QuantisProperties properties) {
+        this(repository, transactionManager, properties, Clock.systemDefaultZone());
+    }
+
+    QuantisService(SketchQuantisRepository repository, PlatformTransactionManager transactionManager,
+                   QuantisProperties properties, Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.clock = clock;
+        this.histogramas = new SketchesDiarios<>("histogramas de percentis", ORDEM_DE_GRAVACAO, (a, b) -> {
+            a.fundir(b);
+            return a;
+        }, HistogramaLog::copia, transactionManager, properties::getMaxDias, clock);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPedidoCriado(PedidoCriadoEvent evento) {
+        if (evento.restauranteId() == null || evento.valorTotal() == null) {
+            return;
+        }
+        registrar(new Chave(Metrica.VALOR_PEDIDO, evento.restauranteId(), LocalDate.now(clock)),
+                evento.valorTotal().doubleValue());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPedidoStatusAlterado(PedidoStatusAlteradoEvent evento) {
+        if (!StatusPedido.ENTREGUE.name().equals(evento.status())
+                || evento.restauranteId() == null || evento.dataPedido() == null) {
+            return;
+        }
+        Duration tempo = Duration.between(evento.dataPedido(), LocalDateTime.now(clock));
+        if (tempo.isNegative()) {
+            return;
+        }
+        registrar(new Chave(Metrica.TEMPO_ENTREGA, evento.restauranteId(), evento.dataPedido().toLocalDate()),
+                tempo.toMillis() / 60_000.0);
+    }
+
+    private void registrar(Chave chave, double valor) {
+        histogramas.registrar(chave, () -> new HistogramaLog(properties.getErroRelativo()),
+                histograma -> histograma.registrar(valor));
+    }
+
+    /**
+     * Soma os histogramas acumulados nesta instância aos da tabela. Em caso de falha, eles voltam para a fila.
+     */
+    @Scheduled(fixedDelayString = "${quantis.intervalo-descarga:PT30S}")
+    public int descarregar() {
+        return histogramas.descarregar(this::somarNoBanco);
+    }
+
+    private void somarNoBanco(Chave chave, HistogramaLog histograma) {
+        Optional<SketchQuantis> existente = repository.findByMetricaAndRestauranteIdAndDia(
+                chave.metrica().name(), chave.restauranteId(), chave.dia());
+        if (existente.isPresent()) {
+            SketchQuantis linha = existente.get();
+            HistogramaLog somado = HistogramaLog.desserializar(linha.getRegistros());
+            somado.fundir(histograma);
+            linha.setRegistros(somado.serializar());
+        } else {
+            repository.save(new SketchQuantis(chave.metrica().name(), chave.restauranteId(), chave.dia(),
+                    histograma.serializar()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        descarregar();
+    }
+
+    /**
+     * Percentis da métrica no período [inicio, fim] (padrão: últimos 30 dias). percentis em 0-100.
+     * Inclui o que esta instância ainda não descarregou; o de outras instâncias aparece após a descarga delas.
+     */
+    @Transactional(readOnly = true)
+    public RelatorioPercentisDTO percentis(Metrica metrica, Long restauranteId, LocalDate inicio, LocalDate fim,
+                                           List<Double> percentis) {
+        SketchesDiarios.Periodo periodo = histogramas.periodo(inicio, fim);
+        if (percentis.isEmpty() || percentis.stream().anyMatch(p -> p == null || p <= 0 || p > 100)) {
+            throw new BusinessException("Percentis devem estar entre 0 (exclusivo) e 100");
+        }
+
+        HistogramaLog total = new HistogramaLog(properties.getErroRelativo());
+        for (SketchQuantis linha : repository.findByMetricaAndRestauranteIdAndDiaBetween(metrica.name(), restauranteId,
+                periodo.de(), periodo.ate())) {
+            total.fundir(HistogramaLog.desserializar(linha.getRegistros()));
+        }
+        total = histogramas.somarPendentes(total, periodo, dia -> new Chave(metrica, restauranteId, dia));
+
+        Map<String, Double> valores = new LinkedHashMap<>();
+        for (Double p : percentis) {
+            valores.put("p" + BigDecimal.valueOf(p).stripTrailingZeros().toPlainString(),
+                    arredondar(total.quantil(p / 100), metrica));
+        }
+        return new RelatorioPercentisDTO(metrica.name(), restauranteId, periodo.de(), periodo.ate(), metrica.unidade, total.quantidade(),
+                arredondar(total.minimo(), metrica), arredondar(total.media(), metrica), arredondar(total.maximo(), metrica),
+                valores, total.erroRelativo());
+    }
+
+    private static Double arredondar(Double valor, Metrica metrica) {
+        return valor == null ? null
+                : BigDecimal.valueOf(valor).setScale(metrica.casasDecimais, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private record Chave(Metrica metrica, Long restauranteId, LocalDate dia) {
+    }
+}
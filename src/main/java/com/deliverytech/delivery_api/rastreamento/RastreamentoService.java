@@ -0,0 +1,234 @@
+package com.deliverytech.delivery_api.rastreamento;
+
+import com.deliverytech.delivery_api.config.RastreamentoProperties;
+import com.deliverytech.delivery_api.despacho.DespachoService;
+import com.deliverytech.delivery_api.dto.LotePosicoesDTO;
+import com.deliverytech.delivery_api.dto.PontoRastreamentoDTO;
+import com.deliverytech.delivery_api.dto.RastreamentoDTO;
+import com.deliverytech.delivery_api.entity.Usuario;
+import com.deliverytech.delivery_api.enums.StatusPedido;
+import com.deliverytech.delivery_api.estimativa.EstimativaEntregaService;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
+import com.deliverytech.delivery_api.security.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingestão das posições dos entregadores.
+ * Cada ponto vai para o buffer circular do entregador (arrays primitivos, sem objeto por ponto) e o mais
+ * recente do lote alimenta o índice do despacho; nada disso toca o banco.
+ * A cada rastreamento.intervalo-persistencia os pontos novos são amostrados (um a cada rastreamento.amostragem)
+ * e gravados em um único batch INSERT em posicoes_entregadores.
+ * O rastreamento do pedido é lido só da memória (buffer + viagem do despacho), então só enxerga as posições
+ * recebidas por esta instância: como o despacho, exige instância única ou roteamento fixo para ela.
+ */
+@Service
+public class RastreamentoService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RastreamentoService.class);
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO posicoes_entregadores (entregador_id, latitude, longitude, registrada_em) VALUES (?, ?, ?, ?)";
+
+    private final RastreamentoProperties properties;
+    private final DespachoService despachoService;
+    private final EstimativaEntregaService estimativaEntregaService;
+    private final JdbcTemplate jdbcTemplate;
+    private final SecurityUtils securityUtils;
+    private final Clock clock;
+    private final Counter recebidos;
+    private final Counter descartados;
+    private final Counter persistidos;
+
+    private final Map<Long, TrilhaPosicoes> trilhas = new ConcurrentHashMap<>();
+    private ScheduledExecutorService agendador;
+
+    @Autowired
+    public RastreamentoService(RastreamentoProperties properties, DespachoService despachoService,
+                               EstimativaEntregaService estimativaEntregaService, JdbcTemplate jdbcTemplate,
+                               SecurityUtils securityUtils, MeterRegistry meterRegistry) {
+        this(properties, despachoService, estimativaEntregaService, jdbcTemplate, securityUtils, meterRegistry,
+                Clock.systemDefaultZone());
+    }
+
+    RastreamentoService(RastreamentoProperties properties, DespachoService despachoService,
+                        EstimativaEntregaService estimativaEntregaService, JdbcTemplate jdbcTemplate,
+                        SecurityUtils securityUtils, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.despachoService = despachoService;
+        this.estimativaEntregaService = estimativaEntregaService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.securityUtils = securityUtils;
+        this.clock = clock;
+        this.recebidos = meterRegistry.counter("entregadores.posicoes.recebidas");
+        this.descartados = meterRegistry.counter("entregadores.posicoes.descartadas");
+        this.persistidos = meterRegistry.counter("entregadores.posicoes.persistidas");
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rastreamento-persistencia");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalo = properties.getIntervaloPersistencia().toMillis();
+        agendador.scheduleWithFixedDelay(this::persistirComSeguranca, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /** Ponto único (PUT /posicao), com o instante do servidor. */
+    public void registrar(Long entregadorId, double latitude, double longitude, boolean disponivel) {
+        long agora = clock.millis();
+        registrarPonto(trilha(entregadorId), latitude, longitude, agora, agora);
+        despachoService.registrarPosicao(entregadorId, latitude, longitude, disponivel);
+    }
+
+    /** Lote em colunas enviado pelo app; o ponto mais recente aceito vira a posição do despacho. */
+    public void registrarLote(Long entregadorId, LotePosicoesDTO lote) {
+        double[] latitudes = lote.getLatitudes();
+        double[] longitudes = lote.getLongitudes();
+        long[] instantes = lote.getInstantes();
+        int n = latitudes.length;
+        if (longitudes.length != n || instantes.length != n) {
+            throw new BusinessException("Latitudes, longitudes e instantes devem ter o mesmo tamanho.");
+        }
+        if (n > properties.getMaxPontosPorLote()) {
+            throw new BusinessException("Lote acima do máximo de " + properties.getMaxPontosPorLote() + " pontos.");
+        }
+
+        TrilhaPosicoes trilha = trilha(entregadorId);
+        long agora = clock.millis();
+        int ultimo = -1;
+        for (int i = 0; i < n; i++) {
+            if (registrarPonto(trilha, latitudes[i], longitudes[i], instantes[i], agora)) {
+                ultimo = i;
+            }
+        }
+        if (ultimo >= 0) {
+            despachoService.registrarPosicao(entregadorId, latitudes[ultimo], longitudes[ultimo],
+                    !Boolean.FALSE.equals(lote.getDisponivel()));
+        }
+    }
+
+    /**
+     * Cliente, restaurante ou entregador do pedido (ou admin) podem rastrear.
+     * A posse é checada na mesma entrega que vai na resposta: pedido fora de rota é 404, entrega de outro é 403.
+     */
+    public RastreamentoDTO rastrearPedido(Long pedidoId) {
+        DespachoService.Entrega entrega = despachoService.buscarEntrega(pedidoId)
+                .orElseThrow(() -> new EntityNotFoundException("Pedido sem entregador em rota: " + pedidoId));
+        if (!podeRastrear(securityUtils.getCurrentUser(), entrega)) {
+            throw new AccessDeniedException("Acesso negado ao rastreamento do pedido " + pedidoId);
+        }
+
+        List<PontoRastreamentoDTO> pontos = new ArrayList<>();
+        TrilhaPosicoes trilha = trilhas.get(entrega.entregadorId());
+        if (trilha != null) {
+            trilha.ultimos(properties.getPontosNaTrilha(),
+                    (lat, lon, instante) -> pontos.add(new PontoRastreamentoDTO(lat, lon, dataHora(instante))));
+        }
+        PontoRastreamentoDTO atual = pontos.isEmpty() ? null : pontos.get(pontos.size() - 1);
+        String status = entrega.coletada() ? StatusPedido.SAIU_PARA_ENTREGA.name() : StatusPedido.PREPARANDO.name();
+        LocalDateTime previsao = estimativaEntregaService.previsao(pedidoId, status).orElse(null);
+        return new RastreamentoDTO(pedidoId, entrega.coletada(), previsao, atual, pontos);
+    }
+
+    /**
+     * Grava os pontos amostrados de todos os entregadores em um batch INSERT e remove da memória
+     * as trilhas paradas há mais de rastreamento.expira-em.
+     * @return quantidade de pontos gravados
+     */
+    public int persistir() {
+        long amostragem = properties.getAmostragem().toMillis();
+        List<Object[]> linhas = new ArrayList<>();
+        Map<TrilhaPosicoes, Long> confirmar = new HashMap<>();
+        trilhas.forEach((entregadorId, trilha) -> {
+            Long ultimo = trilha.amostrar(amostragem, (lat, lon, instante) ->
+                    linhas.add(new Object[]{entregadorId, lat, lon, Timestamp.from(Instant.ofEpochMilli(instante))}));
+            if (ultimo != null) {
+                confirmar.put(trilha, ultimo);
+            }
+        });
+
+        if (!linhas.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERIR, linhas);
+            confirmar.forEach(TrilhaPosicoes::confirmarPersistencia);
+            persistidos.increment(linhas.size());
+        }
+
+        long limite = clock.millis() - properties.getExpiraEm().toMillis();
+        trilhas.entrySet().removeIf(e -> e.getValue().getAtualizadaEm() < limite && !confirmar.containsKey(e.getValue()));
+        return linhas.size();
+    }
+
+    private static boolean podeRastrear(Usuario usuario, DespachoService.Entrega entrega) {
+        return switch (usuario.getRole()) {
+            case ADMIN -> true;
+            case CLIENTE -> usuario.getId().equals(entrega.clienteId());
+            case RESTAURANTE -> Objects.equals(usuario.getRestauranteId(), entrega.restauranteId());
+            case ENTREGADOR -> usuario.getId() == entrega.entregadorId();
+        };
+    }
+
+    private boolean registrarPonto(TrilhaPosicoes trilha, double latitude, double longitude, long instante, long agora) {
+        boolean valido = latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180
+                && instante <= agora + properties.getToleranciaFuturo().toMillis();
+        if (valido && trilha.registrar(latitude, longitude, instante, agora)) {
+            recebidos.increment();
+            return true;
+        }
+        descartados.increment();
+        return false;
+    }
+
+    private TrilhaPosicoes trilha(Long entregadorId) {
+        return trilhas.computeIfAbsent(entregadorId, id -> new TrilhaPosicoes(properties.getCapacidadePorEntregador()));
+    }
+
+    private LocalDateTime dataHora(long instante) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(instante), ZoneId.systemDefault());
+    }
+
+    private void persistirComSeguranca() {
+        try {
+            persistir();
+        } catch (Exception e) {
+            log.warn("Rastreamento: falha ao gravar posições, nova tentativa em {}: {}",
+                    properties.getIntervaloPersistencia(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (agendador == null) {
+            return;
+        }
+        agendador.shutdown();
+        try {
+            agendador.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        persistirComSeguranca();
+    }
+}
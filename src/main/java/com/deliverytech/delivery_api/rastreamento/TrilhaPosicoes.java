@@ -0,0 +1,84 @@
+package com.deliverytech.delivery_api.rastreamento;
+
+/**
+ * Buffer circular das últimas posições de um entregador, em arrays primitivos:
+ * registrar um ponto não aloca nada, e a capacidade fixa limita a memória por entregador.
+ * Pontos fora de ordem (reenvio de lote pelo app) são descartados.
+ */
+final class TrilhaPosicoes {
+
+    interface Amostra {
+        void aceitar(double latitude, double longitude, long instante);
+    }
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final long[] instantes;
+    // Próxima posição a escrever e quantidade válida
+    private int proximo;
+    private int tamanho;
+    // Instante do último ponto gravado no banco
+    private long ultimoPersistido = Long.MIN_VALUE;
+    private volatile long atualizadaEm;
+
+    TrilhaPosicoes(int capacidade) {
+        this.latitudes = new double[capacidade];
+        this.longitudes = new double[capacidade];
+        this.instantes = new long[capacidade];
+    }
+
+    /** @return false se o ponto é mais antigo que o último registrado */
+    synchronized boolean registrar(double latitude, double longitude, long instante, long agora) {
+        if (tamanho > 0 && instante < instantes[indice(tamanho - 1)]) {
+            return false;
+        }
+        latitudes[proximo] = latitude;
+        longitudes[proximo] = longitude;
+        instantes[proximo] = instante;
+        proximo = (proximo + 1) % instantes.length;
+        tamanho = Math.min(tamanho + 1, instantes.length);
+        atualizadaEm = agora;
+        return true;
+    }
+
+    /** Até {@code max} pontos mais recentes, do mais antigo ao mais novo. */
+    synchronized void ultimos(int max, Amostra destino) {
+        int n = Math.min(max, tamanho);
+        for (int i = tamanho - n; i < tamanho; i++) {
+            int j = indice(i);
+            destino.aceitar(latitudes[j], longitudes[j], instantes[j]);
+        }
+    }
+
+    /**
+     * Pontos ainda não persistidos, espaçados de pelo menos {@code intervaloMs} entre si e do último gravado.
+     * @return instante do último ponto entregue (passar para {@link #confirmarPersistencia}) ou null se nenhum
+     */
+    synchronized Long amostrar(long intervaloMs, Amostra destino) {
+        long ultimo = ultimoPersistido;
+        Long entregue = null;
+        for (int i = 0; i < tamanho; i++) {
+            int j = indice(i);
+            if (ultimo == Long.MIN_VALUE || instantes[j] - ultimo >= intervaloMs) {
+                destino.aceitar(latitudes[j], longitudes[j], instantes[j]);
+                ultimo = instantes[j];
+                entregue = ultimo;
+            }
+        }
+        return entregue;
+    }
+
+    synchronized void confirmarPersistencia(long instante) {
+        ultimoPersistido = Math.max(ultimoPersistido, instante);
+    }
+
+    long getAtualizadaEm() {
+        return atualizadaEm;
+    }
+
+    // i-ésimo ponto válido, do mais antigo (0) ao mais novo (tamanho - 1)
+    private int indice(int i) {
+        int inicio = tamanho < instantes.length ? 0 : proximo;
+        return (inicio + i) % instantes.length;
+    }
+}
@@ -0,0 +1,34 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.Avaliacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AvaliacaoRepository extends JpaRepository<Avaliacao, Long> {
+
+    boolean existsByPedidoId(Long pedidoId);
+
+    // ---- Agregação em lote (usada pelo AvaliacaoService) ----
+
+    @Query(value = "SELECT id FROM avaliacoes WHERE lote_agregacao IS NULL ORDER BY id LIMIT :tamanho",
+            nativeQuery = true)
+    List<Long> findIdsPendentes(@Param("tamanho") int tamanho);
+
+    // "AND lote_agregacao IS NULL" garante que duas instâncias nunca contem a mesma avaliação
+    @Modifying
+    @Query(value = "UPDATE avaliacoes SET lote_agregacao = :lote WHERE id IN (:ids) AND lote_agregacao IS NULL",
+            nativeQuery = true)
+    int reservar(@Param("ids") Collection<Long> ids, @Param("lote") long lote);
+
+    @Query(value = "SELECT restaurante_id, COUNT(*), SUM(nota) FROM avaliacoes WHERE lote_agregacao = :lote " +
+            "GROUP BY restaurante_id ORDER BY restaurante_id",
+            nativeQuery = true)
+    List<Object[]> somarPorRestaurante(@Param("lote") long lote);
+}
@@ -0,0 +1,21 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.HorarioFuncionamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HorarioFuncionamentoRepository extends JpaRepository<HorarioFuncionamento, Long> {
+
+    List<HorarioFuncionamento> findByRestauranteId(Long restauranteId);
+
+    // A grade é sempre substituída inteira
+    @Modifying
+    @Query("DELETE FROM HorarioFuncionamento h WHERE h.restauranteId = :restauranteId")
+    int deleteByRestauranteId(@Param("restauranteId") Long restauranteId);
+}
@@ -0,0 +1,71 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.reports.RelatorioProdutoVendido;
+import com.deliverytech.delivery_api.dto.reports.RelatorioRankingCliente;
+import com.deliverytech.delivery_api.dto.reports.RelatorioVendasRestaurante;
+import com.deliverytech.delivery_api.entity.PedidoArquivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PedidoArquivadoRepository extends JpaRepository<PedidoArquivado, Long> {
+
+    long countByClienteId(Long clienteId);
+
+    // Histórico arquivado sempre do mais recente para o mais antigo (usa idx_pedidos_arquivo_cliente_data)
+    @Query(value = "SELECT * FROM pedidos_arquivo WHERE cliente_id = :clienteId " +
+            "ORDER BY data_pedido DESC, id DESC LIMIT :limite OFFSET :offset",
+            nativeQuery = true)
+    List<PedidoArquivado> findHistoricoCliente(@Param("clienteId") Long clienteId,
+                                               @Param("offset") long offset,
+                                               @Param("limite") int limite);
+
+    // ---- Relatórios: a parte arquivada dos totais, somada pelo RelatorioService à da tabela ativa ----
+
+    @Query("SELECT p.restaurante.nome as restauranteNome, SUM(p.valorTotal) as totalVendas " +
+            "FROM PedidoArquivado p " +
+            "GROUP BY p.restaurante.nome")
+    List<RelatorioVendasRestaurante> findTotalVendasPorRestaurante();
+
+    @Query(value = "SELECT c.nome as clienteNome, COUNT(p.id) as totalPedidos " +
+            "FROM clientes c " +
+            "JOIN pedidos_arquivo p ON c.id = p.cliente_id " +
+            "GROUP BY c.nome",
+            nativeQuery = true)
+    List<RelatorioRankingCliente> findRankingClientesPorPedidos();
+
+    @Query(value = "SELECT pr.nome as produtoNome, COUNT(p.id) as quantidadeVendida " +
+            "FROM produtos pr " +
+            "JOIN pedidos_arquivo p ON p.itens LIKE CONCAT('%', pr.nome, '%') " +
+            "GROUP BY pr.nome",
+            nativeQuery = true)
+    List<RelatorioProdutoVendido> findVendasPorProduto();
+
+    // ---- Movimentação em lote (usada pelo PedidoArquivamentoService; só no banco único, sem sharding) ----
+
+    @Query(value = "SELECT id FROM pedidos WHERE status IN (:status) AND data_pedido < :limite " +
+            "ORDER BY data_pedido LIMIT :tamanho",
+            nativeQuery = true)
+    List<Long> findIdsArquivaveis(@Param("status") Collection<String> status,
+                                  @Param("limite") LocalDateTime limite,
+                                  @Param("tamanho") int tamanho);
+
+    @Modifying
+    @Query(value = "INSERT INTO pedidos_arquivo (id, numero_pedido, data_pedido, status, valor_total, " +
+            "observacoes, cliente_id, restaurante_id, itens, arquivado_em) " +
+            "SELECT id, numero_pedido, data_pedido, status, valor_total, observacoes, cliente_id, " +
+            "restaurante_id, itens, :agora FROM pedidos WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copiarParaArquivo(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query(value = "DELETE FROM pedidos WHERE id IN (:ids)", nativeQuery = true)
+    int removerDaTabelaAtiva(@Param("ids") Collection<Long> ids);
+}
@@ -2,19 +2,35 @@ package com.deliverytech.delivery_api.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import com.deliverytech.delivery_api.dto.reports.RelatorioProdutoVendido;
+import com.deliverytech.delivery_api.dto.reports.RelatorioRankingCliente;
 import com.deliverytech.delivery_api.dto.reports.RelatorioVendasRestaurante;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.deliverytech.delivery_api.entity.Pedido;
 
 @Repository
-public interface PedidoRepository extends JpaRepository <Pedido, Long> {
+public interface PedidoRepository extends JpaRepository <Pedido, Long>, PedidoStore {
+
+    // Declarados também em PedidoStore; redeclarados aqui para desfazer a ambiguidade com CrudRepository
+    @Override
+    <S extends Pedido> S save(S pedido);
+
+    @Override
+    Optional<Pedido> findById(Long id);
+
+    @Override
+    Page<Pedido> findAll(Pageable pageable);
 
     // Buscar pedidos por cliente ID
     Page<Pedido> findByClienteId(Long clienteId, Pageable pageable);
@@ -45,4 +61,24 @@ public interface PedidoRepository extends JpaRepository <Pedido, Long> {
 
     // ATIVIDADE 3.4: Corrigido para suportar paginação
     Page<Pedido> findByDataPedidoBetweenAndStatus(LocalDateTime dataInicio, LocalDateTime dataFim, String status, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT c.nome as clienteNome, COUNT(p.id) as totalPedidos " +
+            "FROM clientes c " +
+            "JOIN pedidos p ON c.id = p.cliente_id " +
+            "GROUP BY c.nome " +
+            "ORDER BY totalPedidos DESC",
+            nativeQuery = true)
+    List<RelatorioRankingCliente> findRankingClientesPorPedidos();
+
+    @Query(value = "SELECT pr.nome as produtoNome, COUNT(p.id) as quantidadeVendida " +
+            "FROM produtos pr " +
+            "JOIN pedidos p ON p.itens LIKE CONCAT('%', pr.nome, '%') " +
+            "GROUP BY pr.nome",
+            nativeQuery = true)
+    List<RelatorioProdutoVendido> findVendasPorProduto();
+
+    @Override
+    @Modifying
+    @Query("UPDATE Pedido p SET p.status = :status WHERE p.id IN :ids")
+    int atualizarStatusEmLote(@Param("ids") Collection<Long> ids, @Param("status") String status);
+}
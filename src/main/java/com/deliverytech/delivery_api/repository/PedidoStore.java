@@ -0,0 +1,50 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.reports.RelatorioProdutoVendido;
+import com.deliverytech.delivery_api.dto.reports.RelatorioRankingCliente;
+import com.deliverytech.delivery_api.dto.reports.RelatorioVendasRestaurante;
+import com.deliverytech.delivery_api.entity.Pedido;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Operações de persistência de pedidos usadas pelos services.
+ * O próprio PedidoRepository (JPA, banco único) implementa esta interface; com sharding.enabled=true
+ * o ShardedPedidoStore assume (@Primary) e distribui os pedidos entre os shards por restaurante.
+ */
+public interface PedidoStore {
+
+    <S extends Pedido> S save(S pedido);
+
+    Optional<Pedido> findById(Long id);
+
+    /** Atualiza o status de vários pedidos em um único comando (descarga do write-behind). */
+    int atualizarStatusEmLote(Collection<Long> ids, String status);
+
+    Page<Pedido> findByClienteId(Long clienteId, Pageable pageable);
+
+    Page<Pedido> findByRestauranteIdOrderByDataPedidoDesc(Long restauranteId, Pageable pageable);
+
+    Page<Pedido> findByStatus(String status, Pageable pageable);
+
+    Page<Pedido> findByDataPedidoBetween(LocalDateTime dataInicio, LocalDateTime dataFim, Pageable pageable);
+
+    Page<Pedido> findByDataPedidoBetweenAndStatus(LocalDateTime dataInicio, LocalDateTime dataFim, String status, Pageable pageable);
+
+    Page<Pedido> findByValorTotalGreaterThan(BigDecimal valor, Pageable pageable);
+
+    Page<Pedido> findAll(Pageable pageable);
+
+    List<RelatorioVendasRestaurante> findTotalVendasPorRestaurante();
+
+    List<RelatorioRankingCliente> findRankingClientesPorPedidos();
+
+    /** Pedidos cujos itens citam cada produto, agrupados pelo nome e sem limite (o corte é feito no RelatorioService). */
+    List<RelatorioProdutoVendido> findVendasPorProduto();
+}
@@ -1,15 +1,16 @@
 package com.deliverytech.delivery_api.repository;
 
-import com.deliverytech.delivery_api.dto.reports.RelatorioProdutoVendido;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.deliverytech.delivery_api.entity.Produto;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -29,14 +30,9 @@ public interface ProdutoRepository extends JpaRepository <Produto, Long> {
     // buscar por preço menor ou igual a X
     List<Produto> findByPrecoLessThanEqual(Double preco);
 
-    @Query(value = "SELECT pr.nome as produtoNome, COUNT(p.id) as quantidadeVendida " +
-            "FROM produtos pr " +
-            "JOIN pedidos p ON p.itens LIKE CONCAT('%', pr.nome, '%') " +
-            "GROUP BY pr.nome " +
-            "ORDER BY quantidadeVendida DESC " +
-            "LIMIT :limite",
-            nativeQuery = true)
-    List<RelatorioProdutoVendido> findProdutosMaisVendidos(@Param("limite") int limite);
+    // Nome -> quantidade de produtos com esse nome (ranking de vendidos do ShardedPedidoStore)
+    @Query("SELECT p.nome, COUNT(p) FROM Produto p GROUP BY p.nome")
+    List<Object[]> contarPorNome();
 
     /**
      * ATIVIDADE 3.4: Modificado para suportar paginação
@@ -47,4 +43,24 @@ public interface ProdutoRepository extends JpaRepository <Produto, Long> {
      * ATIVIDADE 3.4: Modificado para suportar paginação
      */
     Page<Produto> findByNomeContainingIgnoreCase(String nome, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Disponibilidade em lote: um único UPDATE restrito ao restaurante, então IDs de outro
+     * restaurante simplesmente não são afetados (a checagem de dono vai na própria query).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Produto p SET p.disponivel = :disponivel WHERE p.restauranteId = :restauranteId AND p.id IN :ids")
+    int atualizarDisponibilidade(@Param("restauranteId") Long restauranteId,
+                                 @Param("ids") Collection<Long> ids,
+                                 @Param("disponivel") boolean disponivel);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Produto p SET p.disponivel = :disponivel WHERE p.restauranteId = :restauranteId AND p.categoria = :categoria")
+    int atualizarDisponibilidadePorCategoria(@Param("restauranteId") Long restauranteId,
+                                             @Param("categoria") String categoria,
+                                             @Param("disponivel") boolean disponivel);
+
+    // IDs informados que são do restaurante (para listar os ignorados de um lote)
+    @Query("SELECT p.id FROM Produto p WHERE p.restauranteId = :restauranteId AND p.id IN :ids")
+    List<Long> findIdsDoRestaurante(@Param("restauranteId") Long restauranteId, @Param("ids") Collection<Long> ids);
+}
@@ -1,13 +1,14 @@
 package com.deliverytech.delivery_api.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-import com.deliverytech.delivery_api.dto.reports.RelatorioFaturamentoCategoria;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
@@ -34,15 +35,21 @@ public interface RestauranteRepository extends JpaRepository <Restaurante, Long>
     //buscar por top 5 pedidos pelo nome do restaurante
     List<Restaurante> findTop5ByOrderByNomeAsc();
 
-    @Query(value = "SELECT r.categoria, SUM(p.valor_total) as faturamentoTotal " +
-            "FROM restaurantes r " +
-            "JOIN pedidos p ON r.id = p.restaurante_id " +
-            "GROUP BY r.categoria " +
-            "ORDER BY faturamentoTotal DESC",
-            nativeQuery = true)
-    List<RelatorioFaturamentoCategoria> findFaturamentoPorCategoria();
-
     // Métodos da ATIVIDADE 1.1 (filtros) atualizados para ATIVIDADE 3.4 (paginação)
     Page<Restaurante> findByAtivo(Boolean ativo, Pageable pageable);
     Page<Restaurante> findByCategoriaAndAtivo(String categoria, Boolean ativo, Pageable pageable);
+
+    // Melhor avaliados: percorre idx_restaurantes_ativo_avaliacao em ordem, sem ordenar em memória
+    Page<Restaurante> findByAtivoTrueOrderByAvaliacaoDescTotalAvaliacoesDesc(Pageable pageable);
+
+    // Filtro abertoAgora: os ids vêm do conjunto de fechados pré-calculado pelo HorarioFuncionamentoService
+    @Query("SELECT r FROM Restaurante r WHERE (:categoria IS NULL OR r.categoria = :categoria) " +
+            "AND (:ativo IS NULL OR r.ativo = :ativo) AND r.id NOT IN :ids")
+    Page<Restaurante> findComFiltrosExcetoIds(@Param("categoria") String categoria, @Param("ativo") Boolean ativo,
+                                              @Param("ids") Collection<Long> ids, Pageable pageable);
+
+    @Query("SELECT r FROM Restaurante r WHERE (:categoria IS NULL OR r.categoria = :categoria) " +
+            "AND (:ativo IS NULL OR r.ativo = :ativo) AND r.id IN :ids")
+    Page<Restaurante> findComFiltrosEntreIds(@Param("categoria") String categoria, @Param("ativo") Boolean ativo,
+                                             @Param("ids") Collection<Long> ids, Pageable pageable);
 }
\ No newline at end of file
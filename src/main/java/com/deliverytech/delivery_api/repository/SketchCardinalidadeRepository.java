@@ -0,0 +1,21 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.SketchCardinalidade;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SketchCardinalidadeRepository extends JpaRepository<SketchCardinalidade, Long> {
+
+    List<SketchCardinalidade> findByDimensaoAndChaveAndDiaBetween(String dimensao, String chave, LocalDate inicio, LocalDate fim);
+
+    // Lê-e-funde sob lock: duas instâncias descarregando o mesmo dia não perdem registros uma da outra
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SketchCardinalidade> findByDimensaoAndChaveAndDia(String dimensao, String chave, LocalDate dia);
+}
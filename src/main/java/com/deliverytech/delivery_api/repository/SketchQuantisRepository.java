@@ -0,0 +1,22 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.SketchQuantis;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SketchQuantisRepository extends JpaRepository<SketchQuantis, Long> {
+
+    List<SketchQuantis> findByMetricaAndRestauranteIdAndDiaBetween(String metrica, Long restauranteId,
+                                                                   LocalDate inicio, LocalDate fim);
+
+    // Lê-e-soma sob lock: duas instâncias descarregando o mesmo dia não contam nada em dobro nem perdem contagens
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SketchQuantis> findByMetricaAndRestauranteIdAndDia(String metrica, Long restauranteId, LocalDate dia);
+}
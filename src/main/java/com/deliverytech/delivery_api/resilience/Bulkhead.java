@@ -0,0 +1,141 @@
+package com.deliverytech.delivery_api.resilience;
+
+import com.deliverytech.delivery_api.exceptions.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead de um grupo de endpoints: executor próprio com N threads (limite de concorrência),
+ * fila limitada com tempo máximo de espera e rejeição imediata quando lotado.
+ * Como o grupo nunca executa mais que N tarefas ao mesmo tempo, ele também nunca ocupa
+ * mais que N conexões do pool JDBC, preservando o restante para o checkout.
+ */
+public class Bulkhead {
+
+    private final String nome;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+
+    private final Counter rejeitadasLotado;
+    private final Counter rejeitadasTimeout;
+    private final Timer esperaNaFila;
+
+    public Bulkhead(String nome, int maxConcurrent, int queueCapacity, Duration maxWait, MeterRegistry registry) {
+        this.nome = nome;
+        this.maxWait = maxWait;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "bulkhead-" + nome + "-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("bulkhead.queue.depth", executor, e -> e.getQueue().size())
+                .tag("group", nome).description("Requisições aguardando na fila do bulkhead").register(registry);
+        Gauge.builder("bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("group", nome).description("Execuções em andamento no bulkhead").register(registry);
+        this.rejeitadasLotado = Counter.builder("bulkhead.rejected")
+                .tag("group", nome).tag("reason", "full").register(registry);
+        this.rejeitadasTimeout = Counter.builder("bulkhead.rejected")
+                .tag("group", nome).tag("reason", "timeout").register(registry);
+        this.esperaNaFila = Timer.builder("bulkhead.queue.wait")
+                .tag("group", nome).register(registry);
+    }
+
+    /**
+     * Executa a tarefa no executor do bulkhead. O futuro falha com BulkheadFullException
+     * se não houver vaga na fila ou se a tarefa não começar dentro de maxWait.
+     * Se o futuro terminar antes da tarefa (timeout na fila, cancelamento ou orTimeout de quem chamou),
+     * a tarefa sai da fila ou é interrompida: quem desistiu não continua ocupando a vaga.
+     * A tarefa roda com o SecurityContext e os RequestAttributes de quem chamou (TenantContext, SecurityUtils
+     * e o cache por requisição funcionam como na thread do Tomcat); a thread do bulkhead é limpa ao final.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> tarefa) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AtomicBoolean iniciada = new AtomicBoolean(false);
+        AtomicBoolean concluida = new AtomicBoolean(false);
+        long enfileiradaEm = System.nanoTime();
+        SecurityContext seguranca = SecurityContextHolder.getContext();
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+
+        FutureTask<Void> execucao = new FutureTask<>(() -> {
+            // Quem ganhar a disputa (execução ou timeout) decide o destino da tarefa
+            if (!iniciada.compareAndSet(false, true)) {
+                return;
+            }
+            esperaNaFila.record(System.nanoTime() - enfileiradaEm, TimeUnit.NANOSECONDS);
+            SecurityContextHolder.setContext(seguranca);
+            RequestContextHolder.setRequestAttributes(requisicao);
+            try {
+                T resultado = tarefa.get();
+                concluida.set(true);
+                future.complete(resultado);
+            } catch (Throwable t) {
+                concluida.set(true);
+                future.completeExceptionally(t);
+            } finally {
+                SecurityContextHolder.clearContext();
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }, null);
+
+        try {
+            executor.execute(execucao);
+        } catch (RejectedExecutionException e) {
+            rejeitadasLotado.increment();
+            future.completeExceptionally(new BulkheadFullException(
+                    "Serviço sobrecarregado (" + nome + "). Tente novamente em instantes."));
+            return future;
+        }
+
+        future.whenComplete((resultado, erro) -> {
+            if (!concluida.get()) {
+                execucao.cancel(true);
+                executor.remove(execucao);
+            }
+        });
+
+        CompletableFuture.delayedExecutor(maxWait.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (!future.isDone() && iniciada.compareAndSet(false, true)) {
+                rejeitadasTimeout.increment();
+                future.completeExceptionally(new BulkheadFullException(
+                        "Tempo de espera esgotado (" + nome + "). Tente novamente em instantes."));
+            }
+        });
+
+        return future;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int getMaxConcurrent() {
+        return executor.getMaximumPoolSize();
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
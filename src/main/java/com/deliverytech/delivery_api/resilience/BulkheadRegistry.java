@@ -0,0 +1,63 @@
+package com.deliverytech.delivery_api.resilience;
+
+import com.deliverytech.delivery_api.config.BulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cria e mantém os bulkheads configurados em "bulkhead.groups.*".
+ * Na inicialização verifica se a soma das fatias cabe no pool de conexões,
+ * deixando conexões livres para o tráfego que não passa por bulkhead (checkout).
+ */
+@Component
+public class BulkheadRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadRegistry.class);
+
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @Autowired
+    private BulkheadProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @PostConstruct
+    void inicializar() {
+        properties.getGroups().forEach((nome, grupo) -> bulkheads.put(nome,
+                new Bulkhead(nome, grupo.getMaxConcurrent(), grupo.getQueueCapacity(), grupo.getMaxWait(), meterRegistry)));
+
+        int reservadas = bulkheads.values().stream().mapToInt(Bulkhead::getMaxConcurrent).sum();
+        if (reservadas >= poolSize) {
+            log.warn("Bulkheads podem ocupar {} conexões de um pool de {}: não sobra conexão garantida para o checkout.",
+                    reservadas, poolSize);
+        }
+    }
+
+    /**
+     * Retorna o bulkhead do grupo; grupos não configurados usam os valores padrão.
+     */
+    public Bulkhead get(String grupo) {
+        return bulkheads.computeIfAbsent(grupo, nome -> {
+            BulkheadProperties.Group padrao = new BulkheadProperties.Group();
+            return new Bulkhead(nome, padrao.getMaxConcurrent(), padrao.getQueueCapacity(), padrao.getMaxWait(), meterRegistry);
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        bulkheads.values().forEach(Bulkhead::shutdown);
+    }
+}
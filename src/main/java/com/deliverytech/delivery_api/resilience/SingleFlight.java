@@ -0,0 +1,19 @@
+package com.deliverytech.delivery_api.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método de leitura cujas chamadas idênticas e simultâneas (mesmo método e
+ * mesmos argumentos) devem ser agrupadas: apenas uma execução acontece e o resultado
+ * (ou a exceção) é entregue a todos que estavam esperando.
+ * Use apenas em métodos sem efeitos colaterais e cujo resultado não dependa do usuário logado.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+}
@@ -0,0 +1,83 @@
+package com.deliverytech.delivery_api.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Implementação do @SingleFlight. Roda antes das transações e do cache (maior precedência),
+ * então as chamadas agrupadas não abrem transação nem consultam o banco.
+ * Métricas: singleflight.calls{outcome=leader|collapsed}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SingleFlightAspect {
+
+    private final ConcurrentHashMap<Chave, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("@annotation(com.deliverytech.delivery_api.resilience.SingleFlight)")
+    public Object agrupar(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Chave chave = new Chave(method, Arrays.asList(joinPoint.getArgs()));
+
+        CompletableFuture<Object> nova = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, nova);
+
+        if (existente != null) {
+            contador(method, "collapsed").increment();
+            return aguardar(existente);
+        }
+
+        contador(method, "leader").increment();
+        try {
+            Object resultado = joinPoint.proceed();
+            nova.complete(resultado);
+            return resultado;
+        } catch (Throwable t) {
+            nova.completeExceptionally(t);
+            throw t;
+        } finally {
+            emAndamento.remove(chave, nova);
+        }
+    }
+
+    private Object aguardar(CompletableFuture<Object> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Counter contador(Method method, String outcome) {
+        return Counter.builder("singleflight.calls")
+                .tag("method", method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    int chamadasEmAndamento() {
+        return emAndamento.size();
+    }
+
+    private record Chave(Method method, List<Object> args) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.deliverytech.delivery_api.security;
 
+import com.deliverytech.delivery_api.entity.Usuario;
 import com.deliverytech.delivery_api.services.CustomUserDetailsService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,13 +12,24 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Rotas de alta frequência autenticadas só pelas claims do token, sem carregar o usuário do banco
+    private static final Map<String, List<String>> ROTAS_SEM_CONSULTA = Map.of(
+            "PUT", List.of("/api/entregadores/posicao"),
+            "POST", List.of("/api/entregadores/posicoes"),
+            "GET", List.of("/api/pedidos/*/rastreamento"));
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -44,9 +56,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // 2. Validar o token e autenticar o usuário
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = autenticaSemConsulta(request)
+                    ? usuarioDasClaims(token)
+                    : userDetailsService.loadUserByUsername(username);
 
-            if (jwtUtil.validateToken(token, userDetails)) {
+            if (userDetails != null && jwtUtil.validateToken(token, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
 
@@ -60,4 +74,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 3. Continua a cadeia de filtros
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private boolean autenticaSemConsulta(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return ROTAS_SEM_CONSULTA.getOrDefault(request.getMethod(), List.of()).stream()
+                .anyMatch(rota -> PATH_MATCHER.match(rota, caminho));
+    }
+
+    private Usuario usuarioDasClaims(String token) {
+        try {
+            return jwtUtil.extractUsuario(token);
+        } catch (Exception e) {
+            logger.error("Erro ao extrair usuário do token: " + e.getMessage());
+            return null;
+        }
+    }
+}
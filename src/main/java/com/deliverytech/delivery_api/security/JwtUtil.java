@@ -1,6 +1,7 @@
 package com.deliverytech.delivery_api.security;
 
 import com.deliverytech.delivery_api.entity.Usuario;
+import com.deliverytech.delivery_api.enums.Role;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -30,6 +31,32 @@ public class JwtUtil {
         return extractClaim(token, Claims::getSubject);
     }
 
+    // Extrair o id do usuário (claim customizada), sem consultar o banco
+    public Long extractUserId(String token) {
+        Number userId = extractClaim(token, claims -> claims.get("userId", Number.class));
+        return userId != null ? userId.longValue() : null;
+    }
+
+    // Montar o usuário só com as claims (assinatura e expiração validadas no parse), sem consultar o banco.
+    // Usuário desativado depois da emissão continua aceito até o token expirar.
+    public Usuario extractUsuario(String token) {
+        Claims claims = extractAllClaims(token);
+        Number userId = claims.get("userId", Number.class);
+        String role = claims.get("role", String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        Number restauranteId = claims.get("restauranteId", Number.class);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(userId.longValue());
+        usuario.setEmail(claims.getSubject());
+        usuario.setRole(Role.valueOf(role));
+        usuario.setAtivo(true);
+        usuario.setRestauranteId(restauranteId != null ? restauranteId.longValue() : null);
+        return usuario;
+    }
+
     // Extrair qualquer claim genérica
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
@@ -0,0 +1,82 @@
+package com.deliverytech.delivery_api.security;
+
+import com.deliverytech.delivery_api.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter em memória (por nó), sem locks: cada bucket é um estado imutável
+ * trocado via compare-and-set. Nenhum acesso a banco ou rede no caminho da requisição.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.mode", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimiter implements RateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    public LocalRateLimiter() {
+        this(System::nanoTime);
+    }
+
+    // Construtor usado nos testes para controlar o relógio
+    LocalRateLimiter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Decision tryConsume(String key, int cost, Limits limits) {
+        AtomicReference<Bucket> ref = buckets.computeIfAbsent(key,
+                k -> new AtomicReference<>(new Bucket(limits.capacity(), nanoClock.getAsLong())));
+
+        while (true) {
+            Bucket atual = ref.get();
+            long agora = nanoClock.getAsLong();
+            double tokens = atual.refill(agora, limits);
+
+            if (tokens < cost) {
+                double faltam = cost - tokens;
+                long retryAfterMillis = (long) Math.ceil(faltam / limits.refillPerSecond() * 1000);
+                // Não grava o estado: a reposição é calculada a partir do último consumo
+                return new Decision(false, (long) tokens, retryAfterMillis);
+            }
+
+            Bucket novo = new Bucket(tokens - cost, agora);
+            if (ref.compareAndSet(atual, novo)) {
+                return new Decision(true, (long) novo.tokens(), 0);
+            }
+            // Outra thread alterou o bucket no meio do caminho: tenta de novo
+        }
+    }
+
+    /**
+     * Remove os buckets ociosos para o mapa não crescer indefinidamente
+     * (um bucket parado por mais tempo que o necessário para encher já está cheio).
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void removerBucketsOciosos() {
+        long limite = nanoClock.getAsLong() - properties.getIdleEviction().toNanos();
+        buckets.values().removeIf(ref -> ref.get().updatedAtNanos() < limite);
+    }
+
+    int bucketsAtivos() {
+        return buckets.size();
+    }
+
+    private record Bucket(double tokens, long updatedAtNanos) {
+
+        double refill(long agora, Limits limits) {
+            double decorrido = Math.max(0, agora - updatedAtNanos) / 1_000_000_000.0;
+            return Math.min(limits.capacity(), tokens + decorrido * limits.refillPerSecond());
+        }
+    }
+}
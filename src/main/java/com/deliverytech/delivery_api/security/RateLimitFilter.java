@@ -0,0 +1,131 @@
+package com.deliverytech.delivery_api.security;
+
+import com.deliverytech.delivery_api.config.RateLimitProperties;
+import com.deliverytech.delivery_api.exceptions.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admission control: aplica um token bucket por usuário (userId das claims do JWT)
+ * ou por IP (rotas anônimas) antes de qualquer outro processamento.
+ * Roda antes do JwtAuthenticationFilter, portanto rejeita o excesso sem nenhuma consulta ao banco.
+ * O 429 é gerado pelo GlobalExceptionHandler, mantendo o formato padrão ApiResponse.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    @Qualifier("handlerExceptionResolver")
+    private HandlerExceptionResolver exceptionResolver;
+
+    private List<RouteCost> routeCosts = List.of();
+
+    @PostConstruct
+    void compilarRotas() {
+        List<RouteCost> rotas = new ArrayList<>();
+        properties.getRouteCosts().forEach((pattern, cost) ->
+                rotas.add(new RouteCost(PathPatternParser.defaultInstance.parse(pattern), cost)));
+        this.routeCosts = List.copyOf(rotas);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Long userId = extrairUserId(request);
+        String key;
+        RateLimiter.Limits limits;
+        if (userId != null) {
+            key = "u:" + userId;
+            limits = new RateLimiter.Limits(properties.getCapacity(), properties.getRefillPerSecond());
+        } else {
+            key = "ip:" + clientIp(request);
+            limits = new RateLimiter.Limits(properties.getAnonymousCapacity(), properties.getAnonymousRefillPerSecond());
+        }
+
+        int cost = custoDaRota(request.getRequestURI());
+        RateLimiter.Decision decision = rateLimiter.tryConsume(key, cost, limits);
+
+        if (!decision.allowed()) {
+            long retryAfterSeconds = Math.max(1, (decision.retryAfterMillis() + 999) / 1000);
+            exceptionResolver.resolveException(request, response, null, new TooManyRequestsException(
+                    "Limite de requisições excedido. Tente novamente em " + retryAfterSeconds + "s.", retryAfterSeconds));
+            return;
+        }
+
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Lê o userId das claims do token (só valida a assinatura, sem carregar o usuário).
+     * Token ausente ou inválido cai no bucket por IP.
+     */
+    private Long extrairUserId(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtUtil.extractUserId(authHeader.substring(7));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int virgula = forwarded.indexOf(',');
+                return (virgula > 0 ? forwarded.substring(0, virgula) : forwarded).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private int custoDaRota(String uri) {
+        if (routeCosts.isEmpty()) {
+            return properties.getDefaultCost();
+        }
+        PathContainer path = PathContainer.parsePath(uri);
+        for (RouteCost rota : routeCosts) {
+            if (rota.pattern().matches(path)) {
+                return rota.cost();
+            }
+        }
+        return properties.getDefaultCost();
+    }
+
+    private record RouteCost(PathPattern pattern, int cost) {
+    }
+}
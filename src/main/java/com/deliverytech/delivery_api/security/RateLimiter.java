@@ -0,0 +1,26 @@
+package com.deliverytech.delivery_api.security;
+
+/**
+ * Contrato do rate limiter (token bucket).
+ * Implementações: LocalRateLimiter (em memória) e RedisRateLimiter (distribuído).
+ */
+public interface RateLimiter {
+
+    /**
+     * Tenta consumir "cost" tokens do bucket identificado por "key".
+     */
+    Decision tryConsume(String key, int cost, Limits limits);
+
+    /**
+     * Tamanho do bucket e velocidade de reposição dos tokens.
+     */
+    record Limits(long capacity, double refillPerSecond) {
+    }
+
+    /**
+     * Resultado da tentativa: se foi permitido, tokens restantes e,
+     * quando negado, quanto tempo esperar até haver tokens suficientes.
+     */
+    record Decision(boolean allowed, long remaining, long retryAfterMillis) {
+    }
+}
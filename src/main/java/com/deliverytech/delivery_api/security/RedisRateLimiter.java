@@ -0,0 +1,82 @@
+package com.deliverytech.delivery_api.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rate limiter distribuído: o bucket fica no Redis e é atualizado atomicamente
+ * por um script Lua (uma única ida ao Redis por requisição).
+ * Se o Redis estiver indisponível a requisição é liberada (fail-open),
+ * para que o rate limit nunca derrube a API.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.mode", havingValue = "redis")
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    // KEYS[1] = bucket | ARGV = capacidade, tokens por ms, custo
+    private static final String TOKEN_BUCKET_LUA = """
+            local capacity = tonumber(ARGV[1])
+            local refill = tonumber(ARGV[2])
+            local cost = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = time[1] * 1000 + math.floor(time[2] / 1000)
+            local data = redis.call('HMGET', KEYS[1], 't', 'ts')
+            local tokens = tonumber(data[1]) or capacity
+            local ts = tonumber(data[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill)
+            local allowed = 0
+            local retry = 0
+            if tokens >= cost then
+              tokens = tokens - cost
+              allowed = 1
+            else
+              retry = math.ceil((cost - tokens) / refill)
+            end
+            redis.call('HSET', KEYS[1], 't', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / refill) + 1000)
+            return {allowed, math.floor(tokens), retry}
+            """;
+
+    private static final RedisScript<List<Long>> TOKEN_BUCKET_SCRIPT = tokenBucketScript();
+
+    // List.class não carrega o tipo do elemento; o script só devolve inteiros, que o Redis entrega como Long
+    @SuppressWarnings("unchecked")
+    private static RedisScript<List<Long>> tokenBucketScript() {
+        return new DefaultRedisScript<>(TOKEN_BUCKET_LUA, (Class<List<Long>>) (Class<?>) List.class);
+    }
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Override
+    public Decision tryConsume(String key, int cost, Limits limits) {
+        try {
+            double refillPerMilli = limits.refillPerSecond() / 1000.0;
+            List<Long> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(KEY_PREFIX + key),
+                    String.valueOf(limits.capacity()), String.valueOf(refillPerMilli), String.valueOf(cost));
+
+            if (result == null || result.size() < 3) {
+                return new Decision(true, limits.capacity(), 0);
+            }
+            boolean allowed = result.get(0) == 1;
+            long remaining = result.get(1);
+            long retryAfter = result.get(2);
+            return new Decision(allowed, remaining, retryAfter);
+        } catch (Exception e) {
+            log.warn("Rate limiter Redis indisponível, liberando requisição: {}", e.getMessage());
+            return new Decision(true, limits.capacity(), 0);
+        }
+    }
+}
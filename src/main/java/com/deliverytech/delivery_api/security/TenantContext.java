@@ -0,0 +1,128 @@
+package com.deliverytech.delivery_api.security;
+
+import com.deliverytech.delivery_api.entity.Usuario;
+import com.deliverytech.delivery_api.enums.Role;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Restaurante (tenant) do usuário logado, resolvido uma vez por requisição a partir do principal do token.
+ * Também guarda, só durante a requisição, as entidades carregadas para checar a posse: o @PreAuthorize e o
+ * serviço chamado em seguida usam a mesma leitura, sem um segundo findById.
+ * Fora de uma requisição HTTP (jobs, listeners) nada é guardado e cada chamada consulta de novo.
+ */
+@Component
+public class TenantContext {
+
+    private static final String ATRIBUTO_TENANT = TenantContext.class.getName() + ".tenant";
+    private static final String PREFIXO_ENTIDADE = TenantContext.class.getName() + ".entidade:";
+
+    private record Tenant(Long usuarioId, Role role, Long restauranteId) {
+    }
+
+    private record Resolvido(Authentication autenticacao, Tenant tenant) {
+    }
+
+    /** Restaurante do usuário logado; null para ADMIN, CLIENTE e ENTREGADOR. */
+    public Long restauranteId() {
+        return tenant().restauranteId();
+    }
+
+    public Long usuarioId() {
+        return tenant().usuarioId();
+    }
+
+    public Role role() {
+        return tenant().role();
+    }
+
+    /** Usado no SpEL do @PreAuthorize: usuário RESTAURANTE associado a algum restaurante. */
+    public boolean temRestaurante() {
+        return restauranteId() != null;
+    }
+
+    /**
+     * Usuário RESTAURANTE só mexe nos dados do próprio restaurante (403 caso contrário).
+     * Os demais perfis passam: o que eles podem fazer já é decidido pela role no controller.
+     */
+    public void verificarTenant(Long restauranteId) {
+        Tenant tenant = tenant();
+        if (tenant.role() == Role.RESTAURANTE
+                && (tenant.restauranteId() == null || !tenant.restauranteId().equals(restauranteId))) {
+            throw new AccessDeniedException("Recurso pertence a outro restaurante");
+        }
+    }
+
+    /**
+     * Carrega a entidade uma vez por requisição: a segunda chamada com o mesmo tipo e id devolve a mesma instância.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> carregar(Class<T> tipo, Long id, Supplier<Optional<T>> busca) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null || id == null) {
+            return busca.get();
+        }
+        String chave = PREFIXO_ENTIDADE + tipo.getName() + ":" + id;
+        Optional<T> guardada = (Optional<T>) atributos.getAttribute(chave, RequestAttributes.SCOPE_REQUEST);
+        if (guardada == null) {
+            // Optional vazio também é guardado: "não existe" não é consultado duas vezes na mesma requisição
+            guardada = busca.get();
+            atributos.setAttribute(chave, guardada, RequestAttributes.SCOPE_REQUEST);
+        }
+        return guardada;
+    }
+
+    /** Tira a entidade da requisição depois de uma escrita, para a próxima leitura vir do banco. */
+    public void descartar(Class<?> tipo, Long id) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null && id != null) {
+            atributos.removeAttribute(PREFIXO_ENTIDADE + tipo.getName() + ":" + id, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private Tenant tenant() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return resolver(autenticacao);
+        }
+        // A autenticação faz parte da chave: MockMvc e filtros podem trocar o usuário no meio da mesma thread
+        if (atributos.getAttribute(ATRIBUTO_TENANT, RequestAttributes.SCOPE_REQUEST) instanceof Resolvido guardado
+                && guardado.autenticacao() == autenticacao) {
+            return guardado.tenant();
+        }
+        Tenant tenant = resolver(autenticacao);
+        atributos.setAttribute(ATRIBUTO_TENANT, new Resolvido(autenticacao, tenant), RequestAttributes.SCOPE_REQUEST);
+        return tenant;
+    }
+
+    private static Tenant resolver(Authentication autenticacao) {
+        if (autenticacao == null) {
+            return new Tenant(null, null, null);
+        }
+        // Principal vem das claims do token (rotas sem consulta) ou do usuário carregado pelo filtro JWT
+        if (autenticacao.getPrincipal() instanceof Usuario usuario) {
+            Long restauranteId = usuario.getRole() == Role.RESTAURANTE ? usuario.getRestauranteId() : null;
+            return new Tenant(usuario.getId(), usuario.getRole(), restauranteId);
+        }
+        // Outros principals (ex.: testes com @WithMockUser) não trazem restaurante: só a role conta
+        Set<String> authorities = autenticacao.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        Role role = Arrays.stream(Role.values())
+                .filter(r -> authorities.contains("ROLE_" + r.name()))
+                .findFirst().orElse(null);
+        return new Tenant(null, role, null);
+    }
+}
@@ -0,0 +1,56 @@
+package com.deliverytech.delivery_api.services;
+
+import com.deliverytech.delivery_api.config.AvaliacaoProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Execução periódica da agregação de avaliações: cada restaurante tem a linha atualizada
+ * no máximo uma vez por lote, não importa quantas notas recebeu no intervalo.
+ */
+@Component
+@ConditionalOnProperty(name = "avaliacoes.enabled", havingValue = "true", matchIfMissing = true)
+public class AvaliacaoAgregacaoJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AvaliacaoAgregacaoJob.class);
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
+    @Autowired
+    private AvaliacaoProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${avaliacoes.intervalo:PT30S}", initialDelayString = "${avaliacoes.intervalo:PT30S}")
+    public void executar() {
+        agregarPendentes();
+    }
+
+    /** @return total de avaliações agregadas nesta execução */
+    public int agregarPendentes() {
+        Counter agregadas = meterRegistry.counter("avaliacoes.agregadas");
+        int total = 0;
+
+        for (int lote = 0; lote < properties.getMaxLotesPorExecucao(); lote++) {
+            int somadas = avaliacaoService.agregarLote(properties.getTamanhoLote());
+            total += somadas;
+            agregadas.increment(somadas);
+            if (somadas < properties.getTamanhoLote()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.debug("Agregação de avaliações: {} avaliações somadas às médias dos restaurantes", total);
+        }
+        return total;
+    }
+}
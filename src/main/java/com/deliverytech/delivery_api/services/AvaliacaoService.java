@@ -0,0 +1,131 @@
+package com.deliverytech.delivery_api.services;
+
+import com.deliverytech.delivery_api.cache.EtagCache;
+import com.deliverytech.delivery_api.dto.AvaliacaoRequestDTO;
+import com.deliverytech.delivery_api.dto.AvaliacaoResponseDTO;
+import com.deliverytech.delivery_api.entity.Avaliacao;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.enums.StatusPedido;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.exceptions.ConflictException;
+import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
+import com.deliverytech.delivery_api.repository.AvaliacaoRepository;
+import com.deliverytech.delivery_api.transacao.AposCommit;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Avaliações de pedidos e a média de cada restaurante.
+ * A média nunca é recalculada com AVG: "restaurantes" guarda contagem e soma das notas, e as avaliações novas
+ * entram nelas em lote (AvaliacaoAgregacaoJob). Avaliar é só um INSERT em "avaliacoes", então um restaurante
+ * muito avaliado não disputa o lock da própria linha a cada nota; a linha é atualizada uma vez por lote.
+ */
+@Service
+public class AvaliacaoService {
+
+    // A média é calculada sobre os valores anteriores: fica primeiro no SET (o MySQL aplica da esquerda para a direita)
+    // A média anterior não entra na conta, só soma/total: uma carga que grave "avaliacao" precisa gravar os dois juntos
+    private static final String SQL_SOMAR = "UPDATE restaurantes SET " +
+            "avaliacao = ROUND(CAST(COALESCE(soma_avaliacoes, 0) + ? AS DECIMAL(12, 4)) / (COALESCE(total_avaliacoes, 0) + ?), 2), " +
+            "total_avaliacoes = COALESCE(total_avaliacoes, 0) + ?, " +
+            "soma_avaliacoes = COALESCE(soma_avaliacoes, 0) + ? " +
+            "WHERE id = ?";
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    /**
+     * Registra a avaliação de um pedido entregue (uma por pedido). A média do restaurante muda no próximo lote.
+     */
+    @Transactional
+    public AvaliacaoResponseDTO avaliar(Long pedidoId, AvaliacaoRequestDTO dto) {
+        // O canAccess do @PreAuthorize já leu o pedido nesta requisição
+        Pedido pedido = pedidoService.buscarPedidoDaRequisicao(pedidoId)
+                .orElseThrow(() -> new EntityNotFoundException("Pedido não encontrado: " + pedidoId));
+
+        if (!StatusPedido.ENTREGUE.name().equals(pedido.getStatus())) {
+            throw new BusinessException("Só é possível avaliar pedidos entregues");
+        }
+        if (avaliacaoRepository.existsByPedidoId(pedidoId)) {
+            throw new ConflictException("Pedido já avaliado: " + pedidoId);
+        }
+
+        Avaliacao avaliacao = new Avaliacao();
+        avaliacao.setPedidoId(pedidoId);
+        avaliacao.setClienteId(pedido.getClienteId());
+        avaliacao.setRestauranteId(pedido.getRestaurante().getId());
+        avaliacao.setNota(dto.getNota());
+        avaliacao.setComentario(dto.getComentario());
+        avaliacao.setDataAvaliacao(LocalDateTime.now());
+        try {
+            avaliacao = avaliacaoRepository.saveAndFlush(avaliacao);
+        } catch (DataIntegrityViolationException e) {
+            // Duas requisições simultâneas para o mesmo pedido: a chave única em pedido_id decide
+            throw new ConflictException("Pedido já avaliado: " + pedidoId);
+        }
+        return modelMapper.map(avaliacao, AvaliacaoResponseDTO.class);
+    }
+
+    /**
+     * Soma até {@code tamanho} avaliações pendentes na contagem/soma/média dos restaurantes, numa transação:
+     * reserva as linhas com um id de lote, agrega por restaurante e aplica um UPDATE por restaurante.
+     * @return quantidade de avaliações agregadas (0 quando não há pendentes)
+     */
+    @Transactional
+    public int agregarLote(int tamanho) {
+        List<Long> ids = avaliacaoRepository.findIdsPendentes(tamanho);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        long lote = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        int reservadas = avaliacaoRepository.reservar(ids, lote);
+        if (reservadas == 0) {
+            return 0;
+        }
+
+        // Ordenado por restaurante: instâncias concorrentes travam as linhas sempre na mesma ordem
+        List<Object[]> parametros = new ArrayList<>();
+        List<Long> restaurantes = new ArrayList<>();
+        for (Object[] soma : avaliacaoRepository.somarPorRestaurante(lote)) {
+            long restauranteId = ((Number) soma[0]).longValue();
+            long total = ((Number) soma[1]).longValue();
+            long notas = ((Number) soma[2]).longValue();
+            parametros.add(new Object[]{notas, total, total, notas, restauranteId});
+            restaurantes.add(restauranteId);
+        }
+        jdbcTemplate.batchUpdate(SQL_SOMAR, parametros);
+        invalidarEtags(restaurantes);
+        return reservadas;
+    }
+
+    private void invalidarEtags(List<Long> restaurantes) {
+        Cache cache = cacheManager.getCache(EtagCache.CACHE);
+        if (cache == null) {
+            return;
+        }
+        AposCommit.executar(() -> restaurantes.forEach(id -> cache.evict("restaurante:" + id)));
+    }
+}
@@ -0,0 +1,215 @@
+package com.deliverytech.delivery_api.services;
+
+import com.deliverytech.delivery_api.cache.CardapioSnapshot;
+import com.deliverytech.delivery_api.cache.CardapioSnapshotStore;
+import com.deliverytech.delivery_api.dto.ApiResponse;
+import com.deliverytech.delivery_api.dto.PagedResponse;
+import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.events.CardapioAlteradoEvent;
+import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshots pré-serializados do cardápio de cada restaurante.
+ *
+ * A leitura do cardápio vira uma cópia de bytes: o JSON completo (mesmo formato da listagem
+ * paginada, numa página única com todos os produtos disponíveis) é montado uma vez e guardado
+ * no CardapioSnapshotStore. Alterações no cardápio publicam CardapioAlteradoEvent e o snapshot
+ * é reconstruído em background depois do commit; até lá o snapshot anterior continua sendo servido.
+ */
+@Service
+public class CardapioSnapshotService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CardapioSnapshotService.class);
+
+    private static final Sort ORDEM_CARDAPIO = Sort.by("categoria", "nome");
+
+    @Autowired
+    private CardapioSnapshotStore store;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Reconstruções agendadas e ainda não iniciadas: várias alterações seguidas geram uma só
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+
+    // Montagens síncronas em andamento (primeira leitura): leitores simultâneos esperam a mesma
+    private final ConcurrentHashMap<Long, CompletableFuture<CardapioSnapshot>> emAndamento = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1000),
+            r -> {
+                Thread t = new Thread(r, "cardapio-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+
+    /**
+     * Snapshot atual do cardápio; na primeira leitura (ou se o store perdeu o valor) é montado na hora.
+     */
+    public CardapioSnapshot obter(Long restauranteId) {
+        CardapioSnapshot snapshot = store.buscar(restauranteId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        CompletableFuture<CardapioSnapshot> novo = new CompletableFuture<>();
+        CompletableFuture<CardapioSnapshot> existente = emAndamento.putIfAbsent(restauranteId, novo);
+        if (existente != null) {
+            return existente.join();
+        }
+        try {
+            if (!restauranteRepository.existsById(restauranteId)) {
+                throw new EntityNotFoundException("Restaurante não encontrado com ID: " + restauranteId);
+            }
+            snapshot = reconstruir(restauranteId);
+            novo.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            novo.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(restauranteId, novo);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardapioAlterado(CardapioAlteradoEvent event) {
+        agendarReconstrucao(event.restauranteId());
+    }
+
+    public void agendarReconstrucao(Long restauranteId) {
+        if (!pendentes.add(restauranteId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                // Sai de "pendentes" antes de ler o banco: alterações durante a montagem agendam outra
+                pendentes.remove(restauranteId);
+                try {
+                    reconstruir(restauranteId);
+                } catch (Exception e) {
+                    log.warn("Falha ao reconstruir snapshot do cardápio {}: {}", restauranteId, e.getMessage());
+                    store.remover(restauranteId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Fila cheia: descarta o snapshot velho e a próxima leitura monta um novo
+            pendentes.remove(restauranteId);
+            store.remover(restauranteId);
+        }
+    }
+
+    /**
+     * Monta o snapshot a partir do banco. Se o conteúdo não mudou, mantém o snapshot (e o ETag) atual.
+     */
+    public CardapioSnapshot reconstruir(Long restauranteId) {
+        List<ProdutoResponseDTO> produtos = produtoRepository
+                .findByRestauranteIdAndDisponivelTrue(restauranteId, Pageable.unpaged(ORDEM_CARDAPIO))
+                .map(produto -> modelMapper.map(produto, ProdutoResponseDTO.class))
+                .getContent();
+
+        byte[] conteudo = serializar(produtos);
+        String hash = hash(conteudo);
+
+        CardapioSnapshot atual = store.buscar(restauranteId);
+        if (atual != null && atual.hash().equals(hash)) {
+            return atual;
+        }
+
+        byte[] json = envelopar(produtos, atual != null ? atual.json().length : 0);
+        CardapioSnapshot snapshot = new CardapioSnapshot(restauranteId, store.proximaVersao(restauranteId),
+                hash, System.currentTimeMillis(), json, gzip(json));
+        store.salvar(snapshot);
+        return snapshot;
+    }
+
+    // Só os produtos entram no hash: o timestamp do envelope muda a cada montagem
+    private byte[] serializar(List<ProdutoResponseDTO> produtos) {
+        try {
+            return objectMapper.writeValueAsBytes(produtos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o cardápio", e);
+        }
+    }
+
+    // Buffer já no tamanho do snapshot anterior (ou ~300 bytes por produto): evita as cópias de crescimento
+    private byte[] envelopar(List<ProdutoResponseDTO> produtos, int tamanhoAnterior) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(Math.max(tamanhoAnterior, 256 + produtos.size() * 300));
+        try {
+            objectMapper.writeValue(saida, ApiResponse.success(new PagedResponse<>(new PageImpl<>(produtos))));
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao serializar o cardápio", e);
+        }
+        return saida.toByteArray();
+    }
+
+    // Comprime uma vez na montagem, com nível máximo: o custo não se repete a cada leitura
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida, 8192) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    private static String hash(byte[] conteudo) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(conteudo);
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,250 @@
+package com.deliverytech.delivery_api.services;
+
+import com.deliverytech.delivery_api.dto.FilaCozinhaDTO;
+import com.deliverytech.delivery_api.dto.ItemFilaCozinhaDTO;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.enums.StatusPedido;
+import com.deliverytech.delivery_api.events.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.repository.PedidoStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fila da cozinha em memória, uma por restaurante, com os pedidos em aberto (PENDENTE/CONFIRMADO/PREPARANDO).
+ * É aquecida do banco na subida e mantida pelos PedidoStatusAlteradoEvent publicados pelo PedidoService
+ * (após o commit); a leitura não toca o banco. Inserir, reordenar e remover custam O(log n) (TreeSet),
+ * e a lista entregue ao endpoint é montada só quando a fila muda.
+ * Os eventos só chegam à instância que processou a transição; para que várias réplicas mostrem a mesma fila,
+ * cada uma ressincroniza do banco a cada cozinha.ressincronizacao. Entre réplicas a fila pode ficar
+ * até esse intervalo atrasada; na própria instância a mudança aparece na hora.
+ */
+@Service
+public class FilaCozinhaService {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaCozinhaService.class);
+
+    private static final int TAMANHO_PAGINA_AQUECIMENTO = 1000;
+
+    // Ordem de atendimento: o que já está no fogo, depois o confirmado, depois o que acabou de chegar
+    private static final Map<String, Integer> PRIORIDADE = Map.of(
+            StatusPedido.PREPARANDO.name(), 0,
+            StatusPedido.CONFIRMADO.name(), 1,
+            StatusPedido.PENDENTE.name(), 2);
+
+    private static final Comparator<Entrada> ORDEM = Comparator
+            .comparing((Entrada e) -> PRIORIDADE.get(e.status()))
+            .thenComparing(Entrada::dataPedido, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Entrada::pedidoId);
+
+    @Autowired
+    private PedidoStore pedidoStore;
+
+    private final Map<Long, Fila> filas = new ConcurrentHashMap<>();
+    // Eventos sem restauranteId (ex.: cancelamento no write-behind) localizam a fila por aqui
+    private final Map<Long, Long> restauranteDoPedido = new ConcurrentHashMap<>();
+    // Pedidos alterados enquanto uma carga lia o banco: o evento é mais novo que a leitura.
+    // null fora das cargas; já existe na construção para cobrir os eventos anteriores ao aquecimento
+    private volatile Set<Long> alteradosDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    public FilaCozinhaDTO buscarFila(Long restauranteId) {
+        Fila fila = filas.get(restauranteId);
+        return fila != null ? fila.snapshot(restauranteId) : new FilaCozinhaDTO(restauranteId, null, 0, List.of());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        int carregados = carregar();
+        log.info("Fila da cozinha aquecida com {} pedidos em aberto de {} restaurantes", carregados, filas.size());
+    }
+
+    /** Traz as transições processadas por outras instâncias (e corrige eventos perdidos). */
+    @Scheduled(fixedDelayString = "${cozinha.ressincronizacao:PT15S}", initialDelayString = "${cozinha.ressincronizacao:PT15S}")
+    public void ressincronizar() {
+        int carregados = carregar();
+        log.debug("Fila da cozinha ressincronizada: {} pedidos em aberto", carregados);
+    }
+
+    /**
+     * Substitui as filas pelos pedidos em aberto do banco, exceto os que receberam evento durante a leitura:
+     * para esses o estado em memória (presente ou já removido) é o mais novo.
+     */
+    private synchronized int carregar() {
+        Set<Long> alterados = alteradosDuranteCarga;
+        if (alterados == null) {
+            alterados = ConcurrentHashMap.newKeySet();
+            alteradosDuranteCarga = alterados;
+        }
+
+        Map<Long, Map<Long, Entrada>> doBanco = new HashMap<>();
+        int carregados = 0;
+        for (String status : PRIORIDADE.keySet()) {
+            Page<Pedido> pagina;
+            int numero = 0;
+            do {
+                pagina = pedidoStore.findByStatus(status, PageRequest.of(numero++, TAMANHO_PAGINA_AQUECIMENTO, Sort.by("id")));
+                for (Pedido pedido : pagina) {
+                    if (pedido.getRestaurante() != null) {
+                        doBanco.computeIfAbsent(pedido.getRestaurante().getId(), id -> new HashMap<>())
+                                .put(pedido.getId(), Entrada.de(pedido));
+                        carregados++;
+                    }
+                }
+            } while (pagina.hasNext());
+        }
+
+        doBanco.keySet().forEach(id -> filas.computeIfAbsent(id, r -> new Fila()));
+        Map<Long, Long> restaurantes = new HashMap<>();
+        for (Map.Entry<Long, Fila> fila : filas.entrySet()) {
+            fila.getValue().substituir(doBanco.getOrDefault(fila.getKey(), Map.of()), alterados)
+                    .forEach(pedidoId -> restaurantes.put(pedidoId, fila.getKey()));
+        }
+        restauranteDoPedido.keySet().retainAll(restaurantes.keySet());
+        restauranteDoPedido.putAll(restaurantes);
+        alteradosDuranteCarga = null;
+        return carregados;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPedidoStatusAlterado(PedidoStatusAlteradoEvent evento) {
+        Long pedidoId = evento.pedidoId();
+        Set<Long> alterados = alteradosDuranteCarga;
+        if (alterados != null) {
+            alterados.add(pedidoId);
+        }
+        Long restauranteId = evento.restauranteId() != null ? evento.restauranteId() : restauranteDoPedido.get(pedidoId);
+
+        if (!PRIORIDADE.containsKey(evento.status())) {
+            // Finalizado (ENTREGUE/CANCELADO) ou saiu da cozinha (SAIU_PARA_ENTREGA)
+            restauranteDoPedido.remove(pedidoId);
+            if (restauranteId != null) {
+                Optional.ofNullable(filas.get(restauranteId)).ifPresent(f -> f.remover(pedidoId));
+            }
+            return;
+        }
+
+        if (evento.temDetalhes()) {
+            colocar(restauranteId, Entrada.de(evento), false);
+            return;
+        }
+
+        Entrada atual = restauranteId != null && filas.containsKey(restauranteId)
+                ? filas.get(restauranteId).buscar(pedidoId) : null;
+        if (atual != null) {
+            colocar(restauranteId, atual.comStatus(evento.status()), false);
+        } else {
+            // Pedido que esta instância ainda não conhecia: única situação em que o evento vai ao banco
+            pedidoStore.findById(pedidoId)
+                    .filter(p -> p.getRestaurante() != null)
+                    .ifPresent(p -> colocar(p.getRestaurante().getId(), Entrada.de(p).comStatus(evento.status()), false));
+        }
+    }
+
+    private void colocar(Long restauranteId, Entrada entrada, boolean somenteSeAusente) {
+        restauranteDoPedido.put(entrada.pedidoId(), restauranteId);
+        filas.computeIfAbsent(restauranteId, id -> new Fila()).colocar(entrada, somenteSeAusente);
+    }
+
+    private record Entrada(Long pedidoId, String numeroPedido, String status, LocalDateTime dataPedido,
+                           String itens, String observacoes) {
+
+        static Entrada de(Pedido pedido) {
+            return new Entrada(pedido.getId(), pedido.getNumeroPedido(), pedido.getStatus(), pedido.getDataPedido(),
+                    pedido.getItens(), pedido.getObservacoes());
+        }
+
+        static Entrada de(PedidoStatusAlteradoEvent evento) {
+            return new Entrada(evento.pedidoId(), evento.numeroPedido(), evento.status(), evento.dataPedido(),
+                    evento.itens(), evento.observacoes());
+        }
+
+        Entrada comStatus(String novoStatus) {
+            return new Entrada(pedidoId, numeroPedido, novoStatus, dataPedido, itens, observacoes);
+        }
+    }
+
+    private static final class Fila {
+
+        private final TreeSet<Entrada> ordenada = new TreeSet<>(ORDEM);
+        private final Map<Long, Entrada> porPedido = new HashMap<>();
+        private LocalDateTime atualizadaEm = LocalDateTime.now();
+        // Lista pronta para o endpoint; null quando a fila mudou desde a última leitura
+        private FilaCozinhaDTO snapshot;
+
+        synchronized void colocar(Entrada entrada, boolean somenteSeAusente) {
+            Entrada anterior = porPedido.get(entrada.pedidoId());
+            if (anterior != null) {
+                if (somenteSeAusente) {
+                    return;
+                }
+                ordenada.remove(anterior);
+            }
+            porPedido.put(entrada.pedidoId(), entrada);
+            ordenada.add(entrada);
+            alterada();
+        }
+
+        synchronized void remover(Long pedidoId) {
+            Entrada anterior = porPedido.remove(pedidoId);
+            if (anterior != null) {
+                ordenada.remove(anterior);
+                alterada();
+            }
+        }
+
+        /** Troca o conteúdo pelo do banco, mantendo o estado em memória dos pedidos preservados; devolve os ids da fila. */
+        synchronized Set<Long> substituir(Map<Long, Entrada> doBanco, Set<Long> preservar) {
+            Map<Long, Entrada> novas = new HashMap<>(doBanco);
+            for (Long pedidoId : preservar) {
+                Entrada atual = porPedido.get(pedidoId);
+                if (atual != null) {
+                    novas.put(pedidoId, atual);
+                } else {
+                    novas.remove(pedidoId);
+                }
+            }
+            if (!novas.equals(porPedido)) {
+                porPedido.clear();
+                porPedido.putAll(novas);
+                ordenada.clear();
+                ordenada.addAll(novas.values());
+                alterada();
+            }
+            return new HashSet<>(porPedido.keySet());
+        }
+
+        synchronized Entrada buscar(Long pedidoId) {
+            return porPedido.get(pedidoId);
+        }
+
+        synchronized FilaCozinhaDTO snapshot(Long restauranteId) {
+            if (snapshot == null) {
+                List<ItemFilaCozinhaDTO> itens = new ArrayList<>(ordenada.size());
+                int posicao = 1;
+                for (Entrada e : ordenada) {
+                    itens.add(new ItemFilaCozinhaDTO(posicao++, e.pedidoId(), e.numeroPedido(), e.status(),
+                            e.dataPedido(), e.itens(), e.observacoes()));
+                }
+                snapshot = new FilaCozinhaDTO(restauranteId, atualizadaEm, itens.size(), List.copyOf(itens));
+            }
+            return snapshot;
+        }
+
+        private void alterada() {
+            atualizadaEm = LocalDateTime.now();
+            snapshot = null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.deliverytech.delivery_api.services;
+
+import com.deliverytech.delivery_api.config.ArquivamentoProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execução periódica do arquivamento: lotes curtos com pausa entre eles e teto por execução,
+ * para que a tabela ativa fique limitada à janela de retenção sem competir com o tráfego.
+ * Em várias réplicas, lotes concorrentes colidem na chave do arquivo; a réplica que perde
+ * encerra a execução e tenta de novo no próximo ciclo.
+ * Roda numa thread própria, não no agendador do Spring: as pausas entre lotes somam minutos numa execução
+ * cheia e, no pool de uma thread dos @Scheduled, atrasariam todas as outras tarefas periódicas.
+ */
+@Component
+@ConditionalOnProperty(name = "arquivamento.enabled", havingValue = "true", matchIfMissing = true)
+public class PedidoArquivamentoJob implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoArquivamentoJob.class);
+
+    @Autowired
+    private PedidoArquivamentoService pedidoArquivamentoService;
+
+    @Autowired
+    private ArquivamentoProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ScheduledExecutorService agendador;
+    // Desligamento pedido: a execução em andamento para depois do lote atual
+    private volatile boolean encerrando;
+
+    @PostConstruct
+    public void iniciar() {
+        if (!pedidoArquivamentoService.suportado()) {
+            log.warn("Arquivamento de pedidos desligado: não suportado com sharding.enabled=true");
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "arquivamento-pedidos");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(this::executar, properties.getAtrasoInicial().toMillis(),
+                properties.getIntervalo().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Uma exceção que escapasse cancelaria as execuções seguintes do agendador
+    private void executar() {
+        try {
+            arquivarPendentes();
+        } catch (Exception e) {
+            log.warn("Arquivamento falhou, nova tentativa em {}: {}", properties.getIntervalo(), e.getMessage());
+        }
+    }
+
+    /** @return total de pedidos arquivados nesta execução */
+    public int arquivarPendentes() {
+        LocalDateTime limite = LocalDateTime.now().minus(properties.getRetencao());
+        Counter arquivados = meterRegistry.counter("pedidos.arquivados");
+        int total = 0;
+
+        for (int lote = 0; lote < properties.getMaxLotesPorExecucao(); lote++) {
+            int movidos;
+            try {
+                movidos = pedidoArquivamentoService.arquivarLote(properties.getStatus(), limite, properties.getTamanhoLote());
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Lote de arquivamento em conflito com outra instância; retomando no próximo ciclo");
+                break;
+            }
+            total += movidos;
+            arquivados.increment(movidos);
+            if (movidos < properties.getTamanhoLote()) {
+                break;
+            }
+            if (encerrando || !pausar()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Arquivamento: {} pedidos anteriores a {} movidos para pedidos_arquivo", total, limite);
+        }
+        return total;
+    }
+
+    private boolean pausar() {
+        try {
+            Thread.sleep(properties.getPausaEntreLotes());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // O lote em andamento termina; o restante fica para a próxima subida
+        encerrando = true;
+        if (agendador == null) {
+            return;
+        }
+        agendador.shutdown();
+        try {
+            agendador.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.deliverytech.delivery_api.services;
+
+import com.deliverytech.delivery_api.config.ShardingProperties;
+import com.deliverytech.delivery_api.repository.PedidoArquivadoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Move pedidos finalizados antigos da tabela "pedidos" para "pedidos_arquivo".
+ * Cada lote é uma transação própria (cópia + remoção), então uma falha no meio
+ * nunca deixa o pedido nas duas tabelas nem em nenhuma.
+ * Com sharding.enabled=true os pedidos ativos estão nos shards e pedidos_arquivo no banco principal:
+ * cópia e remoção deixariam de caber numa transação, então o arquivamento é recusado.
+ */
+@Service
+public class PedidoArquivamentoService {
+
+    @Autowired
+    private PedidoArquivadoRepository pedidoArquivadoRepository;
+
+    @Autowired
+    private ShardingProperties shardingProperties;
+
+    public boolean suportado() {
+        return !shardingProperties.isEnabled();
+    }
+
+    /**
+     * Arquiva até {@code tamanho} pedidos com status em {@code status} e data anterior a {@code limite}.
+     * @return quantidade de pedidos movidos (0 quando não há mais nada a arquivar)
+     */
+    @Transactional
+    public int arquivarLote(Collection<String> status, LocalDateTime limite, int tamanho) {
+        if (!suportado()) {
+            throw new IllegalStateException("Arquivamento de pedidos não é suportado com sharding.enabled=true");
+        }
+        List<Long> ids = pedidoArquivadoRepository.findIdsArquivaveis(status, limite, tamanho);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        pedidoArquivadoRepository.copiarParaArquivo(ids, LocalDateTime.now());
+        return pedidoArquivadoRepository.removerDaTabelaAtiva(ids);
+    }
+}
@@ -2,26 +2,36 @@ package com.deliverytech.delivery_api.services;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import com.deliverytech.delivery_api.dto.*;
 import com.deliverytech.delivery_api.entity.*;
 import com.deliverytech.delivery_api.enums.Role;
+import com.deliverytech.delivery_api.estimativa.EstimativaEntregaService;
+import com.deliverytech.delivery_api.events.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.events.PedidoStatusAlteradoEvent;
 import com.deliverytech.delivery_api.exceptions.BusinessException;
 import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
-import com.deliverytech.delivery_api.security.SecurityUtils;
+import com.deliverytech.delivery_api.horario.HorarioFuncionamentoService;
+import com.deliverytech.delivery_api.security.TenantContext;
+import com.deliverytech.delivery_api.writebehind.StatusPedidoWriteBehind;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.deliverytech.delivery_api.enums.StatusPedido;
 import com.deliverytech.delivery_api.repository.ClienteRepository;
-import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.PedidoArquivadoRepository;
+import com.deliverytech.delivery_api.repository.PedidoStore;
 import com.deliverytech.delivery_api.repository.ProdutoRepository;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
 
@@ -30,7 +40,9 @@ import com.deliverytech.delivery_api.repository.RestauranteRepository;
 public class PedidoService {
 
     @Autowired
-    private PedidoRepository pedidoRepository;
+    private PedidoStore pedidoStore;
+    @Autowired
+    private PedidoArquivadoRepository pedidoArquivadoRepository;
     @Autowired
     private ClienteRepository clienteRepository;
     @Autowired
@@ -40,7 +52,15 @@ public class PedidoService {
     @Autowired
     private ModelMapper modelMapper;
     @Autowired
-    private SecurityUtils securityUtils;
+    private TenantContext tenantContext;
+    @Autowired
+    private StatusPedidoWriteBehind statusWriteBehind;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private EstimativaEntregaService estimativaEntregaService;
+    @Autowired
+    private HorarioFuncionamentoService horarioFuncionamentoService;
 
     /**
      * 1.4: Criar Pedido (Transação Complexa)
@@ -57,6 +77,7 @@ public class PedidoService {
         if (!restaurante.getAtivo()) {
             throw new BusinessException("Restaurante não está disponível");
         }
+        horarioFuncionamentoService.verificarAberto(restaurante.getId());
 
         BigDecimal valorTotal = calcularTotalPedido(dto.getItens(), restaurante.getId(), restaurante.getTaxaEntrega());
 
@@ -74,7 +95,11 @@ public class PedidoService {
                 .collect(Collectors.joining(", "));
         pedido.setItens(itens);
 
-        Pedido pedidoSalvo = pedidoRepository.save(pedido);
+        Pedido pedidoSalvo = pedidoStore.save(pedido);
+        eventPublisher.publishEvent(PedidoStatusAlteradoEvent.de(pedidoSalvo));
+        eventPublisher.publishEvent(new PedidoCriadoEvent(pedidoSalvo.getId(), cliente.getId(),
+                restaurante.getId(), restaurante.getCategoria(), pedidoSalvo.getValorTotal(),
+                dto.getItens().stream().collect(Collectors.toMap(ItemPedidoDTO::getProdutoId, ItemPedidoDTO::getQuantidade, Integer::sum))));
 
         return mapToPedidoResponseDTO(pedidoSalvo, cliente, restaurante, dto.getItens());
     }
@@ -84,9 +109,14 @@ public class PedidoService {
      */
     @Transactional(readOnly = true)
     public PedidoResponseDTO buscarPedidoPorId(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
+        // Mesma leitura do canAccess no @PreAuthorize desta requisição
+        Pedido pedido = buscarPedidoDaRequisicao(id)
                 .orElseThrow(() -> new EntityNotFoundException("Pedido não encontrado: " + id));
 
+        return mapToPedidoResponseDTO(pedido);
+    }
+
+    private PedidoResponseDTO mapToPedidoResponseDTO(Pedido pedido) {
         Cliente cliente = clienteRepository.findById(pedido.getClienteId()).orElse(null);
 
         return mapToPedidoResponseDTO(pedido, cliente, pedido.getRestaurante(), null);
@@ -102,27 +132,106 @@ public class PedidoService {
             throw new EntityNotFoundException("Cliente não encontrado: " + clienteId);
         }
 
-        Page<Pedido> pedidosPage = pedidoRepository.findByClienteId(clienteId, pageable);
+        Page<Pedido> pedidosPage = completarComArquivados(clienteId, pedidoStore.findByClienteId(clienteId, pageable), pageable);
 
         return pedidosPage.map(this::mapToPedidoResumoDTO);
     }
 
+    /**
+     * Busca na tabela ativa e, se não achar, no arquivo de pedidos finalizados.
+     */
+    private Optional<Pedido> buscarPedido(Long id) {
+        return pedidoStore.findById(id)
+                .or(() -> pedidoArquivadoRepository.findById(id).map(PedidoArquivado::toPedido))
+                .map(statusWriteBehind::aplicarPendente);
+    }
+
+    /**
+     * buscarPedido memorizado na requisição (TenantContext): o canAccess do @PreAuthorize e o método
+     * chamado em seguida compartilham a mesma leitura.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Pedido> buscarPedidoDaRequisicao(Long id) {
+        return tenantContext.carregar(Pedido.class, id, () -> buscarPedido(id));
+    }
+
+    /**
+     * Pedido que ainda pode mudar de status; os arquivados já estão finalizados.
+     */
+    private Pedido buscarPedidoAtivo(Long id) {
+        return pedidoStore.findById(id).orElseThrow(() -> pedidoArquivadoRepository.existsById(id)
+                ? new BusinessException("Pedido já finalizado ou cancelado. Não é possível alterar o status.")
+                : new EntityNotFoundException("Pedido não encontrado: " + id));
+    }
+
+    /**
+     * Os arquivados são sempre mais antigos que a retenção, então entram depois dos ativos:
+     * a página continua na tabela de arquivo quando os ativos acabam (do mais recente ao mais antigo).
+     */
+    private Page<Pedido> completarComArquivados(Long clienteId, Page<Pedido> ativos, Pageable pageable) {
+        long arquivados = pedidoArquivadoRepository.countByClienteId(clienteId);
+        if (arquivados == 0) {
+            return ativos;
+        }
+
+        List<Pedido> conteudo = new ArrayList<>(ativos.getContent());
+        long totalAtivos = ativos.getTotalElements();
+        if (pageable.isUnpaged()) {
+            pedidoArquivadoRepository.findHistoricoCliente(clienteId, 0, (int) arquivados)
+                    .forEach(p -> conteudo.add(p.toPedido()));
+            return new PageImpl<>(conteudo, pageable, totalAtivos + arquivados);
+        }
+
+        int faltam = pageable.getPageSize() - conteudo.size();
+        if (faltam > 0) {
+            long offsetArquivo = Math.max(0, pageable.getOffset() - totalAtivos);
+            pedidoArquivadoRepository.findHistoricoCliente(clienteId, offsetArquivo, faltam)
+                    .forEach(p -> conteudo.add(p.toPedido()));
+        }
+        return new PageImpl<>(conteudo, pageable, totalAtivos + arquivados);
+    }
+
     /**
      * 1.4: Atualizar Status do Pedido
      */
     public PedidoResponseDTO atualizarStatusPedido(Long id, StatusPedido status) {
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Pedido não encontrado: " + id));
-
-        StatusPedido statusAtual = StatusPedido.valueOf(pedido.getStatus());
-        if (statusAtual == StatusPedido.ENTREGUE || statusAtual == StatusPedido.CANCELADO) {
-            throw new BusinessException("Pedido já finalizado ou cancelado. Não é possível alterar o status.");
+        if (statusWriteBehind.isAtivo()) {
+            Pedido pedido = buscarPedidoDaRequisicao(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Pedido não encontrado: " + id));
+            verificarTenant(pedido);
+            // Valida contra o status em memória e confirma; o UPDATE sai no próximo lote
+            validarAlteracaoStatus(statusWriteBehind.statusAtual(id, () -> buscarPedidoAtivo(id).getStatus()));
+            statusWriteBehind.registrar(id, status.name());
+            // Cópia com o novo status: o pedido lido continua intacto e o UPDATE fica para a descarga
+            Pedido atualizado = statusWriteBehind.aplicarPendente(pedido);
+            tenantContext.descartar(Pedido.class, id);
+            eventPublisher.publishEvent(PedidoStatusAlteradoEvent.de(atualizado));
+            return mapToPedidoResponseDTO(atualizado);
         }
 
+        Pedido pedido = buscarPedidoAtivo(id);
+        verificarTenant(pedido);
+        validarAlteracaoStatus(pedido.getStatus());
+
         pedido.setStatus(status.name());
-        Pedido pedidoSalvo = pedidoRepository.save(pedido);
+        Pedido pedidoSalvo = pedidoStore.save(pedido);
+        tenantContext.descartar(Pedido.class, id);
+        eventPublisher.publishEvent(PedidoStatusAlteradoEvent.de(pedidoSalvo));
+
+        // O pedido salvo já está completo: mapear direto, sem buscar de novo
+        return mapToPedidoResponseDTO(pedidoSalvo);
+    }
 
-        return buscarPedidoPorId(pedidoSalvo.getId()); // Reutiliza a busca
+    // Restaurante só altera os próprios pedidos; cliente, entregador e admin seguem as regras do controller
+    private void verificarTenant(Pedido pedido) {
+        tenantContext.verificarTenant(pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null);
+    }
+
+    private void validarAlteracaoStatus(String status) {
+        StatusPedido statusAtual = StatusPedido.valueOf(status);
+        if (statusAtual == StatusPedido.ENTREGUE || statusAtual == StatusPedido.CANCELADO) {
+            throw new BusinessException("Pedido já finalizado ou cancelado. Não é possível alterar o status.");
+        }
     }
 
     /**
@@ -154,10 +263,24 @@ public class PedidoService {
      * ATIVIDADE 3.1: Modificado para retornar void
      */
     public void cancelarPedido(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Pedido não encontrado: " + id));
+        if (statusWriteBehind.isAtivo()) {
+            // Também passa pelo write-behind, senão um lote pendente mais antigo sobrescreveria o cancelamento
+            validarCancelamento(statusWriteBehind.statusAtual(id, () -> buscarPedidoAtivo(id).getStatus()));
+            statusWriteBehind.registrar(id, StatusPedido.CANCELADO.name());
+            eventPublisher.publishEvent(PedidoStatusAlteradoEvent.somenteStatus(id, StatusPedido.CANCELADO.name()));
+            return;
+        }
+
+        Pedido pedido = buscarPedidoAtivo(id);
+        validarCancelamento(pedido.getStatus());
 
-        StatusPedido statusAtual = StatusPedido.valueOf(pedido.getStatus());
+        pedido.setStatus(StatusPedido.CANCELADO.name());
+        pedidoStore.save(pedido);
+        eventPublisher.publishEvent(PedidoStatusAlteradoEvent.de(pedido));
+    }
+
+    private void validarCancelamento(String status) {
+        StatusPedido statusAtual = StatusPedido.valueOf(status);
 
         if (statusAtual == StatusPedido.ENTREGUE) {
             throw new BusinessException("Não é possível cancelar um pedido já entregue.");
@@ -165,9 +288,6 @@ public class PedidoService {
         if (statusAtual == StatusPedido.SAIU_PARA_ENTREGA) {
             throw new BusinessException("Não é possível cancelar um pedido que já saiu para entrega.");
         }
-
-        pedido.setStatus(StatusPedido.CANCELADO.name());
-        pedidoRepository.save(pedido);
     }
 
     /**
@@ -180,13 +300,13 @@ public class PedidoService {
         String statusName = (status != null) ? status.name() : null;
 
         if (statusName != null && dataInicio != null && dataFim != null) {
-            pedidosPage = pedidoRepository.findByDataPedidoBetweenAndStatus(dataInicio, dataFim, statusName, pageable);
+            pedidosPage = pedidoStore.findByDataPedidoBetweenAndStatus(dataInicio, dataFim, statusName, pageable);
         } else if (statusName != null) {
-            pedidosPage = pedidoRepository.findByStatus(statusName, pageable);
+            pedidosPage = pedidoStore.findByStatus(statusName, pageable);
         } else if (dataInicio != null && dataFim != null) {
-            pedidosPage = pedidoRepository.findByDataPedidoBetween(dataInicio, dataFim, pageable);
+            pedidosPage = pedidoStore.findByDataPedidoBetween(dataInicio, dataFim, pageable);
         } else {
-            pedidosPage = pedidoRepository.findAll(pageable);
+            pedidosPage = pedidoStore.findAll(pageable);
         }
 
         return pedidosPage.map(this::mapToPedidoResumoDTO);
@@ -198,11 +318,12 @@ public class PedidoService {
      */
     @Transactional(readOnly = true)
     public Page<PedidoResumoDTO> buscarPedidosPorRestaurante(Long restauranteId, Pageable pageable) {
+        tenantContext.verificarTenant(restauranteId);
         if (!restauranteRepository.existsById(restauranteId)) {
             throw new EntityNotFoundException("Restaurante não encontrado: " + restauranteId);
         }
 
-        Page<Pedido> pedidos = pedidoRepository.findByRestauranteIdOrderByDataPedidoDesc(restauranteId, pageable);
+        Page<Pedido> pedidos = pedidoStore.findByRestauranteIdOrderByDataPedidoDesc(restauranteId, pageable);
 
         return pedidos.map(this::mapToPedidoResumoDTO);
     }
@@ -212,7 +333,7 @@ public class PedidoService {
      */
     @Transactional(readOnly = true)
     public Page<PedidoResumoDTO> buscarPedidosAcimaDeValor(BigDecimal valor, Pageable pageable) {
-        Page<Pedido> pedidosPage = pedidoRepository.findByValorTotalGreaterThan(valor, pageable);
+        Page<Pedido> pedidosPage = pedidoStore.findByValorTotalGreaterThan(valor, pageable);
         return pedidosPage.map(this::mapToPedidoResumoDTO);
     }
 
@@ -245,22 +366,27 @@ public class PedidoService {
             response.setRestaurante(modelMapper.map(restaurante, RestauranteResponseDTO.class));
         }
         response.setItens(itens); // Itens vêm do DTO de request ou são nulos na busca
+        response.setPrevisaoEntrega(estimativaEntregaService.estimar(pedido, restaurante, cliente));
         return response;
     }
 
+    /**
+     * Chamado via SpEL no @PreAuthorize. O pedido lido aqui fica na requisição e é reaproveitado pela busca
+     * (buscarPedidoPorId, AvaliacaoService.avaliar): uma leitura por endpoint.
+     */
+    @Transactional(readOnly = true)
     public boolean canAccess(Long pedidoId) {
-        try {
-            Usuario user = securityUtils.getCurrentUser();
-            Pedido pedido = pedidoRepository.findById(pedidoId).orElse(null);
-            if (pedido == null) return false;
-
-            if (user.getRole() == Role.ADMIN) return true;
-            if (user.getRole() == Role.CLIENTE) return user.getId().equals(pedido.getClienteId());
-            if (user.getRole() == Role.RESTAURANTE) return user.getRestauranteId().equals(pedido.getRestaurante().getId());
-
-            return false;
-        } catch (Exception e) {
-            return false;
-        }
+        Role role = tenantContext.role();
+        if (role == null) return false;
+
+        Pedido pedido = buscarPedidoDaRequisicao(pedidoId).orElse(null);
+        if (pedido == null) return false;
+
+        if (role == Role.ADMIN) return true;
+        if (role == Role.CLIENTE) return pedido.getClienteId() != null && pedido.getClienteId().equals(tenantContext.usuarioId());
+        if (role == Role.RESTAURANTE) return pedido.getRestaurante() != null
+                && pedido.getRestaurante().getId().equals(tenantContext.restauranteId());
+
+        return false;
     }
-}
\ No newline at end of file
+}
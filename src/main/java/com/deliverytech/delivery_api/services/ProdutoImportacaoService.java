@@ -0,0 +1,326 @@
+package com.deliverytech.delivery_api.services;
+
+import com.deliverytech.delivery_api.cache.CardapioCacheInvalidator;
+import com.deliverytech.delivery_api.dto.ImportacaoErroDTO;
+import com.deliverytech.delivery_api.dto.ImportacaoProdutosResponseDTO;
+import com.deliverytech.delivery_api.dto.ProdutoRequestDTO;
+import com.deliverytech.delivery_api.events.CardapioAlteradoEvent;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importação em lote do cardápio de um restaurante.
+ *
+ * O arquivo (JSON array ou CSV com cabeçalho) é lido em streaming e validado linha a linha;
+ * as linhas válidas são gravadas com JDBC batch em lotes, cada lote na sua própria transação,
+ * e o cardápio cacheado do restaurante é invalidado uma única vez ao final.
+ * Linhas inválidas não interrompem a importação: voltam como erros no resultado.
+ */
+@Service
+public class ProdutoImportacaoService {
+
+    private static final String INSERT_PRODUTO =
+            "INSERT INTO produtos (nome, descricao, preco, categoria, disponivel, restaurante_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_NOMES = "SELECT nome FROM produtos WHERE restaurante_id = ?";
+
+    private static final Set<String> COLUNAS_OBRIGATORIAS = Set.of("nome", "preco", "categoria");
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .build();
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CardapioCacheInvalidator cardapioCacheInvalidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${importacao.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${importacao.max-linhas:50000}")
+    private int maxLinhas;
+
+    @Value("${importacao.max-erros-retornados:500}")
+    private int maxErrosRetornados;
+
+    public ImportacaoProdutosResponseDTO importarJson(Long restauranteId, InputStream conteudo) {
+        Importacao importacao = iniciar(restauranteId);
+        try (MappingIterator<ProdutoRequestDTO> itens = objectMapper.readerFor(ProdutoRequestDTO.class).readValues(conteudo)) {
+            long linha = 0;
+            while (true) {
+                ProdutoRequestDTO dto;
+                try {
+                    if (!itens.hasNextValue() || !importacao.novaLinha(++linha)) {
+                        break;
+                    }
+                    dto = itens.nextValue();
+                } catch (JsonMappingException e) {
+                    // Item com tipo inválido (ex: preço "abc"): o iterador se ressincroniza no próximo item
+                    importacao.rejeitar(linha, campo(e), "Valor inválido: " + e.getOriginalMessage());
+                    continue;
+                }
+                importacao.processar(linha, dto);
+            }
+        } catch (JsonProcessingException e) {
+            // Erro de sintaxe: não há como ressincronizar, o que já foi lido é mantido
+            importacao.rejeitar(e.getLocation() != null ? e.getLocation().getLineNr() : 0, null,
+                    "JSON malformado, importação interrompida: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new BusinessException("Falha ao ler o arquivo de importação: " + e.getMessage());
+        }
+        return importacao.concluir();
+    }
+
+    public ImportacaoProdutosResponseDTO importarCsv(Long restauranteId, InputStream conteudo) {
+        Importacao importacao = iniciar(restauranteId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(conteudo, StandardCharsets.UTF_8))) {
+            char separador = detectarSeparador(reader);
+            CsvSchema schema = CsvSchema.emptySchema().withColumnSeparator(separador);
+            // Leitor CSV de verdade: campos entre aspas podem conter separador, aspas ("") e quebras de linha
+            try (MappingIterator<String[]> linhas = CSV_MAPPER.readerFor(String[].class).with(schema).readValues(reader)) {
+                if (!linhas.hasNextValue()) {
+                    throw new BusinessException("Arquivo CSV vazio");
+                }
+                Map<String, Integer> colunas = indexarColunas(linhas.nextValue());
+
+                while (linhas.hasNextValue()) {
+                    // Linha física onde o registro começa (um campo entre aspas pode ocupar várias)
+                    long linha = linhas.getParser().currentLocation().getLineNr();
+                    String[] valores = linhas.nextValue();
+                    if (vazia(valores)) {
+                        continue;
+                    }
+                    if (!importacao.novaLinha(linha)) {
+                        break;
+                    }
+                    ProdutoRequestDTO dto = new ProdutoRequestDTO();
+                    dto.setNome(valor(valores, colunas, "nome"));
+                    dto.setDescricao(valor(valores, colunas, "descricao"));
+                    dto.setCategoria(valor(valores, colunas, "categoria"));
+                    String preco = valor(valores, colunas, "preco");
+                    if (preco != null) {
+                        try {
+                            dto.setPreco(new BigDecimal(preco.replace(',', '.')));
+                        } catch (NumberFormatException e) {
+                            importacao.rejeitar(linha, "preco", "Preço inválido: " + preco);
+                            continue;
+                        }
+                    }
+                    importacao.processar(linha, dto);
+                }
+            } catch (JsonProcessingException e) {
+                // Ex.: aspas sem fechamento; o que já foi lido é mantido
+                importacao.rejeitar(e.getLocation() != null ? e.getLocation().getLineNr() : 0, null,
+                        "CSV malformado, importação interrompida: " + e.getOriginalMessage());
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Falha ao ler o arquivo de importação: " + e.getMessage());
+        }
+        return importacao.concluir();
+    }
+
+    private Importacao iniciar(Long restauranteId) {
+        if (!restauranteRepository.existsById(restauranteId)) {
+            throw new EntityNotFoundException("Restaurante não encontrado com ID: " + restauranteId);
+        }
+        Importacao importacao = new Importacao(restauranteId);
+        // Nomes já cadastrados contam como repetidos: a importação só acrescenta produtos novos
+        jdbcTemplate.queryForList(SELECT_NOMES, String.class, restauranteId)
+                .forEach(nome -> importacao.existentes.add(normalizar(nome)));
+        return importacao;
+    }
+
+    private void gravarLote(List<Object[]> lote) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_PRODUTO, lote));
+    }
+
+    /**
+     * Estado de uma importação em andamento (lote pendente, nomes vistos e resultado).
+     */
+    private class Importacao {
+        private final Long restauranteId;
+        private final long inicio = System.nanoTime();
+        private final ImportacaoProdutosResponseDTO resultado = new ImportacaoProdutosResponseDTO();
+        private final List<Object[]> lote = new ArrayList<>(tamanhoLote);
+        private final Set<String> nomes = new HashSet<>();
+        private final Set<String> existentes = new HashSet<>();
+        private final Set<String> categorias = new HashSet<>();
+
+        Importacao(Long restauranteId) {
+            this.restauranteId = restauranteId;
+        }
+
+        /**
+         * Conta uma nova linha de dados; retorna false (e interrompe) quando o limite é atingido.
+         */
+        boolean novaLinha(long linha) {
+            if (resultado.getTotalLinhas() >= maxLinhas) {
+                rejeitar(linha, null, "Limite de " + maxLinhas + " linhas por importação atingido; restante do arquivo ignorado");
+                return false;
+            }
+            resultado.setTotalLinhas(resultado.getTotalLinhas() + 1);
+            return true;
+        }
+
+        void processar(long linha, ProdutoRequestDTO dto) {
+            if (dto == null) {
+                rejeitar(linha, null, "Item vazio");
+                return;
+            }
+            if (dto.getRestauranteId() != null && !dto.getRestauranteId().equals(restauranteId)) {
+                rejeitar(linha, "restauranteId", "Produto de outro restaurante: " + dto.getRestauranteId());
+                return;
+            }
+            dto.setRestauranteId(restauranteId);
+
+            Set<ConstraintViolation<ProdutoRequestDTO>> violacoes = validator.validate(dto);
+            if (!violacoes.isEmpty()) {
+                ConstraintViolation<ProdutoRequestDTO> v = violacoes.iterator().next();
+                rejeitar(linha, v.getPropertyPath().toString(), v.getMessage());
+                return;
+            }
+            String nome = normalizar(dto.getNome());
+            if (existentes.contains(nome)) {
+                rejeitar(linha, "nome", "Produto já cadastrado no cardápio: " + dto.getNome());
+                return;
+            }
+            if (!nomes.add(nome)) {
+                rejeitar(linha, "nome", "Produto repetido no arquivo: " + dto.getNome());
+                return;
+            }
+
+            lote.add(new Object[] {dto.getNome().trim(), dto.getDescricao(), dto.getPreco(), dto.getCategoria(), true, restauranteId});
+            categorias.add(dto.getCategoria());
+            if (lote.size() >= tamanhoLote) {
+                descarregar();
+            }
+        }
+
+        void rejeitar(long linha, String campo, String mensagem) {
+            resultado.setRejeitados(resultado.getRejeitados() + 1);
+            if (resultado.getErros().size() < maxErrosRetornados) {
+                resultado.getErros().add(new ImportacaoErroDTO(linha, campo, mensagem));
+            }
+        }
+
+        private void descarregar() {
+            if (lote.isEmpty()) {
+                return;
+            }
+            gravarLote(lote);
+            resultado.setImportados(resultado.getImportados() + lote.size());
+            lote.clear();
+        }
+
+        ImportacaoProdutosResponseDTO concluir() {
+            descarregar();
+            if (resultado.getImportados() > 0) {
+                cardapioCacheInvalidator.invalidarRestaurante(restauranteId, categorias);
+                eventPublisher.publishEvent(new CardapioAlteradoEvent(restauranteId));
+            }
+            resultado.setDuracaoMs((System.nanoTime() - inicio) / 1_000_000);
+            return resultado;
+        }
+    }
+
+    /**
+     * Separador pelo cabeçalho: ';' quando ele não tem vírgulas (CSV exportado por Excel em pt-BR), senão ','.
+     */
+    private static char detectarSeparador(BufferedReader reader) throws IOException {
+        reader.mark(8192);
+        String cabecalho = reader.readLine();
+        reader.reset();
+        if (cabecalho == null) {
+            throw new BusinessException("Arquivo CSV vazio");
+        }
+        return cabecalho.indexOf(';') >= 0 && cabecalho.indexOf(',') < 0 ? ';' : ',';
+    }
+
+    private static Map<String, Integer> indexarColunas(String[] cabecalho) {
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.length; i++) {
+            colunas.put(cabecalho[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obrigatoria : COLUNAS_OBRIGATORIAS) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new BusinessException("Cabeçalho do CSV sem a coluna obrigatória: " + obrigatoria);
+            }
+        }
+        return colunas;
+    }
+
+    private static String valor(String[] valores, Map<String, Integer> colunas, String coluna) {
+        Integer indice = colunas.get(coluna);
+        if (indice == null || indice >= valores.length) {
+            return null;
+        }
+        String valor = valores[indice].trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static boolean vazia(String[] valores) {
+        for (String valor : valores) {
+            if (!valor.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalizar(String nome) {
+        return nome.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String campo(JsonMappingException e) {
+        List<JsonMappingException.Reference> caminho = e.getPath();
+        return caminho.isEmpty() ? null : caminho.get(caminho.size() - 1).getFieldName();
+    }
+}
@@ -1,13 +1,21 @@
 package com.deliverytech.delivery_api.services;
 
+import com.deliverytech.delivery_api.cache.CardapioCacheInvalidator;
+import com.deliverytech.delivery_api.dto.DisponibilidadeLoteRequestDTO;
+import com.deliverytech.delivery_api.dto.DisponibilidadeLoteResponseDTO;
 import com.deliverytech.delivery_api.dto.ProdutoRequestDTO;
 import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
-import com.deliverytech.delivery_api.entity.Usuario;
+import com.deliverytech.delivery_api.events.CardapioAlteradoEvent;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
 import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
-import com.deliverytech.delivery_api.security.SecurityUtils;
+import com.deliverytech.delivery_api.popularidade.PopularidadeService;
+import com.deliverytech.delivery_api.resilience.SingleFlight;
+import com.deliverytech.delivery_api.security.TenantContext;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +26,13 @@ import com.deliverytech.delivery_api.entity.Produto;
 import com.deliverytech.delivery_api.repository.ProdutoRepository;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
 
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
 @Service
 @Transactional
 public class ProdutoService {
@@ -32,13 +47,22 @@ public class ProdutoService {
     private ModelMapper modelMapper;
 
     @Autowired
-    private SecurityUtils securityUtils;
+    private TenantContext tenantContext;
+
+    @Autowired
+    private CardapioCacheInvalidator cardapioCacheInvalidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PopularidadeService popularidadeService;
 
     /**
      * 1.3: Cadastrar Produto (Validar restaurante existe)
      */
-    @CacheEvict(value = "produtos", allEntries = true)
     public ProdutoResponseDTO cadastrarProduto(ProdutoRequestDTO dto) {
+        tenantContext.verificarTenant(dto.getRestauranteId());
         // Valida se o restaurante existe
         if (!restauranteRepository.existsById(dto.getRestauranteId())) {
             throw new EntityNotFoundException("Restaurante não encontrado com ID: " + dto.getRestauranteId());
@@ -48,6 +72,7 @@ public class ProdutoService {
         produto.setDisponivel(true); // Produto começa disponível por padrão
 
         Produto produtoSalvo = produtoRepository.save(produto);
+        invalidarCardapio(produtoSalvo.getRestauranteId(), produtoSalvo.getCategoria());
 
         return modelMapper.map(produtoSalvo, ProdutoResponseDTO.class);
     }
@@ -55,15 +80,34 @@ public class ProdutoService {
     /**
      * 1.3: Buscar Produtos por Restaurante (Apenas disponíveis)
      * ATIVIDADE 3.4: Modificado para aceitar Pageable e retornar Page<DTO>
+     * Cache com stale-while-revalidate (sync = true): a chave inclui a página pedida.
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "produtos", key = "#restauranteId")
+    @SingleFlight
+    @Cacheable(value = "produtos", key = "#restauranteId + ':' + #pageable", sync = true)
     public Page<ProdutoResponseDTO> buscarProdutosPorRestaurante(Long restauranteId, Pageable pageable) {
         Page<Produto> produtos = produtoRepository.findByRestauranteIdAndDisponivelTrue(restauranteId, pageable);
 
         return produtos.map(produto -> modelMapper.map(produto, ProdutoResponseDTO.class));
     }
 
+    /**
+     * sort=popular: cardápio disponível ordenado pela popularidade recente de cada produto (ranking em memória).
+     * Não passa pelo cache "produtos": a ordem muda a cada retrato e o cardápio de um restaurante é pequeno.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProdutoResponseDTO> buscarProdutosPopulares(Long restauranteId, Pageable pageable) {
+        List<ProdutoResponseDTO> ordenados = produtoRepository
+                .findByRestauranteIdAndDisponivelTrue(restauranteId, Pageable.unpaged()).stream()
+                .sorted(Comparator.comparingDouble((Produto p) -> popularidadeService.pontuacaoProduto(p.getId())).reversed()
+                        .thenComparing(Produto::getNome))
+                .map(produto -> modelMapper.map(produto, ProdutoResponseDTO.class))
+                .toList();
+        int inicio = (int) Math.min(pageable.getOffset(), ordenados.size());
+        int fim = Math.min(inicio + pageable.getPageSize(), ordenados.size());
+        return new PageImpl<>(ordenados.subList(inicio, fim), pageable, ordenados.size());
+    }
+
     /**
      * 1.3: Buscar Produto por ID (Com validação de disponibilidade)
      */
@@ -82,10 +126,10 @@ public class ProdutoService {
     /**
      * 1.3: Atualizar Produto
      */
-    @CacheEvict(value = {"produtos", "produtosCategoria"}, allEntries = true)
+    @CacheEvict(value = "etags", key = "'produto:' + #id")
     public ProdutoResponseDTO atualizarProduto(Long id, ProdutoRequestDTO dto) {
-        Produto produto = produtoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado com ID: " + id));
+        Produto produto = buscarProdutoDoTenant(id);
+        tenantContext.verificarTenant(dto.getRestauranteId());
 
         // Valida se o novo restauranteId existe
         if (!dto.getRestauranteId().equals(produto.getRestauranteId()) &&
@@ -93,9 +137,16 @@ public class ProdutoService {
             throw new EntityNotFoundException("Restaurante não encontrado com ID: " + dto.getRestauranteId());
         }
 
+        Long restauranteAnterior = produto.getRestauranteId();
+        String categoriaAnterior = produto.getCategoria();
         modelMapper.map(dto, produto);
 
         Produto produtoAtualizado = produtoRepository.save(produto);
+        invalidarCardapio(produtoAtualizado.getRestauranteId(), produtoAtualizado.getCategoria());
+        if (!produtoAtualizado.getRestauranteId().equals(restauranteAnterior)
+                || !Objects.equals(produtoAtualizado.getCategoria(), categoriaAnterior)) {
+            invalidarCardapio(restauranteAnterior, categoriaAnterior);
+        }
 
         return modelMapper.map(produtoAtualizado, ProdutoResponseDTO.class);
     }
@@ -103,24 +154,73 @@ public class ProdutoService {
     /**
      * 1.3: Alterar Disponibilidade (Toggle)
      */
-    @CacheEvict(value = {"produtos", "produtosCategoria"}, allEntries = true)
+    @CacheEvict(value = "etags", key = "'produto:' + #id")
     public ProdutoResponseDTO alterarDisponibilidade(Long id, boolean disponivel) {
-        Produto produto = produtoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado com ID: " + id));
+        Produto produto = buscarProdutoDoTenant(id);
 
         produto.setDisponivel(disponivel);
 
         Produto produtoSalvo = produtoRepository.save(produto);
+        invalidarCardapio(produtoSalvo.getRestauranteId(), produtoSalvo.getCategoria());
 
         return modelMapper.map(produtoSalvo, ProdutoResponseDTO.class);
     }
 
+    /**
+     * Alterar disponibilidade em lote (por IDs ou por categoria) com um único UPDATE, restrito ao restaurante
+     * informado; a contagem de linhas afetadas é o resultado. Só quando ela fica abaixo do pedido é feita uma
+     * segunda leitura: os IDs que não são do restaurante (ou não existem) voltam em "ignorados", e nenhuma linha
+     * afetada com restaurante inexistente é 404.
+     * Só o cardápio desse restaurante sai do cache, uma vez, depois do commit.
+     */
+    public DisponibilidadeLoteResponseDTO alterarDisponibilidadeEmLote(DisponibilidadeLoteRequestDTO dto) {
+        boolean porIds = dto.getProdutoIds() != null && !dto.getProdutoIds().isEmpty();
+        boolean porCategoria = dto.getCategoria() != null && !dto.getCategoria().isBlank();
+        if (porIds == porCategoria) {
+            throw new BusinessException("Informe a lista de produtos ou a categoria (apenas um dos dois)");
+        }
+
+        DisponibilidadeLoteResponseDTO resultado = new DisponibilidadeLoteResponseDTO();
+        if (porIds) {
+            Set<Long> informados = new LinkedHashSet<>(dto.getProdutoIds());
+            resultado.setAtualizados(produtoRepository.atualizarDisponibilidade(
+                    dto.getRestauranteId(), informados, dto.getDisponivel()));
+            if (resultado.getAtualizados() < informados.size()) {
+                Set<Long> doRestaurante = new HashSet<>(produtoRepository.findIdsDoRestaurante(dto.getRestauranteId(), informados));
+                informados.stream().filter(id -> !doRestaurante.contains(id)).forEach(resultado.getIgnorados()::add);
+            }
+        } else {
+            resultado.setAtualizados(produtoRepository.atualizarDisponibilidadePorCategoria(
+                    dto.getRestauranteId(), dto.getCategoria(), dto.getDisponivel()));
+        }
+
+        if (resultado.getAtualizados() == 0) {
+            if (!restauranteRepository.existsById(dto.getRestauranteId())) {
+                throw new EntityNotFoundException("Restaurante não encontrado com ID: " + dto.getRestauranteId());
+            }
+            return resultado;
+        }
+
+        // Sem ler os produtos, as categorias de um lote por IDs e os IDs de um lote por categoria não são conhecidos
+        if (porIds) {
+            cardapioCacheInvalidator.invalidarRestauranteETodasAsCategorias(dto.getRestauranteId());
+            cardapioCacheInvalidator.invalidarEtagsProdutos(dto.getProdutoIds());
+        } else {
+            cardapioCacheInvalidator.invalidarRestaurante(dto.getRestauranteId(), Set.of(dto.getCategoria()));
+            cardapioCacheInvalidator.invalidarEtagsTodosProdutos();
+        }
+        eventPublisher.publishEvent(new CardapioAlteradoEvent(dto.getRestauranteId()));
+        return resultado;
+    }
+
     /**
      * 1.3: Buscar Produtos por Categoria
      * ATIVIDADE 3.4: Modificado para aceitar Pageable e retornar Page<DTO>
+     * Cache com stale-while-revalidate (sync = true): a chave inclui a página pedida.
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "produtosCategoria", key = "#categoria")
+    @SingleFlight
+    @Cacheable(value = "produtosCategoria", key = "#categoria + ':' + #pageable", sync = true)
     public Page<ProdutoResponseDTO> buscarProdutosPorCategoria(String categoria, Pageable pageable) {
         Page<Produto> produtos = produtoRepository.findByCategoria(categoria, pageable);
 
@@ -131,11 +231,11 @@ public class ProdutoService {
      * NOVO MÉTODO (ATIVIDADE 1.2): Remover produto
      * ATIVIDADE 3.1: Modificado para retornar void (para o Controller retornar 204)
      */
+    @CacheEvict(value = "etags", key = "'produto:' + #id")
     public void removerProduto(Long id) {
-        if (!produtoRepository.existsById(id)) {
-            throw new EntityNotFoundException("Produto não encontrado com ID: " + id);
-        }
-        produtoRepository.deleteById(id);
+        Produto produto = buscarProdutoDoTenant(id);
+        produtoRepository.delete(produto);
+        invalidarCardapio(produto.getRestauranteId(), produto.getCategoria());
     }
 
     /**
@@ -148,18 +248,19 @@ public class ProdutoService {
         return produtos.map(produto -> modelMapper.map(produto, ProdutoResponseDTO.class));
     }
 
-    public boolean isOwner(Long produtoId) {
-        try {
-            Produto produto = produtoRepository.findById(produtoId).orElse(null);
-            if (produto == null) return false;
-
-            Usuario user = securityUtils.getCurrentUser();
+    // Escrita de um produto: só o cardápio do restaurante e as páginas da categoria dele saem do cache
+    private void invalidarCardapio(Long restauranteId, String categoria) {
+        cardapioCacheInvalidator.invalidarRestaurante(restauranteId, categoria != null ? Set.of(categoria) : Set.of());
+        eventPublisher.publishEvent(new CardapioAlteradoEvent(restauranteId));
+    }
 
-            // O usuário é dono se seu restauranteId for igual ao restauranteId do produto
-            return user.getRestauranteId() != null
-                    && user.getRestauranteId().equals(produto.getRestauranteId());
-        } catch (Exception e) {
-            return false;
-        }
+    /**
+     * Única leitura do produto nas escritas: 404 se não existir, 403 se for de outro restaurante.
+     */
+    private Produto buscarProdutoDoTenant(Long id) {
+        Produto produto = tenantContext.carregar(Produto.class, id, () -> produtoRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado com ID: " + id));
+        tenantContext.verificarTenant(produto.getRestauranteId());
+        return produto;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.deliverytech.delivery_api.services;
+
+import com.deliverytech.delivery_api.dto.reports.RelatorioProdutoVendidoDTO;
+import com.deliverytech.delivery_api.dto.reports.RelatorioRankingClienteDTO;
+import com.deliverytech.delivery_api.dto.reports.RelatorioVendasRestauranteDTO;
+import com.deliverytech.delivery_api.repository.PedidoArquivadoRepository;
+import com.deliverytech.delivery_api.repository.PedidoStore;
+import com.deliverytech.delivery_api.resilience.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Consultas agregadas usadas pelo RelatorioController.
+ * São caras e idênticas para todos os administradores, por isso usam @SingleFlight:
+ * um refresh simultâneo do dashboard executa cada consulta uma única vez.
+ * Os totais cobrem toda a história: pedidos movidos para pedidos_arquivo continuam contando,
+ * somados aqui à parte que ainda está na tabela ativa (no banco único ou nos shards, via PedidoStore).
+ */
+@Service
+@Transactional(readOnly = true)
+public class RelatorioService {
+
+    @Autowired
+    private PedidoStore pedidoStore;
+
+    @Autowired
+    private PedidoArquivadoRepository pedidoArquivadoRepository;
+
+    @SingleFlight
+    public List<RelatorioVendasRestauranteDTO> vendasPorRestaurante() {
+        Map<String, BigDecimal> totais = new LinkedHashMap<>();
+        pedidoStore.findTotalVendasPorRestaurante()
+                .forEach(v -> totais.merge(v.getRestauranteNome(), v.getTotalVendas(), BigDecimal::add));
+        pedidoArquivadoRepository.findTotalVendasPorRestaurante()
+                .forEach(v -> totais.merge(v.getRestauranteNome(), v.getTotalVendas(), BigDecimal::add));
+        return totais.entrySet().stream()
+                .map(e -> new RelatorioVendasRestauranteDTO(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparing(RelatorioVendasRestauranteDTO::totalVendas).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @SingleFlight
+    public List<RelatorioRankingClienteDTO> clientesMaisAtivos() {
+        Map<String, Long> totais = new LinkedHashMap<>();
+        pedidoStore.findRankingClientesPorPedidos()
+                .forEach(c -> totais.merge(c.getClienteNome(), c.getTotalPedidos(), Long::sum));
+        pedidoArquivadoRepository.findRankingClientesPorPedidos()
+                .forEach(c -> totais.merge(c.getClienteNome(), c.getTotalPedidos(), Long::sum));
+        return totais.entrySet().stream()
+                .map(e -> new RelatorioRankingClienteDTO(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparing(RelatorioRankingClienteDTO::totalPedidos).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @SingleFlight
+    public List<RelatorioProdutoVendidoDTO> produtosMaisVendidos(int limite) {
+        Map<String, Long> totais = new LinkedHashMap<>();
+        pedidoStore.findVendasPorProduto()
+                .forEach(p -> totais.merge(p.getProdutoNome(), p.getQuantidadeVendida(), Long::sum));
+        pedidoArquivadoRepository.findVendasPorProduto()
+                .forEach(p -> totais.merge(p.getProdutoNome(), p.getQuantidadeVendida(), Long::sum));
+        return totais.entrySet().stream()
+                .map(e -> new RelatorioProdutoVendidoDTO(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparing(RelatorioProdutoVendidoDTO::quantidadeVendida).reversed())
+                .limit(limite)
+                .collect(Collectors.toList());
+    }
+}
@@ -3,18 +3,29 @@ package com.deliverytech.delivery_api.services;
 import java.math.BigDecimal;
 import com.deliverytech.delivery_api.dto.RestauranteRequestDTO;
 import com.deliverytech.delivery_api.dto.RestauranteResponseDTO;
-import com.deliverytech.delivery_api.entity.Usuario;
 import com.deliverytech.delivery_api.exceptions.BusinessException;
 import com.deliverytech.delivery_api.exceptions.ConflictException; // IMPORTAR
 import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
-import com.deliverytech.delivery_api.security.SecurityUtils;
+import com.deliverytech.delivery_api.horario.HorarioFuncionamentoService;
+import com.deliverytech.delivery_api.popularidade.PopularidadeService;
+import com.deliverytech.delivery_api.security.TenantContext;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import com.deliverytech.delivery_api.entity.Restaurante;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
 
@@ -29,7 +40,13 @@ public class RestauranteService {
     private ModelMapper modelMapper;
 
     @Autowired
-    private SecurityUtils securityUtils;
+    private TenantContext tenantContext;
+
+    @Autowired
+    private HorarioFuncionamentoService horarioFuncionamentoService;
+
+    @Autowired
+    private PopularidadeService popularidadeService;
 
     public RestauranteResponseDTO cadastrarRestaurante(RestauranteRequestDTO dto) {
         if (restauranteRepository.findByNome(dto.getNome()).isPresent()) {
@@ -40,8 +57,13 @@ public class RestauranteService {
         Restaurante restaurante = modelMapper.map(dto, Restaurante.class);
         restaurante.setAtivo(true);
         restaurante.setAvaliacao(BigDecimal.ZERO);
+        restaurante.setTotalAvaliacoes(0L);
+        restaurante.setSomaAvaliacoes(0L);
         Restaurante restauranteSalvo = restauranteRepository.save(restaurante);
-        return modelMapper.map(restauranteSalvo, RestauranteResponseDTO.class);
+        RestauranteResponseDTO resposta = modelMapper.map(restauranteSalvo, RestauranteResponseDTO.class);
+        resposta.setHorarios(horarioFuncionamentoService.definir(restauranteSalvo.getId(),
+                dto.getHorarios(), dto.getHorarioFuncionamento()));
+        return resposta;
     }
 
     // ... (restante do método buscarRestaurantePorId) ...
@@ -50,15 +72,25 @@ public class RestauranteService {
         Restaurante restaurante = restauranteRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado com ID: " + id));
 
-        return modelMapper.map(restaurante, RestauranteResponseDTO.class);
+        RestauranteResponseDTO resposta = modelMapper.map(restaurante, RestauranteResponseDTO.class);
+        resposta.setHorarios(horarioFuncionamentoService.listar(id));
+        return resposta;
     }
 
     // ... (restante do método buscarRestaurantes) ...
     @Transactional(readOnly = true)
-    public Page<RestauranteResponseDTO> buscarRestaurantes(String categoria, Boolean ativo, Pageable pageable) {
+    public Page<RestauranteResponseDTO> buscarRestaurantes(String categoria, Boolean ativo, Boolean abertoAgora,
+                                                           Pageable pageable) {
         Page<Restaurante> restaurantesPage;
-
-        if (categoria != null && ativo != null) {
+        Set<Long> fechados = horarioFuncionamentoService.fechadosAgora();
+
+        if (abertoAgora != null && !fechados.isEmpty()) {
+            restaurantesPage = abertoAgora
+                    ? restauranteRepository.findComFiltrosExcetoIds(categoria, ativo, fechados, pageable)
+                    : restauranteRepository.findComFiltrosEntreIds(categoria, ativo, fechados, pageable);
+        } else if (Boolean.FALSE.equals(abertoAgora)) {
+            return Page.empty(pageable);
+        } else if (categoria != null && ativo != null) {
             restaurantesPage = restauranteRepository.findByCategoriaAndAtivo(categoria, ativo, pageable);
         } else if (categoria != null) {
             restaurantesPage = restauranteRepository.findByCategoria(categoria, pageable);
@@ -68,16 +100,43 @@ public class RestauranteService {
             restaurantesPage = restauranteRepository.findAll(pageable);
         }
 
-        return restaurantesPage.map(restaurante -> modelMapper.map(restaurante, RestauranteResponseDTO.class));
+        return paraListagem(restaurantesPage, fechados);
+    }
+
+    /**
+     * sort=popular: só os restaurantes em alta (ranking em memória), na ordem do ranking e com os mesmos filtros.
+     * O banco só é consultado pelos ids do ranking; a ordenação e a paginação são feitas aqui.
+     */
+    @Transactional(readOnly = true)
+    public Page<RestauranteResponseDTO> buscarRestaurantesPopulares(String categoria, Boolean ativo, Boolean abertoAgora,
+                                                                    Pageable pageable) {
+        List<Long> ranking = popularidadeService.restaurantesEmAlta();
+        if (ranking.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Map<Long, Restaurante> encontrados = restauranteRepository
+                .findComFiltrosEntreIds(categoria, ativo, ranking, Pageable.unpaged()).stream()
+                .collect(Collectors.toMap(Restaurante::getId, Function.identity()));
+        Set<Long> fechados = horarioFuncionamentoService.fechadosAgora();
+
+        List<Restaurante> ordenados = ranking.stream()
+                .map(encontrados::get)
+                .filter(Objects::nonNull)
+                .filter(r -> abertoAgora == null || abertoAgora != fechados.contains(r.getId()))
+                .toList();
+        int inicio = (int) Math.min(pageable.getOffset(), ordenados.size());
+        int fim = Math.min(inicio + pageable.getPageSize(), ordenados.size());
+        return paraListagem(new PageImpl<>(ordenados.subList(inicio, fim), pageable, ordenados.size()), fechados);
     }
 
     // ... (restante do método buscarRestaurantesPorCategoria) ...
     @Transactional(readOnly = true)
     public Page<RestauranteResponseDTO> buscarRestaurantesPorCategoria(String categoria, Pageable pageable) {
         Page<Restaurante> restaurantes = restauranteRepository.findByCategoria(categoria, pageable);
-        return restaurantes.map(restaurante -> modelMapper.map(restaurante, RestauranteResponseDTO.class));
+        return paraListagem(restaurantes, horarioFuncionamentoService.fechadosAgora());
     }
 
+    @CacheEvict(value = "etags", key = "'restaurante:' + #id")
     public RestauranteResponseDTO atualizarRestaurante(Long id, RestauranteRequestDTO dto) {
         Restaurante restaurante = restauranteRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado com ID: " + id));
@@ -90,7 +149,9 @@ public class RestauranteService {
 
         modelMapper.map(dto, restaurante);
         Restaurante restauranteAtualizado = restauranteRepository.save(restaurante);
-        return modelMapper.map(restauranteAtualizado, RestauranteResponseDTO.class);
+        RestauranteResponseDTO resposta = modelMapper.map(restauranteAtualizado, RestauranteResponseDTO.class);
+        resposta.setHorarios(horarioFuncionamentoService.definir(id, dto.getHorarios(), dto.getHorarioFuncionamento()));
+        return resposta;
     }
 
     // ... (restante dos métodos calcularTaxaEntrega, ativarDesativarRestaurante, buscarRestaurantesProximos) ...
@@ -106,6 +167,7 @@ public class RestauranteService {
         }
     }
 
+    @CacheEvict(value = "etags", key = "'restaurante:' + #id")
     public RestauranteResponseDTO ativarDesativarRestaurante(Long id) {
         Restaurante restaurante = restauranteRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado com ID: " + id));
@@ -118,7 +180,22 @@ public class RestauranteService {
     @Transactional(readOnly = true)
     public Page<RestauranteResponseDTO> buscarRestaurantesProximos(String cep, Pageable pageable) {
         Page<Restaurante> restaurantes = restauranteRepository.findByAtivoTrue(pageable);
-        return restaurantes.map(restaurante -> modelMapper.map(restaurante, RestauranteResponseDTO.class));
+        return paraListagem(restaurantes, horarioFuncionamentoService.fechadosAgora());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RestauranteResponseDTO> buscarMelhorAvaliados(Pageable pageable) {
+        Page<Restaurante> restaurantes = restauranteRepository.findByAtivoTrueOrderByAvaliacaoDescTotalAvaliacoesDesc(
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        return paraListagem(restaurantes, horarioFuncionamentoService.fechadosAgora());
+    }
+
+    private Page<RestauranteResponseDTO> paraListagem(Page<Restaurante> restaurantes, Set<Long> fechados) {
+        return restaurantes.map(restaurante -> {
+            RestauranteResponseDTO dto = modelMapper.map(restaurante, RestauranteResponseDTO.class);
+            dto.setAbertoAgora(!fechados.contains(restaurante.getId()));
+            return dto;
+        });
     }
 
     /**
@@ -126,12 +203,8 @@ public class RestauranteService {
      * Chamado via SpEL no @PreAuthorize.
      */
     public boolean isOwner(Long restauranteId) {
-        try {
-            Usuario user = securityUtils.getCurrentUser();
-            // Verifica se o usuário tem ID de restaurante e se bate com o ID solicitado
-            return user.getRestauranteId() != null && user.getRestauranteId().equals(restauranteId);
-        } catch (Exception e) {
-            return false;
-        }
+        // Restaurante do usuário resolvido uma vez por requisição, sem consulta
+        Long restauranteDoUsuario = tenantContext.restauranteId();
+        return restauranteDoUsuario != null && restauranteDoUsuario.equals(restauranteId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.deliverytech.delivery_api.sharding;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Gera ids de pedido únicos entre shards e instâncias, sem depender de AUTO_INCREMENT.
+ * Layout (53 bits, seguro para Number do JavaScript):
+ *   40 bits: milissegundos desde 2025-01-01 (~34 anos)
+ *    4 bits: shard de origem (até 16)
+ *    3 bits: instância geradora (sharding.no-id, até 8)
+ *    6 bits: sequência dentro do mesmo milissegundo (64 ids/ms)
+ * Ids crescem com o tempo, então ordenar por id equivale a ordenar por criação.
+ */
+public class PedidoIdGenerator {
+
+    public static final int MAX_SHARDS = 16;
+    public static final int MAX_NOS = 8;
+
+    static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int BITS_SEQUENCIA = 6;
+    private static final int BITS_NO = 3;
+    private static final int BITS_SHARD = 4;
+    private static final long MAX_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+    private static final int DESLOCAMENTO_NO = BITS_SEQUENCIA;
+    private static final int DESLOCAMENTO_SHARD = BITS_SEQUENCIA + BITS_NO;
+    private static final int DESLOCAMENTO_TEMPO = BITS_SEQUENCIA + BITS_NO + BITS_SHARD;
+
+    private final int no;
+    private final Clock clock;
+
+    private long ultimoInstante = -1;
+    private long sequencia;
+
+    public PedidoIdGenerator(int no) {
+        this(no, Clock.systemUTC());
+    }
+
+    PedidoIdGenerator(int no, Clock clock) {
+        if (no < 0 || no >= MAX_NOS) {
+            throw new IllegalArgumentException("sharding.no-id deve estar entre 0 e " + (MAX_NOS - 1));
+        }
+        this.no = no;
+        this.clock = clock;
+    }
+
+    public synchronized long proximoId(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard fora do intervalo suportado: " + shard);
+        }
+        // Relógio que volta (ajuste NTP) não pode repetir ids: segue usando o último instante emitido
+        long agora = Math.max(clock.millis() - EPOCH, ultimoInstante);
+        if (agora == ultimoInstante) {
+            sequencia = (sequencia + 1) & MAX_SEQUENCIA;
+            if (sequencia == 0) {
+                // Sequência esgotada neste milissegundo: adianta para o próximo
+                agora = ultimoInstante + 1;
+            }
+        } else {
+            sequencia = 0;
+        }
+        ultimoInstante = agora;
+        return (agora << DESLOCAMENTO_TEMPO)
+                | ((long) shard << DESLOCAMENTO_SHARD)
+                | ((long) no << DESLOCAMENTO_NO)
+                | sequencia;
+    }
+
+    /** Shard de origem codificado no id (ids legados, vindos de AUTO_INCREMENT, não carregam essa informação). */
+    public static int shardDe(long id) {
+        return (int) ((id >>> DESLOCAMENTO_SHARD) & (MAX_SHARDS - 1));
+    }
+}
@@ -0,0 +1,510 @@
+package com.deliverytech.delivery_api.sharding;
+
+import com.deliverytech.delivery_api.dto.reports.RelatorioProdutoVendido;
+import com.deliverytech.delivery_api.dto.reports.RelatorioRankingCliente;
+import com.deliverytech.delivery_api.dto.reports.RelatorioVendasRestaurante;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoStore;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Armazena os pedidos em N bancos, escolhendo o shard por restaurante (restauranteId mod N).
+ * - Escritas e a listagem do restaurante tocam um único shard.
+ * - findById usa o shard codificado no id (PedidoIdGenerator) e só varre os demais como fallback.
+ * - Listagens globais (admin, por cliente, por período) e relatórios fazem scatter-gather:
+ *   cada shard devolve no máximo offset+size linhas já ordenadas e a página é montada em memória.
+ * - O arquivamento (pedidos -> pedidos_arquivo) não roda com sharding: veja PedidoArquivamentoService.
+ * Clientes e restaurantes continuam no banco principal; o JDBC dos shards roda fora da transação JPA
+ * (auto-commit), então um rollback no service não desfaz a escrita já feita no shard.
+ */
+public class ShardedPedidoStore implements PedidoStore, DisposableBean {
+
+    private static final String COLUNAS =
+            "id, numero_pedido, data_pedido, status, valor_total, observacoes, cliente_id, restaurante_id, itens";
+
+    // Propriedades aceitas em ?sort=, com a coluna correspondente e o extrator para o merge em memória
+    private static final Map<String, Ordenavel> ORDENAVEIS = Map.of(
+            "id", new Ordenavel("id", Pedido::getId),
+            "numeroPedido", new Ordenavel("numero_pedido", Pedido::getNumeroPedido),
+            "dataPedido", new Ordenavel("data_pedido", Pedido::getDataPedido),
+            "status", new Ordenavel("status", Pedido::getStatus),
+            "valorTotal", new Ordenavel("valor_total", Pedido::getValorTotal),
+            "clienteId", new Ordenavel("cliente_id", Pedido::getClienteId));
+
+    private static final Sort ORDEM_PADRAO = Sort.by(Sort.Direction.DESC, "dataPedido");
+
+    // Produtos contados por consulta no ranking de vendidos (uma coluna e um parâmetro por produto)
+    private static final int PRODUTOS_POR_CONSULTA = 200;
+
+    private final List<JdbcTemplate> shards;
+    private final List<DataSource> dataSources;
+    private final PedidoIdGenerator idGenerator;
+    private final RestauranteRepository restauranteRepository;
+    private final ClienteRepository clienteRepository;
+    private final ProdutoRepository produtoRepository;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardedPedidoStore(List<DataSource> dataSources, PedidoIdGenerator idGenerator,
+                              RestauranteRepository restauranteRepository, ClienteRepository clienteRepository,
+                              ProdutoRepository produtoRepository) {
+        if (dataSources.isEmpty() || dataSources.size() > PedidoIdGenerator.MAX_SHARDS) {
+            throw new IllegalArgumentException("Quantidade de shards deve estar entre 1 e " + PedidoIdGenerator.MAX_SHARDS);
+        }
+        this.dataSources = List.copyOf(dataSources);
+        this.shards = dataSources.stream().map(JdbcTemplate::new).toList();
+        this.idGenerator = idGenerator;
+        this.restauranteRepository = restauranteRepository;
+        this.clienteRepository = clienteRepository;
+        this.produtoRepository = produtoRepository;
+    }
+
+    public int quantidadeShards() {
+        return shards.size();
+    }
+
+    public int shardDoRestaurante(Long restauranteId) {
+        return (int) Math.floorMod(restauranteId, (long) shards.size());
+    }
+
+    // ---------------------------------------------------------------- escrita
+
+    @Override
+    public <S extends Pedido> S save(S pedido) {
+        if (pedido.getRestaurante() == null || pedido.getRestaurante().getId() == null) {
+            throw new BusinessException("Pedido sem restaurante não pode ser armazenado");
+        }
+        JdbcTemplate shard = shards.get(shardDoRestaurante(pedido.getRestaurante().getId()));
+
+        if (pedido.getId() != null) {
+            int atualizados = shard.update(
+                    "UPDATE pedidos SET numero_pedido = ?, data_pedido = ?, status = ?, valor_total = ?, " +
+                            "observacoes = ?, cliente_id = ?, restaurante_id = ?, itens = ? WHERE id = ?",
+                    pedido.getNumeroPedido(), timestamp(pedido.getDataPedido()), pedido.getStatus(),
+                    pedido.getValorTotal(), pedido.getObservacoes(), pedido.getClienteId(),
+                    pedido.getRestaurante().getId(), pedido.getItens(), pedido.getId());
+            if (atualizados > 0) {
+                return pedido;
+            }
+        } else {
+            pedido.setId(idGenerator.proximoId(shardDoRestaurante(pedido.getRestaurante().getId())));
+        }
+
+        shard.update("INSERT INTO pedidos (" + COLUNAS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                pedido.getId(), pedido.getNumeroPedido(), timestamp(pedido.getDataPedido()), pedido.getStatus(),
+                pedido.getValorTotal(), pedido.getObservacoes(), pedido.getClienteId(),
+                pedido.getRestaurante().getId(), pedido.getItens());
+        return pedido;
+    }
+
+    @Override
+    public int atualizarStatusEmLote(Collection<Long> ids, String status) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Ids legados não carregam o shard; um UPDATE por PK em cada shard é barato e sempre correto
+        String marcadores = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] args = concat(new Object[]{status}, ids.toArray());
+        return emTodosShards(shard -> shard.update(
+                "UPDATE pedidos SET status = ? WHERE id IN (" + marcadores + ")", args))
+                .stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // ---------------------------------------------------------------- leitura
+
+    @Override
+    public Optional<Pedido> findById(Long id) {
+        int origem = PedidoIdGenerator.shardDe(id);
+        List<Integer> ordem = new ArrayList<>(shards.size());
+        if (origem < shards.size()) {
+            ordem.add(origem);
+        }
+        IntStream.range(0, shards.size()).filter(i -> i != origem).forEach(ordem::add);
+
+        for (int i : ordem) {
+            List<Pedido> encontrados = shards.get(i).query(
+                    "SELECT " + COLUNAS + " FROM pedidos WHERE id = ?", MAPPER, id);
+            if (!encontrados.isEmpty()) {
+                return Optional.of(anexarRestaurantes(encontrados).get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Page<Pedido> findByRestauranteIdOrderByDataPedidoDesc(Long restauranteId, Pageable pageable) {
+        Sort ordem = ORDEM_PADRAO.and(pageable.getSort());
+        return consultar(List.of(shardDoRestaurante(restauranteId)), "restaurante_id = ?",
+                new Object[]{restauranteId}, ordem, pageable);
+    }
+
+    @Override
+    public Page<Pedido> findByClienteId(Long clienteId, Pageable pageable) {
+        return consultarTodos("cliente_id = ?", new Object[]{clienteId}, pageable);
+    }
+
+    @Override
+    public Page<Pedido> findByStatus(String status, Pageable pageable) {
+        return consultarTodos("status = ?", new Object[]{status}, pageable);
+    }
+
+    @Override
+    public Page<Pedido> findByDataPedidoBetween(LocalDateTime dataInicio, LocalDateTime dataFim, Pageable pageable) {
+        return consultarTodos("data_pedido BETWEEN ? AND ?",
+                new Object[]{timestamp(dataInicio), timestamp(dataFim)}, pageable);
+    }
+
+    @Override
+    public Page<Pedido> findByDataPedidoBetweenAndStatus(LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                         String status, Pageable pageable) {
+        return consultarTodos("data_pedido BETWEEN ? AND ? AND status = ?",
+                new Object[]{timestamp(dataInicio), timestamp(dataFim), status}, pageable);
+    }
+
+    @Override
+    public Page<Pedido> findByValorTotalGreaterThan(BigDecimal valor, Pageable pageable) {
+        return consultarTodos("valor_total > ?", new Object[]{valor}, pageable);
+    }
+
+    @Override
+    public Page<Pedido> findAll(Pageable pageable) {
+        return consultarTodos(null, new Object[0], pageable);
+    }
+
+    // ---------------------------------------------------------------- relatórios
+
+    @Override
+    public List<RelatorioVendasRestaurante> findTotalVendasPorRestaurante() {
+        Map<Long, BigDecimal> porRestaurante = new HashMap<>();
+        for (List<Map<String, Object>> linhas : emTodosShards(shard -> shard.queryForList(
+                "SELECT restaurante_id, SUM(valor_total) AS total FROM pedidos " +
+                        "WHERE restaurante_id IS NOT NULL GROUP BY restaurante_id"))) {
+            for (Map<String, Object> linha : linhas) {
+                BigDecimal total = (BigDecimal) linha.get("total");
+                porRestaurante.merge(((Number) linha.get("restaurante_id")).longValue(),
+                        total != null ? total : BigDecimal.ZERO, BigDecimal::add);
+            }
+        }
+
+        // Mesmo agrupamento da consulta JPA original: por nome, apenas restaurantes existentes
+        Map<String, BigDecimal> porNome = new HashMap<>();
+        for (Restaurante restaurante : restauranteRepository.findAllById(porRestaurante.keySet())) {
+            porNome.merge(restaurante.getNome(), porRestaurante.get(restaurante.getId()), BigDecimal::add);
+        }
+        return porNome.entrySet().stream()
+                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
+                .map(e -> (RelatorioVendasRestaurante) new VendasRestaurante(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    @Override
+    public List<RelatorioRankingCliente> findRankingClientesPorPedidos() {
+        Map<Long, Long> porCliente = new HashMap<>();
+        for (List<Map<String, Object>> linhas : emTodosShards(shard -> shard.queryForList(
+                "SELECT cliente_id, COUNT(id) AS total FROM pedidos " +
+                        "WHERE cliente_id IS NOT NULL GROUP BY cliente_id"))) {
+            for (Map<String, Object> linha : linhas) {
+                porCliente.merge(((Number) linha.get("cliente_id")).longValue(),
+                        ((Number) linha.get("total")).longValue(), Long::sum);
+            }
+        }
+
+        Map<String, Long> porNome = new HashMap<>();
+        for (Cliente cliente : clienteRepository.findAllById(porCliente.keySet())) {
+            porNome.merge(cliente.getNome(), porCliente.get(cliente.getId()), Long::sum);
+        }
+        return porNome.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(e -> (RelatorioRankingCliente) new RankingCliente(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    @Override
+    public List<RelatorioProdutoVendido> findVendasPorProduto() {
+        // Produtos ficam no banco principal: os nomes vão como parâmetro e cada shard conta, numa varredura
+        // por bloco, os pedidos cujos itens citam cada nome (mesmo LIKE do JOIN da consulta de banco único)
+        Map<String, Long> produtosPorNome = new HashMap<>();
+        for (Object[] linha : produtoRepository.contarPorNome()) {
+            produtosPorNome.put((String) linha[0], ((Number) linha[1]).longValue());
+        }
+        List<String> nomes = new ArrayList<>(produtosPorNome.keySet());
+
+        Map<String, Long> porNome = new HashMap<>();
+        for (int inicio = 0; inicio < nomes.size(); inicio += PRODUTOS_POR_CONSULTA) {
+            List<String> bloco = nomes.subList(inicio, Math.min(inicio + PRODUTOS_POR_CONSULTA, nomes.size()));
+            String colunas = IntStream.range(0, bloco.size())
+                    .mapToObj(i -> "SUM(CASE WHEN itens LIKE ? THEN 1 ELSE 0 END) AS v" + i)
+                    .collect(Collectors.joining(", "));
+            Object[] padroes = bloco.stream().map(nome -> "%" + nome + "%").toArray();
+            for (Map<String, Object> linha : emTodosShards(shard -> shard.queryForMap(
+                    "SELECT " + colunas + " FROM pedidos", padroes))) {
+                for (int i = 0; i < bloco.size(); i++) {
+                    Number vendidos = (Number) linha.get("v" + i);
+                    if (vendidos != null && vendidos.longValue() > 0) {
+                        porNome.merge(bloco.get(i), vendidos.longValue(), Long::sum);
+                    }
+                }
+            }
+        }
+
+        // O JOIN conta o pedido uma vez para cada produto com o nome: mesmo resultado aqui
+        return porNome.entrySet().stream()
+                .map(e -> (RelatorioProdutoVendido) new ProdutoVendido(e.getKey(),
+                        e.getValue() * produtosPorNome.get(e.getKey())))
+                .toList();
+    }
+
+    // ---------------------------------------------------------------- scatter-gather
+
+    private Page<Pedido> consultarTodos(String filtro, Object[] args, Pageable pageable) {
+        Sort ordem = pageable.getSort().isSorted() ? pageable.getSort() : ORDEM_PADRAO;
+        return consultar(IntStream.range(0, shards.size()).boxed().toList(), filtro, args, ordem, pageable);
+    }
+
+    private Page<Pedido> consultar(List<Integer> alvos, String filtro, Object[] args, Sort ordem, Pageable pageable) {
+        String where = filtro != null ? " WHERE " + filtro : "";
+        String orderBy = " ORDER BY " + orderBy(ordem);
+        boolean unico = alvos.size() == 1;
+
+        String sql = "SELECT " + COLUNAS + " FROM pedidos" + where + orderBy;
+        Object[] argsConsulta = args;
+        if (pageable.isPaged()) {
+            // Um shard só: paginação direto no banco. Vários: cada um entrega as offset+size primeiras linhas
+            if (unico) {
+                sql += " LIMIT ? OFFSET ?";
+                argsConsulta = concat(args, pageable.getPageSize(), pageable.getOffset());
+            } else {
+                sql += " LIMIT ?";
+                argsConsulta = concat(args, pageable.getOffset() + pageable.getPageSize());
+            }
+        }
+        String sqlFinal = sql;
+        Object[] argsFinal = argsConsulta;
+        String sqlCount = "SELECT COUNT(*) FROM pedidos" + where;
+
+        List<CompletableFuture<List<Pedido>>> linhas = new ArrayList<>();
+        List<CompletableFuture<Long>> totais = new ArrayList<>();
+        for (int i : alvos) {
+            JdbcTemplate shard = shards.get(i);
+            linhas.add(assincrono(() -> shard.query(sqlFinal, MAPPER, argsFinal)));
+            if (pageable.isPaged()) {
+                totais.add(assincrono(() -> shard.queryForObject(sqlCount, Long.class, args)));
+            }
+        }
+
+        List<Pedido> conteudo = new ArrayList<>();
+        linhas.forEach(f -> conteudo.addAll(aguardar(f)));
+        long total = totais.stream().mapToLong(this::aguardar).sum();
+
+        if (!unico) {
+            conteudo.sort(comparador(ordem));
+            if (pageable.isPaged()) {
+                int de = (int) Math.min(pageable.getOffset(), conteudo.size());
+                int ate = Math.min(de + pageable.getPageSize(), conteudo.size());
+                List<Pedido> pagina = new ArrayList<>(conteudo.subList(de, ate));
+                conteudo.clear();
+                conteudo.addAll(pagina);
+            }
+        }
+        if (!pageable.isPaged()) {
+            total = conteudo.size();
+        }
+        return new PageImpl<>(anexarRestaurantes(conteudo), pageable, total);
+    }
+
+    private <T> List<T> emTodosShards(Function<JdbcTemplate, T> consulta) {
+        List<CompletableFuture<T>> futuros = shards.stream()
+                .map(shard -> assincrono(() -> consulta.apply(shard)))
+                .toList();
+        return futuros.stream().map(this::aguardar).toList();
+    }
+
+    private <T> CompletableFuture<T> assincrono(Supplier<T> tarefa) {
+        return CompletableFuture.supplyAsync(tarefa, executor);
+    }
+
+    private <T> T aguardar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private static String orderBy(Sort ordem) {
+        StringBuilder sb = new StringBuilder();
+        boolean temId = false;
+        for (Sort.Order o : ordem) {
+            sb.append(ordenavel(o.getProperty()).coluna()).append(o.isAscending() ? " ASC" : " DESC").append(", ");
+            temId |= o.getProperty().equals("id");
+        }
+        // Desempate estável entre shards (e entre páginas)
+        if (!temId) {
+            sb.append("id DESC");
+        } else {
+            sb.setLength(sb.length() - 2);
+        }
+        return sb.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Pedido> comparador(Sort ordem) {
+        Comparator<Pedido> comparador = null;
+        boolean temId = false;
+        for (Sort.Order o : ordem) {
+            Function<Pedido, Comparable> extrator = (Function) ordenavel(o.getProperty()).extrator();
+            // Mesmo tratamento de NULL do MySQL: primeiro no ASC, por último no DESC
+            Comparator<Pedido> atual = Comparator.comparing(extrator, Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (o.isDescending()) {
+                atual = atual.reversed();
+            }
+            comparador = comparador == null ? atual : comparador.thenComparing(atual);
+            temId |= o.getProperty().equals("id");
+        }
+        if (!temId) {
+            Comparator<Pedido> porId = Comparator.comparing(Pedido::getId).reversed();
+            comparador = comparador == null ? porId : comparador.thenComparing(porId);
+        }
+        return comparador;
+    }
+
+    private static Ordenavel ordenavel(String propriedade) {
+        Ordenavel ordenavel = ORDENAVEIS.get(propriedade);
+        if (ordenavel == null) {
+            throw new BusinessException("Ordenação não suportada para pedidos: " + propriedade);
+        }
+        return ordenavel;
+    }
+
+    private List<Pedido> anexarRestaurantes(List<Pedido> pedidos) {
+        Set<Long> ids = pedidos.stream()
+                .map(Pedido::getRestaurante)
+                .filter(Objects::nonNull)
+                .map(Restaurante::getId)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return pedidos;
+        }
+        Map<Long, Restaurante> restaurantes = restauranteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Restaurante::getId, Function.identity()));
+        for (Pedido pedido : pedidos) {
+            if (pedido.getRestaurante() != null) {
+                pedido.setRestaurante(restaurantes.getOrDefault(pedido.getRestaurante().getId(), pedido.getRestaurante()));
+            }
+        }
+        return pedidos;
+    }
+
+    private static Object[] concat(Object[] args, Object... extras) {
+        Object[] todos = Arrays.copyOf(args, args.length + extras.length);
+        System.arraycopy(extras, 0, todos, args.length, extras.length);
+        return todos;
+    }
+
+    private static Timestamp timestamp(LocalDateTime data) {
+        return data != null ? Timestamp.valueOf(data) : null;
+    }
+
+    private static final RowMapper<Pedido> MAPPER = (rs, rowNum) -> {
+        Pedido pedido = new Pedido();
+        pedido.setId(rs.getLong("id"));
+        pedido.setNumeroPedido(rs.getString("numero_pedido"));
+        Timestamp data = rs.getTimestamp("data_pedido");
+        pedido.setDataPedido(data != null ? data.toLocalDateTime() : null);
+        pedido.setStatus(rs.getString("status"));
+        pedido.setValorTotal(rs.getBigDecimal("valor_total"));
+        pedido.setObservacoes(rs.getString("observacoes"));
+        long clienteId = rs.getLong("cliente_id");
+        pedido.setClienteId(rs.wasNull() ? null : clienteId);
+        long restauranteId = rs.getLong("restaurante_id");
+        if (!rs.wasNull()) {
+            // Referência provisória; anexarRestaurantes troca pela entidade do banco principal
+            Restaurante restaurante = new Restaurante();
+            restaurante.setId(restauranteId);
+            pedido.setRestaurante(restaurante);
+        }
+        pedido.setItens(rs.getString("itens"));
+        return pedido;
+    };
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ignored) {
+                    // encerrando a aplicação
+                }
+            }
+        }
+    }
+
+    private record Ordenavel(String coluna, Function<Pedido, ?> extrator) {
+    }
+
+    private record VendasRestaurante(String restauranteNome, BigDecimal totalVendas) implements RelatorioVendasRestaurante {
+        @Override
+        public String getRestauranteNome() {
+            return restauranteNome;
+        }
+
+        @Override
+        public BigDecimal getTotalVendas() {
+            return totalVendas;
+        }
+    }
+
+    private record ProdutoVendido(String produtoNome, Long quantidadeVendida) implements RelatorioProdutoVendido {
+        @Override
+        public String getProdutoNome() {
+            return produtoNome;
+        }
+
+        @Override
+        public Long getQuantidadeVendida() {
+            return quantidadeVendida;
+        }
+    }
+
+    private record RankingCliente(String clienteNome, Long totalPedidos) implements RelatorioRankingCliente {
+        @Override
+        public String getClienteNome() {
+            return clienteNome;
+        }
+
+        @Override
+        public Long getTotalPedidos() {
+            return totalPedidos;
+        }
+    }
+}
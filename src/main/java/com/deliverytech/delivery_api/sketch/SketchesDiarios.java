@@ -0,0 +1,146 @@
+package com.deliverytech.delivery_api.sketch;
+
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Parte comum dos relatórios servidos por sketches diários (CardinalidadeService, QuantisService):
+ * o buffer em memória dos sketches ainda não gravados, a descarga deles na tabela e o período das consultas.
+ * Os sketches são mescláveis (fundir(a, b) não depende da ordem), o que permite acumular por chave/dia aqui,
+ * somar no banco o que várias instâncias descarregam e devolver ao buffer um lote cuja transação falhou.
+ *
+ * @param <K> chave do sketch (dimensão + dia)
+ * @param <S> sketch (HyperLogLog, HistogramaLog)
+ */
+public class SketchesDiarios<K, S> {
+
+    private static final Logger log = LoggerFactory.getLogger(SketchesDiarios.class);
+
+    private final String descricao;
+    private final Comparator<K> ordemDeGravacao;
+    private final BinaryOperator<S> fundir;
+    private final UnaryOperator<S> copiar;
+    private final TransactionTemplate transactionTemplate;
+    private final IntSupplier maxDias;
+    private final Clock clock;
+
+    private final Map<K, S> pendentes = new ConcurrentHashMap<>();
+
+    /**
+     * @param descricao       usado nos logs da descarga (ex.: "sketches de cardinalidade")
+     * @param ordemDeGravacao ordem total das chaves: a descarga grava nessa ordem, então instâncias
+     *                        concorrentes travam as linhas na mesma sequência e não entram em deadlock
+     * @param fundir          fusão de dois sketches; pode alterar e devolver qualquer um dos dois
+     * @param maxDias         maior período aceito numa consulta (lido a cada consulta)
+     */
+    public SketchesDiarios(String descricao, Comparator<K> ordemDeGravacao, BinaryOperator<S> fundir,
+                           UnaryOperator<S> copiar, PlatformTransactionManager transactionManager,
+                           IntSupplier maxDias, Clock clock) {
+        this.descricao = descricao;
+        this.ordemDeGravacao = ordemDeGravacao;
+        this.fundir = fundir;
+        this.copiar = copiar;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxDias = maxDias;
+        this.clock = clock;
+    }
+
+    /** Aplica o registro ao sketch pendente da chave, criando-o se ainda não existir. */
+    public void registrar(K chave, Supplier<S> novo, Consumer<S> registro) {
+        pendentes.compute(chave, (k, sketch) -> {
+            S atual = sketch != null ? sketch : novo.get();
+            registro.accept(atual);
+            return atual;
+        });
+    }
+
+    /**
+     * Grava todos os pendentes numa transação. Se ela falhar, o lote volta para o buffer e é tentado no próximo
+     * ciclo: como nada foi confirmado, fundir de novo não conta nada em dobro.
+     * @return quantidade de sketches gravados
+     */
+    public int descarregar(BiConsumer<K, S> gravar) {
+        Map<K, S> lote = new TreeMap<>(ordemDeGravacao);
+        for (K chave : new ArrayList<>(pendentes.keySet())) {
+            S sketch = pendentes.remove(chave);
+            if (sketch != null) {
+                lote.put(chave, sketch);
+            }
+        }
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> lote.forEach(gravar));
+            log.debug("{} descarregados: {}", descricao, lote.size());
+            return lote.size();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao descarregar {} {}, nova tentativa no próximo ciclo: {}", lote.size(), descricao, e.getMessage());
+            lote.forEach((chave, sketch) -> pendentes.merge(chave, sketch, fundir));
+            return 0;
+        }
+    }
+
+    /** Funde em total os pendentes de cada dia do período (o que esta instância ainda não descarregou). */
+    public S somarPendentes(S total, Periodo periodo, Function<LocalDate, K> chaveDoDia) {
+        S soma = total;
+        for (LocalDate dia = periodo.de(); !dia.isAfter(periodo.ate()); dia = dia.plusDays(1)) {
+            S local = copiaPendente(chaveDoDia.apply(dia));
+            if (local != null) {
+                soma = fundir.apply(soma, local);
+            }
+        }
+        return soma;
+    }
+
+    private S copiaPendente(K chave) {
+        Object[] copia = new Object[1];
+        pendentes.computeIfPresent(chave, (k, sketch) -> {
+            copia[0] = copiar.apply(sketch);
+            return sketch;
+        });
+        @SuppressWarnings("unchecked")
+        S resultado = (S) copia[0];
+        return resultado;
+    }
+
+    /**
+     * Período da consulta: padrão dos últimos 30 dias até hoje. Cada dia custa a leitura de um sketch,
+     * por isso o tamanho é limitado.
+     */
+    public Periodo periodo(LocalDate inicio, LocalDate fim) {
+        LocalDate ate = fim != null ? fim : LocalDate.now(clock);
+        LocalDate de = inicio != null ? inicio : ate.minusDays(29);
+        if (de.isAfter(ate)) {
+            throw new BusinessException("Data inicial deve ser anterior ou igual à data final");
+        }
+        int limite = maxDias.getAsInt();
+        if (ChronoUnit.DAYS.between(de, ate) + 1 > limite) {
+            throw new BusinessException("Período máximo para o relatório é de " + limite + " dias");
+        }
+        return new Periodo(de, ate);
+    }
+
+    public record Periodo(LocalDate de, LocalDate ate) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.transacao;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Efeitos colaterais que só podem acontecer depois que a escrita foi confirmada (remover cache, ETag,
+ * índice em memória): dentro de uma transação rodam no afterCommit, e nada acontece se ela voltar;
+ * fora de transação rodam na hora.
+ */
+public final class AposCommit {
+
+    private AposCommit() {
+    }
+
+    public static void executar(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
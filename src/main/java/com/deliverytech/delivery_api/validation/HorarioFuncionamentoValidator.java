@@ -9,9 +9,10 @@ import java.util.regex.Pattern;
  */
 public class HorarioFuncionamentoValidator implements ConstraintValidator<ValidHorarioFuncionamento, String> {
 
-    // Regex para validar o formato HH:MM-HH:MM (formato 24h)
+    // Regex para validar o formato HH:MM-HH:MM (formato 24h), com vários intervalos separados por vírgula
+    private static final String INTERVALO = "([01]\\d|2[0-3]):([0-5]\\d)-([01]\\d|2[0-3]):([0-5]\\d)";
     private static final Pattern HORARIO_PATTERN = Pattern.compile(
-            "^([01]\\d|2[0-3]):([0-5]\\d)-([01]\\d|2[0-3]):([0-5]\\d)$"
+            "^" + INTERVALO + "(," + INTERVALO + ")*$"
     );
 
     @Override
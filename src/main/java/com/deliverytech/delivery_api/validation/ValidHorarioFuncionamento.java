@@ -14,7 +14,7 @@ import java.lang.annotation.Target;
 @Target({ ElementType.FIELD, ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ValidHorarioFuncionamento {
-    String message() default "Formato de horário inválido. Use HH:MM-HH:MM (ex: 09:00-18:00)";
+    String message() default "Formato de horário inválido. Use HH:MM-HH:MM, com intervalos separados por vírgula (ex: 11:00-15:00,18:00-23:30)";
     Class<?>[] groups() default {};
     Class<? extends Payload>[] payload() default {};
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.deliverytech.delivery_api.writebehind;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal append-only das transições ainda não gravadas no banco: uma linha "pedidoId;STATUS" por transição.
+ * Na subida, {@link #ler()} reconstrói o último status de cada pedido; linhas truncadas (queda no meio
+ * de uma escrita) são ignoradas. Após cada descarga o arquivo é reescrito só com o que continua pendente.
+ * Não é thread-safe: o chamador serializa o acesso.
+ */
+class StatusJournal implements AutoCloseable {
+
+    private final Path arquivo;
+    private final boolean fsync;
+    private FileChannel canal;
+
+    StatusJournal(Path arquivo, boolean fsync) {
+        this.arquivo = arquivo;
+        this.fsync = fsync;
+        try {
+            if (arquivo.getParent() != null) {
+                Files.createDirectories(arquivo.getParent());
+            }
+            this.canal = abrir();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o journal " + arquivo, e);
+        }
+    }
+
+    void registrar(long pedidoId, String status) {
+        try {
+            ByteBuffer linha = ByteBuffer.wrap((pedidoId + ";" + status + "\n").getBytes(StandardCharsets.US_ASCII));
+            while (linha.hasRemaining()) {
+                canal.write(linha);
+            }
+            if (fsync) {
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar no journal " + arquivo, e);
+        }
+    }
+
+    Map<Long, String> ler() {
+        Map<Long, String> pendentes = new LinkedHashMap<>();
+        try {
+            String conteudo = Files.readString(arquivo, StandardCharsets.US_ASCII);
+            // Só linhas terminadas em \n estão completas; um resto sem quebra é escrita interrompida
+            List<String> linhas = List.of(conteudo.substring(0, conteudo.lastIndexOf('\n') + 1).split("\n"));
+            for (String linha : linhas) {
+                int separador = linha.indexOf(';');
+                if (separador <= 0 || separador == linha.length() - 1) {
+                    continue;
+                }
+                try {
+                    pendentes.put(Long.parseLong(linha.substring(0, separador)), linha.substring(separador + 1));
+                } catch (NumberFormatException ignored) {
+                    // linha corrompida
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o journal " + arquivo, e);
+        }
+        return pendentes;
+    }
+
+    /** Substitui o conteúdo pelo conjunto ainda pendente (arquivo temporário + move atômico). */
+    void reescrever(Map<Long, String> pendentes) {
+        try {
+            canal.close();
+            Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+            StringBuilder conteudo = new StringBuilder();
+            pendentes.forEach((id, status) -> conteudo.append(id).append(';').append(status).append('\n'));
+            try (FileChannel novo = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer bytes = ByteBuffer.wrap(conteudo.toString().getBytes(StandardCharsets.US_ASCII));
+                while (bytes.hasRemaining()) {
+                    novo.write(bytes);
+                }
+                novo.force(true);
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            canal = abrir();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao compactar o journal " + arquivo, e);
+        }
+    }
+
+    private FileChannel abrir() throws IOException {
+        return FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void close() {
+        try {
+            canal.close();
+        } catch (IOException ignored) {
+            // encerrando
+        }
+    }
+}
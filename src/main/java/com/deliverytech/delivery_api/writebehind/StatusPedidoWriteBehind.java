@@ -0,0 +1,260 @@
+package com.deliverytech.delivery_api.writebehind;
+
+import com.deliverytech.delivery_api.config.WriteBehindProperties;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.repository.PedidoStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind das transições de status (write-behind.enabled=true).
+ * A transição é validada contra o status em memória, gravada no journal local e confirmada na hora;
+ * a cada write-behind.intervalo os pendentes viram poucos UPDATE ... WHERE id IN (...) em uma transação.
+ * Enquanto não descarregado, o status pendente é sobreposto nas buscas por id (read-your-writes);
+ * listagens paginadas podem ficar até um intervalo atrasadas.
+ */
+@Component
+public class StatusPedidoWriteBehind implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusPedidoWriteBehind.class);
+
+    private final WriteBehindProperties properties;
+    private final PedidoStore pedidoStore;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Protege pendentes, estados e o journal
+    private final ReentrantLock lock = new ReentrantLock();
+    // Uma descarga por vez (agendador ou backpressure)
+    private final ReentrantLock descarga = new ReentrantLock();
+
+    private final Map<Long, String> pendentes = new LinkedHashMap<>();
+    private final Map<Long, String> estados;
+
+    private StatusJournal journal;
+    private ScheduledExecutorService agendador;
+    private Counter descarregados;
+    // Backpressure já pediu uma descarga antecipada ao agendador
+    private final AtomicBoolean descargaSolicitada = new AtomicBoolean();
+
+    @Autowired
+    public StatusPedidoWriteBehind(WriteBehindProperties properties, PedidoStore pedidoStore,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pedidoStore = pedidoStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Transação própria: a descarga nunca se junta à de quem chamou (e não volta com o rollback dela)
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        int capacidade = properties.getCapacidadeEstados();
+        this.estados = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > capacidade;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        journal = new StatusJournal(Path.of(properties.getJournal()), properties.isFsync());
+        descarregados = meterRegistry.counter("pedidos.status.write_behind.descarregados");
+        Gauge.builder("pedidos.status.write_behind.pendentes", this, StatusPedidoWriteBehind::quantidadePendentes)
+                .register(meterRegistry);
+
+        Map<Long, String> recuperados = journal.ler();
+        if (!recuperados.isEmpty()) {
+            log.info("Write-behind: reaplicando {} transições de status do journal", recuperados.size());
+            pendentes.putAll(recuperados);
+            estados.putAll(recuperados);
+            descarregarComSeguranca();
+        }
+
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "write-behind-status");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalo = properties.getIntervalo().toMillis();
+        agendador.scheduleWithFixedDelay(this::descarregarComSeguranca, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isAtivo() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Status vigente do pedido: pendente, conhecido em memória ou, na falta dos dois, carregado (e memorizado).
+     */
+    public String statusAtual(Long pedidoId, Supplier<String> carregar) {
+        lock.lock();
+        try {
+            String pendente = pendentes.get(pedidoId);
+            if (pendente != null) {
+                return pendente;
+            }
+            String conhecido = estados.get(pedidoId);
+            if (conhecido != null) {
+                return conhecido;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        String carregado = carregar.get();
+        lock.lock();
+        try {
+            estados.putIfAbsent(pedidoId, carregado);
+            return estados.get(pedidoId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra a transição já validada; retorna depois que ela está no journal.
+     * Acima de write-behind.max-pendentes pede uma descarga antecipada à thread do agendador:
+     * quem registra costuma estar dentro da transação do PedidoService e não descarrega por conta própria.
+     */
+    public void registrar(Long pedidoId, String status) {
+        int tamanho;
+        lock.lock();
+        try {
+            journal.registrar(pedidoId, status);
+            pendentes.put(pedidoId, status);
+            estados.put(pedidoId, status);
+            tamanho = pendentes.size();
+        } finally {
+            lock.unlock();
+        }
+        if (tamanho >= properties.getMaxPendentes() && agendador != null && descargaSolicitada.compareAndSet(false, true)) {
+            agendador.execute(() -> {
+                descargaSolicitada.set(false);
+                descarregarComSeguranca();
+            });
+        }
+    }
+
+    /**
+     * Pedido lido do banco com o status ainda não descarregado por cima.
+     * Havendo pendente, devolve uma cópia: o pedido lido pode estar gerenciado pelo Hibernate,
+     * e alterá-lo faria o commit da transação gravar o status na hora, furando o write-behind.
+     */
+    public Pedido aplicarPendente(Pedido pedido) {
+        if (!isAtivo()) {
+            return pedido;
+        }
+        String pendente;
+        lock.lock();
+        try {
+            pendente = pendentes.get(pedido.getId());
+        } finally {
+            lock.unlock();
+        }
+        if (pendente == null || pendente.equals(pedido.getStatus())) {
+            return pedido;
+        }
+        return new Pedido(pedido.getId(), pedido.getNumeroPedido(), pedido.getDataPedido(), pendente,
+                pedido.getValorTotal(), pedido.getObservacoes(), pedido.getClienteId(), pedido.getRestaurante(),
+                pedido.getItens());
+    }
+
+    /**
+     * Grava os pendentes no banco (um UPDATE por status e lote) e compacta o journal.
+     * Se o banco falhar, nada sai da memória nem do journal e a próxima execução tenta de novo.
+     * @return quantidade de pedidos descarregados
+     */
+    public int descarregar() {
+        descarga.lock();
+        try {
+            Map<Long, String> lote;
+            lock.lock();
+            try {
+                lote = new LinkedHashMap<>(pendentes);
+            } finally {
+                lock.unlock();
+            }
+            if (lote.isEmpty()) {
+                return 0;
+            }
+
+            Map<String, List<Long>> porStatus = new HashMap<>();
+            lote.forEach((id, status) -> porStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(id));
+            int tamanhoLote = Math.max(1, properties.getTamanhoLote());
+            transactionTemplate.executeWithoutResult(tx -> porStatus.forEach((status, ids) -> {
+                for (int i = 0; i < ids.size(); i += tamanhoLote) {
+                    pedidoStore.atualizarStatusEmLote(ids.subList(i, Math.min(i + tamanhoLote, ids.size())), status);
+                }
+            }));
+
+            lock.lock();
+            try {
+                // Transições que chegaram durante a descarga continuam pendentes
+                lote.forEach(pendentes::remove);
+                journal.reescrever(pendentes);
+            } finally {
+                lock.unlock();
+            }
+            descarregados.increment(lote.size());
+            return lote.size();
+        } finally {
+            descarga.unlock();
+        }
+    }
+
+    int quantidadePendentes() {
+        lock.lock();
+        try {
+            return pendentes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void descarregarComSeguranca() {
+        try {
+            descarregar();
+        } catch (Exception e) {
+            log.warn("Write-behind: falha ao descarregar status pendentes, nova tentativa em {}: {}",
+                    properties.getIntervalo(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (agendador == null) {
+            return;
+        }
+        agendador.shutdown();
+        try {
+            agendador.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // O que não couber aqui continua no journal e é reaplicado na próxima subida
+        descarregarComSeguranca();
+        journal.close();
+    }
+}
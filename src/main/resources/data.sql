@@ -1,14 +1,14 @@
 -- Inserir clientes
-INSERT INTO clientes (id, nome, email, telefone, endereco, data_cadastro, ativo) VALUES
-(1, 'João Silva', 'joao@email.com', '(11) 99999-1111', 'Rua A, 123 - São Paulo/SP', CURRENT_TIMESTAMP, true),
-(2, 'Maria Santos', 'maria@email.com', '(11) 99999-2222', 'Rua B, 456 - São Paulo/SP', CURRENT_TIMESTAMP, true),
-(3, 'Pedro Oliveira', 'pedro@email.com', '(11) 99999-3333', 'Rua C, 789 - São Paulo/SP', CURRENT_TIMESTAMP, true);
+INSERT INTO clientes (id, nome, email, telefone, endereco, data_cadastro, ativo, latitude, longitude) VALUES
+(1, 'João Silva', 'joao@email.com', '(11) 99999-1111', 'Rua A, 123 - São Paulo/SP', CURRENT_TIMESTAMP, true, -23.5614, -46.6559),
+(2, 'Maria Santos', 'maria@email.com', '(11) 99999-2222', 'Rua B, 456 - São Paulo/SP', CURRENT_TIMESTAMP, true, -23.5558, -46.6623),
+(3, 'Pedro Oliveira', 'pedro@email.com', '(11) 99999-3333', 'Rua C, 789 - São Paulo/SP', CURRENT_TIMESTAMP, true, -23.5587, -46.6345);
 
 -- Inserir restaurantes
-INSERT INTO restaurantes (id, nome, categoria, endereco, telefone, taxa_entrega, avaliacao, ativo) VALUES
-(1, 'Pizzaria Bella', 'Italiana', 'Av. Paulista, 1000 - São Paulo/SP', '(11) 3333-1111', 5.00, 4.5, true),
-(2, 'Burger House', 'Hamburgueria', 'Rua Augusta, 500 - São Paulo/SP', '(11) 3333-2222', 3.50, 4.2, true),
-(3, 'Sushi Master', 'Japonesa', 'Rua Liberdade, 200 - São Paulo/SP', '(11) 3333-3333', 8.00, 4.8, true);
+INSERT INTO restaurantes (id, nome, categoria, endereco, telefone, taxa_entrega, avaliacao, total_avaliacoes, soma_avaliacoes, ativo, latitude, longitude) VALUES
+(1, 'Pizzaria Bella', 'Italiana', 'Av. Paulista, 1000 - São Paulo/SP', '(11) 3333-1111', 5.00, 4.5, 10, 45, true, -23.5613, -46.6565),
+(2, 'Burger House', 'Hamburgueria', 'Rua Augusta, 500 - São Paulo/SP', '(11) 3333-2222', 3.50, 4.2, 10, 42, true, -23.5534, -46.6584),
+(3, 'Sushi Master', 'Japonesa', 'Rua Liberdade, 200 - São Paulo/SP', '(11) 3333-3333', 8.00, 4.8, 10, 48, true, -23.5582, -46.6339);
 
 -- Inserir produtos
 INSERT INTO produtos (id, nome, descricao, preco, categoria, disponivel, restaurante_id) VALUES
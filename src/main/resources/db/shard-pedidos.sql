@@ -0,0 +1,16 @@
+-- Tabela de pedidos de cada shard. Sem AUTO_INCREMENT nem chaves estrangeiras:
+-- o id vem do PedidoIdGenerator e clientes/restaurantes ficam no banco principal.
+CREATE TABLE IF NOT EXISTS pedidos (
+                         id BIGINT PRIMARY KEY,
+                         numero_pedido VARCHAR(20) NOT NULL,
+                         data_pedido TIMESTAMP,
+                         status VARCHAR(20),
+                         valor_total DECIMAL(10,2),
+                         observacoes VARCHAR(200),
+                         cliente_id BIGINT,
+                         restaurante_id BIGINT,
+                         itens VARCHAR(200),
+                         INDEX idx_pedidos_restaurante_data (restaurante_id, data_pedido),
+                         INDEX idx_pedidos_cliente (cliente_id),
+                         INDEX idx_pedidos_data (data_pedido)
+);
@@ -1,4 +1,9 @@
-
+DROP TABLE IF EXISTS sketches_quantis;
+DROP TABLE IF EXISTS sketches_cardinalidade;
+DROP TABLE IF EXISTS avaliacoes;
+DROP TABLE IF EXISTS horarios_funcionamento;
+DROP TABLE IF EXISTS posicoes_entregadores;
+DROP TABLE IF EXISTS pedidos_arquivo;
 DROP TABLE IF EXISTS pedidos;
 DROP TABLE IF EXISTS usuarios;
 DROP TABLE IF EXISTS produtos;
@@ -12,7 +17,9 @@ CREATE TABLE clientes (
                           telefone VARCHAR(20),
                           endereco VARCHAR(200),
                           data_cadastro TIMESTAMP,
-                          ativo BOOLEAN
+                          ativo BOOLEAN,
+                          latitude DOUBLE,
+                          longitude DOUBLE
 );
 
 CREATE TABLE restaurantes (
@@ -22,10 +29,16 @@ CREATE TABLE restaurantes (
                               endereco VARCHAR(200),
                               telefone VARCHAR(20),
                               taxa_entrega DECIMAL(10,2),
-                              avaliacao DECIMAL(2,1),
-                              ativo BOOLEAN
+                              avaliacao DECIMAL(3,2),
+                              ativo BOOLEAN,
+                              latitude DOUBLE,
+                              longitude DOUBLE,
+                              total_avaliacoes BIGINT DEFAULT 0,
+                              soma_avaliacoes BIGINT DEFAULT 0
 );
 
+CREATE INDEX idx_restaurantes_ativo_avaliacao ON restaurantes (ativo, avaliacao, total_avaliacoes);
+
 CREATE TABLE produtos (
                           id BIGINT AUTO_INCREMENT PRIMARY KEY,
                           nome VARCHAR(100) NOT NULL,
@@ -51,6 +64,24 @@ CREATE TABLE pedidos (
                          FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
 );
 
+CREATE INDEX idx_pedidos_status_data ON pedidos (status, data_pedido);
+
+CREATE TABLE pedidos_arquivo (
+                         id BIGINT PRIMARY KEY,
+                         numero_pedido VARCHAR(20) NOT NULL,
+                         data_pedido TIMESTAMP,
+                         status VARCHAR(20),
+                         valor_total DECIMAL(10,2),
+                         observacoes VARCHAR(200),
+                         cliente_id BIGINT,
+                         restaurante_id BIGINT,
+                         itens VARCHAR(200),
+                         arquivado_em TIMESTAMP,
+                         FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
+);
+
+CREATE INDEX idx_pedidos_arquivo_cliente_data ON pedidos_arquivo (cliente_id, data_pedido);
+
 CREATE TABLE usuarios (
                           id BIGINT AUTO_INCREMENT PRIMARY KEY,
                           email VARCHAR(100) NOT NULL UNIQUE,
@@ -61,4 +92,58 @@ CREATE TABLE usuarios (
                           data_criacao TIMESTAMP,
                           restaurante_id BIGINT,
                           FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
-);
\ No newline at end of file
+);
+CREATE TABLE posicoes_entregadores (
+                          id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                          entregador_id BIGINT NOT NULL,
+                          latitude DOUBLE NOT NULL,
+                          longitude DOUBLE NOT NULL,
+                          registrada_em TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_posicoes_entregador_data ON posicoes_entregadores (entregador_id, registrada_em);
+
+CREATE TABLE horarios_funcionamento (
+                          id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                          restaurante_id BIGINT NOT NULL,
+                          dia_semana INT,
+                          data_excecao DATE,
+                          abertura TIME,
+                          fechamento TIME,
+                          FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
+);
+
+CREATE INDEX idx_horarios_restaurante ON horarios_funcionamento (restaurante_id);
+
+CREATE TABLE avaliacoes (
+                          id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                          pedido_id BIGINT NOT NULL UNIQUE,
+                          cliente_id BIGINT NOT NULL,
+                          restaurante_id BIGINT NOT NULL,
+                          nota INT NOT NULL,
+                          comentario VARCHAR(500),
+                          data_avaliacao TIMESTAMP NOT NULL,
+                          lote_agregacao BIGINT,
+                          FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
+);
+
+CREATE INDEX idx_avaliacoes_lote ON avaliacoes (lote_agregacao);
+CREATE INDEX idx_avaliacoes_restaurante_data ON avaliacoes (restaurante_id, data_avaliacao);
+
+CREATE TABLE sketches_cardinalidade (
+                          id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                          dimensao VARCHAR(20) NOT NULL,
+                          chave VARCHAR(100) NOT NULL,
+                          dia DATE NOT NULL,
+                          registros MEDIUMBLOB NOT NULL,
+                          CONSTRAINT uk_sketches_dimensao_chave_dia UNIQUE (dimensao, chave, dia)
+);
+
+CREATE TABLE sketches_quantis (
+                          id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                          metrica VARCHAR(20) NOT NULL,
+                          restaurante_id BIGINT NOT NULL,
+                          dia DATE NOT NULL,
+                          registros MEDIUMBLOB NOT NULL,
+                          CONSTRAINT uk_sketches_quantis_metrica_restaurante_dia UNIQUE (metrica, restaurante_id, dia)
+);
@@ -0,0 +1,92 @@
+package com.deliverytech.delivery_api.cache;
+
+import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCacheValueCodecTest {
+
+    private final BinaryCacheValueCodec codec = new BinaryCacheValueCodec(1024);
+
+    @Test
+    void deveFazerRoundTripDePaginaDeProdutos() {
+        Page<ProdutoResponseDTO> page = new PageImpl<>(produtos(5),
+                PageRequest.of(2, 5, Sort.by(Sort.Order.desc("preco"), Sort.Order.asc("nome").ignoreCase())), 42);
+        CacheEntry entry = new CacheEntry(page, 1_700_000_000_000L, 37);
+
+        CacheEntry lido = (CacheEntry) codec.decode(codec.encode(entry));
+
+        assertEquals(entry.refreshAt(), lido.refreshAt());
+        assertEquals(entry.computeMillis(), lido.computeMillis());
+        Page<?> pageLida = (Page<?>) lido.value();
+        assertEquals(page.getPageable(), pageLida.getPageable());
+        assertEquals(page.getTotalElements(), pageLida.getTotalElements());
+        assertEquals(page.getContent(), pageLida.getContent());
+    }
+
+    @Test
+    void devePreservarCamposNulosEValoresNaoMapeados() {
+        ProdutoResponseDTO vazio = new ProdutoResponseDTO();
+        ProdutoResponseDTO caro = produtos(1).get(0);
+        caro.setPreco(new BigDecimal("123456789012345678901234567890.99"));
+        caro.setDisponivel(false);
+
+        assertEquals(vazio, codec.decode(codec.encode(vazio)));
+        assertEquals(caro, codec.decode(codec.encode(caro)));
+        assertEquals("texto qualquer", codec.decode(codec.encode("texto qualquer")));
+        assertNull(codec.decode(codec.encode(null)));
+    }
+
+    @Test
+    void deveComprimirPayloadsGrandesESerMenorQueSerializacaoJava() {
+        CacheEntry entry = new CacheEntry(new PageImpl<>(produtos(50), PageRequest.of(0, 50), 50), 1L, 1);
+
+        byte[] binario = codec.encode(entry);
+        byte[] semCompressao = new BinaryCacheValueCodec(0).encode(entry);
+        byte[] jdk = new JdkCacheValueCodec().encode(entry);
+
+        assertTrue(binario.length < semCompressao.length);
+        assertTrue(semCompressao.length < jdk.length);
+        assertEquals(((Page<?>) ((CacheEntry) codec.decode(binario)).value()).getContent(), produtos(50));
+    }
+
+    @Test
+    void deveTratarVersaoOuFormatoDesconhecidoComoMiss() {
+        byte[] bytes = codec.encode(produtos(1).get(0));
+
+        byte[] outraVersao = bytes.clone();
+        outraVersao[1] = (byte) (BinaryCacheValueCodec.FORMAT_VERSION + 1);
+        byte[] outroSchema = bytes.clone();
+        outroSchema[4] = (byte) (BinaryCacheValueCodec.PRODUTO_SCHEMA + 1);
+
+        assertNull(codec.decode(outraVersao));
+        assertNull(codec.decode(outroSchema));
+        assertNull(codec.decode(new JdkCacheValueCodec().encode("valor antigo")));
+        assertNull(codec.decode(new byte[] {BinaryCacheValueCodec.MAGIC, BinaryCacheValueCodec.FORMAT_VERSION, 0, 4}));
+    }
+
+    private List<ProdutoResponseDTO> produtos(int quantidade) {
+        List<ProdutoResponseDTO> produtos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            ProdutoResponseDTO p = new ProdutoResponseDTO();
+            p.setId((long) i + 1);
+            p.setNome("Produto " + i);
+            p.setDescricao("Descrição com acentuação e ingredientes do produto " + i);
+            p.setPreco(new BigDecimal("19.90").add(BigDecimal.valueOf(i)));
+            p.setCategoria(i % 2 == 0 ? "Pizzas" : "Bebidas");
+            p.setDisponivel(true);
+            p.setRestauranteId(3L);
+            produtos.add(p);
+        }
+        return produtos;
+    }
+}
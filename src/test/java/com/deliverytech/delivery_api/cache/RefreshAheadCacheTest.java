@@ -0,0 +1,120 @@
+package com.deliverytech.delivery_api.cache;
+
+import com.deliverytech.delivery_api.config.CachePolicyProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCacheTest {
+
+    private final AtomicLong relogio = new AtomicLong(1_000_000);
+    private final List<Runnable> refreshesAgendados = new ArrayList<>();
+    private final AtomicInteger cargas = new AtomicInteger();
+    private RefreshAheadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CachePolicyProperties.Policy policy = new CachePolicyProperties.Policy();
+        policy.setTtl(Duration.ofSeconds(60));
+        policy.setJitter(0);
+        policy.setBeta(0); // desliga o refresh probabilístico para o teste ser determinístico
+        cache = new RefreshAheadCache(new ConcurrentMapCache("produtos"), policy, refreshesAgendados::add, relogio::get);
+    }
+
+    private String carregar() {
+        return "v" + cargas.incrementAndGet();
+    }
+
+    @Test
+    @DisplayName("Miss carrega de forma síncrona e o valor fresco é servido do cache")
+    void testMissEValorFresco() {
+        assertEquals("v1", cache.get(1L, this::carregar));
+
+        relogio.addAndGet(30_000);
+        assertEquals("v1", cache.get(1L, this::carregar));
+        assertEquals(1, cargas.get());
+        assertTrue(refreshesAgendados.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Valor velho é servido enquanto um único refresh roda em background")
+    void testStaleWhileRevalidate() {
+        cache.get(1L, this::carregar);
+        relogio.addAndGet(61_000);
+
+        assertEquals("v1", cache.get(1L, this::carregar));
+        assertEquals("v1", cache.get(1L, this::carregar));
+        assertEquals(1, refreshesAgendados.size()); // só um refresh por chave
+
+        refreshesAgendados.get(0).run();
+        assertEquals("v2", cache.get(1L, this::carregar));
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    @DisplayName("Sem loader, apenas um leitor recebe miss para recalcular o valor velho")
+    void testRefreshSemLoader() {
+        cache.put(1L, "v0");
+        relogio.addAndGet(61_000);
+
+        assertNull(cache.get(1L));
+        assertEquals("v0", cache.get(1L).get());
+
+        cache.put(1L, "v1");
+        assertEquals("v1", cache.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("Reserva de refresh abandonada (recálculo falhou sem put) vence e outro leitor recalcula")
+    void testReservaAbandonadaVence() {
+        cache.put(1L, "v0");
+        relogio.addAndGet(61_000);
+
+        assertNull(cache.get(1L)); // este leitor falha e nunca grava
+        assertEquals("v0", cache.get(1L).get());
+
+        relogio.addAndGet(Duration.ofMinutes(5).toMillis()); // staleTtl padrão
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Refresh antecipado deve ocorrer antes da expiração para consultas caras")
+    void testRefreshAntecipado() {
+        CachePolicyProperties.Policy policy = new CachePolicyProperties.Policy();
+        policy.setTtl(Duration.ofSeconds(60));
+        policy.setJitter(0);
+        policy.setBeta(1.0);
+        RefreshAheadCache xfetch = new RefreshAheadCache(new ConcurrentMapCache("c"), policy, Runnable::run, relogio::get);
+
+        CacheEntry barata = new CacheEntry("v", relogio.get() + 60_000, 1);
+        CacheEntry cara = new CacheEntry("v", relogio.get() + 1_000, 1_000_000);
+
+        assertFalse(xfetch.precisaRefresh(barata));
+        assertTrue(xfetch.precisaRefresh(cara));
+    }
+
+    @Test
+    @DisplayName("Remoção por prefixo apaga só as chaves do restaurante")
+    void testEvictByPrefix() {
+        cache.put("1:pagina0", "a");
+        cache.put("1:pagina1", "b");
+        cache.put("10:pagina0", "c");
+        cache.put(1L, "d");
+
+        cache.evictByPrefix("1:");
+
+        assertNull(cache.get("1:pagina0"));
+        assertNull(cache.get("1:pagina1"));
+        assertEquals("c", cache.get("10:pagina0").get());
+        assertEquals("d", cache.get(1L).get());
+    }
+}
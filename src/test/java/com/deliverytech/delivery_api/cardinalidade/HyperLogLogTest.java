@@ -0,0 +1,80 @@
+package com.deliverytech.delivery_api.cardinalidade;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    private static HyperLogLog com(int precisao, long de, long ate) {
+        HyperLogLog sketch = new HyperLogLog(precisao);
+        for (long i = de; i < ate; i++) {
+            sketch.adicionar(i);
+        }
+        return sketch;
+    }
+
+    @Test
+    @DisplayName("Estimativa dentro de 3 erros padrão, de poucos a muitos elementos, e repetições não contam")
+    void testEstimativa() {
+        HyperLogLog poucos = com(12, 0, 50);
+        poucos.adicionar(7);
+        poucos.adicionar(7);
+        assertEquals(50, poucos.estimar(), 2);
+
+        HyperLogLog muitos = com(12, 0, 200_000);
+        double erro = Math.abs(muitos.estimar() - 200_000) / 200_000.0;
+        assertTrue(erro < 3 * HyperLogLog.erroPadrao(12), "erro relativo " + erro);
+    }
+
+    @Test
+    @DisplayName("Fusão é a união: elementos em comum contam uma vez")
+    void testFusao() {
+        HyperLogLog segunda = com(12, 0, 30_000);
+        HyperLogLog terca = com(12, 20_000, 50_000);
+        segunda.fundir(terca);
+
+        double erro = Math.abs(segunda.estimar() - 50_000) / 50_000.0;
+        assertTrue(erro < 3 * HyperLogLog.erroPadrao(12), "erro relativo " + erro);
+    }
+
+    @Test
+    @DisplayName("Reduzir a precisão dá o mesmo sketch que teria sido montado direto na precisão menor")
+    void testReducao() {
+        HyperLogLog reduzido = com(14, 0, 10_000).reduzir(10);
+        HyperLogLog direto = com(10, 0, 10_000);
+
+        assertEquals(10, reduzido.precisao());
+        assertArrayEquals(direto.serializar(), reduzido.serializar());
+
+        HyperLogLog menor = com(10, 0, 100);
+        menor.fundir(com(14, 100, 200));
+        assertEquals(direto.precisao(), menor.precisao());
+        assertThrows(IllegalArgumentException.class, () -> direto.reduzir(12));
+    }
+
+    @Test
+    @DisplayName("Serialização esparsa para poucos clientes e densa para muitos, com ida e volta exata")
+    void testSerializacao() {
+        HyperLogLog poucos = com(12, 0, 20);
+        byte[] esparso = poucos.serializar();
+        assertEquals(2 + 3 * 20, esparso.length, 3 * 2); // colisões de registrador reduzem o tamanho
+        assertArrayEquals(esparso, HyperLogLog.desserializar(esparso).serializar());
+
+        HyperLogLog muitos = com(12, 0, 100_000);
+        byte[] denso = muitos.serializar();
+        assertEquals(2 + 4096, denso.length);
+        assertEquals(muitos.estimar(), HyperLogLog.desserializar(denso).estimar());
+    }
+
+    @Test
+    @DisplayName("Precisão escolhida pelo erro padrão alvo")
+    void testPrecisaoPara() {
+        assertEquals(12, HyperLogLog.precisaoPara(0.02));
+        assertEquals(14, HyperLogLog.precisaoPara(0.01));
+        assertEquals(HyperLogLog.PRECISAO_MINIMA, HyperLogLog.precisaoPara(0.5));
+        assertEquals(HyperLogLog.PRECISAO_MAXIMA, HyperLogLog.precisaoPara(0.001));
+        assertTrue(HyperLogLog.erroPadrao(12) <= 0.02);
+    }
+}
@@ -0,0 +1,128 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.services.AvaliacaoAgregacaoJob;
+import com.deliverytech.delivery_api.services.RestauranteService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AvaliacaoIT extends BaseIntegrationTest {
+
+    @Autowired
+    private AvaliacaoAgregacaoJob avaliacaoAgregacaoJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        // Pedidos do usuário joao@email.com (id 2) no Burger House
+        inserirPedido(200L, "ENTREGUE");
+        inserirPedido(201L, "ENTREGUE");
+        inserirPedido(202L, "PREPARANDO");
+    }
+
+    private void inserirPedido(Long id, String status) {
+        jdbcTemplate.update("INSERT INTO pedidos (id, numero_pedido, data_pedido, status, valor_total, cliente_id, restaurante_id, itens) " +
+                "VALUES (?, ?, CURRENT_TIMESTAMP, ?, 30.00, 2, 2, 'X-Burger')", id, "PED-AVAL-" + id, status);
+    }
+
+    private void avaliar(Long pedidoId, int nota, int statusEsperado) throws Exception {
+        mockMvc.perform(post("/api/pedidos/" + pedidoId + "/avaliacao")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nota\": " + nota + ", \"comentario\": \"ok\"}"))
+                .andExpect(status().is(statusEsperado));
+    }
+
+    @Test
+    @DisplayName("Só pedido entregue pode ser avaliado, uma única vez e com nota de 1 a 5")
+    @WithUserDetails("joao@email.com")
+    void testRegrasDaAvaliacao() throws Exception {
+        mockMvc.perform(post("/api/pedidos/200/avaliacao")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nota\": 5}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.restauranteId").value(2))
+                .andExpect(jsonPath("$.data.nota").value(5));
+
+        avaliar(200L, 4, 409);
+        avaliar(202L, 4, 400); // ainda em preparo
+        avaliar(201L, 6, 400);
+        avaliar(1L, 5, 403);   // pedido de outro cliente
+    }
+
+    @Test
+    @DisplayName("Agregação em lote soma contagem e notas no restaurante e reordena a listagem por avaliação")
+    @WithUserDetails("joao@email.com")
+    void testAgregacaoEmLote() throws Exception {
+        avaliar(200L, 5, 201);
+        avaliar(201L, 2, 201);
+
+        assertEquals(2, avaliacaoAgregacaoJob.agregarPendentes());
+        assertEquals(0, avaliacaoAgregacaoJob.agregarPendentes());
+
+        Map<String, Object> restaurante = jdbcTemplate.queryForMap(
+                "SELECT avaliacao, total_avaliacoes, soma_avaliacoes FROM restaurantes WHERE id = 2");
+        assertEquals(0, new BigDecimal("4.08").compareTo((BigDecimal) restaurante.get("AVALIACAO")));
+        assertEquals(12L, ((Number) restaurante.get("TOTAL_AVALIACOES")).longValue());
+        assertEquals(49L, ((Number) restaurante.get("SOMA_AVALIACOES")).longValue());
+
+        // data.sql: 10 notas semeadas por restaurante (Burger House 42/10). Com 5 e 2: 49/12 = 4.08,
+        // abaixo de Sushi Master 4.8 e Pizzaria Bella 4.5
+        mockMvc.perform(get("/api/restaurantes/melhor-avaliados"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].nome").value("Sushi Master"))
+                .andExpect(jsonPath("$.data.content[1].nome").value("Pizzaria Bella"))
+                .andExpect(jsonPath("$.data.content[2].nome").value("Burger House"));
+    }
+
+    @Test
+    @DisplayName("Salvar um restaurante carregado antes da agregação não sobrescreve a média gravada pelo lote")
+    @WithUserDetails("joao@email.com")
+    void testSalvarRestauranteNaoSobrescreveAgregacao() throws Exception {
+        Restaurante carregado = restauranteRepository.findById(2L).orElseThrow();
+        assertEquals(0, new BigDecimal("4.2").compareTo(carregado.getAvaliacao()));
+
+        avaliar(200L, 5, 201);
+        avaliar(201L, 2, 201);
+        assertEquals(2, avaliacaoAgregacaoJob.agregarPendentes());
+
+        // Mesma instância do contexto de persistência, ainda com a média antiga
+        restauranteService.ativarDesativarRestaurante(2L);
+        entityManager.flush();
+
+        Map<String, Object> restaurante = jdbcTemplate.queryForMap(
+                "SELECT ativo, avaliacao, total_avaliacoes, soma_avaliacoes FROM restaurantes WHERE id = 2");
+        assertEquals(false, restaurante.get("ATIVO"));
+        assertEquals(0, new BigDecimal("4.08").compareTo((BigDecimal) restaurante.get("AVALIACAO")));
+        assertEquals(12L, ((Number) restaurante.get("TOTAL_AVALIACOES")).longValue());
+        assertEquals(49L, ((Number) restaurante.get("SOMA_AVALIACOES")).longValue());
+    }
+}
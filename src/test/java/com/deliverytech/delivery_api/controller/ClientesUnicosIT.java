@@ -0,0 +1,138 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.cardinalidade.CardinalidadeService;
+import com.deliverytech.delivery_api.events.PedidoCriadoEvent;
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ClientesUnicosIT extends BaseIntegrationTest {
+
+    @Autowired
+    private CardinalidadeService cardinalidadeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // O buffer é do singleton: descarregar na transação do teste (desfeita no fim) o esvazia para o próximo
+    @AfterEach
+    void descartarPendentes() {
+        cardinalidadeService.descarregar();
+    }
+
+    private void pedido(long clienteId, long restauranteId, String categoria) {
+        cardinalidadeService.onPedidoCriado(new PedidoCriadoEvent(null, clienteId, restauranteId, categoria, null, Map.of()));
+    }
+
+    // Clientes 1 a 40 pedem duas vezes na Pizzaria Bella
+    private void quarentaClientesRepetidos() {
+        for (long cliente = 1; cliente <= 40; cliente++) {
+            pedido(cliente, 1L, "Italiana");
+            pedido(cliente, 1L, "Italiana");
+        }
+    }
+
+    private int linhasGravadas() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sketches_cardinalidade", Integer.class);
+    }
+
+    // Estimativa: com poucos clientes o erro é de no máximo uma ou duas colisões de registrador
+    private static Matcher<Integer> aproximadamente(int esperado) {
+        return allOf(greaterThanOrEqualTo(esperado - 2), lessThanOrEqualTo(esperado));
+    }
+
+    @Test
+    @DisplayName("Clientes distintos por restaurante saem do sketch diário, sem contar repetidos")
+    @WithUserDetails("admin@delivery.com")
+    void testClientesDistintosPorRestaurante() throws Exception {
+        quarentaClientesRepetidos();
+        // Um sketch por restaurante e um por categoria
+        assertEquals(2, cardinalidadeService.descarregar());
+        assertEquals(2, linhasGravadas());
+
+        mockMvc.perform(get("/api/relatorios/clientes-unicos/restaurantes/1?confianca=0.99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.dimensao").value("RESTAURANTE"))
+                .andExpect(jsonPath("$.data.clientesUnicos", aproximadamente(40)))
+                .andExpect(jsonPath("$.data.confianca").value(0.99));
+    }
+
+    @Test
+    @DisplayName("Clientes distintos por categoria ignoram os de outras categorias")
+    @WithUserDetails("admin@delivery.com")
+    void testClientesDistintosPorCategoria() throws Exception {
+        quarentaClientesRepetidos();
+        for (long cliente = 31; cliente <= 60; cliente++) {
+            pedido(cliente, 2L, "Lanches");
+        }
+        cardinalidadeService.descarregar();
+
+        mockMvc.perform(get("/api/relatorios/clientes-unicos/categorias/Lanches"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.dimensao").value("CATEGORIA"))
+                .andExpect(jsonPath("$.data.clientesUnicos", aproximadamente(30)));
+    }
+
+    @Test
+    @DisplayName("O que a instância ainda não descarregou já entra nas contagens dela")
+    @WithUserDetails("admin@delivery.com")
+    void testPendentesAntesDaDescarga() throws Exception {
+        quarentaClientesRepetidos();
+
+        mockMvc.perform(get("/api/relatorios/clientes-unicos/restaurantes/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.clientesUnicos", aproximadamente(40)));
+        assertEquals(0, linhasGravadas());
+    }
+
+    @Test
+    @DisplayName("Nova descarga do mesmo dia funde com a linha existente em vez de criar outra")
+    @WithUserDetails("admin@delivery.com")
+    void testDescargaFundeComLinhaDoDia() throws Exception {
+        quarentaClientesRepetidos();
+        cardinalidadeService.descarregar();
+
+        pedido(41L, 1L, "Italiana");
+        pedido(1L, 1L, "Italiana"); // já contado na primeira descarga
+        assertEquals(2, cardinalidadeService.descarregar());
+        assertEquals(2, linhasGravadas());
+
+        mockMvc.perform(get("/api/relatorios/clientes-unicos/restaurantes/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.clientesUnicos", aproximadamente(41)));
+    }
+
+    @Test
+    @DisplayName("Confiança fora da lista é rejeitada com 400")
+    @WithUserDetails("admin@delivery.com")
+    void testConfiancaInvalida() throws Exception {
+        mockMvc.perform(get("/api/relatorios/clientes-unicos/restaurantes/1?confianca=0.5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Período invertido ou maior que cardinalidade.max-dias é rejeitado com 400")
+    @WithUserDetails("admin@delivery.com")
+    void testPeriodoInvalido() throws Exception {
+        mockMvc.perform(get("/api/relatorios/clientes-unicos/restaurantes/1?inicio=2025-06-02&fim=2025-06-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Data inicial deve ser anterior ou igual à data final"));
+        mockMvc.perform(get("/api/relatorios/clientes-unicos/restaurantes/1?inicio=2024-01-01&fim=2025-06-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,129 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.despacho.DespachoService;
+import com.deliverytech.delivery_api.dto.LotePosicoesDTO;
+import com.deliverytech.delivery_api.dto.PosicaoEntregadorDTO;
+import com.deliverytech.delivery_api.entity.Usuario;
+import com.deliverytech.delivery_api.enums.Role;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.UsuarioRepository;
+import com.deliverytech.delivery_api.security.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class EntregadorControllerIT extends BaseIntegrationTest {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DespachoService despachoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token(String email) {
+        return "Bearer " + jwtUtil.generateToken(usuarioRepository.findByEmail(email).orElseThrow());
+    }
+
+    private String posicao(double lat, double lon) throws Exception {
+        return objectMapper.writeValueAsString(new PosicaoEntregadorDTO(lat, lon, true));
+    }
+
+    @Test
+    @DisplayName("Posição é aceita só com as claims do token, sem carregar o usuário do banco")
+    void testPosicaoSemConsultaAoBanco() throws Exception {
+        // Usuário que não existe no banco: basta o token assinado
+        Usuario fantasma = new Usuario();
+        fantasma.setId(999L);
+        fantasma.setEmail("fantasma@entrega.com");
+        fantasma.setRole(Role.ENTREGADOR);
+        mockMvc.perform(put("/api/entregadores/posicao")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(fantasma))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(posicao(-23.56, -46.65)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(put("/api/entregadores/posicao")
+                        .header("Authorization", token("joao@email.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(posicao(-23.56, -46.65)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(put("/api/entregadores/posicao")
+                        .header("Authorization", token("carlos@entrega.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(posicao(-123.0, -46.65)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Pedido PREPARANDO é despachado ao entregador próximo, coletado e entregue")
+    void testFluxoDaViagem() throws Exception {
+        String carlos = token("carlos@entrega.com");
+        jdbcTemplate.update("UPDATE pedidos SET status = 'PREPARANDO' WHERE id = 1");
+        despachoService.aquecer();
+
+        mockMvc.perform(get("/api/entregadores/viagem").header("Authorization", carlos))
+                .andExpect(status().isNoContent());
+
+        // Perto da Pizzaria Bella (restaurante 1)
+        mockMvc.perform(put("/api/entregadores/posicao")
+                        .header("Authorization", carlos)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(posicao(-23.5620, -46.6570)))
+                .andExpect(status().isNoContent());
+        assertEquals(1, despachoService.despachar());
+
+        mockMvc.perform(get("/api/entregadores/viagem").header("Authorization", carlos))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.restauranteId").value(1))
+                .andExpect(jsonPath("$.data.pedidos[0]").value(1))
+                .andExpect(jsonPath("$.data.coletada").value(false));
+
+        // Rastreamento lido da memória: restaurante do pedido vê a trilha, outro cliente não
+        long agora = System.currentTimeMillis();
+        LotePosicoesDTO lote = new LotePosicoesDTO(new double[]{-23.5618, -23.5616, -23.5615},
+                new double[]{-46.6568, -46.6566, -46.6565}, new long[]{agora, agora + 100, agora + 200}, true);
+        mockMvc.perform(post("/api/entregadores/posicoes")
+                        .header("Authorization", carlos)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/pedidos/1/rastreamento").header("Authorization", token("pizza@palace.com")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.coletado").value(false))
+                .andExpect(jsonPath("$.data.posicaoAtual.latitude").value(-23.5615))
+                .andExpect(jsonPath("$.data.trilha.length()").value(4));
+        mockMvc.perform(get("/api/pedidos/1/rastreamento").header("Authorization", token("joao@email.com")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/pedidos/2/rastreamento").header("Authorization", token("admin@delivery.com")))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/entregadores/viagem/coleta").header("Authorization", carlos))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.coletada").value(true));
+        assertEquals("SAIU_PARA_ENTREGA", pedidoRepository.findById(1L).orElseThrow().getStatus());
+
+        mockMvc.perform(post("/api/entregadores/viagem/conclusao").header("Authorization", carlos))
+                .andExpect(status().isNoContent());
+        assertEquals("ENTREGUE", pedidoRepository.findById(1L).orElseThrow().getStatus());
+
+        mockMvc.perform(get("/api/entregadores/viagem").header("Authorization", carlos))
+                .andExpect(status().isNoContent());
+    }
+}
@@ -0,0 +1,108 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.dto.reports.RelatorioRankingClienteDTO;
+import com.deliverytech.delivery_api.dto.reports.RelatorioVendasRestauranteDTO;
+import com.deliverytech.delivery_api.enums.StatusPedido;
+import com.deliverytech.delivery_api.services.PedidoArquivamentoJob;
+import com.deliverytech.delivery_api.services.RelatorioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PedidoArquivamentoIT extends BaseIntegrationTest {
+
+    @Autowired
+    private PedidoArquivamentoJob pedidoArquivamentoJob;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        inserirPedido(100L, "PED-ANTIGO-ENT", LocalDateTime.now().minusDays(200), "ENTREGUE");
+        inserirPedido(101L, "PED-ANTIGO-PEN", LocalDateTime.now().minusDays(200), "PENDENTE");
+        inserirPedido(102L, "PED-RECENTE-CAN", LocalDateTime.now().minusDays(10), "CANCELADO");
+    }
+
+    private void inserirPedido(Long id, String numero, LocalDateTime data, String status) {
+        jdbcTemplate.update("INSERT INTO pedidos (id, numero_pedido, data_pedido, status, valor_total, cliente_id, restaurante_id, itens) " +
+                "VALUES (?, ?, ?, ?, 50.00, 1, 1, 'Pizza')", id, numero, Timestamp.valueOf(data), status);
+    }
+
+    private long contar(String tabela, Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabela + " WHERE id = ?", Long.class, id);
+    }
+
+    @Test
+    @DisplayName("Apenas pedidos finalizados além da retenção saem da tabela ativa")
+    void testArquivaSomenteFinalizadosAntigos() {
+        assertEquals(1, pedidoArquivamentoJob.arquivarPendentes());
+
+        assertEquals(0, contar("pedidos", 100L));
+        assertEquals(1, contar("pedidos_arquivo", 100L));
+        assertEquals(1, contar("pedidos", 101L)); // antigo, mas ainda em aberto
+        assertEquals(1, contar("pedidos", 102L)); // finalizado, mas dentro da retenção
+        assertEquals(0, pedidoArquivamentoJob.arquivarPendentes());
+    }
+
+    @Test
+    @DisplayName("Busca por id e histórico do cliente caem no arquivo de forma transparente")
+    @WithUserDetails("admin@delivery.com")
+    void testLeituraComFallbackParaArquivo() throws Exception {
+        pedidoArquivamentoJob.arquivarPendentes();
+
+        mockMvc.perform(get("/api/pedidos/100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.numeroPedido").value("PED-ANTIGO-ENT"))
+                .andExpect(jsonPath("$.data.status").value("ENTREGUE"));
+
+        // Cliente 1: pedido 1 (data.sql), 101 e 102 ativos + 100 arquivado, que vem por último
+        mockMvc.perform(get("/api/pedidos/cliente/1").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(4))
+                .andExpect(jsonPath("$.data.content.length()").value(3));
+
+        mockMvc.perform(get("/api/pedidos/cliente/1").param("size", "3").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].numeroPedido").value("PED-ANTIGO-ENT"));
+
+        mockMvc.perform(patch("/api/pedidos/100/status").param("status", StatusPedido.CONFIRMADO.name()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Relatórios de vendas e de clientes continuam contando os pedidos arquivados")
+    void testRelatoriosIncluemArquivados() {
+        assertEquals(1, pedidoArquivamentoJob.arquivarPendentes());
+
+        // Pizzaria Bella: pedido 1 (54,80) + 101 e 102 ativos + 100 arquivado, 50,00 cada
+        RelatorioVendasRestauranteDTO vendas = relatorioService.vendasPorRestaurante().stream()
+                .filter(v -> v.restauranteNome().equals("Pizzaria Bella"))
+                .findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("204.80").compareTo(vendas.totalVendas()));
+
+        RelatorioRankingClienteDTO primeiro = relatorioService.clientesMaisAtivos().get(0);
+        assertEquals(4L, primeiro.totalPedidos());
+
+        // O ranking de produtos lê os itens das duas tabelas
+        jdbcTemplate.update("UPDATE pedidos_arquivo SET itens = 'Temaki Atum' WHERE id = 100");
+        assertEquals(2L, relatorioService.produtosMaisVendidos(1).get(0).quantidadeVendida());
+    }
+}
@@ -1,6 +1,7 @@
 package com.deliverytech.delivery_api.controller;
 
 import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.cache.EtagCache;
 import com.deliverytech.delivery_api.dto.ItemPedidoDTO;
 import com.deliverytech.delivery_api.dto.PedidoRequestDTO;
 import com.deliverytech.delivery_api.entity.Produto;
@@ -9,11 +10,17 @@ import com.deliverytech.delivery_api.repository.ProdutoRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.test.context.support.WithUserDetails;
 
 import java.util.List;
 
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -22,6 +29,9 @@ class PedidoControllerIT extends BaseIntegrationTest {
     @Autowired
     private ProdutoRepository produtoRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Test
     @DisplayName("Deve criar pedido completo com sucesso (201 Created)")
     // Simula um cliente logado (ID 1 do data.sql é o João Silva, email: joao@email.com)
@@ -45,6 +55,27 @@ class PedidoControllerIT extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.data.status").value("PENDENTE"));
     }
 
+    @Test
+    @DisplayName("Deve retornar 400 se o restaurante estiver fora do horário de funcionamento")
+    @WithMockUser(username = "joao@email.com", roles = {"CLIENTE"})
+    void testCriarPedido_RestauranteFechado() throws Exception {
+        // Restaurante 3 (Sushi Master) está fechado todos os dias no data.sql
+        ItemPedidoDTO item = new ItemPedidoDTO();
+        item.setProdutoId(7L);
+        item.setQuantidade(1);
+
+        PedidoRequestDTO request = new PedidoRequestDTO();
+        request.setClienteId(1L);
+        request.setRestauranteId(3L);
+        request.setItens(List.of(item));
+
+        mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Restaurante fechado no momento"));
+    }
+
     @Test
     @DisplayName("Deve retornar 400 se produto não pertencer ao restaurante")
     @WithMockUser(username = "joao@email.com", roles = {"CLIENTE"})
@@ -117,4 +148,58 @@ class PedidoControllerIT extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.data.content").isArray())
                 .andExpect(jsonPath("$.data.totalElements").isNotEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Fila da cozinha traz os pedidos em aberto do restaurante logado, aquecidos na subida")
+    @WithUserDetails("pizza@palace.com") // Usuário RESTAURANTE do restaurante 1
+    void testFilaCozinha() throws Exception {
+        // Pedido 1 (data.sql) é PENDENTE no restaurante 1; o pedido 2 é de outro restaurante
+        mockMvc.perform(get("/api/pedidos/cozinha"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.restauranteId").value(1))
+                .andExpect(jsonPath("$.data.pedidos[?(@.pedidoId == 1)].status").value("PENDENTE"))
+                .andExpect(jsonPath("$.data.pedidos[?(@.pedidoId == 2)]").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Restaurante só vê e altera os próprios pedidos")
+    @WithUserDetails("pizza@palace.com") // Usuário RESTAURANTE do restaurante 1
+    void testIsolamentoPedidosPorRestaurante() throws Exception {
+        // Pedido 1 é do restaurante 1; pedido 2, do restaurante 2
+        mockMvc.perform(get("/api/pedidos/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(1));
+        mockMvc.perform(get("/api/pedidos/2"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(patch("/api/pedidos/2/status").param("status", StatusPedido.PREPARANDO.name()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/pedidos/restaurante/2"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(patch("/api/pedidos/1/status").param("status", StatusPedido.CONFIRMADO.name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("CONFIRMADO"));
+    }
+
+    @Test
+    @DisplayName("ETag do pedido sai do corpo atual (previsão de entrega inclusa), sem ETag guardado")
+    @WithMockUser(roles = "ADMIN")
+    void testEtagPedidoCalculadoDoCorpo() throws Exception {
+        String etag = mockMvc.perform(get("/api/pedidos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/pedidos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertNull(cacheManager.getCache(EtagCache.CACHE).get("pedido:1"));
+
+        // Corpo diferente, ETag diferente: não depende de nenhum @CacheEvict
+        mockMvc.perform(patch("/api/pedidos/1/status").param("status", StatusPedido.CONFIRMADO.name()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/pedidos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+}
@@ -0,0 +1,126 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.events.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.events.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.quantis.QuantisService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithUserDetails;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PercentisIT extends BaseIntegrationTest {
+
+    @Autowired
+    private QuantisService quantisService;
+
+    // O buffer é do singleton: descarregar na transação do teste (desfeita no fim) o esvazia para o próximo
+    @AfterEach
+    void descartarPendentes() {
+        quantisService.descarregar();
+    }
+
+    // Pedidos de R$ 1,00 a R$ 100,00 no Burger House
+    private void pedidosDeUmACem() {
+        for (int i = 1; i <= 100; i++) {
+            quantisService.onPedidoCriado(new PedidoCriadoEvent(null, 2L, 2L, "Lanches", BigDecimal.valueOf(i), Map.of()));
+        }
+    }
+
+    private void statusAlterado(String status, LocalDateTime dataPedido) {
+        quantisService.onPedidoStatusAlterado(new PedidoStatusAlteradoEvent(null, 2L, 2L, status,
+                null, dataPedido, null, null));
+    }
+
+    @Test
+    @DisplayName("Percentis do valor do pedido saem do histograma diário gravado na descarga")
+    @WithUserDetails("admin@delivery.com")
+    void testValorPedido() throws Exception {
+        pedidosDeUmACem();
+        assertEquals(1, quantisService.descarregar());
+
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/2/valor-pedido"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.unidade").value("BRL"))
+                .andExpect(jsonPath("$.data.quantidade").value(100))
+                .andExpect(jsonPath("$.data.minimo").value(1.0))
+                .andExpect(jsonPath("$.data.maximo").value(100.0))
+                .andExpect(jsonPath("$.data.media").value(50.5))
+                .andExpect(jsonPath("$.data.percentis.p50", closeTo(50.0, 0.5)))
+                .andExpect(jsonPath("$.data.percentis.p95", closeTo(95.0, 0.95)))
+                .andExpect(jsonPath("$.data.percentis.p99", closeTo(99.0, 0.99)));
+    }
+
+    @Test
+    @DisplayName("Tempo de entrega conta só as transições para ENTREGUE")
+    @WithUserDetails("admin@delivery.com")
+    void testTempoEntrega() throws Exception {
+        // 20 pedidos entregues entre 21 e 40 minutos depois de criados
+        LocalDateTime agora = LocalDateTime.now();
+        for (int minutos = 21; minutos <= 40; minutos++) {
+            statusAlterado("ENTREGUE", agora.minusMinutes(minutos));
+        }
+        statusAlterado("PREPARANDO", agora.minusMinutes(90));
+        assertEquals(1, quantisService.descarregar());
+
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/2/tempo-entrega?percentis=50,90"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.unidade").value("minutos"))
+                .andExpect(jsonPath("$.data.quantidade").value(20))
+                .andExpect(jsonPath("$.data.percentis.p50", closeTo(30.0, 0.5)))
+                .andExpect(jsonPath("$.data.percentis.p90", closeTo(38.0, 0.5)));
+    }
+
+    @Test
+    @DisplayName("O que a instância ainda não descarregou já entra nos percentis dela")
+    @WithUserDetails("admin@delivery.com")
+    void testPendentesAntesDaDescarga() throws Exception {
+        pedidosDeUmACem();
+
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/2/valor-pedido"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quantidade").value(100))
+                .andExpect(jsonPath("$.data.percentis.p50", closeTo(50.0, 0.5)));
+    }
+
+    @Test
+    @DisplayName("Restaurante sem pedidos no período devolve histograma vazio, sem erro")
+    @WithUserDetails("admin@delivery.com")
+    void testRestauranteSemPedidos() throws Exception {
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/1/valor-pedido"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quantidade").value(0));
+    }
+
+    @Test
+    @DisplayName("Percentil fora de (0, 100] é rejeitado com 400")
+    @WithUserDetails("admin@delivery.com")
+    void testPercentilInvalido() throws Exception {
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/2/valor-pedido?percentis=0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/2/valor-pedido?percentis=100.5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Período invertido ou maior que quantis.max-dias é rejeitado com 400")
+    @WithUserDetails("admin@delivery.com")
+    void testPeriodoInvalido() throws Exception {
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/2/valor-pedido?inicio=2025-06-02&fim=2025-06-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/2/valor-pedido?inicio=2024-01-01&fim=2025-06-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Período máximo para o relatório é de 366 dias"));
+    }
+}
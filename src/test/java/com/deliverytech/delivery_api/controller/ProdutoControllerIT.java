@@ -1,15 +1,22 @@
 package com.deliverytech.delivery_api.controller;
 
 import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.cache.EtagCache;
 import com.deliverytech.delivery_api.dto.ProdutoRequestDTO;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser; // Importação Necessária
+import org.springframework.security.test.context.support.WithUserDetails;
 
 import java.math.BigDecimal;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -18,6 +25,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 public class ProdutoControllerIT extends BaseIntegrationTest {
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Test
     @DisplayName("Cenário 4.1: Deve criar, buscar, atualizar e deletar um produto (CRUD)")
     @WithMockUser(roles = "ADMIN") // <--- ADICIONADO: Simula um ADMIN logado
@@ -73,4 +83,99 @@ public class ProdutoControllerIT extends BaseIntegrationTest {
         mockMvc.perform(get("/api/produtos/" + produtoId))
                 .andExpect(status().isNotFound()); // 4.2: Valida 404
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET por ID deve devolver ETag, responder 304 sem mudança e novo ETag após atualização")
+    @WithMockUser(roles = "ADMIN")
+    void testProdutoETag() throws Exception {
+        ProdutoRequestDTO dto = new ProdutoRequestDTO();
+        dto.setNome("Chá Gelado Teste");
+        dto.setPreco(new BigDecimal("7.00"));
+        dto.setCategoria("Bebida");
+        dto.setRestauranteId(2L);
+
+        String responseJson = mockMvc.perform(post("/api/produtos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer produtoId = com.jayway.jsonpath.JsonPath.read(responseJson, "$.data.id");
+
+        String etag = mockMvc.perform(get("/api/produtos/" + produtoId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/produtos/" + produtoId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        dto.setPreco(new BigDecimal("8.00"));
+        mockMvc.perform(put("/api/produtos/" + produtoId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/produtos/" + produtoId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.preco").value(8.00));
+
+        mockMvc.perform(delete("/api/produtos/" + produtoId))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("ETag guardado desatualizado não acompanha um corpo novo: é recalculado e corrigido")
+    @WithMockUser(roles = "ADMIN")
+    void testEtagGuardadoDesatualizado() throws Exception {
+        String etag = mockMvc.perform(get("/api/produtos/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Simula um ETag antigo que ficou no cache (ex.: alteração que não passou por @CacheEvict)
+        cacheManager.getCache(EtagCache.CACHE).put("produto:1", "\"antigo\"");
+
+        mockMvc.perform(get("/api/produtos/1").header(HttpHeaders.IF_NONE_MATCH, "\"outro\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        assertEquals(etag, cacheManager.getCache(EtagCache.CACHE).get("produto:1", String.class));
+    }
+
+    @Test
+    @DisplayName("Restaurante só altera o próprio cardápio: produtos de outro restaurante dão 403")
+    @WithUserDetails("pizza@palace.com") // Usuário RESTAURANTE do restaurante 1
+    void testIsolamentoPorRestaurante() throws Exception {
+        ProdutoRequestDTO dto = new ProdutoRequestDTO();
+        dto.setNome("X-Burger Pirata");
+        dto.setPreco(new BigDecimal("1.00"));
+        dto.setCategoria("Hambúrguer");
+        dto.setRestauranteId(2L);
+
+        // Produto 4 é do Burger House (restaurante 2)
+        mockMvc.perform(put("/api/produtos/4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(patch("/api/produtos/4/disponibilidade").param("disponivel", "false"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/produtos/5"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/produtos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isForbidden());
+
+        // Mover um produto próprio para outro restaurante também é negado
+        dto.setNome("Pizza Margherita");
+        mockMvc.perform(put("/api/produtos/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(patch("/api/produtos/1/disponibilidade").param("disponivel", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.disponivel").value(false));
+        mockMvc.perform(delete("/api/produtos/999"))
+                .andExpect(status().isNotFound());
+    }
+}
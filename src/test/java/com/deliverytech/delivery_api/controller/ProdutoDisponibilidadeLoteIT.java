@@ -0,0 +1,101 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Disponibilidade em lote (PATCH /api/produtos/disponibilidade).
+ */
+public class ProdutoDisponibilidadeLoteIT extends BaseIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private boolean disponivel(long produtoId) {
+        return jdbcTemplate.queryForObject("SELECT disponivel FROM produtos WHERE id = ?", Boolean.class, produtoId);
+    }
+
+    @Test
+    @DisplayName("Deve alterar só os produtos do restaurante informado e devolver os demais como ignorados")
+    @WithMockUser(roles = "ADMIN")
+    void deveAlterarPorIds() throws Exception {
+        String json = "{\"restauranteId\": 1, \"produtoIds\": [1, 2, 4, 999], \"disponivel\": false}";
+
+        mockMvc.perform(patch("/api/produtos/disponibilidade")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.atualizados").value(2))
+                .andExpect(jsonPath("$.data.ignorados[0]").value(4))
+                .andExpect(jsonPath("$.data.ignorados[1]").value(999));
+
+        assertEquals(false, disponivel(1));
+        assertEquals(false, disponivel(2));
+        assertEquals(true, disponivel(3));
+        assertEquals(true, disponivel(4)); // produto do restaurante 2 não é tocado
+    }
+
+    @Test
+    @DisplayName("Deve alterar uma categoria inteira do restaurante")
+    @WithMockUser(roles = "ADMIN")
+    void deveAlterarPorCategoria() throws Exception {
+        String json = "{\"restauranteId\": 1, \"categoria\": \"Pizza\", \"disponivel\": false}";
+
+        mockMvc.perform(patch("/api/produtos/disponibilidade")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.atualizados").value(2));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM produtos WHERE restaurante_id = 1 AND categoria = 'Pizza' AND disponivel = true", Integer.class));
+        assertEquals(true, disponivel(3));
+    }
+
+    @Test
+    @DisplayName("Deve exigir IDs ou categoria e negar restaurante de outro dono")
+    void deveValidarFiltroEPermissao() throws Exception {
+        mockMvc.perform(patch("/api/produtos/disponibilidade")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"restauranteId\": 1, \"produtoIds\": [1], \"categoria\": \"Pizza\", \"disponivel\": false}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/produtos/disponibilidade")
+                        .with(user("dono").roles("RESTAURANTE"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"restauranteId\": 1, \"categoria\": \"Pizza\", \"disponivel\": false}"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(true, disponivel(1));
+    }
+
+    @Test
+    @DisplayName("Deve responder 404 quando nenhuma linha muda porque o restaurante não existe")
+    @WithMockUser(roles = "ADMIN")
+    void deveRejeitarRestauranteInexistente() throws Exception {
+        mockMvc.perform(patch("/api/produtos/disponibilidade")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"restauranteId\": 999, \"produtoIds\": [1], \"disponivel\": false}"))
+                .andExpect(status().isNotFound());
+
+        // Restaurante existente sem produtos na categoria: nada muda, sem erro
+        mockMvc.perform(patch("/api/produtos/disponibilidade")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"restauranteId\": 1, \"categoria\": \"Sobremesa\", \"disponivel\": false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.atualizados").value(0));
+        assertEquals(true, disponivel(1));
+    }
+}
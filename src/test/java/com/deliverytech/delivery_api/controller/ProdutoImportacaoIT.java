@@ -0,0 +1,114 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Importação em lote do cardápio (POST /api/produtos/importacao).
+ */
+public class ProdutoImportacaoIT extends BaseIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Deve importar JSON gravando as linhas válidas e retornando erros por linha")
+    @WithMockUser(roles = "ADMIN")
+    void deveImportarJsonComErrosPorLinha() throws Exception {
+        String json = """
+                [
+                  {"nome": "Pizza Importada", "descricao": "Pizza vinda da importação", "preco": 40.00, "categoria": "Pizza"},
+                  {"nome": "Suco Importado", "preco": 9.90, "categoria": "Bebida"},
+                  {"nome": "Preço Zerado", "preco": 0, "categoria": "Bebida"},
+                  {"nome": "pizza importada", "preco": 41.00, "categoria": "Pizza"},
+                  {"nome": "Preço Texto", "preco": "abc", "categoria": "Bebida"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/produtos/importacao").param("restauranteId", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalLinhas").value(5))
+                .andExpect(jsonPath("$.data.importados").value(2))
+                .andExpect(jsonPath("$.data.rejeitados").value(3))
+                .andExpect(jsonPath("$.data.erros[*].linha").value(containsInAnyOrder(3, 4, 5)));
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM produtos WHERE restaurante_id = 1 AND nome LIKE '%Importad%'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Deve importar CSV com campos entre aspas")
+    @WithMockUser(roles = "ADMIN")
+    void deveImportarCsv() throws Exception {
+        String csv = "nome,descricao,preco,categoria\n"
+                + "\"Combo Família\",\"Pizza grande, refrigerante e \"\"sobremesa\"\"\",89.90,Combo\n"
+                + "Água,,3.50,Bebida\n"
+                + "Sem Preço,,,Bebida\n";
+
+        mockMvc.perform(post("/api/produtos/importacao").param("restauranteId", "2")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.importados").value(2))
+                .andExpect(jsonPath("$.data.rejeitados").value(1))
+                .andExpect(jsonPath("$.data.erros[0].linha").value(4))
+                .andExpect(jsonPath("$.data.erros[0].campo").value("preco"));
+
+        assertEquals("Pizza grande, refrigerante e \"sobremesa\"", jdbcTemplate.queryForObject(
+                "SELECT descricao FROM produtos WHERE restaurante_id = 2 AND nome = 'Combo Família'", String.class));
+    }
+
+    @Test
+    @DisplayName("CSV com quebra de linha dentro de aspas e nome já cadastrado no cardápio")
+    @WithMockUser(roles = "ADMIN")
+    void deveImportarCsvMultilinhaERejeitarExistentes() throws Exception {
+        String csv = "nome;descricao;preco;categoria\n"
+                + "Combo Duplo;\"Dois X-Burger\nmais batata\";39,90;Combo\n"
+                + "x-burger;Já existe no Burger House;18,90;Hambúrguer\n"
+                + "Refrigerante;;6,00;Bebida\n";
+
+        mockMvc.perform(post("/api/produtos/importacao").param("restauranteId", "2")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalLinhas").value(3))
+                .andExpect(jsonPath("$.data.importados").value(2))
+                .andExpect(jsonPath("$.data.erros[0].linha").value(4)) // o registro anterior ocupa as linhas 2 e 3
+                .andExpect(jsonPath("$.data.erros[0].campo").value("nome"));
+
+        assertEquals("Dois X-Burger\nmais batata", jdbcTemplate.queryForObject(
+                "SELECT descricao FROM produtos WHERE restaurante_id = 2 AND nome = 'Combo Duplo'", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM produtos WHERE restaurante_id = 2 AND LOWER(nome) = 'x-burger'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 para restaurante inexistente e 403 para restaurante de outro dono")
+    void deveValidarRestauranteEPermissao() throws Exception {
+        mockMvc.perform(post("/api/produtos/importacao").param("restauranteId", "999")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/produtos/importacao").param("restauranteId", "1")
+                        .with(user("dono").roles("RESTAURANTE"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,95 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.cardinalidade.CardinalidadeService;
+import com.deliverytech.delivery_api.dto.ItemPedidoDTO;
+import com.deliverytech.delivery_api.dto.PedidoRequestDTO;
+import com.deliverytech.delivery_api.quantis.QuantisService;
+import com.deliverytech.delivery_api.repository.UsuarioRepository;
+import com.deliverytech.delivery_api.security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Relatórios de sketches alimentados pelo fluxo real do pedido: os listeners são AFTER_COMMIT, então aqui
+ * cada requisição confirma a própria transação (sem o rollback da BaseIntegrationTest).
+ */
+// Banco próprio: os pedidos deste teste são confirmados e não podem aparecer no testdb dos demais
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:relatoriosfluxo;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+class RelatoriosSketchesFluxoPedidoIT extends BaseIntegrationTest {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private QuantisService quantisService;
+
+    @Autowired
+    private CardinalidadeService cardinalidadeService;
+
+    private String token(String email) {
+        return "Bearer " + jwtUtil.generateToken(usuarioRepository.findByEmail(email).orElseThrow());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Pedido criado e entregue pela API aparece nos percentis e nos clientes únicos depois da descarga")
+    void testPedidoCriadoEEntregue() throws Exception {
+        ItemPedidoDTO item1 = new ItemPedidoDTO(); item1.setProdutoId(1L); item1.setQuantidade(1);
+        ItemPedidoDTO item2 = new ItemPedidoDTO(); item2.setProdutoId(2L); item2.setQuantidade(1);
+        PedidoRequestDTO request = new PedidoRequestDTO();
+        request.setClienteId(1L);
+        request.setRestauranteId(1L);
+        request.setItens(List.of(item1, item2));
+
+        String criado = mockMvc.perform(post("/api/pedidos")
+                        .header("Authorization", token("joao@email.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode pedido = objectMapper.readTree(criado).path("data");
+        long id = pedido.path("id").asLong();
+
+        String admin = token("admin@delivery.com");
+        for (String status : List.of("CONFIRMADO", "PREPARANDO", "SAIU_PARA_ENTREGA", "ENTREGUE")) {
+            mockMvc.perform(patch("/api/pedidos/{id}/status", id).param("status", status)
+                            .header("Authorization", admin))
+                    .andExpect(status().isOk());
+        }
+
+        // Valor e tempo de entrega do restaurante 1; restaurante 1 e categoria Italiana
+        assertEquals(2, quantisService.descarregar());
+        assertEquals(2, cardinalidadeService.descarregar());
+
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/1/valor-pedido").header("Authorization", admin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quantidade").value(1))
+                .andExpect(jsonPath("$.data.percentis.p50", closeTo(pedido.path("valorTotal").asDouble(), 0.8)));
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/1/tempo-entrega").header("Authorization", admin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quantidade").value(1));
+        mockMvc.perform(get("/api/relatorios/clientes-unicos/restaurantes/1").header("Authorization", admin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.clientesUnicos").value(1));
+        mockMvc.perform(get("/api/relatorios/clientes-unicos/categorias/Italiana").header("Authorization", admin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.clientesUnicos").value(1));
+    }
+}
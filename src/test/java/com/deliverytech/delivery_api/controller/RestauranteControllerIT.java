@@ -1,10 +1,26 @@
 package com.deliverytech.delivery_api.controller;
 
 import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.events.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.popularidade.PopularidadeService;
+import com.deliverytech.delivery_api.services.CardapioSnapshotService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -13,6 +29,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 public class RestauranteControllerIT extends BaseIntegrationTest {
 
+    @Autowired
+    private CardapioSnapshotService cardapioSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PopularidadeService popularidadeService;
+
     @Test
     @DisplayName("Cenário 4.1: Deve listar restaurantes com filtro e paginação")
     void testListarRestaurantes_FilterAndPagination() throws Exception {
@@ -43,4 +68,116 @@ public class RestauranteControllerIT extends BaseIntegrationTest {
                 // Valida o conteúdo e a ordenação (Batata Frita vem antes de X-Bacon)
                 .andExpect(jsonPath("$.data.content[0].nome").value("Batata Frita"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Sem paginação deve servir o cardápio completo do snapshot, com ETag e 304")
+    void testCardapioSnapshot_ETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/restaurantes/3/produtos"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.totalElements").value(3))
+                .andExpect(jsonPath("$.data.content.length()").value(3))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/restaurantes/3/produtos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/restaurantes/999/produtos"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Reconstruir o snapshot após uma alteração deve gerar novo ETag")
+    void testCardapioSnapshot_Reconstrucao() throws Exception {
+        String etag = cardapioSnapshotService.obter(3L).etag();
+
+        jdbcTemplate.update("UPDATE produtos SET disponivel = false WHERE id = 9");
+        String novoEtag = cardapioSnapshotService.reconstruir(3L).etag();
+        assertNotEquals(etag, novoEtag);
+
+        mockMvc.perform(get("/api/restaurantes/3/produtos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(2));
+
+        // Volta o dado e o snapshot, já que o rollback do teste não passa pelo snapshot
+        jdbcTemplate.update("UPDATE produtos SET disponivel = true WHERE id = 9");
+        cardapioSnapshotService.reconstruir(3L);
+    }
+
+    @Test
+    @DisplayName("Cliente que aceita gzip deve receber o snapshot já comprimido")
+    void testCardapioSnapshot_Gzip() throws Exception {
+        byte[] corpo = mockMvc.perform(get("/api/restaurantes/2/produtos").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(corpo))) {
+            String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"X-Burger\""));
+        }
+
+        mockMvc.perform(get("/api/restaurantes/2/produtos").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.data.totalElements").value(3));
+    }
+
+    @Test
+    @DisplayName("Filtro abertoAgora usa a grade de horários (Sushi Master fica fechado a semana toda no data.sql)")
+    void testListarRestaurantes_AbertoAgora() throws Exception {
+        mockMvc.perform(get("/api/restaurantes?abertoAgora=true&sort=nome"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(2))
+                .andExpect(jsonPath("$.data.content[0].nome").value("Burger House"))
+                .andExpect(jsonPath("$.data.content[0].abertoAgora").value(true));
+
+        mockMvc.perform(get("/api/restaurantes?abertoAgora=false&categoria=Japonesa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(1))
+                .andExpect(jsonPath("$.data.content[0].nome").value("Sushi Master"))
+                .andExpect(jsonPath("$.data.content[0].abertoAgora").value(false));
+
+        mockMvc.perform(get("/api/restaurantes/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.horarios.length()").value(7))
+                .andExpect(jsonPath("$.data.horarios[0].diaSemana").value(1));
+    }
+
+    @Test
+    @DisplayName("sort=popular ordena restaurantes e cardápio pelos pedidos recentes (ranking em memória)")
+    void testListarRestaurantes_Popular() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            popularidadeService.onPedidoCriado(new PedidoCriadoEvent(null, 1L, 2L, null, null, Map.of(5L, 2, 6L, 1)));
+        }
+        for (int i = 0; i < 20; i++) {
+            popularidadeService.onPedidoCriado(new PedidoCriadoEvent(null, 1L, 3L, null, null, Map.of(8L, 1)));
+        }
+        for (int i = 0; i < 10; i++) {
+            popularidadeService.onPedidoCriado(new PedidoCriadoEvent(null, 1L, 1L, null, null, Map.of(1L, 1)));
+        }
+        popularidadeService.publicarRetrato();
+
+        mockMvc.perform(get("/api/restaurantes?sort=popular"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(3))
+                .andExpect(jsonPath("$.data.content[0].nome").value("Burger House"))
+                .andExpect(jsonPath("$.data.content[1].nome").value("Sushi Master"))
+                .andExpect(jsonPath("$.data.content[2].nome").value("Pizzaria Bella"));
+
+        // Mesmos filtros da listagem normal (Sushi Master está fechado)
+        mockMvc.perform(get("/api/restaurantes?sort=popular&abertoAgora=true&size=1&page=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(2))
+                .andExpect(jsonPath("$.data.content[0].nome").value("Pizzaria Bella"));
+
+        mockMvc.perform(get("/api/restaurantes/2/produtos?page=0&size=10&sort=popular"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(3))
+                .andExpect(jsonPath("$.data.content[0].nome").value("X-Bacon"))
+                .andExpect(jsonPath("$.data.content[1].nome").value("Batata Frita"))
+                .andExpect(jsonPath("$.data.content[2].nome").value("X-Burger"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.writebehind.StatusPedidoWriteBehind;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Banco próprio: este contexto sobe com o write-behind ligado e não deve recriar o testdb dos demais
+@TestPropertySource(properties = {
+        "write-behind.enabled=true",
+        "write-behind.intervalo=1h",
+        "write-behind.journal=target/write-behind-it.journal",
+        "spring.datasource.url=jdbc:h2:mem:writebehind;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+class StatusPedidoWriteBehindIT extends BaseIntegrationTest {
+
+    @Autowired
+    private StatusPedidoWriteBehind writeBehind;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private String statusNoBanco(Long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM pedidos WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    @DisplayName("PATCH de status responde na hora, mas a linha só muda quando o write-behind descarrega")
+    @WithUserDetails("admin@delivery.com")
+    void testStatusSoChegaAoBancoNaDescarga() throws Exception {
+        mockMvc.perform(patch("/api/pedidos/2/status").param("status", "PREPARANDO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("PREPARANDO"));
+
+        // O flush do commit não pode levar o status junto com o pedido gerenciado
+        entityManager.flush();
+        assertEquals("CONFIRMADO", statusNoBanco(2L));
+
+        // Leitura por id já enxerga o pendente
+        mockMvc.perform(get("/api/pedidos/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("PREPARANDO"));
+        entityManager.flush();
+        assertEquals("CONFIRMADO", statusNoBanco(2L));
+
+        assertEquals(1, writeBehind.descarregar());
+        assertEquals("PREPARANDO", statusNoBanco(2L));
+    }
+}
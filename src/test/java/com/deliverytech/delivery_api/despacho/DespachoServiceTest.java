@@ -0,0 +1,183 @@
+package com.deliverytech.delivery_api.despacho;
+
+import com.deliverytech.delivery_api.config.DespachoProperties;
+import com.deliverytech.delivery_api.dto.ViagemDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.enums.StatusPedido;
+import com.deliverytech.delivery_api.events.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoStore;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.services.PedidoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class DespachoServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    // Restaurante na Av. Paulista; destinos a poucas quadras ou do outro lado da cidade
+    private static final double LAT_REST = -23.5613, LON_REST = -46.6565;
+
+    private final RestauranteRepository restauranteRepository = mock(RestauranteRepository.class);
+    private final ClienteRepository clienteRepository = mock(ClienteRepository.class);
+    private final PedidoService pedidoService = mock(PedidoService.class);
+    private final DespachoProperties properties = new DespachoProperties();
+    private DespachoService despacho;
+
+    @BeforeEach
+    void setUp() {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setId(1L);
+        restaurante.setLatitude(LAT_REST);
+        restaurante.setLongitude(LON_REST);
+        when(restauranteRepository.findById(1L)).thenReturn(Optional.of(restaurante));
+        when(restauranteRepository.findById(2L)).thenReturn(Optional.of(new Restaurante())); // sem coordenadas
+
+        cliente(10L, -23.5650, -46.6520);
+        cliente(11L, -23.5660, -46.6530); // ~150 m do cliente 10
+        cliente(12L, -23.6500, -46.7500); // ~14 km
+
+        properties.setMaxPedidosPorViagem(3);
+        despacho = new DespachoService(properties, mock(PedidoStore.class), restauranteRepository, clienteRepository, pedidoService);
+    }
+
+    private void cliente(long id, double lat, double lon) {
+        Cliente c = new Cliente();
+        c.setId(id);
+        c.setLatitude(lat);
+        c.setLongitude(lon);
+        when(clienteRepository.findById(id)).thenReturn(Optional.of(c));
+    }
+
+    private void pronto(long pedidoId, long restauranteId, long clienteId, int minutos) {
+        despacho.onPedidoStatusAlterado(new PedidoStatusAlteradoEvent(pedidoId, restauranteId, clienteId,
+                StatusPedido.PREPARANDO.name(), "PED-" + pedidoId, BASE.plusMinutes(minutos), "[]", null));
+    }
+
+    @Test
+    @DisplayName("Destinos próximos do mesmo restaurante saem juntos; o lote mais antigo fica com o entregador mais perto")
+    void testAgrupamentoEAtribuicao() {
+        pronto(1L, 1L, 10L, 0);
+        pronto(2L, 1L, 12L, 1);
+        pronto(3L, 1L, 11L, 2);
+        pronto(4L, 2L, 10L, 3); // restaurante sem coordenadas não entra no despacho
+
+        despacho.registrarPosicao(100L, LAT_REST + 0.002, LON_REST, true); // ~200 m
+        despacho.registrarPosicao(200L, LAT_REST + 0.02, LON_REST, true);  // ~2 km
+        despacho.registrarPosicao(300L, LAT_REST, LON_REST + 0.001, false); // mais perto, mas indisponível
+
+        assertEquals(3, despacho.despachar());
+
+        assertEquals(List.of(1L, 3L), despacho.buscarViagem(100L).orElseThrow().getPedidos());
+        assertEquals(List.of(2L), despacho.buscarViagem(200L).orElseThrow().getPedidos());
+        assertTrue(despacho.buscarViagem(300L).isEmpty());
+        assertEquals(0, despacho.quantidadeProntos());
+        assertEquals(0, despacho.despachar());
+    }
+
+    @Test
+    @DisplayName("Entregador fora do raio ou já em viagem não recebe pedidos")
+    void testRaioEOcupado() {
+        properties.setMaxPedidosPorViagem(1);
+        despacho.registrarPosicao(100L, LAT_REST + 0.2, LON_REST, true); // ~22 km
+        pronto(1L, 1L, 10L, 0);
+        assertEquals(0, despacho.despachar());
+
+        despacho.registrarPosicao(100L, LAT_REST, LON_REST, true); // mudou de célula
+        pronto(2L, 1L, 11L, 1);
+        assertEquals(1, despacho.despachar());
+        assertEquals(List.of(1L), despacho.buscarViagem(100L).orElseThrow().getPedidos());
+        assertEquals(1, despacho.quantidadeProntos()); // pedido 2 espera outro entregador
+    }
+
+    @Test
+    @DisplayName("Cancelamento tira o pedido da viagem; viagem vazia libera o entregador")
+    void testCancelamentoLiberaEntregador() {
+        properties.setMaxPedidosPorViagem(1);
+        pronto(1L, 1L, 10L, 0);
+        pronto(2L, 1L, 12L, 1);
+        despacho.registrarPosicao(100L, LAT_REST, LON_REST, true);
+        assertEquals(1, despacho.despachar());
+
+        despacho.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.somenteStatus(1L, StatusPedido.CANCELADO.name()));
+        assertTrue(despacho.buscarViagem(100L).isEmpty());
+
+        assertEquals(1, despacho.despachar());
+        assertEquals(List.of(2L), despacho.buscarViagem(100L).orElseThrow().getPedidos());
+    }
+
+    @Test
+    @DisplayName("Coleta e conclusão atualizam os pedidos da viagem e liberam o entregador")
+    void testColetaEConclusao() {
+        pronto(1L, 1L, 10L, 0);
+        pronto(3L, 1L, 11L, 1);
+        despacho.registrarPosicao(100L, LAT_REST, LON_REST, true);
+        despacho.despachar();
+
+        assertThrows(BusinessException.class, () -> despacho.concluirViagem(100L));
+
+        ViagemDTO viagem = despacho.confirmarColeta(100L);
+        assertTrue(viagem.isColetada());
+        verify(pedidoService).atualizarStatusPedido(1L, StatusPedido.SAIU_PARA_ENTREGA);
+        verify(pedidoService).atualizarStatusPedido(3L, StatusPedido.SAIU_PARA_ENTREGA);
+        assertThrows(BusinessException.class, () -> despacho.confirmarColeta(100L));
+
+        despacho.concluirViagem(100L);
+        verify(pedidoService).atualizarStatusPedido(1L, StatusPedido.ENTREGUE);
+        verify(pedidoService).atualizarStatusPedido(3L, StatusPedido.ENTREGUE);
+        assertTrue(despacho.buscarViagem(100L).isEmpty());
+        verify(restauranteRepository, times(2)).findById(anyLong()); // só na entrada dos pedidos no despacho
+    }
+
+    @Test
+    @DisplayName("Falha ao atualizar um pedido não marca a viagem como coletada; a coleta pode ser repetida")
+    void testColetaComFalhaPodeSerRepetida() {
+        pronto(1L, 1L, 10L, 0);
+        pronto(3L, 1L, 11L, 1);
+        despacho.registrarPosicao(100L, LAT_REST, LON_REST, true);
+        despacho.despachar();
+
+        doThrow(new BusinessException("falha")).doReturn(null)
+                .when(pedidoService).atualizarStatusPedido(3L, StatusPedido.SAIU_PARA_ENTREGA);
+        assertThrows(BusinessException.class, () -> despacho.confirmarColeta(100L));
+        assertFalse(despacho.buscarViagem(100L).orElseThrow().isColetada());
+        assertThrows(BusinessException.class, () -> despacho.concluirViagem(100L));
+
+        assertTrue(despacho.confirmarColeta(100L).isColetada());
+        verify(pedidoService, times(2)).atualizarStatusPedido(3L, StatusPedido.SAIU_PARA_ENTREGA);
+    }
+
+    @Test
+    @DisplayName("Índice: busca por anéis acha o mais próximo e descarta posições expiradas")
+    void testIndiceEspacial() {
+        IndiceEntregadores indice = new IndiceEntregadores(0.01);
+        indice.atualizar(1L, -23.5500, -46.6300, true, 1_000);
+        indice.atualizar(2L, -23.5610, -46.6560, true, 1_000);
+        indice.atualizar(3L, -23.5605, -46.6570, true, 5_000);
+
+        assertEquals(3L, indice.maisProximo(-23.5604, -46.6571, 5, id -> true).orElseThrow().entregadorId());
+        assertEquals(2L, indice.maisProximo(-23.5604, -46.6571, 5, id -> id != 3L).orElseThrow().entregadorId());
+        assertTrue(indice.maisProximo(-23.0, -46.0, 5, id -> true).isEmpty());
+
+        // Entregador 1 vem para perto e sai da célula antiga
+        indice.atualizar(1L, -23.5604, -46.6571, true, 6_000);
+        assertEquals(1L, indice.maisProximo(-23.5604, -46.6571, 5, id -> true).orElseThrow().entregadorId());
+        assertTrue(indice.maisProximo(-23.5500, -46.6300, 0.5, id -> true).isEmpty());
+
+        assertEquals(1, indice.expirar(2_000)); // entregador 2
+        assertNull(indice.buscar(2L));
+        assertEquals(2, indice.tamanho());
+    }
+}
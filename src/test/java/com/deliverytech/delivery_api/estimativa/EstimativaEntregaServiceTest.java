@@ -0,0 +1,174 @@
+package com.deliverytech.delivery_api.estimativa;
+
+import com.deliverytech.delivery_api.config.EstimativaProperties;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.events.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class EstimativaEntregaServiceTest {
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+    private static final LocalDateTime MEIO_DIA = LocalDateTime.of(2025, 6, 2, 12, 0);
+
+    private final RestauranteRepository restauranteRepository = mock(RestauranteRepository.class);
+    private final ClienteRepository clienteRepository = mock(ClienteRepository.class);
+    private final RelogioAjustavel relogio = new RelogioAjustavel();
+    private EstimativaEntregaService estimativa;
+    private long proximoPedido = 1;
+
+    @BeforeEach
+    void setUp() {
+        EstimativaProperties properties = new EstimativaProperties();
+        properties.setMinAmostras(3);
+        estimativa = new EstimativaEntregaService(properties, restauranteRepository, clienteRepository, relogio);
+        when(restauranteRepository.findById(anyLong())).thenReturn(Optional.empty()); // distância padrão (3 km)
+        relogio.em(MEIO_DIA);
+    }
+
+    private static Restaurante restaurante(long id, double lat, double lon) {
+        Restaurante r = new Restaurante();
+        r.setId(id);
+        r.setLatitude(lat);
+        r.setLongitude(lon);
+        return r;
+    }
+
+    private static Cliente cliente(double lat, double lon) {
+        Cliente c = new Cliente();
+        c.setLatitude(lat);
+        c.setLongitude(lon);
+        return c;
+    }
+
+    private void evento(long pedidoId, long restauranteId, LocalDateTime dataPedido, String status) {
+        estimativa.onPedidoStatusAlterado(new PedidoStatusAlteradoEvent(pedidoId, restauranteId, 1L, status,
+                "PED-" + pedidoId, dataPedido, "[]", null));
+    }
+
+    // Pedido criado em dataPedido que saiu para entrega depois de minutosPreparo e foi entregue 15 min depois
+    private void historico(long restauranteId, LocalDateTime dataPedido, int minutosPreparo) {
+        long id = proximoPedido++;
+        relogio.em(dataPedido);
+        evento(id, restauranteId, dataPedido, "PENDENTE");
+        relogio.em(dataPedido.plusMinutes(minutosPreparo));
+        evento(id, restauranteId, dataPedido, "SAIU_PARA_ENTREGA");
+        relogio.em(dataPedido.plusMinutes(minutosPreparo + 15));
+        evento(id, restauranteId, dataPedido, "ENTREGUE");
+    }
+
+    private Pedido pedido(long id, long restauranteId, LocalDateTime dataPedido, String status) {
+        Restaurante r = new Restaurante();
+        r.setId(restauranteId);
+        Pedido p = new Pedido();
+        p.setId(id);
+        p.setRestaurante(r);
+        p.setDataPedido(dataPedido);
+        p.setStatus(status);
+        return p;
+    }
+
+    @Test
+    @DisplayName("Sem histórico usa os padrões: 25 min de preparo + distância real a 20 km/h com fator de rota")
+    void testPadroes() {
+        // ~1,2 km em linha reta
+        Restaurante r = restaurante(1L, -23.5613, -46.6565);
+        Cliente c = cliente(-23.5505, -46.6565);
+        Pedido p = pedido(100L, 1L, MEIO_DIA, "PENDENTE");
+        p.setRestaurante(r);
+
+        LocalDateTime previsao = estimativa.estimar(p, r, c);
+        long deslocamento = Duration.between(MEIO_DIA.plusMinutes(25), previsao).toSeconds();
+        assertEquals(1.2 * 1.3 * 3 * 60, deslocamento, 15); // 3 min/km
+
+        p.setStatus("ENTREGUE");
+        assertNull(estimativa.estimar(p, r, c));
+    }
+
+    @Test
+    @DisplayName("Preparo aprendido por restaurante e hora do dia, com recuo para o restaurante todo")
+    void testPreparoPorHora() {
+        for (int dia = 0; dia < 3; dia++) {
+            historico(1L, MEIO_DIA.plusDays(dia), 40);
+            historico(1L, MEIO_DIA.plusDays(dia).withHour(20), 10);
+        }
+        LocalDateTime hoje = MEIO_DIA.plusDays(10);
+        relogio.em(hoje);
+
+        LocalDateTime almoco = estimativa.estimar(pedido(200L, 1L, hoje, "CONFIRMADO"), null, null);
+        LocalDateTime jantar = estimativa.estimar(pedido(201L, 1L, hoje.withHour(20), "CONFIRMADO"), null, null);
+        LocalDateTime tarde = estimativa.estimar(pedido(202L, 1L, hoje.withHour(15), "CONFIRMADO"), null, null);
+
+        // Sem coordenadas: distância padrão de 3 km * 1,3 a 3 min/km = 11,7 min de deslocamento
+        assertEquals((40 + 11.7) * 60, Duration.between(hoje, almoco).toSeconds(), 1);
+        assertEquals((10 + 11.7) * 60, Duration.between(hoje.withHour(20), jantar).toSeconds(), 1);
+        assertEquals((25 + 11.7) * 60, Duration.between(hoje.withHour(15), tarde).toSeconds(), 1);
+    }
+
+    @Test
+    @DisplayName("Depois de sair para entrega a previsão parte do momento da saída e fica estável")
+    void testSaiuParaEntrega() {
+        relogio.em(MEIO_DIA);
+        evento(300L, 1L, MEIO_DIA, "PREPARANDO");
+        relogio.em(MEIO_DIA.plusMinutes(18));
+        evento(300L, 1L, MEIO_DIA, "SAIU_PARA_ENTREGA");
+
+        LocalDateTime previsao = estimativa.previsao(300L, "SAIU_PARA_ENTREGA").orElseThrow();
+        relogio.em(MEIO_DIA.plusMinutes(25));
+        assertEquals(previsao, estimativa.previsao(300L, "SAIU_PARA_ENTREGA").orElseThrow());
+
+        evento(300L, 1L, MEIO_DIA, "ENTREGUE");
+        assertTrue(estimativa.previsao(300L, "SAIU_PARA_ENTREGA").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Média incremental com janela acompanha mudanças de ritmo")
+    void testMediaMovel() {
+        EstatisticaCorrente estatistica = new EstatisticaCorrente(4);
+        for (int i = 0; i < 4; i++) {
+            estatistica.registrar(20);
+        }
+        assertEquals(20, estatistica.getMedia(), 1e-9);
+        for (int i = 0; i < 20; i++) {
+            estatistica.registrar(40);
+        }
+        assertEquals(40, estatistica.getMedia(), 0.1);
+        assertEquals(4, estatistica.getAmostras());
+    }
+
+    private static final class RelogioAjustavel extends Clock {
+
+        private Instant agora = Instant.EPOCH;
+
+        void em(LocalDateTime dataHora) {
+            agora = dataHora.atZone(ZONA).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONA;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
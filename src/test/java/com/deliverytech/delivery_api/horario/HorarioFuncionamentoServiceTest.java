@@ -0,0 +1,108 @@
+package com.deliverytech.delivery_api.horario;
+
+import com.deliverytech.delivery_api.dto.HorarioFuncionamentoDTO;
+import com.deliverytech.delivery_api.entity.HorarioFuncionamento;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.repository.HorarioFuncionamentoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HorarioFuncionamentoServiceTest {
+
+    // 2025-06-06 é uma sexta-feira (dia 5)
+    private static final LocalDate SEXTA = LocalDate.of(2025, 6, 6);
+
+    private final HorarioFuncionamentoRepository repository = mock(HorarioFuncionamentoRepository.class);
+
+    private static HorarioFuncionamento semanal(long restauranteId, int dia, String abertura, String fechamento) {
+        return new HorarioFuncionamento(null, restauranteId, dia, null,
+                abertura != null ? LocalTime.parse(abertura) : null, fechamento != null ? LocalTime.parse(fechamento) : null);
+    }
+
+    private static HorarioFuncionamento excecao(long restauranteId, LocalDate data, String abertura, String fechamento) {
+        return new HorarioFuncionamento(null, restauranteId, null, data,
+                abertura != null ? LocalTime.parse(abertura) : null, fechamento != null ? LocalTime.parse(fechamento) : null);
+    }
+
+    private HorarioFuncionamentoService servicoEm(LocalDateTime agora) {
+        Clock clock = Clock.fixed(agora.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        return new HorarioFuncionamentoService(repository, clock);
+    }
+
+    @Test
+    @DisplayName("Vários intervalos no dia e intervalo que vira a meia-noite")
+    void testIntervalosEMadrugada() {
+        GradeHorarios grade = GradeHorarios.de(List.of(
+                semanal(1L, 5, "11:00", "15:00"),
+                semanal(1L, 5, "18:00", "02:00")));
+
+        assertFalse(grade.aberto(SEXTA.atTime(10, 59)));
+        assertTrue(grade.aberto(SEXTA.atTime(11, 0)));
+        assertFalse(grade.aberto(SEXTA.atTime(15, 0)));   // fechamento é exclusivo
+        assertTrue(grade.aberto(SEXTA.atTime(23, 59)));
+        assertTrue(grade.aberto(SEXTA.plusDays(1).atTime(1, 30))); // sábado de madrugada, ainda no turno de sexta
+        assertFalse(grade.aberto(SEXTA.plusDays(1).atTime(2, 0)));
+        assertFalse(grade.aberto(SEXTA.plusDays(1).atTime(12, 0))); // sábado sem grade
+        assertTrue(grade.aberto(SEXTA.plusDays(7).atTime(12, 0)));  // semana seguinte
+    }
+
+    @Test
+    @DisplayName("Exceção por data substitui a grade do dia, mas não corta a madrugada da véspera")
+    void testFeriado() {
+        LocalDate feriado = SEXTA.plusDays(1);
+        GradeHorarios grade = GradeHorarios.de(List.of(
+                semanal(1L, 5, "18:00", "02:00"),
+                semanal(1L, 6, "18:00", "02:00"),
+                excecao(1L, feriado, null, null)));
+
+        assertTrue(grade.aberto(feriado.atTime(1, 0)));   // turno de sexta continua
+        assertFalse(grade.aberto(feriado.atTime(20, 0))); // sábado feriado fechado
+        assertFalse(grade.aberto(feriado.plusDays(1).atTime(1, 0)));
+        assertTrue(grade.aberto(feriado.plusDays(7).atTime(20, 0)));
+    }
+
+    @Test
+    @DisplayName("Fechados agora: só restaurantes com grade, numa passada; sem grade é sempre aberto")
+    void testFechadosAgora() {
+        when(repository.findAll()).thenReturn(List.of(
+                semanal(1L, 5, "11:00", "23:00"),
+                semanal(2L, 5, "18:00", "23:00"),
+                semanal(3L, 6, "00:00", "00:00")));
+        HorarioFuncionamentoService servico = servicoEm(SEXTA.atTime(12, 0));
+        servico.carregar();
+
+        assertEquals(Set.of(2L, 3L), servico.fechadosAgora());
+        assertTrue(servico.estaAberto(1L));
+        assertTrue(servico.estaAberto(99L));
+        assertThrows(BusinessException.class, () -> servico.verificarAberto(2L));
+    }
+
+    @Test
+    @DisplayName("Definir sem lista usa o resumo para todos os dias e atualiza a grade; lista inválida é recusada")
+    void testDefinir() {
+        HorarioFuncionamentoService servico = servicoEm(SEXTA.atTime(16, 0));
+
+        List<HorarioFuncionamentoDTO> salvos = servico.definir(1L, null, "11:00-15:00,18:00-23:30");
+        assertEquals(14, salvos.size());
+        verify(repository).deleteByRestauranteId(1L);
+        assertFalse(servico.estaAberto(1L));
+
+        servico.definir(1L, List.of(new HorarioFuncionamentoDTO(5, null, LocalTime.of(16, 0), LocalTime.of(17, 0))), null);
+        assertTrue(servico.estaAberto(1L));
+
+        servico.definir(1L, List.of(), null);
+        assertTrue(servico.fechadosAgora().isEmpty());
+
+        assertThrows(BusinessException.class, () -> servico.definir(1L,
+                List.of(new HorarioFuncionamentoDTO(5, SEXTA, LocalTime.NOON, LocalTime.MIDNIGHT)), null));
+        assertThrows(BusinessException.class, () -> servico.definir(1L,
+                List.of(new HorarioFuncionamentoDTO(5, null, LocalTime.NOON, null)), null));
+    }
+}
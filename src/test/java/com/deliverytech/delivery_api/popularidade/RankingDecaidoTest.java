@@ -0,0 +1,63 @@
+package com.deliverytech.delivery_api.popularidade;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankingDecaidoTest {
+
+    private static final long HORA = 3_600_000L;
+
+    @Test
+    @DisplayName("Os K maiores sobrevivem a muitas chaves pequenas e a pontuação não subestima")
+    void testMaioresEntreMuitasChaves() {
+        RankingDecaido ranking = new RankingDecaido(1024, 4, HORA, 3, 0);
+        for (long chave = 1000; chave < 6000; chave++) {
+            ranking.registrar(chave, 1, 0);
+        }
+        for (int i = 0; i < 300; i++) {
+            ranking.registrar(1L, 1, 0);
+            if (i % 2 == 0) ranking.registrar(2L, 1, 0);
+            if (i % 3 == 0) ranking.registrar(3L, 1, 0);
+        }
+
+        RankingDecaido.Retrato retrato = ranking.retrato(0);
+        assertEquals(List.of(1L, 2L, 3L), retrato.ranking());
+        assertTrue(retrato.pontuacao(1L) >= 300);
+        assertTrue(retrato.pontuacao(1L) < 330);
+    }
+
+    @Test
+    @DisplayName("Pedidos antigos perdem metade do peso a cada meia-vida")
+    void testDecaimento() {
+        RankingDecaido ranking = new RankingDecaido(1024, 4, HORA, 2, 0);
+        for (int i = 0; i < 10; i++) {
+            ranking.registrar(1L, 1, 0);
+        }
+        for (int i = 0; i < 6; i++) {
+            ranking.registrar(2L, 1, 2 * HORA);
+        }
+
+        RankingDecaido.Retrato retrato = ranking.retrato(2 * HORA);
+        assertEquals(2.5, retrato.pontuacao(1L), 1e-9);
+        assertEquals(6.0, retrato.pontuacao(2L), 1e-9);
+        assertEquals(List.of(2L, 1L), retrato.ranking());
+    }
+
+    @Test
+    @DisplayName("Reescala quando o peso dos eventos novos fica grande, sem mudar as pontuações")
+    void testReescala() {
+        RankingDecaido ranking = new RankingDecaido(1024, 4, HORA, 2, 0);
+        ranking.registrar(1L, 8, 0);
+        long depois = 61 * HORA;
+        ranking.registrar(2L, 1, depois);
+
+        RankingDecaido.Retrato retrato = ranking.retrato(depois);
+        assertEquals(8 * Math.pow(2, -61), retrato.pontuacao(1L), 1e-25);
+        assertEquals(1.0, retrato.pontuacao(2L), 1e-9);
+        assertEquals(List.of(2L, 1L), retrato.ranking());
+    }
+}
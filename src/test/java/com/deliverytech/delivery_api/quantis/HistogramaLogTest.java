@@ -0,0 +1,100 @@
+package com.deliverytech.delivery_api.quantis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramaLogTest {
+
+    private static final double ERRO = 0.01;
+
+    private static double exato(double[] ordenados, double q) {
+        return ordenados[(int) Math.ceil(q * ordenados.length) - 1];
+    }
+
+    @Test
+    @DisplayName("Percentis dentro do erro relativo numa distribuição de cauda longa; mínimo, máximo e média exatos")
+    void testPercentis() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        double[] valores = new double[50_000];
+        HistogramaLog histograma = new HistogramaLog(ERRO);
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = Math.exp(3 + aleatorio.nextGaussian()); // log-normal, como valores e tempos de entrega
+            histograma.registrar(valores[i]);
+        }
+        Arrays.sort(valores);
+
+        for (double q : new double[]{0.01, 0.5, 0.95, 0.99, 1.0}) {
+            double esperado = exato(valores, q);
+            assertEquals(esperado, histograma.quantil(q), esperado * ERRO, "q=" + q);
+        }
+        assertEquals(valores[0], histograma.minimo());
+        assertEquals(valores[valores.length - 1], histograma.maximo());
+        assertEquals(Arrays.stream(valores).average().orElseThrow(), histograma.media(), 1e-9);
+        assertEquals(50_000, histograma.quantidade());
+    }
+
+    @Test
+    @DisplayName("Fundir dias é o mesmo que registrar tudo num histograma só")
+    void testFusao() {
+        HistogramaLog segunda = new HistogramaLog(ERRO);
+        HistogramaLog terca = new HistogramaLog(ERRO);
+        HistogramaLog tudo = new HistogramaLog(ERRO);
+        for (int i = 1; i <= 1000; i++) {
+            (i % 3 == 0 ? segunda : terca).registrar(i);
+            tudo.registrar(i);
+        }
+        segunda.fundir(terca);
+
+        assertArrayEquals(tudo.serializar(), segunda.serializar());
+        assertEquals(500, segunda.quantil(0.5), 500 * ERRO);
+    }
+
+    @Test
+    @DisplayName("Fusão com erro relativo diferente (configuração alterada) mantém contagem, extremos e precisão aproximada")
+    void testFusaoErroDiferente() {
+        HistogramaLog antigo = new HistogramaLog(0.05);
+        HistogramaLog atual = new HistogramaLog(ERRO);
+        for (int i = 1; i <= 100; i++) {
+            antigo.registrar(i);
+            atual.registrar(100 + i);
+        }
+        atual.fundir(antigo);
+
+        assertEquals(200, atual.quantidade());
+        assertEquals(1.0, atual.minimo());
+        assertEquals(200.0, atual.maximo());
+        assertEquals(100, atual.quantil(0.5), 100 * (0.05 + ERRO));
+    }
+
+    @Test
+    @DisplayName("Serialização compacta com ida e volta exata, incluindo zeros e valores abaixo de 1")
+    void testSerializacao() {
+        HistogramaLog histograma = new HistogramaLog(ERRO);
+        histograma.registrar(0);
+        histograma.registrar(0.25);
+        for (int i = 0; i < 10_000; i++) {
+            histograma.registrar(20 + (i % 400) * 0.25); // pedidos entre R$ 20 e R$ 120
+        }
+
+        byte[] dados = histograma.serializar();
+        assertTrue(dados.length < 600, "tamanho " + dados.length);
+        HistogramaLog lido = HistogramaLog.desserializar(dados);
+        assertArrayEquals(dados, lido.serializar());
+        assertEquals(histograma.quantidade(), lido.quantidade());
+        assertEquals(0.0, lido.quantil(0));
+        assertEquals(0.25, lido.quantil(2.0 / lido.quantidade()), 0.25 * ERRO);
+        assertEquals(histograma.quantil(0.95), lido.quantil(0.95));
+
+        assertNull(new HistogramaLog(ERRO).quantil(0.5));
+
+        HistogramaLog semZeros = new HistogramaLog(ERRO);
+        semZeros.registrar(30);
+        assertEquals(30.0, semZeros.quantil(0));
+        assertThrows(IllegalArgumentException.class, () -> histograma.registrar(-1));
+    }
+}
@@ -0,0 +1,147 @@
+package com.deliverytech.delivery_api.rastreamento;
+
+import com.deliverytech.delivery_api.config.RastreamentoProperties;
+import com.deliverytech.delivery_api.despacho.DespachoService;
+import com.deliverytech.delivery_api.dto.LotePosicoesDTO;
+import com.deliverytech.delivery_api.entity.Usuario;
+import com.deliverytech.delivery_api.enums.Role;
+import com.deliverytech.delivery_api.estimativa.EstimativaEntregaService;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.exceptions.EntityNotFoundException;
+import com.deliverytech.delivery_api.security.SecurityUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RastreamentoServiceTest {
+
+    private static final long T0 = 1_750_000_000_000L;
+
+    private final DespachoService despachoService = mock(DespachoService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SecurityUtils securityUtils = mock(SecurityUtils.class);
+    private final RastreamentoProperties properties = new RastreamentoProperties();
+    private RastreamentoService rastreamento;
+
+    @BeforeEach
+    void setUp() {
+        properties.setAmostragem(Duration.ofSeconds(15));
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(T0 + 600_000), ZoneOffset.UTC);
+        rastreamento = new RastreamentoService(properties, despachoService, mock(EstimativaEntregaService.class),
+                jdbcTemplate, securityUtils, new SimpleMeterRegistry(), clock);
+    }
+
+    // Um ponto a cada 5 s durante [inicio, inicio + segundos)
+    private LotePosicoesDTO lote(long inicio, int segundos) {
+        int n = segundos / 5;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        long[] instantes = new long[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = -23.56 + i * 0.0001;
+            lon[i] = -46.65;
+            instantes[i] = inicio + i * 5_000L;
+        }
+        return new LotePosicoesDTO(lat, lon, instantes, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> ultimoLoteGravado() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Buffer circular guarda só os pontos mais recentes, em ordem, e descarta pontos fora de ordem")
+    void testBufferCircular() {
+        TrilhaPosicoes trilha = new TrilhaPosicoes(4);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(trilha.registrar(i, i, 1_000L * i, T0));
+        }
+        assertFalse(trilha.registrar(99, 99, 1_000L, T0)); // reenvio antigo
+
+        List<Double> lidos = new ArrayList<>();
+        trilha.ultimos(10, (lat, lon, instante) -> lidos.add(lat));
+        assertEquals(List.of(2.0, 3.0, 4.0, 5.0), lidos);
+
+        lidos.clear();
+        trilha.ultimos(2, (lat, lon, instante) -> lidos.add(lat));
+        assertEquals(List.of(4.0, 5.0), lidos);
+    }
+
+    @Test
+    @DisplayName("Persistência amostra um ponto a cada 15 s e não regrava o que já foi para o banco")
+    void testPersistenciaAmostrada() {
+        rastreamento.registrarLote(7L, lote(T0, 60)); // 12 pontos em 60 s
+        verify(despachoService).registrarPosicao(eq(7L), eq(-23.56 + 11 * 0.0001), eq(-46.65), eq(true));
+
+        assertEquals(4, rastreamento.persistir()); // 0 s, 15 s, 30 s, 45 s
+        List<Object[]> linhas = ultimoLoteGravado();
+        assertEquals(4, linhas.size());
+        assertEquals(7L, linhas.get(0)[0]);
+
+        assertEquals(0, rastreamento.persistir());
+        rastreamento.registrarLote(7L, lote(T0 + 60_000, 30)); // 60 s .. 85 s
+        assertEquals(2, rastreamento.persistir()); // 60 s, 75 s
+    }
+
+    @Test
+    @DisplayName("Falha no banco mantém os pontos para a próxima gravação")
+    void testFalhaNaPersistencia() {
+        rastreamento.registrarLote(7L, lote(T0, 30));
+        doThrow(new DataAccessResourceFailureException("banco fora")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertThrows(DataAccessResourceFailureException.class, () -> rastreamento.persistir());
+
+        reset(jdbcTemplate);
+        assertEquals(2, rastreamento.persistir());
+    }
+
+    @Test
+    @DisplayName("Lote com colunas de tamanhos diferentes é rejeitado; pontos inválidos são descartados")
+    void testValidacaoDoLote() {
+        assertThrows(BusinessException.class, () -> rastreamento.registrarLote(7L,
+                new LotePosicoesDTO(new double[]{1, 2}, new double[]{1}, new long[]{T0, T0}, true)));
+
+        // Latitude inválida e ponto no futuro: nada chega ao despacho
+        rastreamento.registrarLote(7L, new LotePosicoesDTO(new double[]{95, -23.5}, new double[]{-46.6, -46.6},
+                new long[]{T0, T0 + 3_600_000}, true));
+        verifyNoInteractions(despachoService);
+    }
+
+    @Test
+    @DisplayName("Rastreamento: pedido sem entrega é 404 para todos; entrega de outro cliente é 403")
+    void testPosseVerificadaNaEntregaRetornada() {
+        Usuario cliente = new Usuario();
+        cliente.setId(2L);
+        cliente.setRole(Role.CLIENTE);
+        when(securityUtils.getCurrentUser()).thenReturn(cliente);
+
+        when(despachoService.buscarEntrega(1L)).thenReturn(Optional.empty());
+        assertThrows(EntityNotFoundException.class, () -> rastreamento.rastrearPedido(1L));
+
+        when(despachoService.buscarEntrega(2L)).thenReturn(Optional.of(new DespachoService.Entrega(2L, 7L, 1L, 3L, true)));
+        assertThrows(AccessDeniedException.class, () -> rastreamento.rastrearPedido(2L));
+
+        when(despachoService.buscarEntrega(3L)).thenReturn(Optional.of(new DespachoService.Entrega(3L, 7L, 1L, 2L, true)));
+        assertEquals(3L, rastreamento.rastrearPedido(3L).getPedidoId());
+        verify(despachoService, times(1)).buscarEntrega(3L);
+    }
+}
@@ -0,0 +1,133 @@
+package com.deliverytech.delivery_api.resilience;
+
+import com.deliverytech.delivery_api.exceptions.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private Bulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        bulkhead.shutdown();
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private String tarefaBloqueante() {
+        try {
+            liberar.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "ok";
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar imediatamente quando execuções e fila estão cheias")
+    void testRejeitaQuandoLotado() throws Exception {
+        bulkhead = new Bulkhead("teste", 1, 1, Duration.ofSeconds(5), registry);
+
+        CompletableFuture<String> executando = bulkhead.submit(this::tarefaBloqueante);
+        CompletableFuture<String> naFila = bulkhead.submit(this::tarefaBloqueante);
+        CompletableFuture<String> rejeitada = bulkhead.submit(this::tarefaBloqueante);
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> rejeitada.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(BulkheadFullException.class, ex.getCause());
+        assertEquals(1.0, registry.get("bulkhead.rejected").tag("reason", "full").counter().count());
+        assertEquals(1.0, registry.get("bulkhead.queue.depth").gauge().value());
+
+        liberar.countDown();
+        assertEquals("ok", executando.get(1, TimeUnit.SECONDS));
+        assertEquals("ok", naFila.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a tarefa que esperou na fila além do tempo máximo")
+    void testTimeoutNaFila() {
+        bulkhead = new Bulkhead("teste", 1, 5, Duration.ofMillis(100), registry);
+
+        bulkhead.submit(this::tarefaBloqueante);
+        CompletableFuture<String> naFila = bulkhead.submit(() -> "nunca executa");
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> naFila.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(BulkheadFullException.class, ex.getCause());
+        assertEquals(1.0, registry.get("bulkhead.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    @DisplayName("Tarefa abandonada (timeout na fila ou cancelada por quem chamou) libera a vaga da fila")
+    void testTarefaAbandonadaSaiDaFila() throws Exception {
+        bulkhead = new Bulkhead("teste", 1, 1, Duration.ofMillis(100), registry);
+
+        CompletableFuture<String> executando = bulkhead.submit(this::tarefaBloqueante);
+        CompletableFuture<String> expirada = bulkhead.submit(() -> "nunca executa");
+        assertThrows(ExecutionException.class, () -> expirada.get(2, TimeUnit.SECONDS));
+        assertEquals(0.0, registry.get("bulkhead.queue.depth").gauge().value());
+
+        // Com a fila de 1 vaga livre de novo, a próxima entra; cancelada por quem chamou, sai da fila também
+        CompletableFuture<String> cancelada = bulkhead.submit(() -> "nunca executa");
+        assertFalse(cancelada.isCompletedExceptionally());
+        cancelada.cancel(true);
+        assertEquals(0.0, registry.get("bulkhead.queue.depth").gauge().value());
+        assertEquals(0.0, registry.get("bulkhead.rejected").tag("reason", "full").counter().count());
+
+        liberar.countDown();
+        assertEquals("ok", executando.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve propagar a exceção lançada pela tarefa")
+    void testPropagaErroDaTarefa() {
+        bulkhead = new Bulkhead("teste", 2, 2, Duration.ofSeconds(1), registry);
+
+        CompletableFuture<String> future = bulkhead.submit(() -> {
+            throw new IllegalStateException("falhou");
+        });
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("Tarefa roda com o usuário e a requisição de quem chamou, e a thread é limpa depois")
+    void testPropagaContextoDeQuemChamou() throws Exception {
+        bulkhead = new Bulkhead("teste", 1, 1, Duration.ofSeconds(1), registry);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("joao@email.com", null));
+        RequestAttributes requisicao = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(requisicao);
+
+        CompletableFuture<String> usuario = bulkhead.submit(
+                () -> SecurityContextHolder.getContext().getAuthentication().getName());
+        CompletableFuture<RequestAttributes> atributos = bulkhead.submit(RequestContextHolder::getRequestAttributes);
+        assertEquals("joao@email.com", usuario.get(1, TimeUnit.SECONDS));
+        assertSame(requisicao, atributos.get(1, TimeUnit.SECONDS));
+
+        // Mesma (única) thread, chamada de fora de uma requisição: nada da tarefa anterior sobra nela
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+        CompletableFuture<Boolean> limpa = bulkhead.submit(() -> SecurityContextHolder.getContext().getAuthentication() == null
+                && RequestContextHolder.getRequestAttributes() == null);
+        assertTrue(limpa.get(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,110 @@
+package com.deliverytech.delivery_api.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightAspectTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlightAspect aspect = new SingleFlightAspect();
+    private ConsultaLenta consulta;
+    private ConsultaLenta proxy;
+
+    static class ConsultaLenta {
+        final AtomicInteger execucoes = new AtomicInteger();
+        final CountDownLatch liberar = new CountDownLatch(1);
+
+        @SingleFlight
+        public String buscar(Long id) throws InterruptedException {
+            execucoes.incrementAndGet();
+            liberar.await(5, TimeUnit.SECONDS);
+            if (id < 0) {
+                throw new IllegalArgumentException("id inválido");
+            }
+            return "resultado-" + id;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(aspect, "meterRegistry", registry);
+        consulta = new ConsultaLenta();
+        AspectJProxyFactory factory = new AspectJProxyFactory(consulta);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    private void aguardarChamadas(int esperadas) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (registry.find("singleflight.calls").counters().stream().mapToDouble(c -> c.count()).sum() < esperadas
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Chamadas idênticas simultâneas devem executar uma única vez")
+    void testAgrupaChamadasIdenticas() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(10)) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> proxy.buscar(1L)));
+            }
+            aguardarChamadas(10);
+            consulta.liberar.countDown();
+
+            for (Future<String> f : futures) {
+                assertEquals("resultado-1", f.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, consulta.execucoes.get());
+        assertEquals(9.0, registry.get("singleflight.calls").tag("outcome", "collapsed").counter().count());
+        assertEquals(0, aspect.chamadasEmAndamento());
+    }
+
+    @Test
+    @DisplayName("Argumentos diferentes não devem ser agrupados")
+    void testArgumentosDiferentes() throws Exception {
+        consulta.liberar.countDown();
+        assertEquals("resultado-1", proxy.buscar(1L));
+        assertEquals("resultado-2", proxy.buscar(2L));
+        assertEquals(2, consulta.execucoes.get());
+    }
+
+    @Test
+    @DisplayName("A exceção da execução deve ser entregue a todos que aguardavam")
+    void testPropagaExcecao() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(() -> proxy.buscar(-1L)));
+            }
+            aguardarChamadas(3);
+            consulta.liberar.countDown();
+
+            for (Future<String> f : futures) {
+                ExecutionException ex = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+            }
+        }
+        assertEquals(1, consulta.execucoes.get());
+    }
+}
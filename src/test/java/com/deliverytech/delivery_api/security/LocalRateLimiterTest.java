@@ -0,0 +1,67 @@
+package com.deliverytech.delivery_api.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong relogio = new AtomicLong(0);
+    private final LocalRateLimiter rateLimiter = new LocalRateLimiter(relogio::get);
+    private final RateLimiter.Limits limits = new RateLimiter.Limits(10, 5);
+
+    @Test
+    @DisplayName("Deve permitir até a capacidade do bucket e negar o excesso")
+    void testConsumoAteACapacidade() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryConsume("u:1", 1, limits).allowed());
+        }
+
+        RateLimiter.Decision negado = rateLimiter.tryConsume("u:1", 1, limits);
+        assertFalse(negado.allowed());
+        assertEquals(200, negado.retryAfterMillis()); // 1 token a 5 tokens/s
+    }
+
+    @Test
+    @DisplayName("Deve repor tokens com o passar do tempo e respeitar o custo da rota")
+    void testReposicaoECusto() {
+        assertTrue(rateLimiter.tryConsume("ip:10.0.0.1", 10, limits).allowed());
+        assertFalse(rateLimiter.tryConsume("ip:10.0.0.1", 3, limits).allowed());
+
+        relogio.addAndGet(1_000_000_000L); // +1s => +5 tokens
+
+        RateLimiter.Decision decision = rateLimiter.tryConsume("ip:10.0.0.1", 3, limits);
+        assertTrue(decision.allowed());
+        assertEquals(2, decision.remaining());
+    }
+
+    @Test
+    @DisplayName("Buckets de chaves diferentes devem ser independentes")
+    void testChavesIndependentes() {
+        assertTrue(rateLimiter.tryConsume("u:1", 10, limits).allowed());
+        assertTrue(rateLimiter.tryConsume("u:2", 10, limits).allowed());
+        assertEquals(2, rateLimiter.bucketsAtivos());
+    }
+
+    @Test
+    @DisplayName("Não deve conceder mais tokens que a capacidade sob concorrência")
+    void testConcorrencia() throws Exception {
+        AtomicInteger permitidos = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> {
+                    if (rateLimiter.tryConsume("u:concorrente", 1, limits).allowed()) {
+                        permitidos.incrementAndGet();
+                    }
+                });
+            }
+        }
+        assertEquals(10, permitidos.get());
+    }
+}
@@ -0,0 +1,125 @@
+package com.deliverytech.delivery_api.security;
+
+import com.deliverytech.delivery_api.BaseIntegrationTest;
+import com.deliverytech.delivery_api.repository.UsuarioRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * RateLimitFilter na cadeia real do Spring Security. Buckets pequenos e reposição de um token a cada 100s:
+ * nada é reposto durante o teste, então cada requisição consome exatamente o custo da rota.
+ * Cada teste usa IPs e usuários próprios, porque os buckets vivem no contexto compartilhado pela classe.
+ */
+// Banco próprio: este contexto sobe com outros limites e não deve recriar o testdb dos demais
+@TestPropertySource(properties = {
+        "rate-limit.capacity=10",
+        "rate-limit.refill-per-second=0.01",
+        "rate-limit.anonymous-capacity=3",
+        "rate-limit.anonymous-refill-per-second=0.01",
+        "spring.datasource.url=jdbc:h2:mem:ratelimit;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+class RateLimitFilterIT extends BaseIntegrationTest {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private String token(String email) {
+        return "Bearer " + jwtUtil.generateToken(usuarioRepository.findByEmail(email).orElseThrow());
+    }
+
+    private static RequestPostProcessor ip(String endereco) {
+        return request -> {
+            request.setRemoteAddr(endereco);
+            return request;
+        };
+    }
+
+    private static MockHttpServletRequestBuilder cardapio(String endereco) {
+        return get("/api/restaurantes").with(ip(endereco));
+    }
+
+    @Test
+    @DisplayName("Anônimo além da capacidade recebe 429 com Retry-After e corpo no formato ApiResponse")
+    void testAnonimoExcedeCapacidade() throws Exception {
+        for (int restantes = 2; restantes >= 0; restantes--) {
+            mockMvc.perform(cardapio("10.0.0.1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("X-RateLimit-Remaining", String.valueOf(restantes)));
+        }
+
+        // Falta 1 token, reposto a 0,01/s: 100s
+        mockMvc.perform(cardapio("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(header().doesNotExist("X-RateLimit-Remaining"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error.status").value(429));
+    }
+
+    @Test
+    @DisplayName("Anônimos são contados por IP; X-Forwarded-For e token inválido não trocam de bucket")
+    void testChaveAnonimaPorIp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(cardapio("10.0.0.2")).andExpect(status().isOk());
+        }
+        mockMvc.perform(cardapio("10.0.0.2")).andExpect(status().isTooManyRequests());
+
+        // Outro IP tem bucket próprio
+        mockMvc.perform(cardapio("10.0.0.3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-RateLimit-Remaining", "2"));
+
+        // Sem rate-limit.trust-forwarded-for o header é ignorado
+        mockMvc.perform(cardapio("10.0.0.2").header("X-Forwarded-For", "192.168.0.9"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(cardapio("10.0.0.2").header(HttpHeaders.AUTHORIZATION, "Bearer invalido"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Autenticados são contados pelo userId do token, independente do IP")
+    void testChaveAutenticadaPorUsuario() throws Exception {
+        String joao = token("joao@email.com");
+        mockMvc.perform(get("/api/pedidos/meus").header(HttpHeaders.AUTHORIZATION, joao).with(ip("10.0.0.4")))
+                .andExpect(status().is(not(429)))
+                .andExpect(header().string("X-RateLimit-Remaining", "9"));
+        // Mesmo usuário por outro IP: mesmo bucket
+        mockMvc.perform(get("/api/pedidos/meus").header(HttpHeaders.AUTHORIZATION, joao).with(ip("10.0.0.5")))
+                .andExpect(header().string("X-RateLimit-Remaining", "8"));
+        // Outro usuário no mesmo IP: bucket próprio, com a capacidade de autenticado (não a anônima)
+        mockMvc.perform(get("/api/pedidos/recebidos").header(HttpHeaders.AUTHORIZATION, token("pizza@palace.com"))
+                        .with(ip("10.0.0.4")))
+                .andExpect(header().string("X-RateLimit-Remaining", "9"));
+    }
+
+    @Test
+    @DisplayName("Custo por rota: relatórios consomem 10 tokens, percentis só 1 (primeira regra que casar vence)")
+    void testCustoPorRota() throws Exception {
+        String admin = token("admin@delivery.com");
+        mockMvc.perform(get("/api/relatorios/percentis/restaurantes/1/valor-pedido").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-RateLimit-Remaining", "9"));
+
+        // Sobram 9 tokens: um relatório que varre pedidos (custo 10) já não cabe
+        mockMvc.perform(get("/api/relatorios/vendas-por-restaurante").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"));
+
+        // Uma leitura de custo 1 ainda cabe
+        mockMvc.perform(get("/api/restaurantes").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-RateLimit-Remaining", "8"));
+    }
+}
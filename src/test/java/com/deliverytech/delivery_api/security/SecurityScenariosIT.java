@@ -6,6 +6,7 @@ import com.deliverytech.delivery_api.dto.ProdutoRequestDTO;
 import com.deliverytech.delivery_api.entity.Restaurante;
 import com.deliverytech.delivery_api.entity.Usuario;
 import com.deliverytech.delivery_api.enums.Role;
+import com.deliverytech.delivery_api.repository.HorarioFuncionamentoRepository;
 import com.deliverytech.delivery_api.repository.PedidoRepository; //
 import com.deliverytech.delivery_api.repository.ProdutoRepository; //
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
@@ -39,6 +40,9 @@ public class SecurityScenariosIT extends BaseIntegrationTest {
     @Autowired
     private ProdutoRepository produtoRepository;
 
+    @Autowired
+    private HorarioFuncionamentoRepository horarioFuncionamentoRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -47,6 +51,7 @@ public class SecurityScenariosIT extends BaseIntegrationTest {
         // 1. Clean up dependent data (Child tables) first to avoid Foreign Key violations
         pedidoRepository.deleteAll();   // Pedidos reference Clientes and Restaurantes
         produtoRepository.deleteAll();  // Produtos reference Restaurantes
+        horarioFuncionamentoRepository.deleteAll(); // Horários reference Restaurantes
 
         // 2. Clean up User data (Users reference Restaurantes if they are owners)
         usuarioRepository.deleteAll();
@@ -0,0 +1,115 @@
+package com.deliverytech.delivery_api.services;
+
+import com.deliverytech.delivery_api.dto.FilaCozinhaDTO;
+import com.deliverytech.delivery_api.dto.ItemFilaCozinhaDTO;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.events.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.repository.PedidoStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FilaCozinhaServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 19, 0);
+
+    @Mock
+    private PedidoStore pedidoStore;
+
+    @InjectMocks
+    private FilaCozinhaService filaCozinhaService;
+
+    private Pedido pedido(Long id, String status, int minutos) {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setId(1L);
+        return new Pedido(id, "PED-" + id, BASE.plusMinutes(minutos), status, null, null, 1L, restaurante, "1x Pizza");
+    }
+
+    private List<Long> ordem() {
+        return filaCozinhaService.buscarFila(1L).getPedidos().stream().map(ItemFilaCozinhaDTO::getPedidoId).toList();
+    }
+
+    @Test
+    @DisplayName("Fila ordena por estágio (PREPARANDO, CONFIRMADO, PENDENTE) e depois por chegada")
+    void testOrdemDeAtendimento() {
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.de(pedido(1L, "PENDENTE", 0)));
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.de(pedido(2L, "PENDENTE", 5)));
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.de(pedido(3L, "CONFIRMADO", 10)));
+        assertEquals(List.of(3L, 1L, 2L), ordem());
+
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.de(pedido(2L, "PREPARANDO", 5)));
+        assertEquals(List.of(2L, 3L, 1L), ordem());
+
+        FilaCozinhaDTO fila = filaCozinhaService.buscarFila(1L);
+        assertEquals(3, fila.getTotal());
+        assertEquals(1, fila.getPedidos().get(0).getPosicao());
+        assertSame(fila, filaCozinhaService.buscarFila(1L)); // sem mudança, mesma lista pronta
+        verifyNoInteractions(pedidoStore);
+    }
+
+    @Test
+    @DisplayName("Pedido sai da fila ao sair para entrega ou ser cancelado, mesmo com evento só de status")
+    void testRemocao() {
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.de(pedido(1L, "PREPARANDO", 0)));
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.de(pedido(2L, "PENDENTE", 1)));
+
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.de(pedido(1L, "SAIU_PARA_ENTREGA", 0)));
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.somenteStatus(2L, "CANCELADO"));
+
+        assertTrue(ordem().isEmpty());
+        assertEquals(0, filaCozinhaService.buscarFila(99L).getTotal());
+    }
+
+    @Test
+    @DisplayName("Aquecimento carrega os abertos do banco sem sobrescrever eventos mais novos")
+    void testAquecimento() {
+        when(pedidoStore.findByStatus(any(), any(Pageable.class))).thenReturn(Page.empty());
+        when(pedidoStore.findByStatus(eq("PENDENTE"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(pedido(1L, "PENDENTE", 0), pedido(2L, "PENDENTE", 1))));
+
+        // Evento chega enquanto a subida ainda está lendo o banco
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.de(pedido(2L, "PREPARANDO", 1)));
+        filaCozinhaService.aquecer();
+
+        assertEquals(List.of(2L, 1L), ordem());
+        assertEquals("PREPARANDO", filaCozinhaService.buscarFila(1L).getPedidos().get(0).getStatus());
+    }
+
+    @Test
+    @DisplayName("Ressincronização traz pedidos abertos e finalizados por outras instâncias")
+    void testRessincronizacao() {
+        when(pedidoStore.findByStatus(any(), any(Pageable.class))).thenReturn(Page.empty());
+        filaCozinhaService.aquecer();
+        filaCozinhaService.onPedidoStatusAlterado(PedidoStatusAlteradoEvent.de(pedido(1L, "PENDENTE", 0)));
+        FilaCozinhaDTO antes = filaCozinhaService.buscarFila(1L);
+
+        // Outra réplica criou o 2 e finalizou o 1; nenhum evento chegou aqui
+        when(pedidoStore.findByStatus(eq("PREPARANDO"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(pedido(2L, "PREPARANDO", 3))));
+        filaCozinhaService.ressincronizar();
+
+        assertEquals(List.of(2L), ordem());
+        assertNotSame(antes, filaCozinhaService.buscarFila(1L));
+
+        // Sem mudança no banco, a lista pronta é mantida
+        FilaCozinhaDTO depois = filaCozinhaService.buscarFila(1L);
+        filaCozinhaService.ressincronizar();
+        assertSame(depois, filaCozinhaService.buscarFila(1L));
+    }
+}
@@ -4,10 +4,15 @@ import com.deliverytech.delivery_api.dto.*;
 import com.deliverytech.delivery_api.entity.*;
 import com.deliverytech.delivery_api.enums.StatusPedido;
 import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.estimativa.EstimativaEntregaService;
+import com.deliverytech.delivery_api.horario.HorarioFuncionamentoService;
 import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoArquivadoRepository;
 import com.deliverytech.delivery_api.repository.PedidoRepository;
 import com.deliverytech.delivery_api.repository.ProdutoRepository;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.security.TenantContext;
+import com.deliverytech.delivery_api.writebehind.StatusPedidoWriteBehind;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +20,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -31,6 +37,8 @@ class PedidoServiceTest {
     @Mock
     private PedidoRepository pedidoRepository;
     @Mock
+    private PedidoArquivadoRepository pedidoArquivadoRepository;
+    @Mock
     private ClienteRepository clienteRepository;
     @Mock
     private RestauranteRepository restauranteRepository;
@@ -38,6 +46,16 @@ class PedidoServiceTest {
     private ProdutoRepository produtoRepository;
     @Mock
     private ModelMapper modelMapper;
+    @Mock
+    private StatusPedidoWriteBehind statusWriteBehind;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EstimativaEntregaService estimativaEntregaService;
+    @Mock
+    private HorarioFuncionamentoService horarioFuncionamentoService;
+    @Mock
+    private TenantContext tenantContext;
 
     @InjectMocks
     private PedidoService pedidoService;
@@ -123,6 +141,32 @@ class PedidoServiceTest {
         assertTrue(ex.getMessage().contains("Produto indisponível"));
     }
 
+    @Test
+    @DisplayName("Deve recusar pedido para restaurante fora do horário de funcionamento")
+    void testCriarPedido_RestauranteFechado() {
+        // ARRANGE
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setClienteId(1L);
+        dto.setRestauranteId(1L);
+        ItemPedidoDTO item = new ItemPedidoDTO();
+        item.setProdutoId(10L);
+        item.setQuantidade(1);
+        dto.setItens(List.of(item));
+
+        Cliente cliente = new Cliente(); cliente.setAtivo(true);
+        Restaurante restaurante = new Restaurante(); restaurante.setId(1L); restaurante.setAtivo(true);
+
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(restauranteRepository.findById(1L)).thenReturn(Optional.of(restaurante));
+        doThrow(new BusinessException("Restaurante fechado no momento"))
+                .when(horarioFuncionamentoService).verificarAberto(1L);
+
+        // ACT & ASSERT
+        BusinessException ex = assertThrows(BusinessException.class, () -> pedidoService.criarPedido(dto));
+        assertTrue(ex.getMessage().contains("fechado"));
+        verifyNoInteractions(produtoRepository, pedidoRepository);
+    }
+
     @Test
     @DisplayName("Deve atualizar status do pedido com sucesso")
     void testAtualizarStatus() {
@@ -142,6 +186,7 @@ class PedidoServiceTest {
         // ASSERT
         assertNotNull(result);
         verify(pedidoRepository).save(pedido);
+        verify(pedidoRepository, times(1)).findById(pedidoId); // a resposta sai do pedido salvo, sem nova leitura
         assertEquals(StatusPedido.PREPARANDO.name(), pedido.getStatus());
     }
 
@@ -0,0 +1,246 @@
+package com.deliverytech.delivery_api.sharding;
+
+import com.deliverytech.delivery_api.dto.reports.RelatorioProdutoVendido;
+import com.deliverytech.delivery_api.dto.reports.RelatorioRankingCliente;
+import com.deliverytech.delivery_api.dto.reports.RelatorioVendasRestaurante;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exceptions.BusinessException;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardedPedidoStoreTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+    private final RestauranteRepository restauranteRepository = mock(RestauranteRepository.class);
+    private final ClienteRepository clienteRepository = mock(ClienteRepository.class);
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+    private ShardedPedidoStore store;
+
+    @BeforeEach
+    void setUp() {
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("db/shard-pedidos.sql"));
+        for (int i = 0; i < 2; i++) {
+            JdbcDataSource ds = new JdbcDataSource();
+            ds.setURL("jdbc:h2:mem:shard" + i + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+            schema.execute(ds);
+            dataSources.add(ds);
+        }
+
+        when(restauranteRepository.findAllById(any())).thenAnswer(inv -> {
+            Iterable<Long> ids = inv.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false).map(id -> {
+                Restaurante r = new Restaurante();
+                r.setId(id);
+                r.setNome("Restaurante " + id);
+                return r;
+            }).toList();
+        });
+        when(clienteRepository.findAllById(any())).thenAnswer(inv -> {
+            Iterable<Long> ids = inv.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false).map(id -> {
+                Cliente c = new Cliente();
+                c.setId(id);
+                c.setNome("Cliente " + id);
+                return c;
+            }).toList();
+        });
+
+        store = new ShardedPedidoStore(dataSources, new PedidoIdGenerator(0), restauranteRepository, clienteRepository,
+                produtoRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSources.forEach(ds -> new JdbcTemplate(ds).execute("SHUTDOWN"));
+    }
+
+    private Pedido pedido(long restauranteId, long clienteId, String valor, int minutos) {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setId(restauranteId);
+        Pedido pedido = new Pedido();
+        pedido.setNumeroPedido("PED-" + restauranteId + "-" + minutos);
+        pedido.setDataPedido(BASE.plusMinutes(minutos));
+        pedido.setStatus("PENDENTE");
+        pedido.setValorTotal(new BigDecimal(valor));
+        pedido.setClienteId(clienteId);
+        pedido.setRestaurante(restaurante);
+        return store.save(pedido);
+    }
+
+    private long linhasNoShard(int shard) {
+        return new JdbcTemplate(dataSources.get(shard)).queryForObject("SELECT COUNT(*) FROM pedidos", Long.class);
+    }
+
+    @Test
+    @DisplayName("Pedidos são gravados no shard do restaurante e o id carrega o shard de origem")
+    void testRoteamentoPorRestaurante() {
+        Pedido par = pedido(2L, 1L, "10.00", 0);
+        Pedido impar = pedido(3L, 1L, "20.00", 1);
+
+        assertEquals(1, linhasNoShard(0));
+        assertEquals(1, linhasNoShard(1));
+        assertEquals(0, PedidoIdGenerator.shardDe(par.getId()));
+        assertEquals(1, PedidoIdGenerator.shardDe(impar.getId()));
+
+        Pedido encontrado = store.findById(impar.getId()).orElseThrow();
+        assertEquals("PED-3-1", encontrado.getNumeroPedido());
+        assertEquals(new BigDecimal("20.00"), encontrado.getValorTotal());
+        assertEquals("Restaurante 3", encontrado.getRestaurante().getNome());
+        assertTrue(store.findById(999L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Salvar um pedido existente atualiza a linha no mesmo shard")
+    void testAtualizacao() {
+        Pedido pedido = pedido(3L, 1L, "10.00", 0);
+        pedido.setStatus("ENTREGUE");
+        store.save(pedido);
+
+        assertEquals(1, linhasNoShard(1));
+        assertEquals("ENTREGUE", store.findById(pedido.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Pedido sem restaurante não pode ser roteado")
+    void testPedidoSemRestaurante() {
+        assertThrows(BusinessException.class, () -> store.save(new Pedido()));
+    }
+
+    @Test
+    @DisplayName("Listagem global junta os shards respeitando ordenação, página e total")
+    void testScatterGatherPaginado() {
+        // 10 pedidos alternando shards; minuto i => ordem cronológica conhecida
+        for (int i = 0; i < 10; i++) {
+            pedido(i % 2 == 0 ? 2L : 3L, 1L, String.valueOf(10 + i), i);
+        }
+
+        Page<Pedido> primeira = store.findAll(PageRequest.of(0, 4));
+        assertEquals(10, primeira.getTotalElements());
+        assertEquals(3, primeira.getTotalPages());
+        assertEquals(List.of("PED-3-9", "PED-2-8", "PED-3-7", "PED-2-6"),
+                primeira.getContent().stream().map(Pedido::getNumeroPedido).toList());
+
+        Page<Pedido> ultima = store.findAll(PageRequest.of(2, 4));
+        assertEquals(List.of("PED-3-1", "PED-2-0"),
+                ultima.getContent().stream().map(Pedido::getNumeroPedido).toList());
+
+        Page<Pedido> porValor = store.findByClienteId(1L, PageRequest.of(0, 3, Sort.by("valorTotal")));
+        assertEquals(List.of("10.00", "11.00", "12.00"),
+                porValor.getContent().stream().map(p -> p.getValorTotal().toPlainString()).toList());
+
+        Page<Pedido> periodo = store.findByDataPedidoBetween(BASE.plusMinutes(2), BASE.plusMinutes(5), PageRequest.of(0, 10));
+        assertEquals(4, periodo.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Listagem do restaurante consulta apenas o shard dele")
+    void testListagemDoRestaurante() {
+        IntStream.range(0, 5).forEach(i -> pedido(3L, 1L, "10.00", i));
+        pedido(5L, 1L, "10.00", 10); // mesmo shard, outro restaurante
+        pedido(2L, 1L, "10.00", 20);
+
+        Page<Pedido> pagina = store.findByRestauranteIdOrderByDataPedidoDesc(3L, PageRequest.of(1, 2));
+        assertEquals(5, pagina.getTotalElements());
+        assertEquals(List.of("PED-3-2", "PED-3-1"),
+                pagina.getContent().stream().map(Pedido::getNumeroPedido).toList());
+    }
+
+    @Test
+    @DisplayName("Ordenação por campo desconhecido é rejeitada")
+    void testOrdenacaoInvalida() {
+        assertThrows(BusinessException.class,
+                () -> store.findAll(PageRequest.of(0, 5, Sort.by("observacoes; DROP TABLE pedidos"))));
+    }
+
+    @Test
+    @DisplayName("Relatórios agregam os resultados de todos os shards")
+    void testRelatorios() {
+        pedido(2L, 1L, "10.00", 0);
+        pedido(2L, 2L, "15.00", 1);
+        pedido(3L, 1L, "30.00", 2);
+        pedido(3L, 1L, "5.00", 3);
+
+        Map<String, BigDecimal> vendas = store.findTotalVendasPorRestaurante().stream()
+                .collect(Collectors.toMap(RelatorioVendasRestaurante::getRestauranteNome, RelatorioVendasRestaurante::getTotalVendas));
+        assertEquals(0, new BigDecimal("25.00").compareTo(vendas.get("Restaurante 2")));
+        assertEquals(0, new BigDecimal("35.00").compareTo(vendas.get("Restaurante 3")));
+        assertEquals("Restaurante 3", store.findTotalVendasPorRestaurante().get(0).getRestauranteNome());
+
+        List<RelatorioRankingCliente> ranking = store.findRankingClientesPorPedidos();
+        assertEquals("Cliente 1", ranking.get(0).getClienteNome());
+        assertEquals(3L, ranking.get(0).getTotalPedidos());
+        assertEquals(1L, ranking.get(1).getTotalPedidos());
+    }
+
+    @Test
+    @DisplayName("Ranking de vendidos conta em todos os shards os pedidos que citam cada produto")
+    void testVendasPorProduto() {
+        // "Pizza Margherita" existe em dois restaurantes: como no JOIN do banco único, conta em dobro
+        when(produtoRepository.contarPorNome()).thenReturn(List.of(
+                new Object[]{"Pizza Margherita", 2L},
+                new Object[]{"Temaki Atum", 1L},
+                new Object[]{"Sem Vendas", 1L}));
+        Pedido par = pedido(2L, 1L, "10.00", 0);
+        par.setItens("Pizza Margherita, Temaki Atum");
+        store.save(par);
+        Pedido impar = pedido(3L, 1L, "20.00", 1);
+        impar.setItens("Temaki Atum");
+        store.save(impar);
+
+        Map<String, Long> vendas = store.findVendasPorProduto().stream()
+                .collect(Collectors.toMap(RelatorioProdutoVendido::getProdutoNome, RelatorioProdutoVendido::getQuantidadeVendida));
+        assertEquals(Map.of("Pizza Margherita", 2L, "Temaki Atum", 2L), vendas);
+    }
+
+    @Test
+    @DisplayName("Ids são únicos, crescentes e cabem em 53 bits mesmo com relógio parado")
+    void testGeradorDeIds() {
+        Clock parado = Clock.fixed(Instant.from(BASE.atOffset(ZoneOffset.UTC)), ZoneOffset.UTC);
+        PedidoIdGenerator gerador = new PedidoIdGenerator(7, parado);
+
+        long anterior = -1;
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            long id = gerador.proximoId(15);
+            assertTrue(id > anterior);
+            assertTrue(id < (1L << 53));
+            assertEquals(15, PedidoIdGenerator.shardDe(id));
+            ids.add(id);
+            anterior = id;
+        }
+        assertEquals(1000, ids.size());
+        assertThrows(IllegalArgumentException.class, () -> gerador.proximoId(PedidoIdGenerator.MAX_SHARDS));
+    }
+}
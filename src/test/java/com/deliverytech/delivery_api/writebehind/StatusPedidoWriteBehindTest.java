@@ -0,0 +1,146 @@
+package com.deliverytech.delivery_api.writebehind;
+
+import com.deliverytech.delivery_api.config.WriteBehindProperties;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.repository.PedidoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StatusPedidoWriteBehindTest {
+
+    @TempDir
+    Path dir;
+
+    private final PedidoStore pedidoStore = mock(PedidoStore.class);
+    private final WriteBehindProperties properties = new WriteBehindProperties();
+    private StatusPedidoWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setIntervalo(Duration.ofHours(1)); // descargas só quando o teste pedir
+        properties.setJournal(dir.resolve("status.journal").toString());
+        writeBehind = novaInstancia();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.destroy();
+    }
+
+    private StatusPedidoWriteBehind novaInstancia() {
+        StatusPedidoWriteBehind instancia = new StatusPedidoWriteBehind(properties, pedidoStore,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        instancia.iniciar();
+        return instancia;
+    }
+
+    private List<String> journal() throws Exception {
+        return Files.readAllLines(Path.of(properties.getJournal()));
+    }
+
+    @Test
+    @DisplayName("Transições do mesmo pedido são coalescidas e descarregadas em um UPDATE por status")
+    void testDescargaEmLote() throws Exception {
+        writeBehind.registrar(1L, "CONFIRMADO");
+        writeBehind.registrar(1L, "PREPARANDO");
+        writeBehind.registrar(2L, "PREPARANDO");
+        writeBehind.registrar(3L, "CANCELADO");
+        assertEquals(4, journal().size());
+
+        assertEquals(3, writeBehind.descarregar());
+
+        verify(pedidoStore).atualizarStatusEmLote(List.of(1L, 2L), "PREPARANDO");
+        verify(pedidoStore).atualizarStatusEmLote(List.of(3L), "CANCELADO");
+        verifyNoMoreInteractions(pedidoStore);
+        assertTrue(journal().isEmpty());
+        assertEquals(0, writeBehind.descarregar());
+    }
+
+    @Test
+    @DisplayName("Status é carregado uma vez e depois validado em memória; pendente é sobreposto na leitura")
+    void testEstadoEmMemoria() {
+        AtomicInteger cargas = new AtomicInteger();
+        assertEquals("PENDENTE", writeBehind.statusAtual(1L, () -> { cargas.incrementAndGet(); return "PENDENTE"; }));
+        assertEquals("PENDENTE", writeBehind.statusAtual(1L, () -> { cargas.incrementAndGet(); return "PENDENTE"; }));
+        assertEquals(1, cargas.get());
+
+        writeBehind.registrar(1L, "SAIU_PARA_ENTREGA");
+        assertEquals("SAIU_PARA_ENTREGA", writeBehind.statusAtual(1L, () -> fail("não deveria ler o banco")));
+
+        Pedido lido = new Pedido();
+        lido.setId(1L);
+        lido.setStatus("PENDENTE");
+        Pedido comPendente = writeBehind.aplicarPendente(lido);
+        assertEquals("SAIU_PARA_ENTREGA", comPendente.getStatus());
+        assertEquals("PENDENTE", lido.getStatus()); // o pedido lido (possivelmente gerenciado) não muda
+    }
+
+    @Test
+    @DisplayName("Backpressure descarrega na thread do agendador, nunca na de quem registra")
+    void testBackpressureNaThreadDoAgendador() throws Exception {
+        writeBehind.destroy();
+        properties.setMaxPendentes(2);
+        writeBehind = novaInstancia();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> {
+            threads.add(Thread.currentThread().getName());
+            return 2;
+        })
+                .when(pedidoStore).atualizarStatusEmLote(anyCollection(), anyString());
+
+        writeBehind.registrar(1L, "CONFIRMADO");
+        writeBehind.registrar(2L, "CONFIRMADO");
+
+        verify(pedidoStore, timeout(2000)).atualizarStatusEmLote(List.of(1L, 2L), "CONFIRMADO");
+        assertEquals(List.of("write-behind-status"), threads);
+        for (int i = 0; i < 100 && writeBehind.quantidadePendentes() > 0; i++) {
+            Thread.sleep(20); // pendentes saem da memória logo depois do commit da descarga
+        }
+        assertEquals(0, writeBehind.quantidadePendentes());
+    }
+
+    @Test
+    @DisplayName("Falha no banco mantém os pendentes; nova instância reaplica o journal na subida")
+    void testJournalSobreviveAFalhaEReinicio() throws Exception {
+        doThrow(new DataAccessResourceFailureException("banco fora"))
+                .when(pedidoStore).atualizarStatusEmLote(anyCollection(), anyString());
+
+        writeBehind.registrar(7L, "ENTREGUE");
+        assertThrows(DataAccessResourceFailureException.class, () -> writeBehind.descarregar());
+        assertEquals(1, writeBehind.quantidadePendentes());
+        assertEquals(List.of("7;ENTREGUE"), journal());
+
+        // Simula queda no meio de uma escrita: linha final truncada
+        Files.writeString(Path.of(properties.getJournal()), "8;PREP", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+
+        reset(pedidoStore);
+        StatusPedidoWriteBehind reiniciado = novaInstancia();
+        try {
+            verify(pedidoStore).atualizarStatusEmLote(List.of(7L), "ENTREGUE");
+            verifyNoMoreInteractions(pedidoStore);
+            assertEquals(0, reiniciado.quantidadePendentes());
+        } finally {
+            reiniciado.destroy();
+        }
+    }
+}